@@ -0,0 +1,535 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Mediciones de rendimiento de las operaciones principales de {@link Tabla} sobre datos sintéticos con el
+ * esquema de {@code curso1.csv}: carga y guardado de CSV, filtros por valor y por rango, ordenamiento,
+ * eliminación y reemplazo de nulos, muestreo y concatenación.
+ * <p>
+ * Cada medición se repite con el mismo criterio que JMH en modo de tiempo promedio: unas iteraciones de
+ * calentamiento que se descartan y luego las iteraciones medidas, cada una repitiendo la operación hasta
+ * cubrir un tiempo mínimo. El resultado de cada operación se consume para que la JVM no pueda descartarla.
+ * Los resultados se guardan en JSON con el formato de JMH ({@code -rf json}), así que pueden leerlos las
+ * mismas herramientas, y se pueden comparar contra los de una ejecución anterior: si alguna operación se
+ * volvió más lenta que la tolerancia (más allá del error de ambas mediciones), el programa termina con
+ * código 1, de modo que puede frenar una actualización en un script.
+ * <p>
+ * Se ejecuta con la tarea {@code rendimiento} de Gradle, que guarda el JSON en {@code build/rendimiento} si no se
+ * indica otra ruta (los argumentos son opcionales):
+ * <pre>
+ * ./gradlew rendimiento --args="--filas 10000,1000000,10000000 --json resultados.json
+ *      --base anteriores.json --tolerancia 10 --calentamiento 3 --iteraciones 5 --tiempo 500 --solo filtrar"
+ * </pre>
+ * Con 10 millones de filas la tabla ocupa varios gigabytes, por eso la tarea usa un heap de 12 GB; se puede
+ * cambiar con {@code -Prendimiento.heap=4g}.
+ */
+public class Rendimiento {
+    private static final String[] NOMBRES = {"Christopher", "Victoria", "Nancy", "Whitney", "Amy", "James",
+            "Maria", "Robert", "Linda", "Michael", "Sarah", "David", "Laura", "Daniel", "Emily", "Kevin"};
+    private static final String[] APELLIDOS = {"Lee", "Smith", "Nelson", "Thornton", "Garcia", "Johnson",
+            "Brown", "Martinez", "Davis", "Lopez", "Wilson", "Moore", "Taylor", "Clark", "Young", "Walker"};
+    private static final String[] DOMINIOS = {"gmail.com", "hotmail.com", "yahoo.com", "walsh.org", "example.net"};
+    private static final LocalDate FECHA_BASE = LocalDate.of(1998, 1, 1);
+
+    /** Valores t de Student para el intervalo de confianza del 99,9 %, según los grados de libertad (1 a 30). */
+    private static final double[] T_999 = {636.62, 31.60, 12.92, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587,
+            4.437, 4.318, 4.221, 4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850,
+            3.819, 3.792, 3.768, 3.745, 3.725, 3.707, 3.690, 3.674, 3.659, 3.646};
+
+    /** Acumula los resultados de las operaciones para que no se eliminen como código muerto. */
+    private static volatile long sumidero;
+
+    private int calentamiento = 3;
+    private int iteraciones = 5;
+    private long tiempoMinimoNanos = 500_000_000L;
+
+    /**
+     * Una operación a medir; devuelve su resultado para consumirlo.
+     */
+    private interface Operacion {
+        Object ejecutar() throws Exception;
+    }
+
+    /**
+     * El resultado de medir una operación con una cantidad de filas.
+     */
+    private static class Resultado {
+        final String operacion;
+        final int filas;
+        final double[] milisegundos;
+        double promedio;
+        double error;
+
+        Resultado(String operacion, int filas, double[] milisegundos) {
+            this.operacion = operacion;
+            this.filas = filas;
+            this.milisegundos = milisegundos;
+            for (double valor : milisegundos) {
+                promedio += valor;
+            }
+            promedio /= milisegundos.length;
+            if (milisegundos.length > 1) {
+                double cuadrados = 0;
+                for (double valor : milisegundos) {
+                    cuadrados += (valor - promedio) * (valor - promedio);
+                }
+                double desvio = Math.sqrt(cuadrados / (milisegundos.length - 1));
+                int grados = milisegundos.length - 1;
+                error = (grados <= T_999.length ? T_999[grados - 1] : 3.291) * desvio / Math.sqrt(milisegundos.length);
+            }
+        }
+
+        String clave() {
+            return operacion + "@" + filas;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Rendimiento rendimiento = new Rendimiento();
+        int[] cantidadesFilas = {10_000, 1_000_000, 10_000_000};
+        String rutaJson = "resultados-rendimiento.json";
+        String rutaBase = null;
+        double tolerancia = 10;
+        String filtro = null;
+        for (int i = 0; i < args.length; i++) {
+            String valor = i + 1 < args.length ? args[i + 1] : null;
+            if (valor == null) {
+                throw new IllegalArgumentException("Falta el valor del argumento " + args[i] + ".");
+            }
+            switch (args[i++]) {
+                case "--filas":
+                    String[] partes = valor.split(",");
+                    cantidadesFilas = new int[partes.length];
+                    for (int p = 0; p < partes.length; p++) {
+                        cantidadesFilas[p] = Integer.parseInt(partes[p].trim().replace("_", ""));
+                    }
+                    break;
+                case "--json":
+                    rutaJson = valor;
+                    break;
+                case "--base":
+                    rutaBase = valor;
+                    break;
+                case "--tolerancia":
+                    tolerancia = Double.parseDouble(valor);
+                    break;
+                case "--calentamiento":
+                    rendimiento.calentamiento = Integer.parseInt(valor);
+                    break;
+                case "--iteraciones":
+                    rendimiento.iteraciones = Integer.parseInt(valor);
+                    break;
+                case "--tiempo":
+                    rendimiento.tiempoMinimoNanos = Long.parseLong(valor) * 1_000_000L;
+                    break;
+                case "--solo":
+                    filtro = valor;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Argumento desconocido: " + args[i - 1] + ".");
+            }
+        }
+        if (rendimiento.iteraciones < 1 || rendimiento.calentamiento < 0) {
+            throw new IllegalArgumentException("Se necesita al menos una iteración medida.");
+        }
+
+        List<Resultado> resultados = new ArrayList<>();
+        Path carpeta = Files.createTempDirectory("rendimiento");
+        try {
+            for (int filas : cantidadesFilas) {
+                resultados.addAll(rendimiento.medir(filas, carpeta, filtro));
+            }
+        } finally {
+            try (var archivos = Files.list(carpeta)) {
+                for (Path archivo : (Iterable<Path>) archivos::iterator) {
+                    Files.deleteIfExists(archivo);
+                }
+            }
+            Files.deleteIfExists(carpeta);
+        }
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-22s %12s %14s %12s%n", "Operación", "Filas", "ms/op", "Error (99,9%)");
+        for (Resultado resultado : resultados) {
+            System.out.printf(Locale.ROOT, "%-22s %12d %14.3f %12.3f%n",
+                    resultado.operacion, resultado.filas, resultado.promedio, resultado.error);
+        }
+        Files.write(Paths.get(rutaJson), rendimiento.aJson(resultados).getBytes(StandardCharsets.UTF_8));
+        System.out.println("Resultados guardados en " + rutaJson);
+
+        if (rutaBase != null) {
+            int regresiones = comparar(resultados, leerResultados(Paths.get(rutaBase)), tolerancia);
+            if (regresiones > 0) {
+                System.out.println(regresiones + " operaciones son más lentas que la base.");
+                System.exit(1);
+            }
+            System.out.println("Ninguna operación es más lenta que la base.");
+        }
+    }
+
+    /**
+     * Genera los datos de la cantidad de filas indicada y mide todas las operaciones sobre ellos.
+     */
+    private List<Resultado> medir(int filas, Path carpeta, String filtro) throws IOException {
+        Path origen = carpeta.resolve("alumnos_" + filas + ".csv");
+        Path destino = carpeta.resolve("guardado_" + filas + ".csv");
+        generarCSV(origen, filas, 42);
+        Tabla tabla = new Tabla("Alumnos", origen.toString());
+
+        Map<String, Operacion> operaciones = new LinkedHashMap<>();
+        operaciones.put("cargarCSV", () -> new Tabla("Alumnos", origen.toString()));
+        operaciones.put("guardarCSV", () -> {
+            tabla.extrarTablaEnCSV(destino.toString());
+            return Files.size(destino);
+        });
+        operaciones.put("filtrarPorColumna", () -> tabla.filtrarPorColumna("Genero", "Femenino"));
+        operaciones.put("filtrarPorRango", () -> tabla.filtrarPorRango("Asistencias", 75, 100));
+        operaciones.put("ordenar", () -> tabla.Ordenamiento(List.of("Promedio", "Nombre"), List.of(false, true)));
+        operaciones.put("eliminarFilasConNAs", tabla::eliminarFilasConNAs);
+        operaciones.put("reemplazarNAs", tabla::reemplazarNAs);
+        operaciones.put("muestreoAleatorio", () -> tabla.muestreoAleatorio(40, 7));
+        operaciones.put("concatenar", () -> new Tabla("Concatenada", tabla, tabla));
+
+        List<Resultado> resultados = new ArrayList<>();
+        for (Map.Entry<String, Operacion> operacion : operaciones.entrySet()) {
+            if (filtro == null || operacion.getKey().contains(filtro)) {
+                resultados.add(medir(operacion.getKey(), filas, operacion.getValue()));
+            }
+        }
+        return resultados;
+    }
+
+    /**
+     * Mide una operación: las iteraciones de calentamiento se descartan y de cada iteración medida se guarda el
+     * tiempo promedio por operación. Lo que la operación imprime por consola se descarta mientras se mide.
+     */
+    private Resultado medir(String nombre, int filas, Operacion operacion) throws IOException {
+        PrintStream consola = System.out;
+        PrintStream silencio = new PrintStream(OutputStream.nullOutputStream());
+        System.out.println("# " + nombre + ", " + filas + " filas");
+        // Se empieza cada medición con el heap limpio, para no cobrarle la basura de la anterior
+        System.gc();
+        double[] milisegundos = new double[iteraciones];
+        for (int iteracion = 0; iteracion < calentamiento + iteraciones; iteracion++) {
+            long operaciones = 0;
+            long inicio = System.nanoTime();
+            long transcurrido;
+            System.setOut(silencio);
+            try {
+                do {
+                    consumir(operacion.ejecutar());
+                    operaciones++;
+                    transcurrido = System.nanoTime() - inicio;
+                } while (transcurrido < tiempoMinimoNanos);
+            } catch (Exception e) {
+                throw new IllegalStateException("La operación " + nombre + " falló.", e);
+            } finally {
+                System.setOut(consola);
+            }
+            double porOperacion = transcurrido / 1e6 / operaciones;
+            boolean medida = iteracion >= calentamiento;
+            if (medida) {
+                milisegundos[iteracion - calentamiento] = porOperacion;
+            }
+            System.out.printf(Locale.ROOT, "%s %d: %.3f ms/op%n", medida ? "Iteración" : "Calentamiento",
+                    (medida ? iteracion - calentamiento : iteracion) + 1, porOperacion);
+        }
+        return new Resultado(nombre, filas, milisegundos);
+    }
+
+    private static void consumir(Object resultado) {
+        if (resultado instanceof Tabla) {
+            sumidero += ((Tabla) resultado).getFilas();
+        } else if (resultado != null) {
+            sumidero += resultado.hashCode();
+        }
+    }
+
+    /**
+     * Escribe un CSV con el esquema de {@code curso1.csv} y valores al azar (con la semilla indicada, para que
+     * los datos sean siempre los mismos). Como en el original, faltan algunos valores de Edad, Promedio y Asistencias.
+     */
+    static void generarCSV(Path destino, int filas, long semilla) throws IOException {
+        Random azar = new Random(semilla);
+        try (BufferedWriter escritor = Files.newBufferedWriter(destino, StandardCharsets.UTF_8)) {
+            escritor.write("ID_Alumno,Nombre,Apellido,Edad,Genero,Fecha_Nacimiento,Email,Promedio,Asistencias\n");
+            StringBuilder linea = new StringBuilder(128);
+            for (int i = 0; i < filas; i++) {
+                String nombre = NOMBRES[azar.nextInt(NOMBRES.length)];
+                String apellido = APELLIDOS[azar.nextInt(APELLIDOS.length)];
+                linea.setLength(0);
+                linea.append(1000 + azar.nextInt(9000)).append(',')
+                        .append(nombre).append(',')
+                        .append(apellido).append(',');
+                if (azar.nextInt(50) != 0) {
+                    linea.append(18 + azar.nextInt(8)).append(".0");
+                }
+                linea.append(',').append(azar.nextBoolean() ? "Femenino" : "Masculino").append(',')
+                        .append(FECHA_BASE.plusDays(azar.nextInt(3650))).append(',')
+                        .append(nombre.toLowerCase(Locale.ROOT)).append(apellido.toLowerCase(Locale.ROOT))
+                        .append(azar.nextInt(100)).append('@').append(DOMINIOS[azar.nextInt(DOMINIOS.length)]).append(',');
+                if (azar.nextInt(10) != 0) {
+                    int centesimos = 500 + azar.nextInt(501);
+                    linea.append(centesimos / 100).append('.').append(centesimos % 100 / 10).append(centesimos % 10);
+                }
+                linea.append(',');
+                if (azar.nextInt(10) != 0) {
+                    linea.append(50 + azar.nextInt(51));
+                }
+                linea.append('\n');
+                escritor.append(linea);
+            }
+        }
+    }
+
+    /**
+     * Arma el JSON de los resultados con la estructura del formato JSON de JMH.
+     */
+    private String aJson(List<Resultado> resultados) {
+        String jdk = System.getProperty("java.version");
+        String vm = System.getProperty("java.vm.name");
+        StringBuilder argumentos = new StringBuilder();
+        for (String argumento : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            argumentos.append(argumentos.length() == 0 ? "" : ", ").append(cadenaJson(argumento));
+        }
+        StringBuilder json = new StringBuilder("[\n");
+        for (int r = 0; r < resultados.size(); r++) {
+            Resultado resultado = resultados.get(r);
+            json.append("    {\n")
+                    .append("        \"benchmark\" : ").append(cadenaJson("Rendimiento." + resultado.operacion)).append(",\n")
+                    .append("        \"mode\" : \"avgt\",\n")
+                    .append("        \"threads\" : 1,\n")
+                    .append("        \"forks\" : 0,\n")
+                    .append("        \"jvm\" : ").append(cadenaJson(System.getProperty("java.home"))).append(",\n")
+                    .append("        \"jvmArgs\" : [").append(argumentos).append("],\n")
+                    .append("        \"jdkVersion\" : ").append(cadenaJson(jdk)).append(",\n")
+                    .append("        \"vmName\" : ").append(cadenaJson(vm)).append(",\n")
+                    .append("        \"warmupIterations\" : ").append(calentamiento).append(",\n")
+                    .append("        \"warmupTime\" : \"").append(tiempoMinimoNanos / 1_000_000).append(" ms\",\n")
+                    .append("        \"measurementIterations\" : ").append(iteraciones).append(",\n")
+                    .append("        \"measurementTime\" : \"").append(tiempoMinimoNanos / 1_000_000).append(" ms\",\n")
+                    .append("        \"params\" : {\n")
+                    .append("            \"filas\" : \"").append(resultado.filas).append("\",\n")
+                    .append("            \"hilos\" : \"").append(EjecucionParalela.getParalelismo()).append("\"\n")
+                    .append("        },\n")
+                    .append("        \"primaryMetric\" : {\n")
+                    .append("            \"score\" : ").append(numeroJson(resultado.promedio)).append(",\n")
+                    .append("            \"scoreError\" : ").append(numeroJson(resultado.error)).append(",\n")
+                    .append("            \"scoreConfidence\" : [")
+                    .append(numeroJson(resultado.promedio - resultado.error)).append(", ")
+                    .append(numeroJson(resultado.promedio + resultado.error)).append("],\n")
+                    .append("            \"scoreUnit\" : \"ms/op\",\n")
+                    .append("            \"rawData\" : [[");
+            for (int i = 0; i < resultado.milisegundos.length; i++) {
+                json.append(i == 0 ? "" : ", ").append(numeroJson(resultado.milisegundos[i]));
+            }
+            json.append("]]\n        }\n    }").append(r + 1 < resultados.size() ? ",\n" : "\n");
+        }
+        return json.append("]\n").toString();
+    }
+
+    private static String numeroJson(double valor) {
+        return Double.isFinite(valor) ? String.format(Locale.ROOT, "%.6f", valor) : "\"NaN\"";
+    }
+
+    private static String cadenaJson(String texto) {
+        if (texto == null) {
+            return "null";
+        }
+        StringBuilder cadena = new StringBuilder("\"");
+        for (char c : texto.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                cadena.append('\\').append(c);
+            } else if (c < 0x20) {
+                cadena.append(String.format("\\u%04x", (int) c));
+            } else {
+                cadena.append(c);
+            }
+        }
+        return cadena.append('"').toString();
+    }
+
+    /**
+     * Lee los resultados de una ejecución anterior (de este programa o de JMH con el mismo nombre de operaciones).
+     * Sólo se usan el nombre de la operación, el parámetro {@code filas}, el promedio y su error.
+     */
+    private static Map<String, Resultado> leerResultados(Path ruta) throws IOException {
+        Object json = new LectorJson(new String(Files.readAllBytes(ruta), StandardCharsets.UTF_8)).leer();
+        if (!(json instanceof List)) {
+            throw new IllegalArgumentException("El archivo " + ruta + " no tiene una lista de resultados.");
+        }
+        Map<String, Resultado> base = new LinkedHashMap<>();
+        for (Object elemento : (List<?>) json) {
+            Map<?, ?> entrada = (Map<?, ?>) elemento;
+            String operacion = (String) entrada.get("benchmark");
+            operacion = operacion.substring(operacion.lastIndexOf('.') + 1);
+            int filas = Integer.parseInt((String) ((Map<?, ?>) entrada.get("params")).get("filas"));
+            Map<?, ?> metrica = (Map<?, ?>) entrada.get("primaryMetric");
+            Resultado resultado = new Resultado(operacion, filas, new double[] {(Double) metrica.get("score")});
+            Object error = metrica.get("scoreError");
+            resultado.error = error instanceof Double ? (Double) error : 0;
+            base.put(resultado.clave(), resultado);
+        }
+        return base;
+    }
+
+    /**
+     * Compara los resultados con los de la base. Una operación es una regresión si su tiempo supera al de la base
+     * en más de la tolerancia y, además, la diferencia es mayor que la suma de los errores de ambas mediciones.
+     *
+     * @return la cantidad de regresiones.
+     */
+    private static int comparar(List<Resultado> resultados, Map<String, Resultado> base, double tolerancia) {
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-22s %12s %12s %12s %9s%n", "Operación", "Filas", "Base", "Actual", "Cambio");
+        int regresiones = 0;
+        for (Resultado actual : resultados) {
+            Resultado anterior = base.get(actual.clave());
+            if (anterior == null) {
+                continue;
+            }
+            double cambio = 100 * (actual.promedio - anterior.promedio) / anterior.promedio;
+            boolean regresion = cambio > tolerancia && actual.promedio - anterior.promedio > actual.error + anterior.error;
+            if (regresion) {
+                regresiones++;
+            }
+            System.out.printf(Locale.ROOT, "%-22s %12d %12.3f %12.3f %+8.1f%%%s%n", actual.operacion, actual.filas,
+                    anterior.promedio, actual.promedio, cambio, regresion ? "  REGRESIÓN" : "");
+        }
+        return regresiones;
+    }
+
+    /**
+     * Lector mínimo de JSON: objetos como {@link Map}, listas como {@link List}, números como {@link Double},
+     * cadenas, booleanos y {@code null}.
+     */
+    private static class LectorJson {
+        private final String texto;
+        private int posicion;
+
+        LectorJson(String texto) {
+            this.texto = texto;
+        }
+
+        Object leer() {
+            saltarEspacios();
+            char c = texto.charAt(posicion);
+            if (c == '{') {
+                Map<String, Object> objeto = new LinkedHashMap<>();
+                posicion++;
+                saltarEspacios();
+                if (texto.charAt(posicion) == '}') {
+                    posicion++;
+                    return objeto;
+                }
+                do {
+                    saltarEspacios();
+                    String clave = leerCadena();
+                    saltarEspacios();
+                    esperar(':');
+                    objeto.put(clave, leer());
+                    saltarEspacios();
+                } while (texto.charAt(posicion++) == ',');
+                verificar(texto.charAt(posicion - 1) == '}');
+                return objeto;
+            } else if (c == '[') {
+                List<Object> lista = new ArrayList<>();
+                posicion++;
+                saltarEspacios();
+                if (texto.charAt(posicion) == ']') {
+                    posicion++;
+                    return lista;
+                }
+                do {
+                    lista.add(leer());
+                    saltarEspacios();
+                } while (texto.charAt(posicion++) == ',');
+                verificar(texto.charAt(posicion - 1) == ']');
+                return lista;
+            } else if (c == '"') {
+                return leerCadena();
+            } else if (texto.startsWith("true", posicion)) {
+                posicion += 4;
+                return Boolean.TRUE;
+            } else if (texto.startsWith("false", posicion)) {
+                posicion += 5;
+                return Boolean.FALSE;
+            } else if (texto.startsWith("null", posicion)) {
+                posicion += 4;
+                return null;
+            }
+            int inicio = posicion;
+            while (posicion < texto.length() && "+-0123456789.eE".indexOf(texto.charAt(posicion)) >= 0) {
+                posicion++;
+            }
+            verificar(posicion > inicio);
+            return Double.parseDouble(texto.substring(inicio, posicion));
+        }
+
+        private String leerCadena() {
+            esperar('"');
+            StringBuilder cadena = new StringBuilder();
+            char c;
+            while ((c = texto.charAt(posicion++)) != '"') {
+                if (c == '\\') {
+                    c = texto.charAt(posicion++);
+                    switch (c) {
+                        case 'n':
+                            c = '\n';
+                            break;
+                        case 't':
+                            c = '\t';
+                            break;
+                        case 'r':
+                            c = '\r';
+                            break;
+                        case 'b':
+                            c = '\b';
+                            break;
+                        case 'f':
+                            c = '\f';
+                            break;
+                        case 'u':
+                            c = (char) Integer.parseInt(texto.substring(posicion, posicion + 4), 16);
+                            posicion += 4;
+                            break;
+                        default:
+                            break;
+                    }
+                }
+                cadena.append(c);
+            }
+            return cadena.toString();
+        }
+
+        private void saltarEspacios() {
+            while (posicion < texto.length() && Character.isWhitespace(texto.charAt(posicion))) {
+                posicion++;
+            }
+        }
+
+        private void esperar(char c) {
+            verificar(texto.charAt(posicion++) == c);
+        }
+
+        private void verificar(boolean condicion) {
+            if (!condicion) {
+                throw new IllegalArgumentException("JSON inválido cerca de la posición " + posicion + ".");
+            }
+        }
+    }
+}
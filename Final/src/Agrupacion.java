@@ -0,0 +1,765 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Agrupación de las filas de una tabla por los valores de una o más columnas, con funciones de agregación
+ * (suma, promedio, mínimo, máximo, conteo y conteo de valores distintos) sobre cada grupo.
+ * <p>
+ * Los grupos se buscan en una tabla hash de direccionamiento abierto que guarda, por grupo, sólo su hash y
+ * su primera fila: las claves se comparan leyendo directamente los almacenamientos de las columnas, y los
+ * acumuladores son arreglos primitivos indexados por grupo, así que no se crea ningún objeto por fila.
+ * Las partes de la tabla se agregan en paralelo con {@link EjecucionParalela}, cada una con su propia tabla
+ * de grupos, y las tablas parciales se combinan en orden, por lo que los grupos del resultado quedan en el
+ * orden de su primera aparición. Los valores nulos de las columnas de agrupación forman su propio grupo,
+ * y las funciones de agregación ignoran los valores nulos.
+ */
+class Agrupacion {
+    /**
+     * Cantidad de filas de cada parte que se agrega por separado. Es mayor que la de los filtros porque
+     * combinar dos tablas de grupos cuesta tanto como la cantidad de grupos, que puede ser grande.
+     */
+    static final int TAMANIO_PARTE = 1 << 18;
+
+    private final String nombreTabla;
+    private final Tabla tabla;
+    private final List<Columna<?>> columnasClave;
+    private final List<Agregado> agregados;
+
+    /**
+     * Constructor que crea una agrupación sin funciones de agregación.
+     *
+     * @param tabla la tabla a agrupar; no se modifica.
+     * @param nombreTabla el nombre de la tabla resultante.
+     * @param columnasClave las columnas por las que se agrupa.
+     */
+    Agrupacion(Tabla tabla, String nombreTabla, List<Columna<?>> columnasClave) {
+        this.tabla = tabla;
+        this.nombreTabla = nombreTabla;
+        this.columnasClave = columnasClave;
+        this.agregados = new ArrayList<>();
+    }
+
+    /**
+     * Agrega la suma de una columna numérica, en una columna {@code suma_<columna>}. La suma de una columna
+     * entera es de tipo {@code Long}; la de una columna decimal, {@code Double}.
+     *
+     * @param nombreColumna el nombre de la columna a sumar.
+     * @return esta agrupación.
+     * @throws IllegalArgumentException si la columna no existe o no es numérica.
+     */
+    public Agrupacion suma(String nombreColumna) {
+        return agregar(Funcion.SUMA, columnaNumerica(nombreColumna));
+    }
+
+    /**
+     * Agrega el promedio de una columna numérica, en una columna {@code promedio_<columna>} de tipo {@code Double}.
+     *
+     * @param nombreColumna el nombre de la columna a promediar.
+     * @return esta agrupación.
+     * @throws IllegalArgumentException si la columna no existe o no es numérica.
+     */
+    public Agrupacion promedio(String nombreColumna) {
+        return agregar(Funcion.PROMEDIO, columnaNumerica(nombreColumna));
+    }
+
+    /**
+     * Agrega el menor valor de una columna, en una columna {@code minimo_<columna>} del mismo tipo.
+     *
+     * @param nombreColumna el nombre de la columna.
+     * @return esta agrupación.
+     * @throws IllegalArgumentException si la columna no existe.
+     */
+    public Agrupacion minimo(String nombreColumna) {
+        return agregar(Funcion.MINIMO, buscarColumna(nombreColumna));
+    }
+
+    /**
+     * Agrega el mayor valor de una columna, en una columna {@code maximo_<columna>} del mismo tipo.
+     *
+     * @param nombreColumna el nombre de la columna.
+     * @return esta agrupación.
+     * @throws IllegalArgumentException si la columna no existe.
+     */
+    public Agrupacion maximo(String nombreColumna) {
+        return agregar(Funcion.MAXIMO, buscarColumna(nombreColumna));
+    }
+
+    /**
+     * Agrega la cantidad de filas de cada grupo, en una columna {@code conteo}.
+     *
+     * @return esta agrupación.
+     */
+    public Agrupacion conteo() {
+        return agregar(Funcion.CONTEO, null);
+    }
+
+    /**
+     * Agrega la cantidad de valores no nulos de una columna, en una columna {@code conteo_<columna>}.
+     *
+     * @param nombreColumna el nombre de la columna.
+     * @return esta agrupación.
+     * @throws IllegalArgumentException si la columna no existe.
+     */
+    public Agrupacion conteo(String nombreColumna) {
+        return agregar(Funcion.CONTEO, buscarColumna(nombreColumna));
+    }
+
+    /**
+     * Agrega la cantidad de valores distintos no nulos de una columna, en una columna {@code conteo_distinto_<columna>}.
+     *
+     * @param nombreColumna el nombre de la columna.
+     * @return esta agrupación.
+     * @throws IllegalArgumentException si la columna no existe.
+     */
+    public Agrupacion conteoDistinto(String nombreColumna) {
+        return agregar(Funcion.CONTEO_DISTINTO, buscarColumna(nombreColumna));
+    }
+
+    /**
+     * Calcula los grupos y sus agregados.
+     *
+     * @return una nueva tabla con una fila por grupo: primero las columnas de agrupación y luego una columna
+     *         por cada función de agregación, en el orden en que se pidieron.
+     * @throws ClassCastException si se pide el mínimo o el máximo de una columna cuyos valores no son comparables.
+     */
+    public Tabla ejecutar() {
+        Medicion medicion = Telemetria.iniciar("agrupar", tabla);
+        Acceso[] claves = new Acceso[columnasClave.size()];
+        for (int c = 0; c < claves.length; c++) {
+            claves[c] = new Acceso(columnasClave.get(c));
+        }
+        Acceso[] valores = new Acceso[agregados.size()];
+        for (int a = 0; a < valores.length; a++) {
+            Columna<?> columna = agregados.get(a).columna;
+            valores[a] = columna == null ? null : new Acceso(columna);
+        }
+
+        TablaGrupos grupos = EjecucionParalela.reducir(tabla.getFilas(), TAMANIO_PARTE, (desde, hasta) -> {
+            TablaGrupos parcial = new TablaGrupos(claves, crearAcumuladores(valores));
+            for (int fila = desde; fila < hasta; fila++) {
+                parcial.agregarFila(fila);
+            }
+            return parcial;
+        }, TablaGrupos::combinar);
+
+        List<Columna<?>> columnas = new ArrayList<>();
+        for (Columna<?> columnaClave : columnasClave) {
+            Columna<Object> resultado = new Columna<>(columnaClave.getNombre());
+            for (int g = 0; g < grupos.cantidad; g++) {
+                resultado.cargarValor(columnaClave.getValor(grupos.primeras[g]));
+            }
+            columnas.add(resultado);
+        }
+        for (int a = 0; a < agregados.size(); a++) {
+            columnas.add(grupos.acumuladores[a].crearColumna(agregados.get(a).nombreResultado(), grupos.cantidad));
+        }
+        return medicion.terminar(new Tabla(nombreTabla + "_agrupada", grupos.cantidad, columnas));
+    }
+
+    private Agrupacion agregar(Funcion funcion, Columna<?> columna) {
+        agregados.add(new Agregado(funcion, columna));
+        return this;
+    }
+
+    private Columna<?> buscarColumna(String nombreColumna) {
+        Columna<?> columna = tabla.getColumna(nombreColumna);
+        if (columna == null) {
+            throw new IllegalArgumentException("La columna '" + nombreColumna + "' no existe en la tabla.");
+        }
+        return columna;
+    }
+
+    private Columna<?> columnaNumerica(String nombreColumna) {
+        Columna<?> columna = buscarColumna(nombreColumna);
+        Class<?> tipo = columna.getAlmacen().getTipo();
+        if (tipo != null && tipo != Integer.class && tipo != Double.class) {
+            throw new IllegalArgumentException("La columna '" + nombreColumna + "' no es numérica.");
+        }
+        return columna;
+    }
+
+    private Acumulador[] crearAcumuladores(Acceso[] valores) {
+        Acumulador[] acumuladores = new Acumulador[agregados.size()];
+        for (int a = 0; a < acumuladores.length; a++) {
+            switch (agregados.get(a).funcion) {
+                case SUMA:
+                    acumuladores[a] = new Suma(valores[a], false);
+                    break;
+                case PROMEDIO:
+                    acumuladores[a] = new Suma(valores[a], true);
+                    break;
+                case MINIMO:
+                    acumuladores[a] = new Extremo(valores[a], false);
+                    break;
+                case MAXIMO:
+                    acumuladores[a] = new Extremo(valores[a], true);
+                    break;
+                case CONTEO:
+                    acumuladores[a] = new Conteo(valores[a]);
+                    break;
+                default:
+                    acumuladores[a] = new ConteoDistinto(valores[a]);
+                    break;
+            }
+        }
+        return acumuladores;
+    }
+
+    /**
+     * Mezcla los bits de un valor de 64 bits para obtener un hash de 32 bits bien distribuido.
+     */
+    static int mezclar(long valor) {
+        valor ^= valor >>> 33;
+        valor *= 0xff51afd7ed558ccdL;
+        valor ^= valor >>> 33;
+        valor *= 0xc4ceb9fe1a85ec53L;
+        valor ^= valor >>> 33;
+        return (int) valor;
+    }
+
+    private enum Funcion {
+        SUMA("suma"), PROMEDIO("promedio"), MINIMO("minimo"), MAXIMO("maximo"), CONTEO("conteo"), CONTEO_DISTINTO("conteo_distinto");
+
+        private final String prefijo;
+
+        Funcion(String prefijo) {
+            this.prefijo = prefijo;
+        }
+    }
+
+    /**
+     * Una función de agregación pedida, con la columna sobre la que se calcula (null para contar filas).
+     */
+    private static final class Agregado {
+        private final Funcion funcion;
+        private final Columna<?> columna;
+
+        Agregado(Funcion funcion, Columna<?> columna) {
+            this.funcion = funcion;
+            this.columna = columna;
+        }
+
+        String nombreResultado() {
+            return columna == null ? funcion.prefijo : funcion.prefijo + "_" + columna.getNombre();
+        }
+    }
+
+    /**
+     * Acceso directo a los valores de una columna por fila de la tabla. Si la columna es una vista, las filas
+     * se traducen a posiciones del almacenamiento base; los almacenamientos primitivos se leen sin encapsular.
+     */
+    private static final class Acceso {
+        private final AlmacenColumna base;
+        private final int[] seleccion;
+        private final BitSet nulos;
+        private final AlmacenEntero enteros;
+        private final AlmacenDecimal decimales;
+        private final AlmacenFecha fechas;
+        private final AlmacenBooleano booleanos;
+        private final AlmacenDiccionario diccionario;
+        private final int[] rangos;
+        private final boolean primitiva;
+
+        Acceso(Columna<?> columna) {
+            AlmacenColumna almacen = columna.getAlmacen();
+            if (almacen instanceof AlmacenVista) {
+                this.base = ((AlmacenVista) almacen).getBase();
+                this.seleccion = ((AlmacenVista) almacen).getFilas();
+            } else {
+                this.base = almacen;
+                this.seleccion = null;
+            }
+            this.nulos = base.getNulos();
+            this.enteros = base instanceof AlmacenEntero ? (AlmacenEntero) base : null;
+            this.decimales = base instanceof AlmacenDecimal ? (AlmacenDecimal) base : null;
+            this.fechas = base instanceof AlmacenFecha ? (AlmacenFecha) base : null;
+            this.booleanos = base instanceof AlmacenBooleano ? (AlmacenBooleano) base : null;
+            this.diccionario = base instanceof AlmacenDiccionario ? (AlmacenDiccionario) base : null;
+            // Los rangos del diccionario se calculan antes de repartir el recorrido entre hilos
+            this.rangos = diccionario == null ? null : diccionario.getRangos();
+            this.primitiva = enteros != null || decimales != null || fechas != null || booleanos != null || diccionario != null;
+        }
+
+        private int ubicar(int fila) {
+            return seleccion == null ? fila : seleccion[fila];
+        }
+
+        boolean esNulo(int fila) {
+            return nulos.get(ubicar(fila));
+        }
+
+        boolean esEntera() {
+            return enteros != null;
+        }
+
+        long entero(int fila) {
+            return enteros.getEntero(ubicar(fila));
+        }
+
+        double numero(int fila) {
+            int posicion = ubicar(fila);
+            return enteros != null ? enteros.getEntero(posicion) : decimales.getDecimal(posicion);
+        }
+
+        Object valor(int fila) {
+            return base.getValor(ubicar(fila));
+        }
+
+        /**
+         * Representación de 64 bits de un valor no nulo de una columna primitiva, con la misma igualdad que {@code equals}.
+         */
+        private long bits(int posicion) {
+            if (enteros != null) {
+                return enteros.getEntero(posicion);
+            } else if (decimales != null) {
+                return Double.doubleToLongBits(decimales.getDecimal(posicion));
+            } else if (fechas != null) {
+                return fechas.getDias(posicion);
+            } else if (booleanos != null) {
+                return booleanos.getBooleano(posicion) ? 1 : 0;
+            }
+            return diccionario.getCodigo(posicion);
+        }
+
+        /**
+         * Clave de un valor no nulo de una columna primitiva cuyo orden sin signo coincide con {@code compareTo}.
+         */
+        private long orden(int posicion) {
+            if (decimales != null) {
+                return Ordenamiento.claveDecimal(decimales.getDecimal(posicion));
+            } else if (diccionario != null) {
+                return rangos[diccionario.getCodigo(posicion)];
+            } else if (booleanos != null) {
+                return booleanos.getBooleano(posicion) ? 1 : 0;
+            }
+            return bits(posicion) ^ Long.MIN_VALUE;
+        }
+
+        int hash(int fila) {
+            int posicion = ubicar(fila);
+            if (nulos.get(posicion)) {
+                return 0x5bd1e995;
+            }
+            return primitiva ? mezclar(bits(posicion)) : mezclar(base.getValor(posicion).hashCode());
+        }
+
+        boolean iguales(int fila1, int fila2) {
+            int posicion1 = ubicar(fila1);
+            int posicion2 = ubicar(fila2);
+            boolean nulo1 = nulos.get(posicion1);
+            boolean nulo2 = nulos.get(posicion2);
+            if (nulo1 || nulo2) {
+                return nulo1 && nulo2;
+            }
+            return primitiva ? bits(posicion1) == bits(posicion2) : base.getValor(posicion1).equals(base.getValor(posicion2));
+        }
+
+        /**
+         * Compara los valores no nulos de dos filas.
+         */
+        @SuppressWarnings("unchecked")
+        int comparar(int fila1, int fila2) {
+            int posicion1 = ubicar(fila1);
+            int posicion2 = ubicar(fila2);
+            if (primitiva) {
+                return Long.compareUnsigned(orden(posicion1), orden(posicion2));
+            }
+            return ((Comparable<Object>) base.getValor(posicion1)).compareTo(base.getValor(posicion2));
+        }
+    }
+
+    /**
+     * Tabla hash de direccionamiento abierto de los grupos de una parte de la tabla. Cada ranura guarda el
+     * número de grupo más uno (0 es una ranura libre); por grupo se guardan su hash y su primera fila.
+     */
+    private static final class TablaGrupos {
+        private final Acceso[] claves;
+        private final Acumulador[] acumuladores;
+        private int[] ranuras;
+        private int[] hashes;
+        private int[] primeras;
+        private int cantidad;
+
+        TablaGrupos(Acceso[] claves, Acumulador[] acumuladores) {
+            this.claves = claves;
+            this.acumuladores = acumuladores;
+            this.ranuras = new int[16];
+            this.hashes = new int[8];
+            this.primeras = new int[8];
+            for (Acumulador acumulador : acumuladores) {
+                acumulador.crecer(8);
+            }
+        }
+
+        void agregarFila(int fila) {
+            int hash = 1;
+            for (Acceso clave : claves) {
+                hash = 31 * hash + clave.hash(fila);
+            }
+            int grupo = buscarOCrear(hash, fila);
+            for (Acumulador acumulador : acumuladores) {
+                acumulador.acumular(grupo, fila);
+            }
+        }
+
+        /**
+         * Combina los grupos de una tabla de una parte posterior: los grupos nuevos se agregan al final,
+         * con lo que se conserva el orden de primera aparición.
+         */
+        TablaGrupos combinar(TablaGrupos otra) {
+            int[] destino = new int[otra.cantidad];
+            for (int g = 0; g < otra.cantidad; g++) {
+                destino[g] = buscarOCrear(otra.hashes[g], otra.primeras[g]);
+            }
+            for (int a = 0; a < acumuladores.length; a++) {
+                acumuladores[a].combinar(otra.acumuladores[a], destino);
+            }
+            return this;
+        }
+
+        private int buscarOCrear(int hash, int fila) {
+            int mascara = ranuras.length - 1;
+            int i = mezclar(hash) & mascara;
+            while (ranuras[i] != 0) {
+                int grupo = ranuras[i] - 1;
+                if (hashes[grupo] == hash && mismaClave(primeras[grupo], fila)) {
+                    return grupo;
+                }
+                i = (i + 1) & mascara;
+            }
+
+            int grupo = cantidad++;
+            if (grupo == hashes.length) {
+                int capacidad = hashes.length * 2;
+                hashes = Arrays.copyOf(hashes, capacidad);
+                primeras = Arrays.copyOf(primeras, capacidad);
+                for (Acumulador acumulador : acumuladores) {
+                    acumulador.crecer(capacidad);
+                }
+            }
+            hashes[grupo] = hash;
+            primeras[grupo] = fila;
+            ranuras[i] = grupo + 1;
+            if (cantidad * 2 > ranuras.length) {
+                redimensionar();
+            }
+            return grupo;
+        }
+
+        private boolean mismaClave(int fila1, int fila2) {
+            for (Acceso clave : claves) {
+                if (!clave.iguales(fila1, fila2)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void redimensionar() {
+            ranuras = new int[ranuras.length * 2];
+            int mascara = ranuras.length - 1;
+            for (int grupo = 0; grupo < cantidad; grupo++) {
+                int i = mezclar(hashes[grupo]) & mascara;
+                while (ranuras[i] != 0) {
+                    i = (i + 1) & mascara;
+                }
+                ranuras[i] = grupo + 1;
+            }
+        }
+    }
+
+    /**
+     * Acumulador de una función de agregación, con un estado primitivo por grupo.
+     */
+    private abstract static class Acumulador {
+        /** Amplía el estado para que alcance a la cantidad de grupos indicada. */
+        abstract void crecer(int capacidad);
+
+        /** Incorpora una fila a un grupo. */
+        abstract void acumular(int grupo, int fila);
+
+        /** Incorpora el estado de otro acumulador; el grupo {@code g} del otro corresponde a {@code destino[g]}. */
+        abstract void combinar(Acumulador otro, int[] destino);
+
+        /** Crea la columna con el resultado de cada grupo. */
+        abstract Columna<?> crearColumna(String nombre, int grupos);
+    }
+
+    /**
+     * Cuenta las filas de cada grupo, o sólo las que tienen un valor no nulo en una columna.
+     */
+    private static final class Conteo extends Acumulador {
+        private final Acceso valores;
+        private int[] conteos;
+
+        Conteo(Acceso valores) {
+            this.valores = valores;
+            this.conteos = new int[0];
+        }
+
+        @Override
+        void crecer(int capacidad) {
+            conteos = Arrays.copyOf(conteos, capacidad);
+        }
+
+        @Override
+        void acumular(int grupo, int fila) {
+            if (valores == null || !valores.esNulo(fila)) {
+                conteos[grupo]++;
+            }
+        }
+
+        @Override
+        void combinar(Acumulador otro, int[] destino) {
+            int[] otrosConteos = ((Conteo) otro).conteos;
+            for (int g = 0; g < destino.length; g++) {
+                conteos[destino[g]] += otrosConteos[g];
+            }
+        }
+
+        @Override
+        Columna<?> crearColumna(String nombre, int grupos) {
+            Columna<Object> columna = new Columna<>(nombre);
+            for (int g = 0; g < grupos; g++) {
+                columna.cargarValor(conteos[g]);
+            }
+            return columna;
+        }
+    }
+
+    /**
+     * Suma los valores no nulos de una columna numérica; las columnas enteras se suman sin pérdida en un {@code long}.
+     * También calcula el promedio, dividiendo por la cantidad de valores no nulos.
+     */
+    private static final class Suma extends Acumulador {
+        private final Acceso valores;
+        private final boolean promedio;
+        private long[] sumasEnteras;
+        private double[] sumasDecimales;
+        private int[] noNulos;
+
+        Suma(Acceso valores, boolean promedio) {
+            this.valores = valores;
+            this.promedio = promedio;
+            this.sumasEnteras = new long[0];
+            this.sumasDecimales = new double[0];
+            this.noNulos = new int[0];
+        }
+
+        @Override
+        void crecer(int capacidad) {
+            if (valores.esEntera()) {
+                sumasEnteras = Arrays.copyOf(sumasEnteras, capacidad);
+            } else {
+                sumasDecimales = Arrays.copyOf(sumasDecimales, capacidad);
+            }
+            noNulos = Arrays.copyOf(noNulos, capacidad);
+        }
+
+        @Override
+        void acumular(int grupo, int fila) {
+            if (valores.esNulo(fila)) {
+                return;
+            }
+            noNulos[grupo]++;
+            if (valores.esEntera()) {
+                sumasEnteras[grupo] += valores.entero(fila);
+            } else {
+                sumasDecimales[grupo] += valores.numero(fila);
+            }
+        }
+
+        @Override
+        void combinar(Acumulador otro, int[] destino) {
+            Suma otra = (Suma) otro;
+            for (int g = 0; g < destino.length; g++) {
+                int d = destino[g];
+                noNulos[d] += otra.noNulos[g];
+                if (valores.esEntera()) {
+                    sumasEnteras[d] += otra.sumasEnteras[g];
+                } else {
+                    sumasDecimales[d] += otra.sumasDecimales[g];
+                }
+            }
+        }
+
+        @Override
+        Columna<?> crearColumna(String nombre, int grupos) {
+            Columna<Object> columna = new Columna<>(nombre);
+            for (int g = 0; g < grupos; g++) {
+                if (noNulos[g] == 0) {
+                    columna.cargarValor(null);
+                } else if (promedio) {
+                    double suma = valores.esEntera() ? sumasEnteras[g] : sumasDecimales[g];
+                    columna.cargarValor(suma / noNulos[g]);
+                } else if (valores.esEntera()) {
+                    columna.cargarValor(sumasEnteras[g]);
+                } else {
+                    columna.cargarValor(sumasDecimales[g]);
+                }
+            }
+            return columna;
+        }
+    }
+
+    /**
+     * Busca la fila con el menor o el mayor valor no nulo de cada grupo; a igual valor conserva la primera.
+     */
+    private static final class Extremo extends Acumulador {
+        private final Acceso valores;
+        private final boolean maximo;
+        /** Fila del valor elegido más uno; 0 si el grupo todavía no tiene valores no nulos. */
+        private int[] mejores;
+
+        Extremo(Acceso valores, boolean maximo) {
+            this.valores = valores;
+            this.maximo = maximo;
+            this.mejores = new int[0];
+        }
+
+        @Override
+        void crecer(int capacidad) {
+            mejores = Arrays.copyOf(mejores, capacidad);
+        }
+
+        @Override
+        void acumular(int grupo, int fila) {
+            if (!valores.esNulo(fila)) {
+                ofrecer(grupo, fila);
+            }
+        }
+
+        @Override
+        void combinar(Acumulador otro, int[] destino) {
+            int[] otrosMejores = ((Extremo) otro).mejores;
+            for (int g = 0; g < destino.length; g++) {
+                if (otrosMejores[g] != 0) {
+                    ofrecer(destino[g], otrosMejores[g] - 1);
+                }
+            }
+        }
+
+        private void ofrecer(int grupo, int fila) {
+            int actual = mejores[grupo] - 1;
+            if (actual < 0) {
+                mejores[grupo] = fila + 1;
+                return;
+            }
+            int comparacion = valores.comparar(fila, actual);
+            if (maximo ? comparacion > 0 : comparacion < 0) {
+                mejores[grupo] = fila + 1;
+            }
+        }
+
+        @Override
+        Columna<?> crearColumna(String nombre, int grupos) {
+            Columna<Object> columna = new Columna<>(nombre);
+            for (int g = 0; g < grupos; g++) {
+                columna.cargarValor(mejores[g] == 0 ? null : valores.valor(mejores[g] - 1));
+            }
+            return columna;
+        }
+    }
+
+    /**
+     * Cuenta los valores distintos no nulos de cada grupo con un conjunto de direccionamiento abierto de pares
+     * (grupo, fila representante); dos pares son iguales si son del mismo grupo y sus filas tienen valores iguales.
+     */
+    private static final class ConteoDistinto extends Acumulador {
+        private final Acceso valores;
+        private int[] conteos;
+        private int[] ranuras;
+        private int[] grupos;
+        private int[] filas;
+        private int[] hashesValor;
+        private int cantidad;
+
+        ConteoDistinto(Acceso valores) {
+            this.valores = valores;
+            this.conteos = new int[0];
+            this.ranuras = new int[16];
+            this.grupos = new int[8];
+            this.filas = new int[8];
+            this.hashesValor = new int[8];
+        }
+
+        @Override
+        void crecer(int capacidad) {
+            conteos = Arrays.copyOf(conteos, capacidad);
+        }
+
+        @Override
+        void acumular(int grupo, int fila) {
+            if (!valores.esNulo(fila) && agregarPar(grupo, fila, valores.hash(fila))) {
+                conteos[grupo]++;
+            }
+        }
+
+        @Override
+        void combinar(Acumulador otro, int[] destino) {
+            ConteoDistinto otroConteo = (ConteoDistinto) otro;
+            for (int e = 0; e < otroConteo.cantidad; e++) {
+                int grupo = destino[otroConteo.grupos[e]];
+                if (agregarPar(grupo, otroConteo.filas[e], otroConteo.hashesValor[e])) {
+                    conteos[grupo]++;
+                }
+            }
+        }
+
+        /**
+         * Agrega el par si no estaba.
+         *
+         * @return true si el valor no se había visto en el grupo.
+         */
+        private boolean agregarPar(int grupo, int fila, int hashValor) {
+            int mascara = ranuras.length - 1;
+            int i = mezclar(((long) grupo << 32) | (hashValor & 0xffffffffL)) & mascara;
+            while (ranuras[i] != 0) {
+                int e = ranuras[i] - 1;
+                if (grupos[e] == grupo && hashesValor[e] == hashValor && valores.iguales(filas[e], fila)) {
+                    return false;
+                }
+                i = (i + 1) & mascara;
+            }
+
+            int e = cantidad++;
+            if (e == grupos.length) {
+                int capacidad = grupos.length * 2;
+                grupos = Arrays.copyOf(grupos, capacidad);
+                filas = Arrays.copyOf(filas, capacidad);
+                hashesValor = Arrays.copyOf(hashesValor, capacidad);
+            }
+            grupos[e] = grupo;
+            filas[e] = fila;
+            hashesValor[e] = hashValor;
+            ranuras[i] = e + 1;
+            if (cantidad * 2 > ranuras.length) {
+                redimensionar();
+            }
+            return true;
+        }
+
+        private void redimensionar() {
+            ranuras = new int[ranuras.length * 2];
+            int mascara = ranuras.length - 1;
+            for (int e = 0; e < cantidad; e++) {
+                int i = mezclar(((long) grupos[e] << 32) | (hashesValor[e] & 0xffffffffL)) & mascara;
+                while (ranuras[i] != 0) {
+                    i = (i + 1) & mascara;
+                }
+                ranuras[i] = e + 1;
+            }
+        }
+
+        @Override
+        Columna<?> crearColumna(String nombre, int cantidadGrupos) {
+            Columna<Object> columna = new Columna<>(nombre);
+            for (int g = 0; g < cantidadGrupos; g++) {
+                columna.cargarValor(conteos[g]);
+            }
+            return columna;
+        }
+    }
+}
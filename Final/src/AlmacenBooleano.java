@@ -0,0 +1,140 @@
+import java.util.BitSet;
+
+/**
+ * Almacenamiento de una columna de booleanos respaldado por un mapa de bits,
+ * donde cada bit encendido representa un valor {@code true}.
+ */
+class AlmacenBooleano extends AlmacenColumna {
+    private BitSet valores;
+
+    /**
+     * Constructor que crea un almacenamiento vacío.
+     */
+    public AlmacenBooleano() {
+        this.valores = new BitSet();
+    }
+
+    /**
+     * Constructor que adopta, sin copiarlos, el mapa de bits de los valores y el de nulos.
+     *
+     * @param valores las posiciones con valor {@code true}.
+     * @param nulos las posiciones nulas.
+     * @param tamanio la cantidad de valores.
+     */
+    AlmacenBooleano(BitSet valores, BitSet nulos, int tamanio) {
+        this.valores = valores;
+        this.nulos = nulos;
+        this.tamanio = tamanio;
+    }
+
+    /**
+     * Obtiene el booleano de la posición indicada sin encapsularlo. La posición no debe ser nula.
+     *
+     * @param indice la posición del valor.
+     * @return el valor booleano.
+     */
+    public boolean getBooleano(int indice) {
+        return valores.get(indice);
+    }
+
+    /**
+     * Cuenta la cantidad de valores {@code true} no nulos.
+     *
+     * @return la cantidad de valores verdaderos.
+     */
+    public int contarVerdaderos() {
+        return valores.cardinality();
+    }
+
+    /**
+     * Agrega un booleano al final sin encapsularlo.
+     *
+     * @param valor el valor a agregar.
+     */
+    public void agregarBooleano(boolean valor) {
+        valores.set(tamanio++, valor);
+    }
+
+    @Override
+    public Class<?> getTipo() {
+        return Boolean.class;
+    }
+
+    @Override
+    public void asignar(int indice, Object valor) {
+        super.asignar(indice, valor);
+        if (valor == null) {
+            valores.clear(indice);
+        }
+    }
+
+    @Override
+    public void rellenarNulos(Object valor) {
+        // Se asigna el valor a todas las posiciones nulas con una única operación sobre los mapas de bits
+        if ((Boolean) valor) {
+            valores.or(nulos);
+        } else {
+            valores.andNot(nulos);
+        }
+        nulos.clear();
+    }
+
+    /**
+     * Un {@link BitSet} puede redimensionarse al escribir en él, así que no admite escrituras desde varios hilos.
+     */
+    @Override
+    protected boolean admiteEscrituraParalela() {
+        return false;
+    }
+
+    @Override
+    protected Object leer(int indice) {
+        return valores.get(indice);
+    }
+
+    @Override
+    protected void escribir(int indice, Object valor) {
+        valores.set(indice, (Boolean) valor);
+    }
+
+    @Override
+    protected void estimarValores(EstimacionMemoria estimacion) {
+        estimacion.agregarCeldas(EstimacionMemoria.mapaDeBits(valores));
+    }
+
+    @Override
+    protected void asegurarCapacidad(int capacidad) {
+        // El mapa de bits crece automáticamente.
+    }
+
+    @Override
+    protected void desplazar(int desde, int hacia, int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            valores.set(hacia + i, valores.get(desde + i));
+        }
+        valores.clear(hacia + cantidad, desde + cantidad);
+    }
+
+    @Override
+    protected AlmacenColumna crearVacio(int capacidad) {
+        return new AlmacenBooleano();
+    }
+
+    @Override
+    protected void copiarDesde(AlmacenColumna origen, int desde, int hacia) {
+        valores.set(hacia, ((AlmacenBooleano) origen).valores.get(desde));
+    }
+
+    @Override
+    protected void desplazarDesde(AlmacenColumna origen, int cantidad) {
+        valores = ((AlmacenBooleano) origen).valores.get(0, cantidad);
+    }
+
+    @Override
+    protected void copiarRango(AlmacenColumna origen, int desde, int hacia, int cantidad) {
+        BitSet valoresOrigen = ((AlmacenBooleano) origen).valores;
+        for (int i = valoresOrigen.nextSetBit(desde); i >= 0 && i < desde + cantidad; i = valoresOrigen.nextSetBit(i + 1)) {
+            valores.set(hacia + i - desde);
+        }
+    }
+}
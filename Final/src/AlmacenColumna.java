@@ -0,0 +1,555 @@
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Almacenamiento de los valores de una columna. Cada implementación guarda los datos en un
+ * arreglo primitivo (o de referencias, para tipos no primitivos) junto con un mapa de bits
+ * que marca las posiciones nulas, evitando crear un objeto por celda.
+ */
+abstract class AlmacenColumna {
+    protected static final int CAPACIDAD_INICIAL = 16;
+
+    protected BitSet nulos;
+    protected int tamanio;
+    protected volatile boolean compartido;
+    /** Cantidad de columnas que usan este almacenamiento. */
+    private final AtomicInteger columnas = new AtomicInteger();
+
+    /**
+     * Constructor que inicializa un almacenamiento vacío.
+     */
+    protected AlmacenColumna() {
+        this.nulos = new BitSet();
+        this.tamanio = 0;
+    }
+
+    /**
+     * Crea un almacenamiento vacío adecuado para el tipo del valor indicado.
+     *
+     * @param valor un valor no nulo representativo de la columna.
+     * @return un almacenamiento especializado para el tipo del valor.
+     */
+    public static AlmacenColumna crearPara(Object valor) {
+        if (valor instanceof Integer) {
+            return new AlmacenEntero(CAPACIDAD_INICIAL);
+        } else if (valor instanceof Double) {
+            return new AlmacenDecimal(CAPACIDAD_INICIAL);
+        } else if (valor instanceof Boolean) {
+            return new AlmacenBooleano();
+        } else if (valor instanceof String) {
+            return new AlmacenTexto(CAPACIDAD_INICIAL);
+        } else if (valor instanceof LocalDate) {
+            return new AlmacenFecha(CAPACIDAD_INICIAL);
+        }
+        return new AlmacenObjeto(valor.getClass(), CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Obtiene la cantidad de valores (incluidos los nulos) almacenados.
+     *
+     * @return la cantidad de filas del almacenamiento.
+     */
+    public int tamanio() {
+        return tamanio;
+    }
+
+    /**
+     * Indica si el valor en la posición especificada es nulo.
+     *
+     * @param indice la posición a consultar.
+     * @return {@code true} si el valor es nulo.
+     */
+    public boolean esNulo(int indice) {
+        return nulos.get(indice);
+    }
+
+    /**
+     * Agrega un valor nulo al final.
+     */
+    public void agregarNulo() {
+        asegurarCapacidad(tamanio + 1);
+        nulos.set(tamanio++);
+    }
+
+    /**
+     * Obtiene el mapa de bits de posiciones nulas. No debe modificarse desde fuera.
+     *
+     * @return el mapa de bits de nulos.
+     */
+    public BitSet getNulos() {
+        return nulos;
+    }
+
+    /**
+     * Cuenta la cantidad de valores nulos almacenados.
+     *
+     * @return la cantidad de nulos.
+     */
+    public int contarNulos() {
+        return nulos.cardinality();
+    }
+
+    /**
+     * Obtiene la clase de los valores almacenados, o {@code null} si todavía no se conoce.
+     *
+     * @return la clase del tipo de dato.
+     */
+    public abstract Class<?> getTipo();
+
+    /**
+     * Indica si el valor no nulo puede guardarse en este almacenamiento sin conversión.
+     *
+     * @param valor el valor a verificar.
+     * @return {@code true} si el valor es del tipo del almacenamiento.
+     */
+    public boolean acepta(Object valor) {
+        return getTipo() == null || getTipo().isInstance(valor);
+    }
+
+    /**
+     * Obtiene el valor en la posición indicada, o {@code null} si es nulo.
+     *
+     * @param indice la posición del valor.
+     * @return el valor (encapsulado si es primitivo) o {@code null}.
+     */
+    public Object getValor(int indice) {
+        verificarIndice(indice);
+        return nulos.get(indice) ? null : leer(indice);
+    }
+
+    /**
+     * Agrega un valor al final del almacenamiento. El valor debe ser nulo o aceptado por el almacenamiento.
+     *
+     * @param valor el valor a agregar.
+     */
+    public void agregar(Object valor) {
+        asegurarCapacidad(tamanio + 1);
+        if (valor == null) {
+            nulos.set(tamanio);
+        } else {
+            escribir(tamanio, valor);
+        }
+        tamanio++;
+    }
+
+    /**
+     * Reemplaza el valor en la posición indicada. El valor debe ser nulo o aceptado por el almacenamiento.
+     *
+     * @param indice la posición a modificar.
+     * @param valor el nuevo valor.
+     */
+    public void asignar(int indice, Object valor) {
+        verificarIndice(indice);
+        if (valor == null) {
+            nulos.set(indice);
+        } else {
+            nulos.clear(indice);
+            escribir(indice, valor);
+        }
+    }
+
+    /**
+     * Reemplaza todos los valores nulos por el valor indicado. Las posiciones nulas se recorren por partes,
+     * en paralelo si la columna es grande; durante el recorrido el mapa de bits de nulos sólo se lee,
+     * y se vacía al final.
+     *
+     * @param valor el valor no nulo a asignar, aceptado por el almacenamiento.
+     */
+    public void rellenarNulos(Object valor) {
+        EjecucionParalela.recorrer(tamanio, (desde, hasta) -> {
+            for (int i = nulos.nextSetBit(desde); i >= 0 && i < hasta; i = nulos.nextSetBit(i + 1)) {
+                escribir(i, valor);
+            }
+        });
+        nulos.clear();
+    }
+
+    /**
+     * Reemplaza cada valor nulo por el último valor no nulo anterior (hacia adelante) o por el primero posterior
+     * (hacia atrás). Los nulos que no tienen un valor de ese lado se mantienen. Las rachas de nulos se recorren
+     * por partes, en paralelo si la columna es grande: cada parte sólo escribe posiciones nulas y sólo lee
+     * posiciones que no lo eran, y el mapa de bits de nulos se actualiza al final.
+     *
+     * @param haciaAdelante {@code true} para usar el valor anterior, {@code false} para usar el siguiente.
+     * @return la cantidad de nulos reemplazados.
+     */
+    public int rellenarNulosConVecinos(boolean haciaAdelante) {
+        int primero = nulos.nextClearBit(0);
+        int ultimo = tamanio == 0 ? -1 : nulos.previousClearBit(tamanio - 1);
+        if (primero >= tamanio) {
+            return 0;
+        }
+        if (admiteEscrituraParalela()) {
+            EjecucionParalela.recorrer(tamanio, (desde, hasta) -> rellenarTramos(desde, hasta, haciaAdelante));
+        } else {
+            rellenarTramos(0, tamanio, haciaAdelante);
+        }
+        int desde = haciaAdelante ? primero : 0;
+        int hasta = haciaAdelante ? tamanio : ultimo;
+        int reemplazados = nulos.get(desde, hasta).cardinality();
+        nulos.clear(desde, hasta);
+        return reemplazados;
+    }
+
+    /**
+     * Indica si varias partes pueden escribir valores a la vez en posiciones distintas.
+     *
+     * @return {@code true} salvo que los valores compartan una estructura que no admite escrituras concurrentes.
+     */
+    protected boolean admiteEscrituraParalela() {
+        return true;
+    }
+
+    /**
+     * Rellena las rachas de nulos de {@code [desde, hasta)} con el valor vecino, sin modificar el mapa de nulos.
+     */
+    protected void rellenarTramos(int desde, int hasta, boolean haciaAdelante) {
+        int fin;
+        for (int inicio = nulos.nextSetBit(desde); inicio >= 0 && inicio < hasta; inicio = nulos.nextSetBit(fin)) {
+            fin = Math.min(nulos.nextClearBit(inicio), hasta);
+            int fuente = haciaAdelante ? nulos.previousClearBit(inicio - 1) : nulos.nextClearBit(fin);
+            if (fuente >= 0 && fuente < tamanio) {
+                for (int i = inicio; i < fin; i++) {
+                    copiarDesde(this, fuente, i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Elimina el valor en la posición indicada, desplazando los siguientes una posición.
+     *
+     * @param indice la posición a eliminar.
+     */
+    public void eliminar(int indice) {
+        verificarIndice(indice);
+        desplazar(indice + 1, indice, tamanio - indice - 1);
+        for (int i = indice; i < tamanio - 1; i++) {
+            nulos.set(i, nulos.get(i + 1));
+        }
+        nulos.clear(tamanio - 1);
+        tamanio--;
+    }
+
+    /**
+     * Crea un nuevo almacenamiento del mismo tipo sin las filas marcadas, en una sola pasada.
+     * Los tramos consecutivos de filas que se conservan se copian en bloque.
+     *
+     * @param filasEliminadas el mapa de bits con las filas a eliminar.
+     * @return un nuevo almacenamiento con las filas restantes, en el mismo orden.
+     */
+    public AlmacenColumna eliminarFilas(BitSet filasEliminadas) {
+        int eliminadas = filasEliminadas.get(0, tamanio).cardinality();
+        AlmacenColumna nuevo = crearVacio(tamanio - eliminadas);
+        int destino = 0;
+        int inicio = filasEliminadas.nextClearBit(0);
+        while (inicio < tamanio) {
+            int siguienteEliminada = filasEliminadas.nextSetBit(inicio);
+            int fin = siguienteEliminada < 0 ? tamanio : Math.min(siguienteEliminada, tamanio);
+            nuevo.copiarRango(this, inicio, destino, fin - inicio);
+            for (int i = nulos.nextSetBit(inicio); i >= 0 && i < fin; i = nulos.nextSetBit(i + 1)) {
+                nuevo.nulos.set(destino + i - inicio);
+            }
+            destino += fin - inicio;
+            inicio = filasEliminadas.nextClearBit(fin);
+        }
+        nuevo.tamanio = destino;
+        return nuevo;
+    }
+
+    /**
+     * Crea un nuevo almacenamiento del mismo tipo con los valores de las filas indicadas, en ese orden.
+     * Las posiciones negativas producen valores nulos, como las filas sin pareja de una combinación izquierda.
+     *
+     * @param filas las posiciones a copiar.
+     * @return un nuevo almacenamiento con los valores seleccionados.
+     */
+    public AlmacenColumna seleccionar(int[] filas) {
+        AlmacenColumna nuevo = crearVacio(filas.length);
+        for (int i = 0; i < filas.length; i++) {
+            if (filas[i] < 0 || nulos.get(filas[i])) {
+                nuevo.nulos.set(i);
+            } else {
+                nuevo.copiarDesde(this, filas[i], i);
+            }
+        }
+        nuevo.tamanio = filas.length;
+        return nuevo;
+    }
+
+    /**
+     * Devuelve un almacenamiento capaz de guardar los valores actuales y además el valor indicado.
+     * Se usa al cargar datos sin verificación de tipo, donde una columna puede mezclar tipos.
+     * Por defecto los valores se pasan a un almacenamiento genérico de objetos.
+     *
+     * @param valor el valor no nulo que el almacenamiento actual no acepta.
+     * @return un almacenamiento más general con los mismos valores.
+     */
+    public AlmacenColumna generalizarPara(Object valor) {
+        AlmacenColumna general = new AlmacenObjeto(Object.class, Math.max(tamanio, CAPACIDAD_INICIAL));
+        for (int i = 0; i < tamanio; i++) {
+            general.agregar(getValor(i));
+        }
+        return general;
+    }
+
+    /**
+     * Agrega al final todos los valores de otro almacenamiento de la misma clase y tipo.
+     *
+     * @param otro el almacenamiento cuyos valores se anexan.
+     */
+    public void anexar(AlmacenColumna otro) {
+        asegurarCapacidad(tamanio + otro.tamanio);
+        for (int i = 0; i < otro.tamanio; i++) {
+            if (otro.nulos.get(i)) {
+                nulos.set(tamanio + i);
+            } else {
+                copiarDesde(otro, i, tamanio + i);
+            }
+        }
+        tamanio += otro.tamanio;
+    }
+
+    /**
+     * Crea una copia independiente del almacenamiento.
+     *
+     * @return la copia.
+     */
+    public AlmacenColumna copiar() {
+        AlmacenColumna nuevo = crearVacio(Math.max(tamanio, CAPACIDAD_INICIAL));
+        nuevo.desplazarDesde(this, tamanio);
+        nuevo.nulos = (BitSet) nulos.clone();
+        nuevo.tamanio = tamanio;
+        return nuevo;
+    }
+
+    /**
+     * Devuelve las posiciones cuyo valor es igual al indicado, comparando con {@code equals}.
+     *
+     * @param valor el valor buscado (no nulo).
+     * @return las posiciones coincidentes en orden ascendente.
+     */
+    public int[] buscarIguales(Object valor) {
+        return buscarIguales(valor, null);
+    }
+
+    /**
+     * Devuelve las posiciones, dentro de la selección indicada, cuyo valor es igual al buscado.
+     *
+     * @param valor el valor buscado (no nulo).
+     * @param seleccion las filas a revisar, o {@code null} para revisar todas.
+     * @return las posiciones dentro de la selección (no las filas) que coinciden, en orden ascendente.
+     */
+    public int[] buscarIguales(Object valor, int[] seleccion) {
+        int cantidad = seleccion == null ? tamanio : seleccion.length;
+        return EjecucionParalela.buscar(cantidad, (desde, hasta, filas) -> {
+            for (int k = desde; k < hasta; k++) {
+                int i = seleccion == null ? k : seleccion[k];
+                if (!nulos.get(i) && leer(i).equals(valor)) {
+                    filas.agregar(k);
+                }
+            }
+        });
+    }
+
+    /**
+     * Devuelve las posiciones cuyo valor está dentro del rango cerrado {@code [valorMin, valorMax]}.
+     *
+     * @param valorMin el valor mínimo.
+     * @param valorMax el valor máximo.
+     * @return las posiciones dentro del rango en orden ascendente.
+     * @throws ClassCastException si los valores de la columna no son comparables con los límites.
+     */
+    @SuppressWarnings("rawtypes")
+    public int[] buscarEnRango(Comparable valorMin, Comparable valorMax) {
+        return buscarEnRango(valorMin, valorMax, null);
+    }
+
+    /**
+     * Devuelve las posiciones, dentro de la selección indicada, cuyo valor está dentro del rango cerrado.
+     *
+     * @param valorMin el valor mínimo.
+     * @param valorMax el valor máximo.
+     * @param seleccion las filas a revisar, o {@code null} para revisar todas.
+     * @return las posiciones dentro de la selección (no las filas) que están en el rango, en orden ascendente.
+     * @throws ClassCastException si los valores de la columna no son comparables con los límites.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public int[] buscarEnRango(Comparable valorMin, Comparable valorMax, int[] seleccion) {
+        int cantidad = seleccion == null ? tamanio : seleccion.length;
+        return EjecucionParalela.buscar(cantidad, (desde, hasta, filas) -> {
+            for (int k = desde; k < hasta; k++) {
+                int i = seleccion == null ? k : seleccion[k];
+                if (nulos.get(i)) {
+                    continue;
+                }
+                Object valor = leer(i);
+                if (!(valor instanceof Comparable)) {
+                    continue;
+                }
+                Comparable<Object> comparable = (Comparable<Object>) valor;
+                if (comparable.compareTo(valorMin) >= 0 && comparable.compareTo(valorMax) <= 0) {
+                    filas.agregar(k);
+                }
+            }
+        });
+    }
+
+    /**
+     * Crea una vista de sólo lectura con las filas indicadas, sin copiar los valores.
+     * Este almacenamiento queda marcado como compartido, de modo que la columna que lo contiene
+     * lo copie antes de modificarlo y la vista conserve los valores originales.
+     *
+     * @param filas las posiciones que forman la vista, en ese orden.
+     * @return la vista sobre este almacenamiento.
+     */
+    public AlmacenColumna vista(int[] filas) {
+        return new AlmacenVista(compartir(), filas);
+    }
+
+    /**
+     * Indica si el almacenamiento no admite modificaciones, como las vistas y los trozos enlazados,
+     * y la columna debe reemplazarlo por una copia propia antes de modificarla.
+     *
+     * @return {@code true} si el almacenamiento es de sólo lectura.
+     */
+    public boolean esSoloLectura() {
+        return false;
+    }
+
+    /**
+     * Obtiene un almacenamiento con los mismos valores cuyos arreglos pueden leerse directamente.
+     * Los almacenamientos que sólo representan sus valores de forma indirecta, como los trozos enlazados
+     * o los archivos mapeados en memoria, lo construyen; los demás se devuelven a sí mismos.
+     *
+     * @return este almacenamiento, o uno equivalente con sus valores en arreglos propios.
+     */
+    public AlmacenColumna contiguo() {
+        return this;
+    }
+
+    /**
+     * Marca el almacenamiento como compartido de forma permanente con otro almacenamiento que depende de sus
+     * valores (una vista, una concatenación o un archivo mapeado), de modo que toda columna que lo use lo copie
+     * antes de modificarlo. Como no se sabe cuándo deja de usarse el otro almacenamiento, la marca no se quita.
+     *
+     * @return este almacenamiento.
+     */
+    public AlmacenColumna compartir() {
+        compartido = true;
+        return this;
+    }
+
+    /**
+     * Registra una columna más que usa este almacenamiento. Las columnas que lo comparten lo copian recién antes
+     * de modificarlo (copia en escritura).
+     *
+     * @return este almacenamiento.
+     */
+    AlmacenColumna retener() {
+        columnas.incrementAndGet();
+        return this;
+    }
+
+    /**
+     * Registra que una columna dejó de usar este almacenamiento, por ejemplo porque lo copió para modificarlo.
+     * Si queda una sola columna, esa columna puede volver a modificarlo sin copiarlo.
+     */
+    void liberar() {
+        columnas.decrementAndGet();
+    }
+
+    /**
+     * Indica si otro almacenamiento (por ejemplo, una vista) depende de los valores de este, o si lo usa más
+     * de una columna. Una columna que se descarta sin modificarse no lo libera, así que el almacenamiento puede
+     * seguir contándose como compartido y copiarse de más, pero nunca se modifica mientras otra columna lo usa.
+     *
+     * @return {@code true} si el almacenamiento está compartido.
+     */
+    public boolean estaCompartido() {
+        return compartido || columnas.get() > 1;
+    }
+
+    /**
+     * Estima la memoria del heap que ocupa el almacenamiento: su mapa de nulos y sus valores.
+     *
+     * @param estimacion la estimación a la que se suman los bytes.
+     */
+    public void estimarMemoria(EstimacionMemoria estimacion) {
+        estimacion.agregarNulos(EstimacionMemoria.mapaDeBits(nulos));
+        estimarValores(estimacion);
+    }
+
+    /**
+     * Estima los bytes que ocuparía una copia de este almacenamiento con la cantidad de filas indicada, como
+     * las que crean seleccionar o eliminar filas, o la columna al materializarlo antes de modificarlo.
+     *
+     * @param filas la cantidad de filas de la copia.
+     * @return los bytes estimados de la copia.
+     */
+    public long estimarCopia(int filas) {
+        EstimacionMemoria estimacion = new EstimacionMemoria();
+        estimarMemoria(estimacion);
+        return estimacion.escalar(tamanio, filas);
+    }
+
+    /**
+     * Verifica que el índice esté dentro del rango de valores almacenados.
+     *
+     * @param indice el índice a verificar.
+     * @throws IndexOutOfBoundsException si el índice está fuera de rango.
+     */
+    protected void verificarIndice(int indice) {
+        if (indice < 0 || indice >= tamanio) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " fuera de rango para " + tamanio + " valores.");
+        }
+    }
+
+    /**
+     * Suma a la estimación los bytes de los valores: sus arreglos (separando la capacidad sin usar),
+     * los objetos y textos a los que hacen referencia y las estructuras auxiliares.
+     */
+    protected abstract void estimarValores(EstimacionMemoria estimacion);
+
+    /**
+     * Lee el valor no nulo de la posición indicada.
+     */
+    protected abstract Object leer(int indice);
+
+    /**
+     * Escribe el valor no nulo en la posición indicada.
+     */
+    protected abstract void escribir(int indice, Object valor);
+
+    /**
+     * Garantiza que el arreglo interno pueda contener la cantidad de valores indicada.
+     */
+    protected abstract void asegurarCapacidad(int capacidad);
+
+    /**
+     * Mueve {@code cantidad} valores del arreglo interno desde la posición {@code desde} hacia {@code hacia}.
+     */
+    protected abstract void desplazar(int desde, int hacia, int cantidad);
+
+    /**
+     * Crea un almacenamiento vacío del mismo tipo con la capacidad indicada.
+     */
+    protected abstract AlmacenColumna crearVacio(int capacidad);
+
+    /**
+     * Copia el valor no nulo de la posición {@code desde} de otro almacenamiento del mismo tipo a la posición {@code hacia}.
+     */
+    protected abstract void copiarDesde(AlmacenColumna origen, int desde, int hacia);
+
+    /**
+     * Copia los primeros {@code cantidad} valores de otro almacenamiento del mismo tipo al inicio de este.
+     */
+    protected abstract void desplazarDesde(AlmacenColumna origen, int cantidad);
+
+    /**
+     * Copia {@code cantidad} valores de otro almacenamiento del mismo tipo, desde la posición {@code desde}
+     * del origen hacia la posición {@code hacia} de este, sin modificar los nulos.
+     */
+    protected abstract void copiarRango(AlmacenColumna origen, int desde, int hacia, int cantidad);
+}
@@ -0,0 +1,281 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Almacenamiento de una columna de texto con pocos valores distintos, codificada con diccionario:
+ * cada fila guarda un código entero y cada texto distinto se guarda una única vez.
+ * Las comparaciones de igualdad se hacen entre códigos y el orden entre textos se obtiene
+ * del rango de cada código dentro del diccionario ordenado.
+ */
+class AlmacenDiccionario extends AlmacenColumna {
+    private int[] codigos;
+    private List<String> diccionario;
+    private Map<String, Integer> codigoPorValor;
+    private int[] rangos;
+
+    /**
+     * Constructor que crea un almacenamiento vacío con la capacidad indicada.
+     *
+     * @param capacidad la capacidad inicial del arreglo de códigos.
+     */
+    public AlmacenDiccionario(int capacidad) {
+        this(capacidad, new ArrayList<>(), new HashMap<>());
+    }
+
+    private AlmacenDiccionario(int capacidad, List<String> diccionario, Map<String, Integer> codigoPorValor) {
+        this.codigos = new int[Math.max(capacidad, 1)];
+        this.diccionario = diccionario;
+        this.codigoPorValor = codigoPorValor;
+    }
+
+    /**
+     * Constructor que adopta, sin copiarlos, los códigos de cada fila, su mapa de nulos y el diccionario.
+     *
+     * @param codigos los códigos de cada fila; las posiciones nulas pueden tener cualquier código válido.
+     * @param nulos las posiciones nulas.
+     * @param tamanio la cantidad de valores válidos del arreglo.
+     * @param diccionario los textos distintos, indexados por código.
+     */
+    AlmacenDiccionario(int[] codigos, BitSet nulos, int tamanio, List<String> diccionario) {
+        this(0, diccionario, new HashMap<>());
+        for (int codigo = 0; codigo < diccionario.size(); codigo++) {
+            codigoPorValor.put(diccionario.get(codigo), codigo);
+        }
+        this.codigos = codigos;
+        this.nulos = nulos;
+        this.tamanio = tamanio;
+    }
+
+    /**
+     * Obtiene el código de la posición indicada. La posición no debe ser nula.
+     *
+     * @param indice la posición del valor.
+     * @return el código del valor en el diccionario.
+     */
+    public int getCodigo(int indice) {
+        return codigos[indice];
+    }
+
+    /**
+     * Obtiene el texto asociado a un código del diccionario.
+     *
+     * @param codigo el código del texto.
+     * @return el texto del código.
+     */
+    public String getTexto(int codigo) {
+        return diccionario.get(codigo);
+    }
+
+    /**
+     * Obtiene el código asignado a un texto, o -1 si el texto no está en el diccionario.
+     *
+     * @param valor el texto buscado.
+     * @return el código del texto o -1.
+     */
+    public int buscarCodigo(String valor) {
+        Integer codigo = codigoPorValor.get(valor);
+        return codigo == null ? -1 : codigo;
+    }
+
+    /**
+     * Obtiene la cantidad de textos distintos del diccionario.
+     *
+     * @return el tamaño del diccionario.
+     */
+    public int getTamanioDiccionario() {
+        return diccionario.size();
+    }
+
+    /**
+     * Obtiene, para cada código, su posición en el diccionario ordenado con {@link String#compareTo(String)}.
+     * Comparar los rangos de dos códigos equivale a comparar sus textos. El resultado se guarda
+     * hasta que el diccionario cambia.
+     *
+     * @return el arreglo de rangos indexado por código.
+     */
+    public int[] getRangos() {
+        if (rangos == null || rangos.length != diccionario.size()) {
+            Integer[] orden = new Integer[diccionario.size()];
+            for (int i = 0; i < orden.length; i++) {
+                orden[i] = i;
+            }
+            Arrays.sort(orden, (a, b) -> diccionario.get(a).compareTo(diccionario.get(b)));
+            int[] nuevosRangos = new int[orden.length];
+            for (int i = 0; i < orden.length; i++) {
+                nuevosRangos[orden[i]] = i;
+            }
+            rangos = nuevosRangos;
+        }
+        return rangos;
+    }
+
+    /**
+     * Indica si la codificación dejó de ser conveniente porque la mayoría de los valores son distintos.
+     *
+     * @return {@code true} si el diccionario tiene más entradas que la mitad de las filas.
+     */
+    public boolean esAltaCardinalidad() {
+        return tamanio > 4096 && diccionario.size() > tamanio / 2;
+    }
+
+    /**
+     * Convierte la columna en un almacenamiento de texto sin codificar.
+     *
+     * @return un almacenamiento de texto con los mismos valores.
+     */
+    public AlmacenTexto decodificar() {
+        AlmacenTexto texto = new AlmacenTexto(Math.max(tamanio, CAPACIDAD_INICIAL));
+        for (int i = 0; i < tamanio; i++) {
+            texto.agregar(getValor(i));
+        }
+        return texto;
+    }
+
+    @Override
+    public Class<?> getTipo() {
+        return String.class;
+    }
+
+    @Override
+    public int[] buscarIguales(Object valor, int[] seleccion) {
+        if (!(valor instanceof String)) {
+            return super.buscarIguales(valor, seleccion);
+        }
+        // Se compara un único código entero por fila en lugar de cada texto
+        int buscado = buscarCodigo((String) valor);
+        if (buscado < 0) {
+            return new int[0];
+        }
+        int cantidad = seleccion == null ? tamanio : seleccion.length;
+        return EjecucionParalela.buscar(cantidad, (desde, hasta, filas) -> {
+            for (int k = desde; k < hasta; k++) {
+                int i = seleccion == null ? k : seleccion[k];
+                if (codigos[i] == buscado && !nulos.get(i)) {
+                    filas.agregar(k);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void anexar(AlmacenColumna otro) {
+        AlmacenDiccionario otroDiccionario = (AlmacenDiccionario) otro;
+        // Traducir una sola vez los códigos del otro diccionario a este
+        int[] traduccion = new int[otroDiccionario.diccionario.size()];
+        for (int i = 0; i < traduccion.length; i++) {
+            traduccion[i] = codificar(otroDiccionario.diccionario.get(i));
+        }
+        asegurarCapacidad(tamanio + otro.tamanio);
+        for (int i = 0; i < otro.tamanio; i++) {
+            if (otro.nulos.get(i)) {
+                nulos.set(tamanio + i);
+            } else {
+                codigos[tamanio + i] = traduccion[otroDiccionario.codigos[i]];
+            }
+        }
+        tamanio += otro.tamanio;
+    }
+
+    @Override
+    protected Object leer(int indice) {
+        return diccionario.get(codigos[indice]);
+    }
+
+    @Override
+    protected void escribir(int indice, Object valor) {
+        codigos[indice] = codificar((String) valor);
+    }
+
+    @Override
+    public void rellenarNulos(Object valor) {
+        // El valor se codifica una sola vez, antes del recorrido, para no modificar el diccionario desde varios hilos
+        int codigo = codificar((String) valor);
+        EjecucionParalela.recorrer(tamanio, (desde, hasta) -> {
+            for (int i = nulos.nextSetBit(desde); i >= 0 && i < hasta; i = nulos.nextSetBit(i + 1)) {
+                codigos[i] = codigo;
+            }
+        });
+        nulos.clear();
+    }
+
+    private int codificar(String valor) {
+        Integer codigo = codigoPorValor.get(valor);
+        if (codigo == null) {
+            codigo = diccionario.size();
+            diccionario.add(valor);
+            codigoPorValor.put(valor, codigo);
+        }
+        return codigo;
+    }
+
+    /**
+     * Los códigos son las celdas; cada texto distinto se cuenta una vez, junto con su entrada en el mapa
+     * de códigos, y el diccionario y los rangos son auxiliares.
+     */
+    @Override
+    protected void estimarValores(EstimacionMemoria estimacion) {
+        estimacion.agregarCeldas(EstimacionMemoria.arreglo(tamanio, 4));
+        estimacion.agregarReservado(4L * (codigos.length - tamanio));
+        int distintos = diccionario.size();
+        long bytesTextos = 0;
+        int paso = Math.max(1, distintos / EstimacionMemoria.TAMANIO_MUESTRA);
+        int medidos = 0;
+        for (int codigo = 0; codigo < distintos; codigo += paso) {
+            bytesTextos += EstimacionMemoria.texto(diccionario.get(codigo));
+            medidos++;
+        }
+        if (medidos > 0) {
+            estimacion.agregarTextos(bytesTextos * distintos / medidos);
+        }
+        // La lista del diccionario, las entradas del mapa con su tabla y los códigos como Integer
+        estimacion.agregarAuxiliar(EstimacionMemoria.arreglo(distintos, EstimacionMemoria.REFERENCIA)
+                + distintos * (EstimacionMemoria.ENTRADA_MAPA + EstimacionMemoria.CAJA)
+                + EstimacionMemoria.arreglo(Integer.highestOneBit(Math.max(1, distintos * 4 / 3)) * 2L, EstimacionMemoria.REFERENCIA));
+        int[] actuales = rangos;
+        if (actuales != null) {
+            estimacion.agregarAuxiliar(EstimacionMemoria.arreglo(actuales.length, 4));
+        }
+    }
+
+    @Override
+    protected void asegurarCapacidad(int capacidad) {
+        if (capacidad > codigos.length) {
+            codigos = Arrays.copyOf(codigos, Math.max(capacidad, codigos.length * 2));
+        }
+    }
+
+    @Override
+    protected void desplazar(int desde, int hacia, int cantidad) {
+        System.arraycopy(codigos, desde, codigos, hacia, cantidad);
+    }
+
+    /**
+     * Crea un almacenamiento vacío con una copia del diccionario, de modo que los códigos
+     * copiados desde este almacenamiento sigan siendo válidos.
+     */
+    @Override
+    protected AlmacenColumna crearVacio(int capacidad) {
+        AlmacenDiccionario nuevo = new AlmacenDiccionario(capacidad, new ArrayList<>(diccionario), new HashMap<>(codigoPorValor));
+        nuevo.rangos = rangos;
+        return nuevo;
+    }
+
+    @Override
+    protected void copiarDesde(AlmacenColumna origen, int desde, int hacia) {
+        codigos[hacia] = ((AlmacenDiccionario) origen).codigos[desde];
+    }
+
+    @Override
+    protected void desplazarDesde(AlmacenColumna origen, int cantidad) {
+        System.arraycopy(((AlmacenDiccionario) origen).codigos, 0, codigos, 0, cantidad);
+    }
+
+    @Override
+    protected void copiarRango(AlmacenColumna origen, int desde, int hacia, int cantidad) {
+        System.arraycopy(((AlmacenDiccionario) origen).codigos, desde, codigos, hacia, cantidad);
+    }
+}
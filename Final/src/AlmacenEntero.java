@@ -0,0 +1,213 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Almacenamiento de una columna de enteros respaldado por un arreglo {@code int[]}.
+ */
+class AlmacenEntero extends AlmacenColumna {
+    private int[] valores;
+    private MapaZonas zonas;
+
+    /**
+     * Constructor que crea un almacenamiento vacío con la capacidad indicada.
+     *
+     * @param capacidad la capacidad inicial del arreglo.
+     */
+    public AlmacenEntero(int capacidad) {
+        this.valores = new int[Math.max(capacidad, 1)];
+    }
+
+    /**
+     * Constructor que adopta, sin copiarlos, un arreglo de valores y su mapa de nulos.
+     *
+     * @param valores los valores; las posiciones nulas pueden tener cualquier valor.
+     * @param nulos las posiciones nulas.
+     * @param tamanio la cantidad de valores válidos del arreglo.
+     */
+    AlmacenEntero(int[] valores, BitSet nulos, int tamanio) {
+        this.valores = valores;
+        this.nulos = nulos;
+        this.tamanio = tamanio;
+    }
+
+    /**
+     * Obtiene el entero de la posición indicada sin encapsularlo. La posición no debe ser nula.
+     *
+     * @param indice la posición del valor.
+     * @return el valor entero.
+     */
+    public int getEntero(int indice) {
+        return valores[indice];
+    }
+
+    /**
+     * Asigna un entero en la posición indicada sin encapsularlo.
+     *
+     * @param indice la posición a modificar.
+     * @param valor el nuevo valor.
+     */
+    public void setEntero(int indice, int valor) {
+        verificarIndice(indice);
+        nulos.clear(indice);
+        valores[indice] = valor;
+        zonas = null;
+    }
+
+    /**
+     * Agrega un entero al final sin encapsularlo.
+     *
+     * @param valor el valor a agregar.
+     */
+    public void agregarEntero(int valor) {
+        asegurarCapacidad(tamanio + 1);
+        valores[tamanio++] = valor;
+    }
+
+    @Override
+    public Class<?> getTipo() {
+        return Integer.class;
+    }
+
+    @Override
+    public AlmacenColumna generalizarPara(Object valor) {
+        if (!(valor instanceof Double)) {
+            return super.generalizarPara(valor);
+        }
+        // Una columna entera que recibe decimales se convierte en decimal sin perder valores
+        AlmacenDecimal decimal = new AlmacenDecimal(Math.max(tamanio, CAPACIDAD_INICIAL));
+        for (int i = 0; i < tamanio; i++) {
+            decimal.agregar(nulos.get(i) ? null : Double.valueOf(valores[i]));
+        }
+        return decimal;
+    }
+
+    @Override
+    public int[] buscarIguales(Object valor, int[] seleccion) {
+        if (!(valor instanceof Integer)) {
+            return super.buscarIguales(valor, seleccion);
+        }
+        int buscado = (Integer) valor;
+        int cantidad = seleccion == null ? tamanio : seleccion.length;
+        return EjecucionParalela.buscar(cantidad, (desde, hasta, filas) -> {
+            for (int k = desde; k < hasta; k++) {
+                int i = seleccion == null ? k : seleccion[k];
+                if (valores[i] == buscado && !nulos.get(i)) {
+                    filas.agregar(k);
+                }
+            }
+        });
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public int[] buscarEnRango(Comparable valorMin, Comparable valorMax, int[] seleccion) {
+        if (!(valorMin instanceof Integer) || !(valorMax instanceof Integer)) {
+            return super.buscarEnRango(valorMin, valorMax, seleccion);
+        }
+        int minimo = (Integer) valorMin;
+        int maximo = (Integer) valorMax;
+        if (seleccion == null) {
+            return buscarEnRangoPorZonas(minimo, maximo);
+        }
+        return EjecucionParalela.buscar(seleccion.length, (desde, hasta, filas) -> {
+            for (int k = desde; k < hasta; k++) {
+                int i = seleccion[k];
+                if (valores[i] >= minimo && valores[i] <= maximo && !nulos.get(i)) {
+                    filas.agregar(k);
+                }
+            }
+        });
+    }
+
+    /**
+     * Busca en toda la columna las filas dentro del rango cerrado, salteando los bloques cuyo mínimo
+     * y máximo quedan fuera del rango. Si el mapa de zonas no existe o quedó desactualizado, se
+     * construye durante la misma pasada. Cada parte de un recorrido paralelo abarca bloques completos.
+     */
+    private int[] buscarEnRangoPorZonas(int minimo, int maximo) {
+        MapaZonas actual = zonas;
+        boolean construir = actual == null || actual.getFilasCubiertas() != tamanio;
+        MapaZonas mapa = construir ? new MapaZonas(tamanio) : actual;
+        int[] filas = EjecucionParalela.buscar(tamanio, (desde, hasta, encontradas) -> {
+            for (int inicio = desde; inicio < hasta; inicio += MapaZonas.TAMANIO_BLOQUE) {
+                int bloque = inicio / MapaZonas.TAMANIO_BLOQUE;
+                if (!construir && !mapa.puedeContener(bloque, minimo, maximo)) {
+                    continue;
+                }
+                int fin = Math.min(inicio + MapaZonas.TAMANIO_BLOQUE, hasta);
+                for (int i = inicio; i < fin; i++) {
+                    if (nulos.get(i)) {
+                        continue;
+                    }
+                    if (construir) {
+                        mapa.registrar(bloque, valores[i]);
+                    }
+                    if (valores[i] >= minimo && valores[i] <= maximo) {
+                        encontradas.agregar(i);
+                    }
+                }
+            }
+        });
+        if (construir) {
+            zonas = mapa;
+        }
+        return filas;
+    }
+
+    @Override
+    protected Object leer(int indice) {
+        return valores[indice];
+    }
+
+    @Override
+    protected void escribir(int indice, Object valor) {
+        valores[indice] = (Integer) valor;
+        zonas = null;
+    }
+
+    @Override
+    protected void estimarValores(EstimacionMemoria estimacion) {
+        estimacion.agregarCeldas(EstimacionMemoria.arreglo(tamanio, 4));
+        estimacion.agregarReservado(4L * (valores.length - tamanio));
+        MapaZonas actual = zonas;
+        if (actual != null) {
+            estimacion.agregarAuxiliar(actual.estimarMemoria());
+        }
+    }
+
+    @Override
+    protected void asegurarCapacidad(int capacidad) {
+        if (capacidad > valores.length) {
+            valores = Arrays.copyOf(valores, Math.max(capacidad, valores.length * 2));
+        }
+    }
+
+    @Override
+    protected void desplazar(int desde, int hacia, int cantidad) {
+        System.arraycopy(valores, desde, valores, hacia, cantidad);
+        zonas = null;
+    }
+
+    @Override
+    protected AlmacenColumna crearVacio(int capacidad) {
+        return new AlmacenEntero(capacidad);
+    }
+
+    @Override
+    protected void copiarDesde(AlmacenColumna origen, int desde, int hacia) {
+        valores[hacia] = ((AlmacenEntero) origen).valores[desde];
+        zonas = null;
+    }
+
+    @Override
+    protected void desplazarDesde(AlmacenColumna origen, int cantidad) {
+        System.arraycopy(((AlmacenEntero) origen).valores, 0, valores, 0, cantidad);
+        zonas = null;
+    }
+
+    @Override
+    protected void copiarRango(AlmacenColumna origen, int desde, int hacia, int cantidad) {
+        System.arraycopy(((AlmacenEntero) origen).valores, desde, valores, hacia, cantidad);
+        zonas = null;
+    }
+}
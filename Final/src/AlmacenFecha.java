@@ -0,0 +1,106 @@
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Almacenamiento de una columna de fechas respaldado por un arreglo {@code int[]} con la
+ * cantidad de días desde 1970-01-01 de cada fecha.
+ */
+class AlmacenFecha extends AlmacenColumna {
+    private int[] dias;
+
+    /**
+     * Constructor que crea un almacenamiento vacío con la capacidad indicada.
+     *
+     * @param capacidad la capacidad inicial del arreglo.
+     */
+    public AlmacenFecha(int capacidad) {
+        this.dias = new int[Math.max(capacidad, 1)];
+    }
+
+    /**
+     * Constructor que adopta, sin copiarlos, un arreglo de días desde la época y su mapa de nulos.
+     *
+     * @param dias los días de cada fecha; las posiciones nulas pueden tener cualquier valor.
+     * @param nulos las posiciones nulas.
+     * @param tamanio la cantidad de valores válidos del arreglo.
+     */
+    AlmacenFecha(int[] dias, BitSet nulos, int tamanio) {
+        this.dias = dias;
+        this.nulos = nulos;
+        this.tamanio = tamanio;
+    }
+
+    /**
+     * Obtiene los días desde la época de la posición indicada. La posición no debe ser nula.
+     *
+     * @param indice la posición del valor.
+     * @return los días desde 1970-01-01.
+     */
+    public int getDias(int indice) {
+        return dias[indice];
+    }
+
+    /**
+     * Agrega una fecha al final, expresada en días desde 1970-01-01.
+     *
+     * @param valor los días desde la época.
+     */
+    public void agregarDias(int valor) {
+        asegurarCapacidad(tamanio + 1);
+        dias[tamanio++] = valor;
+    }
+
+    @Override
+    public Class<?> getTipo() {
+        return LocalDate.class;
+    }
+
+    @Override
+    protected Object leer(int indice) {
+        return LocalDate.ofEpochDay(dias[indice]);
+    }
+
+    @Override
+    protected void escribir(int indice, Object valor) {
+        dias[indice] = (int) ((LocalDate) valor).toEpochDay();
+    }
+
+    @Override
+    protected void estimarValores(EstimacionMemoria estimacion) {
+        estimacion.agregarCeldas(EstimacionMemoria.arreglo(tamanio, 4));
+        estimacion.agregarReservado(4L * (dias.length - tamanio));
+    }
+
+    @Override
+    protected void asegurarCapacidad(int capacidad) {
+        if (capacidad > dias.length) {
+            dias = Arrays.copyOf(dias, Math.max(capacidad, dias.length * 2));
+        }
+    }
+
+    @Override
+    protected void desplazar(int desde, int hacia, int cantidad) {
+        System.arraycopy(dias, desde, dias, hacia, cantidad);
+    }
+
+    @Override
+    protected AlmacenColumna crearVacio(int capacidad) {
+        return new AlmacenFecha(capacidad);
+    }
+
+    @Override
+    protected void copiarDesde(AlmacenColumna origen, int desde, int hacia) {
+        dias[hacia] = ((AlmacenFecha) origen).dias[desde];
+    }
+
+    @Override
+    protected void desplazarDesde(AlmacenColumna origen, int cantidad) {
+        System.arraycopy(((AlmacenFecha) origen).dias, 0, dias, 0, cantidad);
+    }
+
+    @Override
+    protected void copiarRango(AlmacenColumna origen, int desde, int hacia, int cantidad) {
+        System.arraycopy(((AlmacenFecha) origen).dias, desde, dias, hacia, cantidad);
+    }
+}
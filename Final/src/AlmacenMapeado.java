@@ -0,0 +1,443 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Almacenamiento de sólo lectura respaldado por el bloque de una columna de un archivo binario mapeado
+ * en memoria (ver {@link ArchivoBinario}). Los valores sueltos se leen directamente del bloque, sin cargar
+ * la columna; las operaciones que recorren todos los valores la cargan una única vez en el almacenamiento
+ * del tipo correspondiente, copiando los arreglos en bloque. La columna que lo contiene lo reemplaza por
+ * ese almacenamiento cuando se la modifica o cuando una operación necesita leer sus arreglos.
+ */
+class AlmacenMapeado extends AlmacenColumna {
+    private final ByteBuffer bloque;
+    private final byte tipo;
+    private final int inicioDatos;
+    private int inicioTextos;
+    private int inicioDesplazamientos;
+    private int cantidadDiccionario;
+    private volatile String[] diccionario;
+    private volatile AlmacenColumna cargado;
+
+    /**
+     * Constructor que interpreta el bloque de una columna.
+     *
+     * @param bloque el bloque completo de la columna, en orden little-endian.
+     * @param tipo el tipo binario de la columna.
+     * @param filas la cantidad de filas.
+     */
+    AlmacenMapeado(ByteBuffer bloque, byte tipo, int filas) {
+        this.bloque = bloque;
+        this.tipo = tipo;
+        this.tamanio = filas;
+        this.inicioDatos = ArchivoBinario.ENCABEZADO_BLOQUE + 8 * ((filas + 63) >>> 6);
+        if (tipo == ArchivoBinario.TEXTO) {
+            ubicarTextos(inicioDatos);
+        } else if (tipo == ArchivoBinario.DICCIONARIO) {
+            int inicioDiccionario = alinear(inicioDatos + 4 * filas, 8);
+            cantidadDiccionario = bloque.getInt(inicioDiccionario);
+            ubicarTextos(inicioDiccionario + 8);
+        }
+    }
+
+    private void ubicarTextos(int inicio) {
+        long largo = bloque.getLong(inicio);
+        inicioTextos = inicio + 8;
+        inicioDesplazamientos = alinear(inicioTextos + (int) largo, 4);
+    }
+
+    private static int alinear(int posicion, int alineacion) {
+        return (posicion + alineacion - 1) / alineacion * alineacion;
+    }
+
+    /**
+     * Lee el texto de la posición indicada de una secuencia de textos del bloque.
+     */
+    private String texto(int indice) {
+        int desde = bloque.getInt(inicioDesplazamientos + 4 * indice);
+        int hasta = bloque.getInt(inicioDesplazamientos + 4 * indice + 4);
+        byte[] bytes = new byte[hasta - desde];
+        bloque.get(inicioTextos + desde, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodifica en bloque las primeras posiciones no nulas de una secuencia de textos del bloque: los
+     * desplazamientos y los bytes se copian una sola vez a arreglos y cada texto se construye desde ahí.
+     */
+    private void decodificarTextos(String[] textos, int cantidad, BitSet nulosTextos) {
+        int[] desplazamientos = new int[cantidad + 1];
+        rebanada(inicioDesplazamientos, 4 * (cantidad + 1)).asIntBuffer().get(desplazamientos);
+        byte[] bytes = new byte[desplazamientos[cantidad]];
+        bloque.get(inicioTextos, bytes);
+        for (int i = nulosTextos.nextClearBit(0); i < cantidad; i = nulosTextos.nextClearBit(i + 1)) {
+            textos[i] = new String(bytes, desplazamientos[i], desplazamientos[i + 1] - desplazamientos[i], StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Obtiene los textos del diccionario, que se leen la primera vez que se necesitan.
+     */
+    private String[] diccionario() {
+        String[] textos = diccionario;
+        if (textos == null) {
+            textos = new String[cantidadDiccionario];
+            decodificarTextos(textos, cantidadDiccionario, new BitSet());
+            diccionario = textos;
+        }
+        return textos;
+    }
+
+    private ByteBuffer rebanada(int desde, int largo) {
+        return bloque.slice(desde, largo).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Obtiene el almacenamiento con los valores de la columna, cargándolo la primera vez. Queda marcado como
+     * compartido, porque este almacenamiento lo conserva para las siguientes operaciones.
+     *
+     * @return el almacenamiento cargado.
+     */
+    private AlmacenColumna cargar() {
+        AlmacenColumna almacen = cargado;
+        if (almacen == null) {
+            synchronized (this) {
+                almacen = cargado;
+                if (almacen == null) {
+                    PresupuestoMemoria.verificar("cargar una columna de " + tamanio + " filas del archivo binario", estimarCopia(tamanio));
+                    almacen = decodificar().compartir();
+                    cargado = almacen;
+                }
+            }
+        }
+        return almacen;
+    }
+
+    /**
+     * Construye un almacenamiento independiente con los valores del bloque. Los arreglos de números,
+     * códigos y mapas de bits se copian en bloque; sólo los textos se decodifican uno por uno.
+     */
+    private AlmacenColumna decodificar() {
+        int capacidad = Math.max(tamanio, 1);
+        BitSet nulosCargados = leerNulos();
+        switch (tipo) {
+            case ArchivoBinario.ENTERO: {
+                int[] valores = new int[capacidad];
+                rebanada(inicioDatos, 4 * tamanio).asIntBuffer().get(valores, 0, tamanio);
+                return new AlmacenEntero(valores, nulosCargados, tamanio);
+            }
+            case ArchivoBinario.DECIMAL: {
+                double[] valores = new double[capacidad];
+                rebanada(inicioDatos, 8 * tamanio).asDoubleBuffer().get(valores, 0, tamanio);
+                return new AlmacenDecimal(valores, nulosCargados, tamanio);
+            }
+            case ArchivoBinario.FECHA: {
+                int[] dias = new int[capacidad];
+                rebanada(inicioDatos, 4 * tamanio).asIntBuffer().get(dias, 0, tamanio);
+                return new AlmacenFecha(dias, nulosCargados, tamanio);
+            }
+            case ArchivoBinario.BOOLEANO: {
+                BitSet verdaderos = BitSet.valueOf(rebanada(inicioDatos, inicioDatos - ArchivoBinario.ENCABEZADO_BLOQUE));
+                return new AlmacenBooleano(verdaderos, nulosCargados, tamanio);
+            }
+            case ArchivoBinario.TEXTO: {
+                String[] valores = new String[capacidad];
+                decodificarTextos(valores, tamanio, nulosCargados);
+                return new AlmacenTexto(valores, nulosCargados, tamanio);
+            }
+            case ArchivoBinario.DICCIONARIO: {
+                int[] codigos = new int[capacidad];
+                rebanada(inicioDatos, 4 * tamanio).asIntBuffer().get(codigos, 0, tamanio);
+                List<String> textos = new ArrayList<>(Arrays.asList(diccionario()));
+                return new AlmacenDiccionario(codigos, nulosCargados, tamanio, textos);
+            }
+            default: {
+                AlmacenNulo sinTipo = new AlmacenNulo();
+                sinTipo.nulos = nulosCargados;
+                sinTipo.tamanio = tamanio;
+                return sinTipo;
+            }
+        }
+    }
+
+    @Override
+    public Class<?> getTipo() {
+        switch (tipo) {
+            case ArchivoBinario.ENTERO:
+                return Integer.class;
+            case ArchivoBinario.DECIMAL:
+                return Double.class;
+            case ArchivoBinario.FECHA:
+                return LocalDate.class;
+            case ArchivoBinario.BOOLEANO:
+                return Boolean.class;
+            case ArchivoBinario.TEXTO:
+            case ArchivoBinario.DICCIONARIO:
+                return String.class;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public boolean esNulo(int indice) {
+        long palabra = bloque.getLong(ArchivoBinario.ENCABEZADO_BLOQUE + 8 * (indice >>> 6));
+        return (palabra >>> (indice & 63) & 1L) != 0;
+    }
+
+    /**
+     * Obtiene el mapa de nulos copiando las palabras del bloque, sin cargar los valores.
+     */
+    @Override
+    public BitSet getNulos() {
+        AlmacenColumna almacen = cargado;
+        return almacen == null ? leerNulos() : almacen.getNulos();
+    }
+
+    private BitSet leerNulos() {
+        return BitSet.valueOf(rebanada(ArchivoBinario.ENCABEZADO_BLOQUE, inicioDatos - ArchivoBinario.ENCABEZADO_BLOQUE));
+    }
+
+    /**
+     * Cuenta los nulos directamente sobre las palabras del mapa de bits del bloque.
+     */
+    @Override
+    public int contarNulos() {
+        int cantidad = 0;
+        for (int posicion = ArchivoBinario.ENCABEZADO_BLOQUE; posicion < inicioDatos; posicion += 8) {
+            cantidad += Long.bitCount(bloque.getLong(posicion));
+        }
+        return cantidad;
+    }
+
+    @Override
+    public Object getValor(int indice) {
+        verificarIndice(indice);
+        return esNulo(indice) ? null : leer(indice);
+    }
+
+    @Override
+    protected Object leer(int indice) {
+        switch (tipo) {
+            case ArchivoBinario.ENTERO:
+                return bloque.getInt(inicioDatos + 4 * indice);
+            case ArchivoBinario.DECIMAL:
+                return bloque.getDouble(inicioDatos + 8 * indice);
+            case ArchivoBinario.FECHA:
+                return LocalDate.ofEpochDay(bloque.getInt(inicioDatos + 4 * indice));
+            case ArchivoBinario.BOOLEANO:
+                long palabra = bloque.getLong(inicioDatos + 8 * (indice >>> 6));
+                return (palabra >>> (indice & 63) & 1L) != 0;
+            case ArchivoBinario.TEXTO:
+                return texto(indice);
+            case ArchivoBinario.DICCIONARIO:
+                return diccionario()[bloque.getInt(inicioDatos + 4 * indice)];
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public int[] buscarIguales(Object valor, int[] seleccion) {
+        return cargar().buscarIguales(valor, seleccion);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public int[] buscarEnRango(Comparable valorMin, Comparable valorMax, int[] seleccion) {
+        return cargar().buscarEnRango(valorMin, valorMax, seleccion);
+    }
+
+    @Override
+    public AlmacenColumna seleccionar(int[] filas) {
+        return cargar().seleccionar(filas);
+    }
+
+    @Override
+    public AlmacenColumna eliminarFilas(BitSet filasEliminadas) {
+        return cargar().eliminarFilas(filasEliminadas);
+    }
+
+    /**
+     * Si la columna todavía no se cargó, la copia se construye directamente desde el bloque.
+     */
+    @Override
+    public AlmacenColumna copiar() {
+        AlmacenColumna almacen = cargado;
+        return almacen == null ? decodificar() : almacen.copiar();
+    }
+
+    @Override
+    public AlmacenColumna contiguo() {
+        return cargar();
+    }
+
+    @Override
+    public AlmacenColumna generalizarPara(Object valor) {
+        return copiar().generalizarPara(valor);
+    }
+
+    /**
+     * El bloque está mapeado fuera del heap, así que sólo se cuenta lo que ya se decodificó: la columna
+     * cargada o, si todavía no se cargó, los textos del diccionario.
+     */
+    @Override
+    public void estimarMemoria(EstimacionMemoria estimacion) {
+        AlmacenColumna almacen = cargado;
+        if (almacen != null) {
+            almacen.estimarMemoria(estimacion);
+        } else {
+            estimarValores(estimacion);
+        }
+    }
+
+    @Override
+    protected void estimarValores(EstimacionMemoria estimacion) {
+        String[] textos = diccionario;
+        if (textos != null) {
+            estimacion.agregarAuxiliar(EstimacionMemoria.arreglo(textos.length, EstimacionMemoria.REFERENCIA));
+            for (String texto : textos) {
+                estimacion.agregarTextos(EstimacionMemoria.texto(texto));
+            }
+        }
+    }
+
+    /**
+     * Si la columna todavía no se cargó, la copia se estima con el tamaño de los arreglos que se decodifican
+     * del bloque: los textos ocupan sus bytes en el archivo más el objeto de cada uno.
+     */
+    @Override
+    public long estimarCopia(int filas) {
+        AlmacenColumna almacen = cargado;
+        if (almacen != null) {
+            return almacen.estimarCopia(filas);
+        }
+        if (tamanio == 0) {
+            return 0;
+        }
+        double bytesPorFila;
+        switch (tipo) {
+            case ArchivoBinario.ENTERO:
+            case ArchivoBinario.FECHA:
+            case ArchivoBinario.DICCIONARIO:
+                bytesPorFila = 4;
+                break;
+            case ArchivoBinario.DECIMAL:
+                bytesPorFila = 8;
+                break;
+            case ArchivoBinario.BOOLEANO:
+                bytesPorFila = 1.0 / 8;
+                break;
+            case ArchivoBinario.TEXTO:
+                bytesPorFila = EstimacionMemoria.REFERENCIA + EstimacionMemoria.OBJETO_TEXTO + EstimacionMemoria.CABECERA_ARREGLO
+                        + (double) bloque.getLong(inicioTextos - 8) / tamanio;
+                break;
+            default:
+                bytesPorFila = 0;
+        }
+        // Más el mapa de nulos
+        return (long) ((bytesPorFila + 1.0 / 8) * filas);
+    }
+
+    @Override
+    public boolean esSoloLectura() {
+        return true;
+    }
+
+    @Override
+    public void agregar(Object valor) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public void agregarNulo() {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public void asignar(int indice, Object valor) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public void rellenarNulos(Object valor) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public int rellenarNulosConVecinos(boolean haciaAdelante) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public void eliminar(int indice) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public void anexar(AlmacenColumna otro) {
+        throw sinModificaciones();
+    }
+
+    private UnsupportedOperationException sinModificaciones() {
+        return new UnsupportedOperationException("Las columnas mapeadas de un archivo son de sólo lectura; la columna debe cargarse antes de modificarla.");
+    }
+
+    @Override
+    protected void escribir(int indice, Object valor) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    protected void asegurarCapacidad(int capacidad) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    protected void desplazar(int desde, int hacia, int cantidad) {
+        throw sinModificaciones();
+    }
+
+    /**
+     * Crea un almacenamiento vacío del tipo de la columna, sin cargarla.
+     */
+    @Override
+    protected AlmacenColumna crearVacio(int capacidad) {
+        switch (tipo) {
+            case ArchivoBinario.ENTERO:
+                return new AlmacenEntero(capacidad);
+            case ArchivoBinario.DECIMAL:
+                return new AlmacenDecimal(capacidad);
+            case ArchivoBinario.FECHA:
+                return new AlmacenFecha(capacidad);
+            case ArchivoBinario.BOOLEANO:
+                return new AlmacenBooleano();
+            case ArchivoBinario.TEXTO:
+                return new AlmacenTexto(capacidad);
+            case ArchivoBinario.DICCIONARIO:
+                return new AlmacenDiccionario(capacidad);
+            default:
+                return new AlmacenNulo();
+        }
+    }
+
+    @Override
+    protected void copiarDesde(AlmacenColumna origen, int desde, int hacia) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    protected void desplazarDesde(AlmacenColumna origen, int cantidad) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    protected void copiarRango(AlmacenColumna origen, int desde, int hacia, int cantidad) {
+        throw sinModificaciones();
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Almacenamiento de una columna que todavía no tiene valores no nulos, por lo que su tipo
+ * aún no se conoce. Sólo cuenta las posiciones nulas; al recibir el primer valor se
+ * reemplaza por el almacenamiento especializado correspondiente.
+ */
+class AlmacenNulo extends AlmacenColumna {
+
+    @Override
+    public Class<?> getTipo() {
+        return null;
+    }
+
+    @Override
+    public AlmacenColumna generalizarPara(Object valor) {
+        AlmacenColumna especializado = AlmacenColumna.crearPara(valor);
+        for (int i = 0; i < tamanio; i++) {
+            especializado.agregar(null);
+        }
+        return especializado;
+    }
+
+    @Override
+    public void agregar(Object valor) {
+        if (valor != null) {
+            throw new IllegalStateException("Una columna sin tipo sólo admite valores nulos.");
+        }
+        super.agregar(null);
+    }
+
+    @Override
+    public void asignar(int indice, Object valor) {
+        if (valor != null) {
+            throw new IllegalStateException("Una columna sin tipo sólo admite valores nulos.");
+        }
+        super.asignar(indice, null);
+    }
+
+    @Override
+    protected Object leer(int indice) {
+        return null;
+    }
+
+    @Override
+    protected void escribir(int indice, Object valor) {
+        throw new IllegalStateException("Una columna sin tipo sólo admite valores nulos.");
+    }
+
+    @Override
+    protected void estimarValores(EstimacionMemoria estimacion) {
+        // Sólo guarda el mapa de nulos
+    }
+
+    @Override
+    protected void asegurarCapacidad(int capacidad) {
+        // No hay arreglo de valores: sólo se usa el mapa de bits de nulos.
+    }
+
+    @Override
+    protected void desplazar(int desde, int hacia, int cantidad) {
+        // No hay valores que desplazar.
+    }
+
+    @Override
+    protected AlmacenColumna crearVacio(int capacidad) {
+        return new AlmacenNulo();
+    }
+
+    @Override
+    protected void copiarDesde(AlmacenColumna origen, int desde, int hacia) {
+        // Todas las posiciones son nulas.
+    }
+
+    @Override
+    protected void desplazarDesde(AlmacenColumna origen, int cantidad) {
+        // Todas las posiciones son nulas.
+    }
+
+    @Override
+    protected void copiarRango(AlmacenColumna origen, int desde, int hacia, int cantidad) {
+        // Todas las posiciones son nulas.
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.Arrays;
+
+/**
+ * Almacenamiento genérico para columnas cuyo tipo no tiene una representación primitiva
+ * especializada. Guarda las referencias en un arreglo {@code Object[]}.
+ */
+class AlmacenObjeto extends AlmacenColumna {
+    private final Class<?> tipo;
+    private Object[] valores;
+
+    /**
+     * Constructor que crea un almacenamiento vacío para el tipo y la capacidad indicados.
+     *
+     * @param tipo la clase de los valores que se almacenarán.
+     * @param capacidad la capacidad inicial del arreglo.
+     */
+    public AlmacenObjeto(Class<?> tipo, int capacidad) {
+        this.tipo = tipo;
+        this.valores = new Object[Math.max(capacidad, 1)];
+    }
+
+    @Override
+    public Class<?> getTipo() {
+        return tipo;
+    }
+
+    @Override
+    public void asignar(int indice, Object valor) {
+        super.asignar(indice, valor);
+        if (valor == null) {
+            valores[indice] = null;
+        }
+    }
+
+    @Override
+    public void eliminar(int indice) {
+        super.eliminar(indice);
+        valores[tamanio] = null;
+    }
+
+    @Override
+    protected Object leer(int indice) {
+        return valores[indice];
+    }
+
+    @Override
+    protected void escribir(int indice, Object valor) {
+        valores[indice] = valor;
+    }
+
+    @Override
+    protected void estimarValores(EstimacionMemoria estimacion) {
+        estimacion.agregarCeldas(EstimacionMemoria.arreglo(tamanio, EstimacionMemoria.REFERENCIA));
+        estimacion.agregarReservado((long) EstimacionMemoria.REFERENCIA * (valores.length - tamanio));
+        estimacion.agregarValoresMuestreados(this, i -> valores[i]);
+    }
+
+    @Override
+    protected void asegurarCapacidad(int capacidad) {
+        if (capacidad > valores.length) {
+            valores = Arrays.copyOf(valores, Math.max(capacidad, valores.length * 2));
+        }
+    }
+
+    @Override
+    protected void desplazar(int desde, int hacia, int cantidad) {
+        System.arraycopy(valores, desde, valores, hacia, cantidad);
+    }
+
+    @Override
+    protected AlmacenColumna crearVacio(int capacidad) {
+        return new AlmacenObjeto(tipo, capacidad);
+    }
+
+    @Override
+    protected void copiarDesde(AlmacenColumna origen, int desde, int hacia) {
+        valores[hacia] = ((AlmacenObjeto) origen).valores[desde];
+    }
+
+    @Override
+    protected void desplazarDesde(AlmacenColumna origen, int cantidad) {
+        System.arraycopy(((AlmacenObjeto) origen).valores, 0, valores, 0, cantidad);
+    }
+
+    @Override
+    protected void copiarRango(AlmacenColumna origen, int desde, int hacia, int cantidad) {
+        System.arraycopy(((AlmacenObjeto) origen).valores, desde, valores, hacia, cantidad);
+    }
+}
@@ -0,0 +1,109 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Almacenamiento de una columna de texto respaldado por un arreglo {@code String[]}.
+ */
+class AlmacenTexto extends AlmacenColumna {
+    private String[] valores;
+
+    /**
+     * Constructor que crea un almacenamiento vacío con la capacidad indicada.
+     *
+     * @param capacidad la capacidad inicial del arreglo.
+     */
+    public AlmacenTexto(int capacidad) {
+        this.valores = new String[Math.max(capacidad, 1)];
+    }
+
+    /**
+     * Constructor que adopta, sin copiarlos, un arreglo de textos y su mapa de nulos.
+     *
+     * @param valores los textos; las posiciones nulas deben tener {@code null}.
+     * @param nulos las posiciones nulas.
+     * @param tamanio la cantidad de valores válidos del arreglo.
+     */
+    AlmacenTexto(String[] valores, BitSet nulos, int tamanio) {
+        this.valores = valores;
+        this.nulos = nulos;
+        this.tamanio = tamanio;
+    }
+
+    /**
+     * Obtiene el texto de la posición indicada, o {@code null} si es nulo.
+     *
+     * @param indice la posición del valor.
+     * @return el texto almacenado.
+     */
+    public String getTexto(int indice) {
+        return valores[indice];
+    }
+
+    @Override
+    public Class<?> getTipo() {
+        return String.class;
+    }
+
+    @Override
+    public void asignar(int indice, Object valor) {
+        super.asignar(indice, valor);
+        if (valor == null) {
+            valores[indice] = null;
+        }
+    }
+
+    @Override
+    public void eliminar(int indice) {
+        super.eliminar(indice);
+        valores[tamanio] = null;
+    }
+
+    @Override
+    protected Object leer(int indice) {
+        return valores[indice];
+    }
+
+    @Override
+    protected void escribir(int indice, Object valor) {
+        valores[indice] = (String) valor;
+    }
+
+    @Override
+    protected void estimarValores(EstimacionMemoria estimacion) {
+        estimacion.agregarCeldas(EstimacionMemoria.arreglo(tamanio, EstimacionMemoria.REFERENCIA));
+        estimacion.agregarReservado((long) EstimacionMemoria.REFERENCIA * (valores.length - tamanio));
+        estimacion.agregarValoresMuestreados(this, i -> valores[i]);
+    }
+
+    @Override
+    protected void asegurarCapacidad(int capacidad) {
+        if (capacidad > valores.length) {
+            valores = Arrays.copyOf(valores, Math.max(capacidad, valores.length * 2));
+        }
+    }
+
+    @Override
+    protected void desplazar(int desde, int hacia, int cantidad) {
+        System.arraycopy(valores, desde, valores, hacia, cantidad);
+    }
+
+    @Override
+    protected AlmacenColumna crearVacio(int capacidad) {
+        return new AlmacenTexto(capacidad);
+    }
+
+    @Override
+    protected void copiarDesde(AlmacenColumna origen, int desde, int hacia) {
+        valores[hacia] = ((AlmacenTexto) origen).valores[desde];
+    }
+
+    @Override
+    protected void desplazarDesde(AlmacenColumna origen, int cantidad) {
+        System.arraycopy(((AlmacenTexto) origen).valores, 0, valores, 0, cantidad);
+    }
+
+    @Override
+    protected void copiarRango(AlmacenColumna origen, int desde, int hacia, int cantidad) {
+        System.arraycopy(((AlmacenTexto) origen).valores, desde, valores, hacia, cantidad);
+    }
+}
@@ -0,0 +1,275 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Almacenamiento de sólo lectura formado por una secuencia de trozos inmutables de otros almacenamientos,
+ * uno detrás de otro. Permite concatenar tablas enlazando los almacenamientos de sus columnas, sin copiar
+ * los valores. Los trozos quedan marcados como compartidos, de modo que las columnas originales los copien
+ * antes de modificarlos; la columna que contiene los trozos los compacta en un único almacenamiento recién
+ * cuando se la modifica o cuando una operación necesita leer sus arreglos directamente.
+ */
+class AlmacenTrozos extends AlmacenColumna {
+    private final AlmacenColumna[] trozos;
+    private final int[] inicios;
+    private final AlmacenColumna modelo;
+
+    private AlmacenTrozos(List<AlmacenColumna> trozos, AlmacenColumna modelo, List<AlmacenColumna> enlazados) {
+        this.trozos = trozos.toArray(new AlmacenColumna[0]);
+        this.inicios = new int[this.trozos.length + 1];
+        this.modelo = modelo;
+        for (int t = 0; t < this.trozos.length; t++) {
+            inicios[t + 1] = Math.addExact(inicios[t], this.trozos[t].tamanio());
+        }
+        this.tamanio = inicios[this.trozos.length];
+
+        // Los mapas de nulos de los almacenamientos enlazados (no de cada trozo, para no volver a unir los de
+        // una concatenación anterior) se unen palabra por palabra, desplazados a su posición
+        long[] palabras = new long[(tamanio + 63) >>> 6];
+        int inicio = 0;
+        for (AlmacenColumna enlazado : enlazados) {
+            long[] nulosEnlazado = enlazado.getNulos().toLongArray();
+            int cantidad = enlazado.tamanio();
+            int desplazamiento = inicio & 63;
+            int destino = inicio >>> 6;
+            inicio += cantidad;
+            for (int p = 0; p < nulosEnlazado.length && p * 64 < cantidad; p++) {
+                long palabra = nulosEnlazado[p];
+                if (cantidad - p * 64 < 64) {
+                    palabra &= (1L << (cantidad - p * 64)) - 1;
+                }
+                palabras[destino + p] |= palabra << desplazamiento;
+                if (desplazamiento != 0 && destino + p + 1 < palabras.length) {
+                    palabras[destino + p + 1] |= palabra >>> (64 - desplazamiento);
+                }
+            }
+        }
+        this.nulos = BitSet.valueOf(palabras);
+    }
+
+    /**
+     * Enlaza los almacenamientos indicados, en ese orden, sin copiar sus valores. Los almacenamientos que ya
+     * son trozos aportan directamente sus propios trozos, y los vacíos se omiten. Todos deben guardar valores
+     * del mismo tipo, salvo los que sólo tienen nulos.
+     *
+     * @param almacenes los almacenamientos a enlazar.
+     * @return un almacenamiento de sólo lectura con los valores de todos ellos.
+     */
+    static AlmacenTrozos enlazar(List<AlmacenColumna> almacenes) {
+        List<AlmacenColumna> trozos = new ArrayList<>();
+        AlmacenColumna modelo = null;
+        for (AlmacenColumna almacen : almacenes) {
+            List<AlmacenColumna> partes = almacen instanceof AlmacenTrozos
+                    ? Arrays.asList(((AlmacenTrozos) almacen).trozos)
+                    : List.of(almacen);
+            for (AlmacenColumna parte : partes) {
+                if (modelo == null && parte.getTipo() != null) {
+                    modelo = parte;
+                }
+                if (parte.tamanio() > 0) {
+                    trozos.add(parte.compartir());
+                }
+            }
+        }
+        return new AlmacenTrozos(trozos, modelo, almacenes);
+    }
+
+    /**
+     * Busca el trozo que contiene la posición indicada.
+     */
+    private int trozo(int indice) {
+        int t = Arrays.binarySearch(inicios, indice);
+        // Con trozos no vacíos los inicios son distintos; si no es un inicio, es el trozo anterior al punto de inserción
+        return t >= 0 ? t : -t - 2;
+    }
+
+    @Override
+    public Class<?> getTipo() {
+        return modelo == null ? null : modelo.getTipo();
+    }
+
+    @Override
+    public boolean acepta(Object valor) {
+        return modelo == null || modelo.acepta(valor);
+    }
+
+    @Override
+    protected Object leer(int indice) {
+        int t = trozo(indice);
+        return trozos[t].getValor(indice - inicios[t]);
+    }
+
+    /**
+     * Sin selección, cada trozo se recorre con su propia búsqueda, que aprovecha su representación.
+     */
+    @Override
+    public int[] buscarIguales(Object valor, int[] seleccion) {
+        if (seleccion != null) {
+            return super.buscarIguales(valor, seleccion);
+        }
+        ListaEnteros posiciones = new ListaEnteros();
+        for (int t = 0; t < trozos.length; t++) {
+            for (int posicion : trozos[t].buscarIguales(valor)) {
+                posiciones.agregar(inicios[t] + posicion);
+            }
+        }
+        return posiciones.toArray();
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public int[] buscarEnRango(Comparable valorMin, Comparable valorMax, int[] seleccion) {
+        if (seleccion != null) {
+            return super.buscarEnRango(valorMin, valorMax, seleccion);
+        }
+        ListaEnteros posiciones = new ListaEnteros();
+        for (int t = 0; t < trozos.length; t++) {
+            for (int posicion : trozos[t].buscarEnRango(valorMin, valorMax)) {
+                posiciones.agregar(inicios[t] + posicion);
+            }
+        }
+        return posiciones.toArray();
+    }
+
+    /**
+     * Compacta los trozos en un único almacenamiento del tipo del primer trozo con valores. Los trozos de la
+     * misma clase se anexan en bloque; los demás (por ejemplo, texto codificado junto a texto sin codificar)
+     * valor por valor.
+     */
+    @Override
+    public AlmacenColumna copiar() {
+        AlmacenColumna compacto = crearVacio(Math.max(tamanio, CAPACIDAD_INICIAL));
+        for (AlmacenColumna trozo : trozos) {
+            AlmacenColumna valores = trozo instanceof AlmacenVista ? trozo.copiar() : trozo.contiguo();
+            if (valores instanceof AlmacenNulo) {
+                for (int i = 0; i < valores.tamanio(); i++) {
+                    compacto.agregarNulo();
+                }
+            } else if (valores.getClass() == compacto.getClass()) {
+                compacto.anexar(valores);
+            } else {
+                for (int i = 0; i < valores.tamanio(); i++) {
+                    compacto.agregar(valores.getValor(i));
+                }
+            }
+        }
+        return compacto;
+    }
+
+    @Override
+    public AlmacenColumna contiguo() {
+        PresupuestoMemoria.verificar("compactar una columna concatenada de " + tamanio + " filas", estimarCopia(tamanio));
+        return copiar();
+    }
+
+    @Override
+    public AlmacenColumna seleccionar(int[] filas) {
+        AlmacenColumna nuevo = crearVacio(filas.length);
+        for (int fila : filas) {
+            nuevo.agregar(fila < 0 ? null : getValor(fila));
+        }
+        return nuevo;
+    }
+
+    @Override
+    public AlmacenColumna eliminarFilas(BitSet filasEliminadas) {
+        return copiar().eliminarFilas(filasEliminadas);
+    }
+
+    @Override
+    public AlmacenColumna generalizarPara(Object valor) {
+        return copiar().generalizarPara(valor);
+    }
+
+    @Override
+    protected void estimarValores(EstimacionMemoria estimacion) {
+        for (AlmacenColumna trozo : trozos) {
+            trozo.estimarMemoria(estimacion);
+        }
+        estimacion.agregarAuxiliar(EstimacionMemoria.arreglo(inicios.length, 4)
+                + EstimacionMemoria.arreglo(trozos.length, EstimacionMemoria.REFERENCIA));
+    }
+
+    @Override
+    public boolean esSoloLectura() {
+        return true;
+    }
+
+    @Override
+    public void agregar(Object valor) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public void agregarNulo() {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public void asignar(int indice, Object valor) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public void rellenarNulos(Object valor) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public int rellenarNulosConVecinos(boolean haciaAdelante) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public void eliminar(int indice) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public void anexar(AlmacenColumna otro) {
+        throw sinModificaciones();
+    }
+
+    private UnsupportedOperationException sinModificaciones() {
+        return new UnsupportedOperationException("Los trozos enlazados son de sólo lectura; la columna debe compactarse antes de modificarla.");
+    }
+
+    @Override
+    protected void escribir(int indice, Object valor) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    protected void asegurarCapacidad(int capacidad) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    protected void desplazar(int desde, int hacia, int cantidad) {
+        throw sinModificaciones();
+    }
+
+    /**
+     * Crea un almacenamiento vacío de la clase del primer trozo con valores, o uno sin tipo si sólo hay nulos.
+     */
+    @Override
+    protected AlmacenColumna crearVacio(int capacidad) {
+        return modelo == null ? new AlmacenNulo() : modelo.crearVacio(capacidad);
+    }
+
+    @Override
+    protected void copiarDesde(AlmacenColumna origen, int desde, int hacia) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    protected void desplazarDesde(AlmacenColumna origen, int cantidad) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    protected void copiarRango(AlmacenColumna origen, int desde, int hacia, int cantidad) {
+        throw sinModificaciones();
+    }
+}
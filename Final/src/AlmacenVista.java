@@ -0,0 +1,266 @@
+import java.util.BitSet;
+
+/**
+ * Vista de sólo lectura sobre otro almacenamiento, formada por un vector de selección con las
+ * filas visibles. Permite que los filtros devuelvan sus resultados sin copiar los valores;
+ * la columna que contiene la vista la materializa recién cuando se la modifica.
+ */
+class AlmacenVista extends AlmacenColumna {
+    private final AlmacenColumna base;
+    private final int[] filas;
+    private BitSet nulosVista;
+
+    /**
+     * Constructor que crea una vista sobre las filas indicadas del almacenamiento base.
+     *
+     * @param base el almacenamiento con los valores; no debe ser otra vista.
+     * @param filas las posiciones de la base que forman la vista, en ese orden.
+     */
+    AlmacenVista(AlmacenColumna base, int[] filas) {
+        this.base = base;
+        this.filas = filas;
+        this.tamanio = filas.length;
+    }
+
+    /**
+     * Obtiene el almacenamiento sobre el que se construyó la vista.
+     *
+     * @return el almacenamiento base.
+     */
+    public AlmacenColumna getBase() {
+        return base;
+    }
+
+    /**
+     * Obtiene el vector de selección de la vista. No debe modificarse.
+     *
+     * @return las posiciones de la base que forman la vista.
+     */
+    public int[] getFilas() {
+        return filas;
+    }
+
+    /**
+     * Traduce posiciones de esta vista a posiciones del almacenamiento base. Las posiciones negativas,
+     * que representan valores nulos, se conservan.
+     *
+     * @param posiciones posiciones dentro de la vista.
+     * @return las posiciones correspondientes en la base.
+     */
+    public int[] componer(int[] posiciones) {
+        int[] compuestas = new int[posiciones.length];
+        for (int i = 0; i < posiciones.length; i++) {
+            compuestas[i] = posiciones[i] < 0 ? -1 : filas[posiciones[i]];
+        }
+        return compuestas;
+    }
+
+    @Override
+    public Class<?> getTipo() {
+        return base.getTipo();
+    }
+
+    @Override
+    public boolean acepta(Object valor) {
+        return base.acepta(valor);
+    }
+
+    @Override
+    public boolean esNulo(int indice) {
+        return base.esNulo(filas[indice]);
+    }
+
+    @Override
+    public BitSet getNulos() {
+        if (nulosVista == null) {
+            BitSet calculados = new BitSet(tamanio);
+            for (int i = 0; i < tamanio; i++) {
+                if (base.esNulo(filas[i])) {
+                    calculados.set(i);
+                }
+            }
+            nulosVista = calculados;
+        }
+        return nulosVista;
+    }
+
+    @Override
+    public int contarNulos() {
+        return getNulos().cardinality();
+    }
+
+    @Override
+    public Object getValor(int indice) {
+        verificarIndice(indice);
+        return base.getValor(filas[indice]);
+    }
+
+    @Override
+    public int[] buscarIguales(Object valor, int[] seleccion) {
+        return base.buscarIguales(valor, seleccion == null ? filas : componer(seleccion));
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public int[] buscarEnRango(Comparable valorMin, Comparable valorMax, int[] seleccion) {
+        return base.buscarEnRango(valorMin, valorMax, seleccion == null ? filas : componer(seleccion));
+    }
+
+    /**
+     * Una vista de una vista se construye directamente sobre la base, componiendo las selecciones.
+     */
+    @Override
+    public AlmacenColumna vista(int[] posiciones) {
+        return base.vista(componer(posiciones));
+    }
+
+    /**
+     * Eliminar filas de una vista sólo achica su vector de selección, sin copiar valores.
+     */
+    @Override
+    public AlmacenColumna eliminarFilas(BitSet filasEliminadas) {
+        ListaEnteros restantes = new ListaEnteros();
+        for (int i = filasEliminadas.nextClearBit(0); i < tamanio; i = filasEliminadas.nextClearBit(i + 1)) {
+            restantes.agregar(filas[i]);
+        }
+        return base.vista(restantes.toArray());
+    }
+
+    @Override
+    public AlmacenColumna seleccionar(int[] posiciones) {
+        return base.seleccionar(componer(posiciones));
+    }
+
+    /**
+     * Materializa la vista en un almacenamiento independiente del mismo tipo que la base.
+     */
+    @Override
+    public AlmacenColumna copiar() {
+        return base.seleccionar(filas);
+    }
+
+    /**
+     * Una vista sobre un almacenamiento que no es contiguo, como un archivo mapeado, se traslada a su
+     * versión contigua conservando el vector de selección.
+     */
+    @Override
+    public AlmacenColumna contiguo() {
+        AlmacenColumna contiguo = base.contiguo();
+        return contiguo == base ? this : contiguo.vista(filas);
+    }
+
+    @Override
+    public AlmacenColumna generalizarPara(Object valor) {
+        return copiar().generalizarPara(valor);
+    }
+
+    /**
+     * La vista mantiene en memoria el almacenamiento completo sobre el que se construyó, así que se cuenta entero.
+     */
+    @Override
+    public void estimarMemoria(EstimacionMemoria estimacion) {
+        base.estimarMemoria(estimacion);
+        estimarValores(estimacion);
+    }
+
+    @Override
+    protected void estimarValores(EstimacionMemoria estimacion) {
+        estimacion.agregarAuxiliar(EstimacionMemoria.arreglo(filas.length, 4));
+        BitSet actuales = nulosVista;
+        if (actuales != null) {
+            estimacion.agregarNulos(EstimacionMemoria.mapaDeBits(actuales));
+        }
+    }
+
+    /**
+     * Una copia de la vista tiene los valores del almacenamiento base, así que se estima con sus bytes por fila.
+     */
+    @Override
+    public long estimarCopia(int cantidad) {
+        return base.estimarCopia(cantidad);
+    }
+
+    @Override
+    public boolean esSoloLectura() {
+        return true;
+    }
+
+    @Override
+    public void agregar(Object valor) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public void agregarNulo() {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public void asignar(int indice, Object valor) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public void rellenarNulos(Object valor) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public int rellenarNulosConVecinos(boolean haciaAdelante) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public void eliminar(int indice) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    public void anexar(AlmacenColumna otro) {
+        throw sinModificaciones();
+    }
+
+    private UnsupportedOperationException sinModificaciones() {
+        return new UnsupportedOperationException("Las vistas son de sólo lectura; la columna debe materializarse antes de modificarla.");
+    }
+
+    @Override
+    protected Object leer(int indice) {
+        return base.leer(filas[indice]);
+    }
+
+    @Override
+    protected void escribir(int indice, Object valor) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    protected void asegurarCapacidad(int capacidad) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    protected void desplazar(int desde, int hacia, int cantidad) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    protected AlmacenColumna crearVacio(int capacidad) {
+        return base.crearVacio(capacidad);
+    }
+
+    @Override
+    protected void copiarDesde(AlmacenColumna origen, int desde, int hacia) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    protected void desplazarDesde(AlmacenColumna origen, int cantidad) {
+        throw sinModificaciones();
+    }
+
+    @Override
+    protected void copiarRango(AlmacenColumna origen, int desde, int hacia, int cantidad) {
+        throw sinModificaciones();
+    }
+}
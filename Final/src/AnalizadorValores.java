@@ -0,0 +1,208 @@
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Conversores de campos CSV a valores primitivos que nunca lanzan excepciones.
+ * Trabajan directamente sobre los bytes del campo e informan los valores inválidos
+ * mediante un valor centinela, de modo que los datos sucios no tengan costo extra.
+ */
+final class AnalizadorValores {
+    /** Valor devuelto por los conversores enteros cuando el campo no es válido. */
+    static final long INVALIDO = Long.MIN_VALUE;
+
+    private static final double[] POTENCIAS_DE_DIEZ = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private AnalizadorValores() {
+    }
+
+    /**
+     * Indica si el campo representa un valor faltante (vacío o "NA").
+     */
+    static boolean esNulo(byte[] bytes, int largo) {
+        return largo == 0
+                || (largo == 2 && (bytes[0] | 0x20) == 'n' && (bytes[1] | 0x20) == 'a');
+    }
+
+    /**
+     * Indica si el texto se leería como un valor faltante al escribirlo sin comillas.
+     */
+    static boolean esNulo(String texto) {
+        return texto.isEmpty()
+                || (texto.length() == 2 && (texto.charAt(0) | 0x20) == 'n' && (texto.charAt(1) | 0x20) == 'a');
+    }
+
+    /**
+     * Convierte el campo en un entero de 32 bits.
+     *
+     * @return el valor, o {@link #INVALIDO} si el campo no es un entero válido dentro del rango de {@code int}.
+     */
+    static long parsearEntero(byte[] bytes, int largo) {
+        return parsearEntero(bytes, 0, largo);
+    }
+
+    private static long parsearEntero(byte[] bytes, int desde, int hasta) {
+        int i = desde;
+        boolean negativo = false;
+        if (hasta > desde && (bytes[desde] == '-' || bytes[desde] == '+')) {
+            negativo = bytes[desde] == '-';
+            i++;
+        }
+        if (i == hasta || hasta - i > 10) {
+            return INVALIDO;
+        }
+        long valor = 0;
+        for (; i < hasta; i++) {
+            int digito = bytes[i] - '0';
+            if (digito < 0 || digito > 9) {
+                return INVALIDO;
+            }
+            valor = valor * 10 + digito;
+        }
+        valor = negativo ? -valor : valor;
+        return valor < Integer.MIN_VALUE || valor > Integer.MAX_VALUE ? INVALIDO : valor;
+    }
+
+    /**
+     * Convierte el campo en un decimal. Acepta signo, parte entera, parte fraccionaria y exponente.
+     * Los valores con hasta 15 dígitos significativos y exponentes pequeños se calculan de forma exacta
+     * sin crear objetos; el resto se delega a {@link Double#parseDouble(String)} una vez validada la sintaxis.
+     *
+     * @return el valor, o {@code Double.NaN} si el campo no es un decimal válido.
+     */
+    static double parsearDecimal(byte[] bytes, int largo) {
+        int i = 0;
+        boolean negativo = false;
+        if (largo > 0 && (bytes[0] == '-' || bytes[0] == '+')) {
+            negativo = bytes[0] == '-';
+            i++;
+        }
+        long mantisa = 0;
+        int digitosSignificativos = 0;
+        int digitos = 0;
+        int exponente = 0;
+        boolean punto = false;
+        for (; i < largo; i++) {
+            byte b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                digitos++;
+                if (mantisa == 0 && b == '0') {
+                    if (punto) {
+                        exponente--;
+                    }
+                    continue;
+                }
+                digitosSignificativos++;
+                if (digitosSignificativos <= 18) {
+                    mantisa = mantisa * 10 + (b - '0');
+                    if (punto) {
+                        exponente--;
+                    }
+                } else if (!punto) {
+                    exponente++;
+                }
+            } else if (b == '.' && !punto) {
+                punto = true;
+            } else {
+                break;
+            }
+        }
+        if (digitos == 0) {
+            return Double.NaN;
+        }
+        if (i < largo) {
+            if ((bytes[i] | 0x20) != 'e' || i + 1 == largo) {
+                return Double.NaN;
+            }
+            long exponenteExplicito = parsearEntero(bytes, i + 1, largo);
+            if (exponenteExplicito == INVALIDO) {
+                return Double.NaN;
+            }
+            exponente += (int) Math.max(-100000, Math.min(100000, exponenteExplicito));
+        }
+        double valor;
+        if (mantisa == 0) {
+            valor = 0.0;
+        } else if (digitosSignificativos <= 15 && Math.abs(exponente) <= 22) {
+            valor = exponente >= 0 ? mantisa * POTENCIAS_DE_DIEZ[exponente] : mantisa / POTENCIAS_DE_DIEZ[-exponente];
+        } else {
+            // La sintaxis ya fue validada, por lo que esta conversión no puede fallar
+            return Double.parseDouble(new String(bytes, 0, largo, StandardCharsets.ISO_8859_1));
+        }
+        return negativo ? -valor : valor;
+    }
+
+    /**
+     * Convierte el campo en un booleano, sin distinguir mayúsculas y minúsculas.
+     *
+     * @return 1 si es verdadero, 0 si es falso o -1 si el campo no es un booleano.
+     */
+    static int parsearBooleano(byte[] bytes, int largo) {
+        if (largo == 4 && (bytes[0] | 0x20) == 't' && (bytes[1] | 0x20) == 'r' && (bytes[2] | 0x20) == 'u' && (bytes[3] | 0x20) == 'e') {
+            return 1;
+        }
+        if (largo == 5 && (bytes[0] | 0x20) == 'f' && (bytes[1] | 0x20) == 'a' && (bytes[2] | 0x20) == 'l'
+                && (bytes[3] | 0x20) == 's' && (bytes[4] | 0x20) == 'e') {
+            return 0;
+        }
+        return -1;
+    }
+
+    /**
+     * Convierte un campo con formato ISO {@code yyyy-MM-dd} en la cantidad de días desde 1970-01-01.
+     *
+     * @return los días desde la época, o {@link #INVALIDO} si el campo no es una fecha válida.
+     */
+    static long parsearFecha(byte[] bytes, int largo) {
+        if (largo != 10 || bytes[4] != '-' || bytes[7] != '-') {
+            return INVALIDO;
+        }
+        int anio = digitos(bytes, 0, 4);
+        int mes = digitos(bytes, 5, 2);
+        int dia = digitos(bytes, 8, 2);
+        if (anio < 0 || mes < 1 || mes > 12 || dia < 1 || dia > diasDelMes(anio, mes)) {
+            return INVALIDO;
+        }
+        return diasDesdeEpoca(anio, mes, dia);
+    }
+
+    private static int digitos(byte[] bytes, int desde, int cantidad) {
+        int valor = 0;
+        for (int i = desde; i < desde + cantidad; i++) {
+            int digito = bytes[i] - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    private static int diasDelMes(int anio, int mes) {
+        switch (mes) {
+            case 2:
+                boolean bisiesto = (anio % 4 == 0 && anio % 100 != 0) || anio % 400 == 0;
+                return bisiesto ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Calcula los días desde 1970-01-01 de una fecha válida del calendario gregoriano proléptico.
+     */
+    private static long diasDesdeEpoca(int anio, int mes, int dia) {
+        long y = mes <= 2 ? anio - 1 : anio;
+        long era = Math.floorDiv(y, 400);
+        long anioDeEra = y - era * 400;
+        long diaDelAnio = (153L * (mes + (mes > 2 ? -3 : 9)) + 2) / 5 + dia - 1;
+        long diaDeEra = anioDeEra * 365 + anioDeEra / 4 - anioDeEra / 100 + diaDelAnio;
+        return era * 146097 + diaDeEra - 719468;
+    }
+}
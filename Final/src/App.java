@@ -1,5 +1,4 @@
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 public class App {
@@ -9,22 +8,15 @@ public class App {
 
         Tabla alumnos = new Tabla("Alumnos",curso1,curso2);
         alumnos.mostrarNAs();
-        Tabla alumnos2 = alumnos.eliminarFilasConNAs("Promedio");
-        //alumnos2.mostrarTabla();
-        
-        Tabla alumnos_asistencia = alumnos2.filtrarPorRango("Asistencias", 75, 100);
-        // alumnos_asistencia.mostrarTabla();
-
-        Tabla alumnos_promedios = alumnos_asistencia.Ordenamiento(List.of("Promedio","Nombre"),List.of(false,true));
-        //alumnos_promedios.mostrarTabla();
-
-        Tabla alumnos_borrar = alumnos_promedios.eliminarColumna("Genero");
-
-        DateTimeFormatter formato = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-        String fechaTexto = (String) alumnos_borrar.getValor(8, "Fecha_Nacimiento");
-        
-        LocalDate fechaNacimiento = LocalDate.parse(fechaTexto, formato);
+        // Las operaciones se registran en una consulta diferida y se materializan una sola vez
+        Tabla alumnos_borrar = alumnos.consulta()
+                .eliminarFilasConNAs("Promedio")
+                .filtrarPorRango("Asistencias", 75, 100)
+                .ordenar(List.of("Promedio","Nombre"),List.of(false,true))
+                .eliminarColumna("Genero")
+                .ejecutar();
+
+        LocalDate fechaNacimiento = (LocalDate) alumnos_borrar.getValor(8, "Fecha_Nacimiento");
         LocalDate fechaActual = LocalDate.now();
 
         Double edad = (double) fechaActual.getYear() - fechaNacimiento.getYear();
@@ -0,0 +1,426 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Formato binario columnar para guardar tablas y volver a abrirlas sin convertir texto.
+ * Todos los números se escriben en orden little-endian. El archivo tiene tres partes:
+ * <ul>
+ * <li><b>Cabecera</b>: número mágico, versión, cantidad de filas y de columnas, y por cada columna su tipo
+ * (un byte) y su nombre (largo y bytes UTF-8).</li>
+ * <li><b>Bloques</b>: uno por columna, alineado a 8 bytes. Empieza con su largo total, su tipo y su cantidad
+ * de filas; sigue el mapa de nulos como palabras de 64 bits y luego los valores según el tipo: {@code int} por
+ * fila para enteros y fechas (días desde 1970-01-01), {@code double} por fila para decimales, un mapa de bits
+ * para booleanos, los bytes UTF-8 seguidos de los desplazamientos de cada fila para textos, y los códigos por
+ * fila seguidos de los textos del diccionario para columnas codificadas.</li>
+ * <li><b>Pie</b>: el índice con la posición y el largo de cada bloque, y al final la posición del índice,
+ * la cantidad de columnas y otra vez el número mágico.</li>
+ * </ul>
+ * Al abrir un archivo sólo se leen la cabecera y el pie; cada bloque se mapea en memoria y sus páginas se
+ * leen del disco recién cuando se accede a esa columna.
+ */
+class ArchivoBinario {
+    static final int MAGICO = 0x4C424154;
+    static final int VERSION = 1;
+
+    static final byte NULO = 0;
+    static final byte ENTERO = 1;
+    static final byte DECIMAL = 2;
+    static final byte FECHA = 3;
+    static final byte BOOLEANO = 4;
+    static final byte TEXTO = 5;
+    static final byte DICCIONARIO = 6;
+
+    /** Bytes del encabezado de cada bloque: largo total, tipo y cantidad de filas. */
+    static final int ENCABEZADO_BLOQUE = 16;
+    private static final int TAMANIO_PIE = 16;
+    private static final int TAMANIO_BUFER = 1 << 20;
+
+    private ArchivoBinario() {
+    }
+
+    /**
+     * Guarda la tabla en el archivo indicado, reemplazándolo si existe.
+     * La tabla se escribe primero en un archivo temporal de la misma carpeta, que después se mueve sobre el
+     * destino. Así las tablas abiertas con {@link #abrir(String, Path)} que mapean el archivo anterior, incluida
+     * la que se está guardando, siguen leyendo su contenido y nunca ven un archivo a medio escribir.
+     *
+     * @param tabla la tabla a guardar.
+     * @param ruta la ruta del archivo de destino.
+     * @throws IOException si ocurre un error al escribir el archivo.
+     * @throws IllegalArgumentException si alguna columna guarda valores sin representación binaria.
+     */
+    static void guardar(Tabla tabla, Path ruta) throws IOException {
+        List<Columna<?>> columnas = tabla.getColumnas();
+        List<AlmacenColumna> almacenes = new ArrayList<>(columnas.size());
+        byte[] tipos = new byte[columnas.size()];
+        for (int c = 0; c < columnas.size(); c++) {
+            AlmacenColumna almacen = columnas.get(c).getAlmacen();
+            if (almacen.esSoloLectura()) {
+                almacen = almacen.copiar();
+            }
+            tipos[c] = tipoDe(columnas.get(c).getNombre(), almacen);
+            almacenes.add(almacen);
+        }
+        int filas = tabla.getFilas();
+
+        Path carpeta = ruta.toAbsolutePath().getParent();
+        Path temporal = Files.createTempFile(carpeta, ruta.getFileName().toString(), ".tmp");
+        try {
+            escribir(temporal, columnas, almacenes, tipos, filas);
+            try {
+                Files.move(temporal, ruta, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    private static void escribir(Path ruta, List<Columna<?>> columnas, List<AlmacenColumna> almacenes, byte[] tipos,
+            int filas) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Escritor escritor = new Escritor(canal);
+            escritor.putInt(MAGICO);
+            escritor.putInt(VERSION);
+            escritor.putInt(filas);
+            escritor.putInt(columnas.size());
+            for (int c = 0; c < columnas.size(); c++) {
+                byte[] nombre = columnas.get(c).getNombre().getBytes(StandardCharsets.UTF_8);
+                escritor.put(tipos[c]);
+                escritor.putInt(nombre.length);
+                escritor.put(nombre);
+            }
+
+            long[] indice = new long[2 * columnas.size()];
+            for (int c = 0; c < columnas.size(); c++) {
+                escritor.alinear(8);
+                long inicio = escritor.posicion();
+                escritor.putLong(0);
+                escritor.putInt(tipos[c]);
+                escritor.putInt(filas);
+                escribirBloque(escritor, almacenes.get(c), tipos[c], filas);
+                escritor.alinear(8);
+                long largo = escritor.posicion() - inicio;
+                if (largo > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("La columna " + columnas.get(c).getNombre()
+                            + " ocupa más de 2 GB y no puede guardarse en un único bloque.");
+                }
+                escritor.parchear(inicio, largo);
+                indice[2 * c] = inicio;
+                indice[2 * c + 1] = largo;
+            }
+
+            long inicioIndice = escritor.posicion();
+            for (long valor : indice) {
+                escritor.putLong(valor);
+            }
+            escritor.putLong(inicioIndice);
+            escritor.putInt(columnas.size());
+            escritor.putInt(MAGICO);
+            escritor.vaciar();
+        }
+    }
+
+    /**
+     * Abre un archivo guardado con {@link #guardar(Tabla, Path)}. Sólo se leen la cabecera y el pie: cada
+     * columna queda respaldada por su bloque mapeado en memoria y se lee del disco a medida que se usa.
+     *
+     * @param nombreTabla el nombre de la tabla.
+     * @param ruta la ruta del archivo.
+     * @return la tabla con las columnas del archivo.
+     * @throws IOException si ocurre un error al leer el archivo.
+     * @throws IllegalArgumentException si el archivo no tiene el formato esperado.
+     */
+    static Tabla abrir(String nombreTabla, Path ruta) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            if (tamanio < TAMANIO_PIE) {
+                throw formatoInvalido(ruta);
+            }
+            ByteBuffer pie = leer(canal, tamanio - TAMANIO_PIE, TAMANIO_PIE);
+            long inicioIndice = pie.getLong();
+            int cantColumnas = pie.getInt();
+            if (pie.getInt() != MAGICO || cantColumnas < 0 || inicioIndice < 0
+                    || inicioIndice + 16L * cantColumnas != tamanio - TAMANIO_PIE) {
+                throw formatoInvalido(ruta);
+            }
+            ByteBuffer indice = leer(canal, inicioIndice, 16 * cantColumnas);
+            long finCabecera = cantColumnas == 0 ? inicioIndice : indice.getLong(0);
+            if (finCabecera > inicioIndice) {
+                throw formatoInvalido(ruta);
+            }
+
+            ByteBuffer cabecera = leer(canal, 0, (int) finCabecera);
+            if (cabecera.remaining() < 16 || cabecera.getInt() != MAGICO) {
+                throw formatoInvalido(ruta);
+            }
+            int version = cabecera.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("El archivo " + ruta + " tiene la versión " + version
+                        + " del formato binario; se esperaba la versión " + VERSION + ".");
+            }
+            int filas = cabecera.getInt();
+            if (cabecera.getInt() != cantColumnas) {
+                throw formatoInvalido(ruta);
+            }
+
+            List<Columna<?>> columnas = new ArrayList<>(cantColumnas);
+            for (int c = 0; c < cantColumnas; c++) {
+                byte tipo = cabecera.get();
+                byte[] nombre = new byte[cabecera.getInt()];
+                cabecera.get(nombre);
+                long inicio = indice.getLong(16 * c);
+                long largo = indice.getLong(16 * c + 8);
+                if (largo < ENCABEZADO_BLOQUE || largo > Integer.MAX_VALUE || inicio + largo > inicioIndice) {
+                    throw formatoInvalido(ruta);
+                }
+                MappedByteBuffer bloque = canal.map(FileChannel.MapMode.READ_ONLY, inicio, largo);
+                bloque.order(ByteOrder.LITTLE_ENDIAN);
+                if (bloque.getInt(8) != tipo || bloque.getInt(12) != filas) {
+                    throw formatoInvalido(ruta);
+                }
+                columnas.add(new Columna<>(new String(nombre, StandardCharsets.UTF_8),
+                        new AlmacenMapeado(bloque, tipo, filas)));
+            }
+            // El mapeo sigue siendo válido después de cerrar el canal
+            return new Tabla(nombreTabla, filas, columnas);
+        }
+    }
+
+    /**
+     * Determina el tipo binario de un almacenamiento contiguo.
+     */
+    private static byte tipoDe(String nombreColumna, AlmacenColumna almacen) {
+        if (almacen instanceof AlmacenNulo) {
+            return NULO;
+        } else if (almacen instanceof AlmacenEntero) {
+            return ENTERO;
+        } else if (almacen instanceof AlmacenDecimal) {
+            return DECIMAL;
+        } else if (almacen instanceof AlmacenFecha) {
+            return FECHA;
+        } else if (almacen instanceof AlmacenBooleano) {
+            return BOOLEANO;
+        } else if (almacen instanceof AlmacenTexto) {
+            return TEXTO;
+        } else if (almacen instanceof AlmacenDiccionario) {
+            return DICCIONARIO;
+        }
+        throw new IllegalArgumentException("La columna " + nombreColumna + " guarda valores de tipo "
+                + almacen.getTipo().getSimpleName() + ", que no tienen representación en el formato binario.");
+    }
+
+    /**
+     * Escribe el mapa de nulos y los valores de un almacenamiento, después del encabezado de su bloque.
+     */
+    private static void escribirBloque(Escritor escritor, AlmacenColumna almacen, byte tipo, int filas) throws IOException {
+        BitSet nulos = almacen.getNulos();
+        escritor.putBits(nulos, filas);
+        switch (tipo) {
+            case ENTERO:
+                AlmacenEntero enteros = (AlmacenEntero) almacen;
+                for (int i = 0; i < filas; i++) {
+                    escritor.putInt(enteros.getEntero(i));
+                }
+                break;
+            case DECIMAL:
+                AlmacenDecimal decimales = (AlmacenDecimal) almacen;
+                for (int i = 0; i < filas; i++) {
+                    escritor.putDouble(decimales.getDecimal(i));
+                }
+                break;
+            case FECHA:
+                AlmacenFecha fechas = (AlmacenFecha) almacen;
+                for (int i = 0; i < filas; i++) {
+                    escritor.putInt(fechas.getDias(i));
+                }
+                break;
+            case BOOLEANO:
+                AlmacenBooleano booleanos = (AlmacenBooleano) almacen;
+                BitSet verdaderos = new BitSet(filas);
+                for (int i = nulos.nextClearBit(0); i < filas; i = nulos.nextClearBit(i + 1)) {
+                    if (booleanos.getBooleano(i)) {
+                        verdaderos.set(i);
+                    }
+                }
+                escritor.putBits(verdaderos, filas);
+                break;
+            case TEXTO:
+                AlmacenTexto textos = (AlmacenTexto) almacen;
+                String[] valores = new String[filas];
+                for (int i = 0; i < filas; i++) {
+                    valores[i] = nulos.get(i) ? null : textos.getTexto(i);
+                }
+                escritor.putTextos(valores);
+                break;
+            case DICCIONARIO:
+                AlmacenDiccionario codificados = (AlmacenDiccionario) almacen;
+                for (int i = 0; i < filas; i++) {
+                    escritor.putInt(codificados.getCodigo(i));
+                }
+                escritor.alinear(8);
+                String[] diccionario = new String[codificados.getTamanioDiccionario()];
+                for (int codigo = 0; codigo < diccionario.length; codigo++) {
+                    diccionario[codigo] = codificados.getTexto(codigo);
+                }
+                escritor.putInt(diccionario.length);
+                escritor.putInt(0);
+                escritor.putTextos(diccionario);
+                break;
+            default:
+                // Las columnas sin tipo sólo tienen el mapa de nulos
+                break;
+        }
+    }
+
+    private static ByteBuffer leer(FileChannel canal, long posicion, int cantidad) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(cantidad).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, posicion + buffer.position()) < 0) {
+                throw new IOException("El archivo terminó antes de lo esperado.");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static IllegalArgumentException formatoInvalido(Path ruta) {
+        return new IllegalArgumentException("El archivo " + ruta + " no es una tabla en formato binario válida.");
+    }
+
+    /**
+     * Escritura secuencial con un búfer propio, que lleva la cuenta de la posición en el archivo
+     * y permite completar más tarde el largo de un bloque ya escrito.
+     */
+    private static class Escritor {
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANIO_BUFER).order(ByteOrder.LITTLE_ENDIAN);
+        private long escritos;
+
+        Escritor(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        long posicion() {
+            return escritos + buffer.position();
+        }
+
+        void put(byte valor) throws IOException {
+            reservar(1);
+            buffer.put(valor);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            int desde = 0;
+            while (desde < bytes.length) {
+                reservar(1);
+                int cantidad = Math.min(buffer.remaining(), bytes.length - desde);
+                buffer.put(bytes, desde, cantidad);
+                desde += cantidad;
+            }
+        }
+
+        void putInt(int valor) throws IOException {
+            reservar(4);
+            buffer.putInt(valor);
+        }
+
+        void putLong(long valor) throws IOException {
+            reservar(8);
+            buffer.putLong(valor);
+        }
+
+        void putDouble(double valor) throws IOException {
+            reservar(8);
+            buffer.putDouble(valor);
+        }
+
+        /**
+         * Escribe las primeras posiciones de un mapa de bits como palabras de 64 bits.
+         */
+        void putBits(BitSet bits, int cantidad) throws IOException {
+            long[] palabras = bits.toLongArray();
+            int cantPalabras = (cantidad + 63) >>> 6;
+            for (int p = 0; p < cantPalabras; p++) {
+                long palabra = p < palabras.length ? palabras[p] : 0L;
+                if (p == cantPalabras - 1 && (cantidad & 63) != 0) {
+                    palabra &= (1L << (cantidad & 63)) - 1;
+                }
+                putLong(palabra);
+            }
+        }
+
+        /**
+         * Escribe textos como el largo total de sus bytes UTF-8, los bytes uno detrás de otro y los
+         * desplazamientos de inicio de cada texto más el final del último. Los nulos ocupan cero bytes.
+         */
+        void putTextos(String[] textos) throws IOException {
+            long inicio = posicion();
+            putLong(0);
+            int[] desplazamientos = new int[textos.length + 1];
+            long total = 0;
+            for (int i = 0; i < textos.length; i++) {
+                if (textos[i] != null) {
+                    byte[] bytes = textos[i].getBytes(StandardCharsets.UTF_8);
+                    put(bytes);
+                    total += bytes.length;
+                    if (total > Integer.MAX_VALUE) {
+                        throw new IllegalArgumentException("Los textos de una columna ocupan más de 2 GB.");
+                    }
+                }
+                desplazamientos[i + 1] = (int) total;
+            }
+            alinear(4);
+            for (int desplazamiento : desplazamientos) {
+                putInt(desplazamiento);
+            }
+            parchear(inicio, total);
+        }
+
+        void alinear(int alineacion) throws IOException {
+            while (posicion() % alineacion != 0) {
+                put((byte) 0);
+            }
+        }
+
+        /**
+         * Reemplaza el {@code long} escrito en una posición anterior.
+         */
+        void parchear(long posicionValor, long valor) throws IOException {
+            if (posicionValor >= escritos) {
+                buffer.putLong((int) (posicionValor - escritos), valor);
+                return;
+            }
+            ByteBuffer parche = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(valor).flip();
+            while (parche.hasRemaining()) {
+                canal.write(parche, posicionValor + parche.position());
+            }
+        }
+
+        void vaciar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                escritos += canal.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void reservar(int cantidad) throws IOException {
+            if (buffer.remaining() < cantidad) {
+                vaciar();
+            }
+        }
+    }
+}
@@ -1,19 +1,13 @@
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileInputStream;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Clase para gestionar la lectura y escritura de datos en archivos CSV.
  */
 public class ArchivoCSV {
-    private Map<String, List<Object>> columnas;
+    private List<Columna<Object>> columnas;
+    private ReporteCarga reporte;
 
     /**
      * Constructor que carga los datos desde un archivo CSV.
@@ -21,10 +15,22 @@ public class ArchivoCSV {
      * @param archivoCSV La ruta del archivo CSV a leer.
      */
     public ArchivoCSV(String archivoCSV) {
-        columnas = new LinkedHashMap<>();
+        columnas = new ArrayList<>();
         cargarDatos(archivoCSV);
     }
 
+    /**
+     * Constructor que carga una muestra aleatoria de registros de un archivo CSV, sin cargar el archivo completo.
+     *
+     * @param archivoCSV La ruta del archivo CSV a leer.
+     * @param tamanioMuestra La cantidad de registros de la muestra.
+     * @param semilla La semilla del muestreo; la misma semilla elige los mismos registros.
+     */
+    public ArchivoCSV(String archivoCSV, int tamanioMuestra, long semilla) {
+        columnas = new ArrayList<>();
+        cargarMuestra(archivoCSV, tamanioMuestra, semilla);
+    }
+
     /**
      * Constructor que guarda una tabla en un archivo CSV.
      *
@@ -36,79 +42,78 @@ public class ArchivoCSV {
     }
 
     /**
-     * Devuelve un mapa que contiene los nombres de las columnas y sus datos.
+     * Constructor que guarda una tabla en un archivo CSV, opcionalmente comprimido con gzip.
+     *
+     * @param tabla       La tabla que se va a guardar.
+     * @param rutaDestino La ruta donde se guardará el archivo CSV.
+     * @param comprimir   Si el archivo se escribe comprimido con gzip.
+     */
+    public ArchivoCSV(Tabla tabla, String rutaDestino, boolean comprimir) {
+        guardarTablaEnCSV(tabla, rutaDestino, comprimir);
+    }
+
+    /**
+     * Devuelve las columnas leídas del archivo, en el orden de la cabecera.
      *
-     * @return Un mapa con los nombres de las columnas como claves y listas de datos como valores.
+     * @return Una lista con las columnas y sus datos.
      */
-    public Map<String, List<Object>> getMap() {
+    public List<Columna<Object>> getColumnas() {
         return columnas;
     }
 
     /**
-     * Carga los datos desde el archivo CSV y los almacena en el mapa de columnas.
+     * Devuelve el reporte de los valores que no coincidían con el tipo inferido para su columna
+     * y se cargaron como nulos.
+     *
+     * @return El reporte de carga, o null si no se pudo leer el archivo.
+     */
+    public ReporteCarga getReporte() {
+        return reporte;
+    }
+
+    /**
+     * Carga los datos desde el archivo CSV directamente en las columnas.
+     * El archivo se divide en fragmentos que se procesan en paralelo mediante {@link LectorCSV},
+     * que primero infiere el tipo de cada columna a partir de una muestra de registros.
      *
      * @param archivoCSV La ruta del archivo CSV a leer.
      */
     private void cargarDatos(String archivoCSV) {
-        String linea;
-        String separador = ",";
-
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(archivoCSV), "UTF-8"))) {
-            // Leer la primera línea para obtener los nombres de las columnas
-            if ((linea = br.readLine()) != null) {
-                String[] nombresColumnas = linea.split(separador);
-                
-                // Inicializar una lista vacía para cada columna
-                for (String nombreColumna : nombresColumnas) {
-                    columnas.put(nombreColumna, new ArrayList<>());
-                }
-            }
-
-            // Leer cada línea de datos y almacenarla en la lista correspondiente
-            while ((linea = br.readLine()) != null) {
-                String[] datosFila = linea.split(separador);
-                int i = 0;
-
-                for (String nombreColumna : columnas.keySet()) {
-                    if (i < datosFila.length) {
-                        columnas.get(nombreColumna).add(convertirDato(datosFila[i]));
-                    } else {
-                        columnas.get(nombreColumna).add(null); // Manejo de valores faltantes
-                    }
-                    i++;
-                }
-            }
+        try {
+            LectorCSV lector = new LectorCSV(archivoCSV);
+            columnas = lector.leer();
+            registrarReporte(lector, archivoCSV);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
     /**
-     * Convierte un dato de cadena de texto al tipo adecuado (Integer, Double, Boolean o String).
+     * Carga una muestra aleatoria de registros del archivo CSV mediante {@link LectorCSV#muestrear(int, long)},
+     * que recorre el archivo sin cargarlo y sólo convierte los registros elegidos.
      *
-     * @param dato El dato en forma de cadena de texto.
-     * @return El dato convertido al tipo adecuado o null si está vacío o es "NA".
+     * @param archivoCSV La ruta del archivo CSV a leer.
+     * @param tamanioMuestra La cantidad de registros de la muestra.
+     * @param semilla La semilla del muestreo.
      */
-    private Object convertirDato(String dato) {
-        if (dato.isEmpty() || dato.equalsIgnoreCase("NA")) {
-            return null;
-        }
-
-        // Intentar convertir a boolean
-        if (dato.equalsIgnoreCase("true")) {
-            return true;
-        } else if (dato.equalsIgnoreCase("false")) {
-            return false;
+    private void cargarMuestra(String archivoCSV, int tamanioMuestra, long semilla) {
+        try {
+            LectorCSV lector = new LectorCSV(archivoCSV);
+            columnas = lector.muestrear(tamanioMuestra, semilla);
+            registrarReporte(lector, archivoCSV);
+        } catch (IOException e) {
+            e.printStackTrace();
         }
+    }
 
-        // Intentar convertir a Double o Integer
-        try {
-            if (dato.contains(".")) {
-                return Double.parseDouble(dato);
-            }
-            return Integer.parseInt(dato);
-        } catch (NumberFormatException e) {
-            return dato; // Si no es numérico ni booleano, devolver como String
+    /**
+     * Guarda el reporte de la última lectura e informa si hubo valores cargados como nulos.
+     */
+    private void registrarReporte(LectorCSV lector, String archivoCSV) {
+        reporte = lector.getReporte();
+        if (reporte.getCantidadRechazos() > 0) {
+            Telemetria.contar("cargarCSV.valoresRechazados", reporte.getCantidadRechazos());
+            Telemetria.informar("Se cargaron como NA " + reporte.getCantidadRechazos() + " valores que no coinciden con el tipo de su columna en " + archivoCSV);
         }
     }
 
@@ -119,29 +124,20 @@ public class ArchivoCSV {
      * @param archivoDestino  La ruta donde se guardará el archivo CSV.
      */
     public void guardarTablaEnCSV(Tabla tabla, String archivoDestino) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(archivoDestino))) {
-            // Escribir la cabecera con los nombres de las columnas
-            for (int i = 0; i < tabla.getColumnas().size(); i++) {
-                writer.write(tabla.getColumnas().get(i).getNombre());
-                if (i < tabla.getColumnas().size() - 1) {
-                    writer.write(","); // Agregar coma entre nombres de columnas
-                }
-            }
-            writer.newLine(); // Nueva línea después de la cabecera
-
-            // Escribir cada fila de datos
-            for (int fila = 0; fila < tabla.getFilas(); fila++) {
-                for (int col = 0; col < tabla.getColumnas().size(); col++) {
-                    Columna<?> columna = tabla.getColumnas().get(col);
-                    Object valor = columna.getCeldas().get(fila).getValor();
-                    writer.write(valor != null ? valor.toString() : ""); // Manejo de valores nulos
+        guardarTablaEnCSV(tabla, archivoDestino, false);
+    }
 
-                    if (col < tabla.getColumnas().size() - 1) {
-                        writer.write(",");
-                    }
-                }
-                writer.newLine();
-            }
+    /**
+     * Guarda los datos de una tabla en un archivo CSV en UTF-8 mediante {@link EscritorCSV}, que da formato
+     * a las filas en partes paralelas y pone entre comillas los campos que lo necesitan según RFC 4180.
+     *
+     * @param tabla           La tabla cuyos datos se van a guardar.
+     * @param archivoDestino  La ruta donde se guardará el archivo CSV.
+     * @param comprimir       Si el archivo se escribe comprimido con gzip.
+     */
+    public void guardarTablaEnCSV(Tabla tabla, String archivoDestino, boolean comprimir) {
+        try {
+            new EscritorCSV(archivoDestino, comprimir).escribir(tabla);
         } catch (IOException e) {
             e.printStackTrace();
         }
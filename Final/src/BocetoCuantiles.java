@@ -0,0 +1,160 @@
+import java.util.Arrays;
+
+/**
+ * Boceto de cuantiles en un solo recorrido (un boceto KLL): guarda una muestra ponderada de los valores
+ * en niveles, donde cada valor del nivel {@code h} representa 2<sup>h</sup> valores. Cuando un nivel se
+ * llena, se ordena y se promueve uno de cada dos valores al nivel siguiente, de modo que el boceto ocupa
+ * unos pocos miles de valores sea cual sea la cantidad de filas. Mientras no se comprime ningún nivel los
+ * cuantiles son exactos; después, el error en el rango del cuantil ronda el 1 % de la cantidad de valores.
+ * <p>
+ * Los bocetos de partes distintas se pueden fusionar, así que se calculan en paralelo por partes. Para que el
+ * resultado sea reproducible, en lugar de elegir al azar qué mitad de un nivel se promueve se alternan las
+ * posiciones pares e impares.
+ */
+class BocetoCuantiles {
+    private static final int K = 200;
+    private static final int CAPACIDAD_MINIMA = 8;
+
+    private double[][] niveles = new double[1][K];
+    private int[] tamanios = new int[1];
+    private boolean[] impares = new boolean[1];
+    private int[] capacidades = {K};
+    private long cantidad;
+    private int retenidos;
+    private int capacidadTotal = K;
+
+    /**
+     * Agrega un valor al boceto.
+     *
+     * @param valor el valor a agregar.
+     */
+    public void agregar(double valor) {
+        agregarEnNivel(0, valor);
+        cantidad++;
+        if (retenidos > capacidadTotal) {
+            comprimir();
+        }
+    }
+
+    /**
+     * Incorpora los valores de otro boceto. El otro boceto no se modifica.
+     *
+     * @param otro el boceto a fusionar.
+     */
+    public void fusionar(BocetoCuantiles otro) {
+        for (int h = 0; h < otro.niveles.length; h++) {
+            for (int i = 0; i < otro.tamanios[h]; i++) {
+                agregarEnNivel(h, otro.niveles[h][i]);
+            }
+        }
+        cantidad += otro.cantidad;
+        while (retenidos > capacidadTotal) {
+            comprimir();
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de valores agregados.
+     *
+     * @return la cantidad de valores.
+     */
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Estima el cuantil indicado: el menor valor que es mayor o igual que la fracción {@code q} de los valores.
+     * Con {@code q = 0.5} es la mediana inferior.
+     *
+     * @param q la fracción, entre 0 y 1.
+     * @return el cuantil estimado, o {@code NaN} si el boceto está vacío.
+     * @throws IllegalArgumentException si la fracción no está entre 0 y 1.
+     */
+    public double cuantil(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("La fracción del cuantil debe estar entre 0 y 1.");
+        }
+        if (cantidad == 0) {
+            return Double.NaN;
+        }
+        // Cada valor retenido se ordena junto con su peso: se ordenan los índices por valor
+        double[] valores = new double[retenidos];
+        long[] pesos = new long[retenidos];
+        int n = 0;
+        for (int h = 0; h < niveles.length; h++) {
+            for (int i = 0; i < tamanios[h]; i++) {
+                valores[n] = niveles[h][i];
+                pesos[n++] = 1L << h;
+            }
+        }
+        Integer[] orden = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, (a, b) -> Double.compare(valores[a], valores[b]));
+
+        long objetivo = Math.max(1, (long) Math.ceil(q * cantidad));
+        long acumulado = 0;
+        for (int i : orden) {
+            acumulado += pesos[i];
+            if (acumulado >= objetivo) {
+                return valores[i];
+            }
+        }
+        return valores[orden[n - 1]];
+    }
+
+    private void agregarEnNivel(int nivel, double valor) {
+        if (nivel == niveles.length) {
+            agregarNivel();
+        }
+        if (tamanios[nivel] == niveles[nivel].length) {
+            niveles[nivel] = Arrays.copyOf(niveles[nivel], niveles[nivel].length * 2);
+        }
+        niveles[nivel][tamanios[nivel]++] = valor;
+        retenidos++;
+    }
+
+    private void agregarNivel() {
+        int cantNiveles = niveles.length + 1;
+        niveles = Arrays.copyOf(niveles, cantNiveles);
+        niveles[cantNiveles - 1] = new double[CAPACIDAD_MINIMA];
+        tamanios = Arrays.copyOf(tamanios, cantNiveles);
+        impares = Arrays.copyOf(impares, cantNiveles);
+        // El nivel más alto tiene capacidad K y cada nivel inferior, dos tercios de la del siguiente
+        capacidades = new int[cantNiveles];
+        capacidadTotal = 0;
+        for (int h = 0; h < cantNiveles; h++) {
+            capacidades[h] = Math.max(CAPACIDAD_MINIMA, (int) Math.ceil(K * Math.pow(2.0 / 3, cantNiveles - 1 - h)));
+            capacidadTotal += capacidades[h];
+        }
+    }
+
+    /**
+     * Comprime el nivel más bajo que superó su capacidad: lo ordena y promueve uno de cada dos valores al
+     * nivel siguiente. Si la cantidad de valores es impar, el último queda en el nivel.
+     */
+    private void comprimir() {
+        int nivel = 0;
+        while (tamanios[nivel] < capacidades[nivel]) {
+            nivel++;
+        }
+        if (nivel + 1 == niveles.length) {
+            agregarNivel();
+        }
+        double[] valores = niveles[nivel];
+        int tamanio = tamanios[nivel];
+        int pares = tamanio & ~1;
+        Arrays.sort(valores, 0, pares);
+        int inicio = impares[nivel] ? 1 : 0;
+        impares[nivel] = !impares[nivel];
+        for (int i = inicio; i < pares; i += 2) {
+            agregarEnNivel(nivel + 1, valores[i]);
+        }
+        if (pares < tamanio) {
+            valores[0] = valores[pares];
+        }
+        tamanios[nivel] = tamanio - pares;
+        retenidos -= pares;
+    }
+}
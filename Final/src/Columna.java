@@ -1,9 +1,12 @@
+import java.util.BitSet;
 import java.util.List;
 import java.util.ArrayList;
 
 class Columna<T> {
     private String nombre;
-    private List<Celda<T>> celdas;
+    private AlmacenColumna almacen;
+    private int version;
+    private EstadisticasColumna estadisticas;
 
     /**
      * Constructor que crea una columna con el nombre especificado y sin celdas.
@@ -12,30 +15,43 @@ class Columna<T> {
      */
     public Columna(String nombre) {
         this.nombre = nombre;
-        this.celdas = new ArrayList<>();
+        this.almacen = new AlmacenNulo().retener();
     }
     /**
      * Constructor que crea una columna con el nombre especificado y una lista de celdas.
+     * Los valores de las celdas se copian al almacenamiento tipado de la columna.
      *
      * @param nombre el nombre de la columna.
      * @param celdas la lista de celdas que contiene la columna.
      */
     public Columna(String nombre, List<Celda<T>> celdas) {
+        this(nombre);
+        for (Celda<T> celda : celdas) {
+            cargarValor(celda.getValor());
+        }
+    }
+    /**
+     * Constructor que crea una columna con el nombre especificado a partir de un almacenamiento ya construido.
+     *
+     * @param nombre el nombre de la columna.
+     * @param almacen el almacenamiento con los valores de la columna.
+     */
+    Columna(String nombre, AlmacenColumna almacen) {
         this.nombre = nombre;
-        this.celdas = celdas;
+        this.almacen = almacen.retener();
     }
     /**
-     * Constructor de copia profunda que crea una nueva columna copiando el nombre y 
-     * duplicando cada celda de otra columna.
+     * Constructor de copia que crea una nueva columna con el nombre y los valores de otra columna.
+     * Ambas columnas comparten el almacenamiento hasta que una de ellas se modifica: recién entonces
+     * esa columna lo copia (copia en escritura), así que copiar una columna no recorre sus valores.
+     * Al copiarlo lo libera, y si la otra columna queda como única usuaria lo modifica sin copiarlo.
      *
      * @param otraColumna la columna a copiar.
      */
     public Columna(Columna<T> otraColumna) {
         this.nombre = otraColumna.nombre;
-        this.celdas = new ArrayList<>();
-        for (Celda<T> celda : otraColumna.celdas) {
-            this.celdas.add(new Celda<>(celda.getValor(),this.nombre,celdas.size()-1)); // Copia de cada celda
-        }
+        this.almacen = otraColumna.almacen.retener();
+        this.estadisticas = otraColumna.estadisticas == null ? null : otraColumna.estadisticas.copiar();
     }
     /**
      * Obtiene el nombre de la columna.
@@ -47,12 +63,199 @@ class Columna<T> {
     }
     /**
      * Obtiene la lista de celdas que contiene la columna.
+     * Las celdas se crean a partir del almacenamiento en cada llamada, por lo que modificarlas
+     * no altera la columna; para eso se debe usar {@link #modificarValor(int, Object)}.
      *
      * @return la lista de celdas de la columna.
      */
+    @SuppressWarnings("unchecked")
     public List<Celda<T>> getCeldas() {
+        List<Celda<T>> celdas = new ArrayList<>(almacen.tamanio());
+        for (int i = 0; i < almacen.tamanio(); i++) {
+            celdas.add(new Celda<>((T) almacen.getValor(i), nombre, i));
+        }
         return celdas;
     }
+    /**
+     * Obtiene la cantidad de valores (incluidos los nulos) de la columna.
+     *
+     * @return la cantidad de filas de la columna.
+     */
+    public int getTamanio() {
+        return almacen.tamanio();
+    }
+    /**
+     * Obtiene el valor en la posición especificada.
+     *
+     * @param indice el índice de la fila.
+     * @return el valor de la fila, o {@code null} si es nulo.
+     * @throws IndexOutOfBoundsException si el índice está fuera de rango.
+     */
+    @SuppressWarnings("unchecked")
+    public T getValor(int indice) {
+        return (T) almacen.getValor(indice);
+    }
+    /**
+     * Obtiene las estadísticas de los valores de la columna. La primera consulta recorre los valores; a partir
+     * de ahí la columna las actualiza con cada modificación y sólo vuelve a recorrerlos si se eliminó un extremo.
+     *
+     * @return las estadísticas de la columna.
+     */
+    EstadisticasColumna getEstadisticas() {
+        if (estadisticas == null || !estadisticas.estanVigentes()) {
+            estadisticas = EstadisticasColumna.calcular(getAlmacen());
+        }
+        return estadisticas;
+    }
+    /**
+     * Cuenta los valores nulos de la columna. Si las estadísticas ya se calcularon, no recorre los valores;
+     * si no, cuenta los bits del mapa de nulos.
+     *
+     * @return la cantidad de valores nulos.
+     */
+    public int contarNulos() {
+        EstadisticasColumna actuales = estadisticas;
+        return actuales != null ? actuales.getNulos() : almacen.contarNulos();
+    }
+    /**
+     * Indica si el valor en la posición especificada es nulo.
+     *
+     * @param indice el índice de la fila.
+     * @return {@code true} si el valor es nulo.
+     */
+    public boolean esNulo(int indice) {
+        return almacen.esNulo(indice);
+    }
+    /**
+     * Estima la memoria que ocupa la columna: su almacenamiento y, si ya se calcularon, sus estadísticas.
+     *
+     * @param estimacion la estimación a la que se suman los bytes.
+     */
+    void estimarMemoria(EstimacionMemoria estimacion) {
+        almacen.estimarMemoria(estimacion);
+        if (estadisticas != null) {
+            estimacion.agregarAuxiliar(EstadisticasColumna.estimarMemoria());
+        }
+    }
+    /**
+     * Estima los bytes que ocuparía una copia de la columna con la cantidad de filas indicada.
+     *
+     * @param filas la cantidad de filas de la copia.
+     * @return los bytes estimados.
+     */
+    long estimarCopia(int filas) {
+        return almacen.estimarCopia(filas);
+    }
+    /**
+     * Obtiene el nombre de la forma en que la columna guarda sus valores, por ejemplo {@code "Entero"},
+     * {@code "Diccionario"} o {@code "Vista"}, sin convertir el almacenamiento.
+     *
+     * @return el nombre del almacenamiento.
+     */
+    String getNombreAlmacen() {
+        return almacen.getClass().getSimpleName().replaceFirst("^Almacen", "");
+    }
+    /**
+     * Indica si la columna es una vista sobre las filas de otro almacenamiento, sin convertir el almacenamiento.
+     *
+     * @return {@code true} si el almacenamiento es una vista.
+     */
+    boolean esVista() {
+        return almacen instanceof AlmacenVista;
+    }
+    /**
+     * Obtiene el mapa de bits de posiciones nulas sin convertir el almacenamiento: una columna de trozos ya tiene
+     * sus nulos unidos, y una columna mapeada los lee del archivo sin cargar los valores. No debe modificarse.
+     *
+     * @return el mapa de bits de nulos.
+     */
+    BitSet getNulos() {
+        return almacen.getNulos();
+    }
+    /**
+     * Obtiene el almacenamiento tipado de la columna.
+     *
+     * @return el almacenamiento de la columna.
+     */
+    AlmacenColumna getAlmacen() {
+        // Quien pide el almacenamiento lee sus arreglos directamente: los trozos o el archivo mapeado se
+        // convierten una sola vez en un almacenamiento contiguo
+        reemplazarAlmacen(almacen.contiguo());
+        return almacen;
+    }
+    /**
+     * Obtiene el almacenamiento sobre el que se construyen las vistas de la columna. Una columna mapeada de un
+     * archivo binario no se carga, porque la vista puede leer sus valores sueltos directamente del archivo.
+     *
+     * @return el almacenamiento para crear vistas.
+     */
+    AlmacenColumna getAlmacenParaVista() {
+        return almacen instanceof AlmacenMapeado ? almacen : getAlmacen();
+    }
+    /**
+     * Obtiene la clase de los valores de la columna según su almacenamiento, sin compactarlo ni recorrer los valores.
+     *
+     * @return la clase de los valores, o {@code null} si la columna sólo tiene nulos.
+     */
+    Class<?> getTipoValores() {
+        return almacen.getTipo();
+    }
+    /**
+     * Crea una columna que enlaza, sin copiarlos, los valores de varias columnas del mismo tipo, una detrás de otra.
+     *
+     * @param nombre el nombre de la nueva columna.
+     * @param columnas las columnas a enlazar, en orden.
+     * @return la nueva columna, de sólo lectura hasta que se la modifique.
+     */
+    static Columna<?> enlazar(String nombre, List<Columna<?>> columnas) {
+        List<AlmacenColumna> almacenes = new ArrayList<>(columnas.size());
+        for (Columna<?> columna : columnas) {
+            almacenes.add(columna.almacen);
+        }
+        return new Columna<>(nombre, AlmacenTrozos.enlazar(almacenes));
+    }
+    /**
+     * Obtiene la versión de la columna, que aumenta cada vez que se modifican sus valores.
+     * Permite a los índices detectar si fueron construidos sobre valores que ya cambiaron.
+     *
+     * @return la versión actual de la columna.
+     */
+    int getVersion() {
+        return version;
+    }
+    /**
+     * Prepara el almacenamiento para ser modificado. Si es una vista, si alguna vista depende
+     * de sus valores o si otra columna lo usa, se reemplaza por una copia propia para no alterar
+     * las otras tablas. También aumenta la versión de la columna.
+     */
+    private void prepararEscritura() {
+        version++;
+        if (almacen.esSoloLectura() || almacen.estaCompartido()) {
+            PresupuestoMemoria.verificar("copiar la columna '" + nombre + "' antes de modificarla", almacen.estimarCopia(almacen.tamanio()));
+            Telemetria.contar("columna.copiasEnEscritura", 1);
+            reemplazarAlmacen(almacen.copiar());
+        }
+    }
+    /**
+     * Reemplaza el almacenamiento de la columna y libera el anterior. El anterior se libera después de
+     * construir el nuevo, para que ninguna otra columna lo modifique mientras se copia.
+     */
+    private void reemplazarAlmacen(AlmacenColumna nuevo) {
+        if (nuevo != almacen) {
+            AlmacenColumna anterior = almacen;
+            almacen = nuevo.retener();
+            anterior.liberar();
+        }
+    }
+    /**
+     * Crea una nueva columna con los valores de las filas indicadas, en ese orden.
+     *
+     * @param filas los índices de las filas a copiar.
+     * @return la nueva columna.
+     */
+    public Columna<T> seleccionar(int[] filas) {
+        return new Columna<>(nombre, almacen.seleccionar(filas));
+    }
     /**
      * Obtiene el tipo de dato de la columna basado en el valor de la primera celda.
      * Si la columna está vacía o contiene solo valores nulos, devuelve {@code null}.
@@ -60,13 +263,10 @@ class Columna<T> {
      * @return la clase del tipo de dato de la columna o {@code null} si la columna está vacía o solo tiene valores nulos.
      */
     public Class <?> getTipoDeDato() {
-        if (!celdas.isEmpty() && celdas.get(0).getValor() != null) {
-            System.out.println(nombre + " es: " + celdas.get(0).getValor().getClass().getSimpleName());
-            return celdas.get(0).getValor().getClass();
-        } else {
-            System.out.println("La columna " + nombre + " está vacía o contiene solo valores nulos.");
-            return null;
+        if (almacen.tamanio() > 0 && !almacen.esNulo(0)) {
+            return almacen.getValor(0).getClass();
         }
+        return null;
     }
 
     /**
@@ -78,16 +278,74 @@ class Columna<T> {
      * @throws IllegalArgumentException si el tipo de dato de la celda no coincide con el de la columna.
      */
     public void addCelda(Celda<T> celda) {
-        // Si la columna ya tiene celdas, verificar el tipo de dato
-        if (!celdas.isEmpty()) {
-            T tipoReferencia = celdas.get(0).getValor();
-            
-            // Verificar si el tipo coincide antes de agregar la nueva celda
-            if (celda.getValor() != null && tipoReferencia != null && !tipoReferencia.getClass().isInstance(celda.getValor())) {
-                throw new IllegalArgumentException("El tipo de dato de la celda no coincide con el tipo de dato de la columna '" + nombre + "'.");
+        agregarValor(celda.getValor());
+    }
+    /**
+     * Agrega un valor al final de la columna, verificando que su tipo coincida con el de la columna.
+     *
+     * @param valor el valor a agregar; puede ser {@code null}.
+     * @throws IllegalArgumentException si el tipo de dato del valor no coincide con el de la columna.
+     */
+    public void agregarValor(Object valor) {
+        prepararEscritura();
+        if (valor != null && !almacen.acepta(valor)) {
+            throw new IllegalArgumentException("El tipo de dato de la celda no coincide con el tipo de dato de la columna '" + nombre + "'.");
+        }
+        if (valor != null && almacen.getTipo() == null) {
+            reemplazarAlmacen(almacen.generalizarPara(valor));
+        }
+        almacen.agregar(valor);
+        if (estadisticas != null) {
+            estadisticas.agregar(valor);
+        }
+    }
+    /**
+     * Agrega un valor al final de la columna sin verificar el tipo, tal como se cargan los datos
+     * desde un archivo. Si el valor no coincide con el tipo actual, el almacenamiento se generaliza.
+     *
+     * @param valor el valor a agregar; puede ser {@code null}.
+     */
+    void cargarValor(Object valor) {
+        prepararEscritura();
+        if (valor != null && (almacen.getTipo() == null || !almacen.acepta(valor))) {
+            reemplazarAlmacen(almacen.generalizarPara(valor));
+        }
+        almacen.agregar(valor);
+        if (estadisticas != null) {
+            estadisticas.agregar(valor);
+        }
+    }
+    /**
+     * Agrega al final de la columna todos los valores de otra columna, sin verificar el tipo,
+     * tal como {@link #cargarValor(Object)}. Si ambos almacenamientos son del mismo tipo, los
+     * valores se copian directamente entre los arreglos.
+     *
+     * @param otra la columna cuyos valores se anexan.
+     */
+    void anexar(Columna<?> otra) {
+        prepararEscritura();
+        EstadisticasColumna previas = estadisticas;
+        estadisticas = null;
+        AlmacenColumna otroAlmacen = otra.almacen;
+        if (otroAlmacen.esSoloLectura()) {
+            otroAlmacen = otroAlmacen.copiar();
+        }
+        if (almacen.getTipo() == null && otroAlmacen.getTipo() != null) {
+            int primerValor = otroAlmacen.getNulos().nextClearBit(0);
+            if (primerValor < otroAlmacen.tamanio()) {
+                reemplazarAlmacen(almacen.generalizarPara(otroAlmacen.getValor(primerValor)));
+            }
+        }
+        if (almacen.getClass() == otroAlmacen.getClass() && almacen.getTipo() == otroAlmacen.getTipo()) {
+            almacen.anexar(otroAlmacen);
+        } else {
+            for (int i = 0; i < otroAlmacen.tamanio(); i++) {
+                cargarValor(otroAlmacen.getValor(i));
             }
         }
-        celdas.add(celda);
+        if (previas != null && otra.estadisticas != null) {
+            estadisticas = EstadisticasColumna.combinar(previas, otra.estadisticas.copiar());
+        }
     }
     /**
      * Elimina una celda de la columna en la posición especificada.
@@ -95,16 +353,22 @@ class Columna<T> {
      * @param indiceFila el índice de la fila a eliminar.
      */
     public void eliminarFila (int indiceFila){
-        celdas.remove(indiceFila);
+        prepararEscritura();
+        Object eliminado = estadisticas == null ? null : almacen.getValor(indiceFila);
+        almacen.eliminar(indiceFila);
+        if (estadisticas != null) {
+            estadisticas.quitar(eliminado);
+        }
     }
     /**
-     * Actualiza los índices de las celdas después de eliminar una celda en una posición específica.
+     * Crea una nueva columna sin las filas marcadas en el mapa de bits, compactando los valores
+     * restantes en una única pasada.
+     *
+     * @param filas el mapa de bits con los índices de las filas a eliminar.
+     * @return la nueva columna.
      */
-    public void actualizarIndices() {
-        for (int i = 0; i < celdas.size(); i++) {
-            Celda celda = celdas.get(i);  // Si este acceso falla, revisar `getCeldas`
-            celda.setIndice(i);  // Actualiza el índice en cada celda
-        }
+    public Columna<T> eliminarFilas(BitSet filas) {
+        return new Columna<>(nombre, almacen.eliminarFilas(filas));
     }
     /**
      * Modifica el valor de una celda en la posición especificada, verificando que el tipo de dato coincida con el de la columna.
@@ -115,91 +379,113 @@ class Columna<T> {
      * @throws IllegalArgumentException si el tipo de dato del valor no coincide con el tipo de la columna.
      */
     public void modificarValor(int indice, Object valor){
+    prepararEscritura();
+    Object anterior = estadisticas == null ? null : almacen.getValor(indice);
     // Permitir valor null sin hacer casting
     if (valor == null) {
-        celdas.get(indice).setValor(null);
+        almacen.asignar(indice, null);
+        actualizarEstadisticas(anterior, null);
         return;
     }
 
-    // Verificar el tipo del valor con el tipo de la columna antes del casting
-        if (!celdas.isEmpty()) {
-            T tipoReferencia = celdas.get(0).getValor();
-            
-            // Verificar si el tipo coincide antes de hacer el casting
-            if (tipoReferencia != null && !tipoReferencia.getClass().isInstance(valor)) {
-                throw new IllegalArgumentException("El tipo de dato de la celda no coincide con el tipo de dato de la columna '" + nombre + "'.");
-            }
+    // Verificar el tipo del valor con el tipo de la columna
+        if (!almacen.acepta(valor)) {
+            throw new IllegalArgumentException("El tipo de dato de la celda no coincide con el tipo de dato de la columna '" + nombre + "'.");
+        }
+        if (almacen.getTipo() == null) {
+            reemplazarAlmacen(almacen.generalizarPara(valor));
+        }
+        almacen.asignar(indice, valor);
+        actualizarEstadisticas(anterior, valor);
+    }
+    /**
+     * Actualiza las estadísticas, si ya se calcularon, con el reemplazo de un valor por otro.
+     */
+    private void actualizarEstadisticas(Object anterior, Object nuevo) {
+        if (estadisticas != null) {
+            estadisticas.quitar(anterior);
+            estadisticas.agregar(nuevo);
         }
-
-        // Realizar el casting a T y modificar el valor
-        T valorConvertido = (T) valor;  // Casting explícito a T
-        celdas.get(indice).setValor(valorConvertido);
     }
     /**
      * Reemplaza los valores {@code null} en la columna con un valor representativo basado en el tipo de dato de la columna.
-     * - Si el tipo es {@code Integer} o {@code Float}, reemplaza los valores nulos con el promedio de los valores no nulos.
+     * - Si el tipo es {@code Integer}, reemplaza los valores nulos con el promedio redondeado de los valores no nulos,
+     *   para conservar el tipo entero de la columna.
+     * - Si el tipo es {@code Float}, reemplaza los valores nulos con el promedio de los valores no nulos.
      * - Si el tipo es {@code Boolean}, reemplaza los valores nulos con el valor más frecuente (true o false).
+     * Las columnas de otros tipos quedan como están. El cálculo lo hace {@link Imputacion}, en un solo recorrido.
      */
     public void reemplazarNAs() {
-            Class<?> tipoDato = getTipoDeDato();
-            
-            if (tipoDato == Integer.class) {
-                // Calcular promedio de valores no nulos
-                double promedio = getCeldas().stream()
-                                         .filter(celda -> celda.getValor() != null)
-                                         .mapToInt(celda -> (Integer) celda.getValor())
-                                         .average()
-                                         .orElse(0);
-                T valor = (T) Double.valueOf(promedio);
-                
-                // Reemplazar valores null por el promedio
-                for (Celda<T> celda : getCeldas()) {
-                    if (celda.getValor() == null) {
-                        celda.setValor(valor);
-                    }
-                }
-                
-            } else if (tipoDato == Float.class) {
-                // Calcular promedio de valores no nulos
-                double promedio = getCeldas().stream()
-                                         .filter(celda -> celda.getValor() != null)
-                                         .mapToDouble(celda -> (Float) celda.getValor())
-                                         .average()
-                                         .orElse(0);
-                T valor = (T) Double.valueOf(promedio);
-
-                // Reemplazar valores null por el promedio
-                for (Celda<T> celda : getCeldas()) {
-                    if (celda.getValor() == null) {
-                        celda.setValor(valor);
-                    }
-                }
-                
-            } else if (tipoDato == Boolean.class) {
-                // Contar frecuencia de true y false
-                long countTrue = getCeldas().stream()
-                                        .filter(celda -> celda.getValor() != null)
-                                        .filter(celda -> (Boolean) celda.getValor())
-                                        .count();
-
-
-
-                long countFalse = getCeldas().stream()
-                                         .filter(celda -> celda.getValor() != null)
-                                         .filter(celda -> !(Boolean) celda.getValor())
-                                         .count();
-
-                // Determinar el valor más frecuente
-                boolean valorMasFrecuente = countTrue >= countFalse;
-
-                T valor = (T) Boolean.valueOf(valorMasFrecuente);
-
-                // Reemplazar valores null por el valor más frecuente
-                for (Celda<T> celda : getCeldas()) {
-                    if (celda.getValor() == null) {
-                        celda.setValor(valor);
-                }
-            }
+        Imputacion.imputar(List.of(this), null);
+    }
+    /**
+     * Reemplaza los valores {@code null} en la columna según la estrategia indicada. El valor de reemplazo
+     * se convierte al tipo de la columna, así que la columna conserva su tipo.
+     *
+     * @param estrategia la estrategia de imputación.
+     * @throws IllegalArgumentException si la estrategia no se puede aplicar al tipo de la columna
+     *                                  (la media o la mediana de una columna no numérica).
+     */
+    public void reemplazarNAs(EstrategiaImputacion estrategia) {
+        Imputacion.imputar(this, estrategia);
+    }
+    /**
+     * Reemplaza los valores {@code null} en la columna por un valor fijo.
+     *
+     * @param valor el valor de reemplazo, del tipo de la columna.
+     * @throws IllegalArgumentException si el valor es nulo o su tipo no coincide con el tipo de la columna.
+     */
+    public void reemplazarNAs(Object valor) {
+        if (valor == null || !almacen.acepta(valor)) {
+            throw new IllegalArgumentException("El valor de reemplazo no coincide con el tipo de dato de la columna '" + nombre + "'.");
+        }
+        if (contarNulos() == 0) {
+            return;
+        }
+        prepararEscritura();
+        if (almacen.getTipo() == null) {
+            reemplazarAlmacen(almacen.generalizarPara(valor));
+        }
+        rellenarNAs(valor);
+    }
+    /**
+     * Prepara el almacenamiento para ser modificado y lo devuelve, para que la imputación lea y rellene
+     * los mismos arreglos.
+     *
+     * @return el almacenamiento propio de la columna.
+     */
+    AlmacenColumna almacenParaEscritura() {
+        prepararEscritura();
+        return almacen;
+    }
+    /**
+     * Reemplaza todos los nulos por el valor indicado. El almacenamiento ya debe estar preparado para escribir.
+     *
+     * @param valor el valor de reemplazo, aceptado por el almacenamiento.
+     */
+    void rellenarNAs(Object valor) {
+        int cantNulos = almacen.contarNulos();
+        almacen.rellenarNulos(valor);
+        rellenarEstadisticas(valor, cantNulos);
+    }
+    /**
+     * Reemplaza cada nulo por el valor no nulo anterior o por el siguiente.
+     *
+     * @param haciaAdelante {@code true} para usar el valor anterior, {@code false} para usar el siguiente.
+     */
+    void rellenarNAsConVecinos(boolean haciaAdelante) {
+        prepararEscritura();
+        if (almacen.rellenarNulosConVecinos(haciaAdelante) > 0) {
+            // Los valores copiados cambian la suma y las frecuencias: se recalculan si se vuelven a consultar
+            estadisticas = null;
+        }
+    }
+    /**
+     * Actualiza las estadísticas, si ya se calcularon, con el reemplazo de los nulos por un valor.
+     */
+    private void rellenarEstadisticas(Object valor, int reemplazados) {
+        if (estadisticas != null) {
+            estadisticas.rellenarNulos(valor, reemplazados);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,563 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Combinación (join) de las filas de dos tablas por el valor de una columna clave de cada una.
+ * <p>
+ * Los valores de las dos claves se convierten primero en claves de 64 bits de un mismo espacio, cuyo orden
+ * sin signo coincide con el de los valores y en el que los nulos reciben {@link Ordenamiento#CLAVE_NULO}.
+ * Si las dos tablas ya están ordenadas por la clave se combinan por mezcla, en una sola pasada; si no, se
+ * construye una tabla hash sobre la tabla más chica y se la sondea con las filas de la otra, en paralelo con
+ * {@link EjecucionParalela}. Cuando la tabla hash superaría el presupuesto de memoria, las filas de ambas
+ * tablas se reparten por hash en particiones que se combinan de a una. La combinación
+ * {@link TipoCombinacion#ANTI} no forma pares: sólo busca si la clave de cada fila izquierda existe en la derecha.
+ * <p>
+ * En todos los casos el resultado es el mismo: las filas quedan en el orden de la tabla izquierda y, para
+ * cada una, sus parejas en el orden de la tabla derecha. Los valores nulos de la clave no tienen pareja.
+ * El resultado es columnar: cada columna se copia una única vez con las filas seleccionadas.
+ */
+class Combinacion {
+    /** Cantidad máxima de particiones en que se reparte una combinación que no entra en el presupuesto. */
+    static final int MAXIMO_PARTICIONES = 1 << 10;
+
+    /** El presupuesto fijado con {@link #setPresupuestoMemoria(long)}, o 0 si se deriva del presupuesto del proceso. */
+    private static volatile long presupuestoMemoria;
+
+    private final Tabla izquierda;
+    private final Columna<?> claveIzquierda;
+    private final Tabla derecha;
+    private final Columna<?> claveDerecha;
+    private final String nombreDerecha;
+    private final TipoCombinacion tipo;
+
+    /**
+     * Constructor que prepara la combinación de dos tablas.
+     *
+     * @param izquierda la tabla izquierda, cuyas filas definen el orden del resultado.
+     * @param claveIzquierda la columna clave de la tabla izquierda.
+     * @param derecha la tabla derecha.
+     * @param claveDerecha la columna clave de la tabla derecha.
+     * @param nombreDerecha el nombre de la tabla derecha, para distinguir las columnas con nombres repetidos.
+     * @param tipo el tipo de combinación.
+     */
+    Combinacion(Tabla izquierda, Columna<?> claveIzquierda, Tabla derecha, Columna<?> claveDerecha,
+            String nombreDerecha, TipoCombinacion tipo) {
+        this.izquierda = izquierda;
+        this.claveIzquierda = claveIzquierda;
+        this.derecha = derecha;
+        this.claveDerecha = claveDerecha;
+        this.nombreDerecha = nombreDerecha;
+        this.tipo = tipo;
+    }
+
+    /**
+     * Define la memoria máxima, en bytes, que puede ocupar la tabla hash de una combinación. Las combinaciones
+     * que la superarían se reparten en particiones. Por defecto es un octavo del presupuesto de memoria del
+     * proceso ({@link PresupuestoMemoria#getLimite()}), sin superar un octavo de la memoria máxima de la JVM.
+     *
+     * @param bytes la cantidad de bytes disponible.
+     * @throws IllegalArgumentException si la cantidad no es positiva.
+     */
+    public static void setPresupuestoMemoria(long bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("El presupuesto de memoria debe ser positivo.");
+        }
+        presupuestoMemoria = bytes;
+    }
+
+    /**
+     * Obtiene la memoria máxima, en bytes, que puede ocupar la tabla hash de una combinación.
+     *
+     * @return el presupuesto de memoria.
+     */
+    public static long getPresupuestoMemoria() {
+        long propio = presupuestoMemoria;
+        return propio > 0 ? propio : Math.min(PresupuestoMemoria.getLimite(), Runtime.getRuntime().maxMemory()) / 8;
+    }
+
+    /**
+     * Combina las tablas.
+     *
+     * @param nombre el nombre de la tabla resultante.
+     * @return una nueva tabla con las columnas de la tabla izquierda seguidas, salvo en la combinación
+     *         {@link TipoCombinacion#ANTI}, por las de la tabla derecha sin su columna clave.
+     */
+    Tabla ejecutar(String nombre) {
+        long[][] claves = calcularClaves(claveIzquierda, claveDerecha);
+        long[] clavesIzquierda = claves[0];
+        long[] clavesDerecha = claves[1];
+        if (tipo == TipoCombinacion.ANTI) {
+            return construir(nombre, filasSinPareja(clavesIzquierda, clavesDerecha), null);
+        }
+
+        Pares pares;
+        boolean ordenados;
+        if (estaOrdenada(clavesIzquierda) && estaOrdenada(clavesDerecha)) {
+            pares = combinarPorMezcla(clavesIzquierda, clavesDerecha);
+            ordenados = true;
+        } else if (clavesDerecha.length <= clavesIzquierda.length) {
+            Pares sondeo = combinarPorHash(clavesDerecha, clavesIzquierda);
+            pares = sondeo;
+            ordenados = sondeo.enOrden;
+        } else {
+            // La tabla hash se construye sobre la izquierda; los pares salen en el orden de la derecha
+            Pares sondeo = combinarPorHash(clavesIzquierda, clavesDerecha);
+            pares = sondeo.invertir();
+            ordenados = false;
+        }
+
+        int[][] filas = completar(pares, ordenados, clavesIzquierda.length);
+        return construir(nombre, filas[0], filas[1]);
+    }
+
+    /**
+     * Convierte las dos columnas clave en claves de un mismo espacio. Las columnas primitivas del mismo tipo
+     * usan las claves de {@link Ordenamiento}, que no dependen de la columna; en los demás casos los valores
+     * distintos de ambas columnas se numeran juntos según su orden con {@code compareTo}, o en el orden en
+     * que aparecen si no son comparables entre sí.
+     */
+    private static long[][] calcularClaves(Columna<?> columna1, Columna<?> columna2) {
+        AlmacenColumna almacen1 = columna1.getAlmacen();
+        AlmacenColumna almacen2 = columna2.getAlmacen();
+        Class<?> base1 = base(almacen1).getClass();
+        if (base1 == base(almacen2).getClass() && (base1 == AlmacenEntero.class || base1 == AlmacenDecimal.class
+                || base1 == AlmacenFecha.class || base1 == AlmacenBooleano.class)) {
+            return new long[][] {Ordenamiento.calcularClaves(almacen1, true), Ordenamiento.calcularClaves(almacen2, true)};
+        }
+
+        Map<Object, Integer> codigoPorValor = new HashMap<>();
+        List<Object> distintos = new ArrayList<>();
+        int[] codigos1 = codificar(almacen1, codigoPorValor, distintos);
+        int[] codigos2 = codificar(almacen2, codigoPorValor, distintos);
+        long[] rangos = calcularRangos(distintos);
+        return new long[][] {aClaves(codigos1, rangos), aClaves(codigos2, rangos)};
+    }
+
+    private static AlmacenColumna base(AlmacenColumna almacen) {
+        return almacen instanceof AlmacenVista ? ((AlmacenVista) almacen).getBase() : almacen;
+    }
+
+    /**
+     * Numera los valores de una columna entre los valores distintos ya vistos; los nulos reciben -1.
+     * Las columnas codificadas con diccionario se numeran por código, sin leer cada fila como objeto.
+     */
+    private static int[] codificar(AlmacenColumna almacen, Map<Object, Integer> codigoPorValor, List<Object> distintos) {
+        int cantidad = almacen.tamanio();
+        int[] codigos = new int[cantidad];
+        AlmacenColumna base = base(almacen);
+        int[] seleccion = almacen instanceof AlmacenVista ? ((AlmacenVista) almacen).getFilas() : null;
+        BitSet nulos = base.getNulos();
+        if (base instanceof AlmacenDiccionario) {
+            AlmacenDiccionario diccionario = (AlmacenDiccionario) base;
+            int[] codigoPorTexto = new int[diccionario.getTamanioDiccionario()];
+            for (int c = 0; c < codigoPorTexto.length; c++) {
+                codigoPorTexto[c] = numerar(diccionario.getTexto(c), codigoPorValor, distintos);
+            }
+            for (int i = 0; i < cantidad; i++) {
+                int fila = seleccion == null ? i : seleccion[i];
+                codigos[i] = nulos.get(fila) ? -1 : codigoPorTexto[diccionario.getCodigo(fila)];
+            }
+        } else {
+            for (int i = 0; i < cantidad; i++) {
+                Object valor = almacen.getValor(i);
+                codigos[i] = valor == null ? -1 : numerar(valor, codigoPorValor, distintos);
+            }
+        }
+        return codigos;
+    }
+
+    private static int numerar(Object valor, Map<Object, Integer> codigoPorValor, List<Object> distintos) {
+        Integer codigo = codigoPorValor.get(valor);
+        if (codigo == null) {
+            codigo = distintos.size();
+            codigoPorValor.put(valor, codigo);
+            distintos.add(valor);
+        }
+        return codigo;
+    }
+
+    /**
+     * Calcula la posición de cada valor distinto en el orden de {@code compareTo}. Los valores que
+     * {@code compareTo} considera iguales pero {@code equals} no reciben posiciones distintas, para
+     * que nunca formen pareja.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static long[] calcularRangos(List<Object> distintos) {
+        Integer[] orden = new Integer[distintos.size()];
+        for (int i = 0; i < orden.length; i++) {
+            orden[i] = i;
+        }
+        try {
+            Arrays.sort(orden, (a, b) -> ((Comparable) distintos.get(a)).compareTo(distintos.get(b)));
+        } catch (ClassCastException | IllegalArgumentException e) {
+            // Valores no comparables entre sí: basta con cualquier orden que sea el mismo en ambas tablas
+            Arrays.sort(orden);
+        }
+        long[] rangos = new long[orden.length];
+        for (int i = 0; i < orden.length; i++) {
+            rangos[orden[i]] = i;
+        }
+        return rangos;
+    }
+
+    private static long[] aClaves(int[] codigos, long[] rangos) {
+        long[] claves = new long[codigos.length];
+        for (int i = 0; i < codigos.length; i++) {
+            claves[i] = codigos[i] < 0 ? Ordenamiento.CLAVE_NULO : rangos[codigos[i]];
+        }
+        return claves;
+    }
+
+    /**
+     * Indica si las claves están en orden ascendente. Los nulos tienen la mayor clave, así que una tabla
+     * ordenada de forma ascendente con {@link Ordenamiento} los tiene al final y también cuenta como ordenada.
+     */
+    private static boolean estaOrdenada(long[] claves) {
+        for (int i = 1; i < claves.length; i++) {
+            if (Long.compareUnsigned(claves[i - 1], claves[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Busca las filas izquierdas cuya clave no aparece entre las claves derechas. Como basta con saber si cada
+     * clave existe, no se forman los pares: las claves distintas de la derecha se ordenan y cada clave izquierda
+     * se busca en ellas por búsqueda binaria, así que el costo no depende de cuántas parejas tendría cada fila.
+     */
+    private static int[] filasSinPareja(long[] izquierdas, long[] derechas) {
+        long[] distintas = derechas.clone();
+        if (distintas.length >= Ordenamiento.UMBRAL_PARALELO) {
+            Arrays.parallelSort(distintas);
+        } else {
+            Arrays.sort(distintas);
+        }
+        int cantidad = 0;
+        for (long clave : distintas) {
+            if (clave != Ordenamiento.CLAVE_NULO && (cantidad == 0 || distintas[cantidad - 1] != clave)) {
+                distintas[cantidad++] = clave;
+            }
+        }
+        int cantidadDistintas = cantidad;
+        return EjecucionParalela.buscar(izquierdas.length, (desde, hasta, filas) -> {
+            for (int i = desde; i < hasta; i++) {
+                long clave = izquierdas[i];
+                if (clave == Ordenamiento.CLAVE_NULO || Arrays.binarySearch(distintas, 0, cantidadDistintas, clave) < 0) {
+                    filas.agregar(i);
+                }
+            }
+        });
+    }
+
+    /**
+     * Combina por mezcla dos secuencias de claves ordenadas. Los pares salen en el orden de la izquierda.
+     */
+    private static Pares combinarPorMezcla(long[] izquierdas, long[] derechas) {
+        Pares pares = new Pares();
+        int i = 0;
+        int j = 0;
+        while (i < izquierdas.length && j < derechas.length) {
+            long clave = izquierdas[i];
+            if (clave == Ordenamiento.CLAVE_NULO || derechas[j] == Ordenamiento.CLAVE_NULO) {
+                break;
+            }
+            int comparacion = Long.compareUnsigned(clave, derechas[j]);
+            if (comparacion < 0) {
+                i++;
+            } else if (comparacion > 0) {
+                j++;
+            } else {
+                int fin = j;
+                while (fin < derechas.length && derechas[fin] == clave) {
+                    fin++;
+                }
+                for (; i < izquierdas.length && izquierdas[i] == clave; i++) {
+                    for (int k = j; k < fin; k++) {
+                        pares.agregar(i, k);
+                    }
+                }
+                j = fin;
+            }
+        }
+        return pares;
+    }
+
+    /**
+     * Construye una tabla hash sobre las claves de construcción y la sondea con las demás. Si la tabla no
+     * entra en el presupuesto de memoria, ambos lados se reparten en particiones por hash que se combinan
+     * de a una. Los pares son (fila de sondeo, fila de construcción).
+     */
+    private static Pares combinarPorHash(long[] construccion, long[] sondeo) {
+        long memoria = TablaHash.estimarMemoria(construccion.length);
+        int particiones = 1;
+        while (particiones < MAXIMO_PARTICIONES && memoria / particiones > getPresupuestoMemoria()) {
+            particiones <<= 1;
+        }
+        if (particiones == 1) {
+            TablaHash tabla = new TablaHash(construccion, null);
+            Pares pares = sondear(tabla, sondeo, null);
+            pares.enOrden = true;
+            return pares;
+        }
+
+        int bits = Integer.numberOfTrailingZeros(particiones);
+        int[][] filasConstruccion = particionar(construccion, bits);
+        int[][] filasSondeo = particionar(sondeo, bits);
+        List<Pares> partes = new ArrayList<>();
+        for (int p = 0; p < particiones; p++) {
+            if (filasConstruccion[p].length > 0 && filasSondeo[p].length > 0) {
+                partes.add(sondear(new TablaHash(construccion, filasConstruccion[p]), sondeo, filasSondeo[p]));
+            }
+        }
+        return Pares.unir(partes);
+    }
+
+    /**
+     * Sondea la tabla hash con las filas indicadas (o con todas, si es {@code null}), repartiéndolas en
+     * partes que se procesan en paralelo y se reúnen en orden.
+     */
+    private static Pares sondear(TablaHash tabla, long[] claves, int[] filas) {
+        int cantidad = filas == null ? claves.length : filas.length;
+        List<Pares> partes = EjecucionParalela.recolectar(cantidad, (desde, hasta, resultado) -> {
+            Pares pares = new Pares();
+            for (int i = desde; i < hasta; i++) {
+                tabla.sondear(claves, filas == null ? i : filas[i], pares);
+            }
+            resultado.add(pares);
+        });
+        return Pares.unir(partes);
+    }
+
+    /**
+     * Reparte las filas con clave no nula según los bits altos del hash de su clave, conservando su orden.
+     */
+    private static int[][] particionar(long[] claves, int bits) {
+        int[] cantidades = new int[1 << bits];
+        for (long clave : claves) {
+            if (clave != Ordenamiento.CLAVE_NULO) {
+                cantidades[particion(clave, bits)]++;
+            }
+        }
+        int[][] filas = new int[cantidades.length][];
+        for (int p = 0; p < filas.length; p++) {
+            filas[p] = new int[cantidades[p]];
+            cantidades[p] = 0;
+        }
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i] != Ordenamiento.CLAVE_NULO) {
+                int p = particion(claves[i], bits);
+                filas[p][cantidades[p]++] = i;
+            }
+        }
+        return filas;
+    }
+
+    private static int particion(long clave, int bits) {
+        return Agrupacion.mezclar(clave) >>> (32 - bits);
+    }
+
+    /**
+     * Ordena los pares por fila izquierda si hace falta y agrega las filas sin pareja según el tipo de combinación.
+     *
+     * @return las filas izquierdas y derechas del resultado; las derechas son -1 en las filas sin pareja de la
+     *         combinación izquierda.
+     */
+    private int[][] completar(Pares pares, boolean ordenados, int filasIzquierda) {
+        int[] izquierdas = pares.izquierdas;
+        int[] derechas = pares.derechas;
+        int cantidad = pares.cantidad;
+
+        if (!ordenados) {
+            // Ordenamiento estable por conteo: las parejas de cada fila ya están en el orden de la derecha
+            int[] inicios = new int[filasIzquierda + 1];
+            for (int k = 0; k < cantidad; k++) {
+                inicios[izquierdas[k] + 1]++;
+            }
+            for (int i = 0; i < filasIzquierda; i++) {
+                inicios[i + 1] += inicios[i];
+            }
+            int[] nuevasIzquierdas = new int[cantidad];
+            int[] nuevasDerechas = new int[cantidad];
+            for (int k = 0; k < cantidad; k++) {
+                int destino = inicios[izquierdas[k]]++;
+                nuevasIzquierdas[destino] = izquierdas[k];
+                nuevasDerechas[destino] = derechas[k];
+            }
+            izquierdas = nuevasIzquierdas;
+            derechas = nuevasDerechas;
+        }
+
+        if (tipo == TipoCombinacion.IZQUIERDA) {
+            int sinPareja = filasIzquierda;
+            for (int k = 0; k < cantidad; k++) {
+                if (k == 0 || izquierdas[k] != izquierdas[k - 1]) {
+                    sinPareja--;
+                }
+            }
+            int[] todasIzquierdas = new int[cantidad + sinPareja];
+            int[] todasDerechas = new int[cantidad + sinPareja];
+            int k = 0;
+            int destino = 0;
+            for (int i = 0; i < filasIzquierda; i++) {
+                if (k < cantidad && izquierdas[k] == i) {
+                    while (k < cantidad && izquierdas[k] == i) {
+                        todasIzquierdas[destino] = i;
+                        todasDerechas[destino++] = derechas[k++];
+                    }
+                } else {
+                    todasIzquierdas[destino] = i;
+                    todasDerechas[destino++] = -1;
+                }
+            }
+            return new int[][] {todasIzquierdas, todasDerechas};
+        }
+        return new int[][] {Arrays.copyOf(izquierdas, cantidad), Arrays.copyOf(derechas, cantidad)};
+    }
+
+    /**
+     * Copia las columnas de ambas tablas con las filas del resultado. Las columnas de la derecha cuyo nombre
+     * ya existe reciben como sufijo el nombre de la tabla derecha.
+     */
+    private Tabla construir(String nombre, int[] izquierdas, int[] derechas) {
+        long bytes = Tabla.estimarCopia(izquierda.getColumnas(), izquierdas.length);
+        if (derechas != null) {
+            bytes += Tabla.estimarCopia(derecha.getColumnas(), derechas.length);
+        }
+        PresupuestoMemoria.verificar("combinar las tablas en '" + nombre + "' (" + izquierdas.length + " filas)", bytes);
+        List<Columna<?>> columnas = new ArrayList<>();
+        Set<String> nombres = new HashSet<>();
+        for (Columna<?> columna : izquierda.getColumnas()) {
+            columnas.add(columna.seleccionar(izquierdas));
+            nombres.add(columna.getNombre());
+        }
+        if (derechas != null) {
+            for (Columna<?> columna : derecha.getColumnas()) {
+                if (columna == claveDerecha) {
+                    continue;
+                }
+                String nombreColumna = columna.getNombre();
+                while (!nombres.add(nombreColumna)) {
+                    nombreColumna = nombreColumna + "_" + nombreDerecha;
+                }
+                columnas.add(new Columna<>(nombreColumna, columna.getAlmacen().seleccionar(derechas)));
+            }
+        }
+        return new Tabla(nombre, izquierdas.length, columnas);
+    }
+
+    /**
+     * Pares de filas (izquierda, derecha) que forman pareja, en arreglos primitivos crecientes.
+     */
+    private static final class Pares {
+        private int[] izquierdas = new int[16];
+        private int[] derechas = new int[16];
+        private int cantidad;
+        private boolean enOrden;
+
+        void agregar(int izquierda, int derecha) {
+            if (cantidad == izquierdas.length) {
+                izquierdas = Arrays.copyOf(izquierdas, cantidad * 2);
+                derechas = Arrays.copyOf(derechas, cantidad * 2);
+            }
+            izquierdas[cantidad] = izquierda;
+            derechas[cantidad++] = derecha;
+        }
+
+        Pares invertir() {
+            int[] auxiliar = izquierdas;
+            izquierdas = derechas;
+            derechas = auxiliar;
+            return this;
+        }
+
+        static Pares unir(List<Pares> partes) {
+            if (partes.size() == 1) {
+                return partes.get(0);
+            }
+            Pares union = new Pares();
+            int total = 0;
+            for (Pares parte : partes) {
+                total += parte.cantidad;
+            }
+            union.izquierdas = new int[Math.max(total, 1)];
+            union.derechas = new int[Math.max(total, 1)];
+            for (Pares parte : partes) {
+                System.arraycopy(parte.izquierdas, 0, union.izquierdas, union.cantidad, parte.cantidad);
+                System.arraycopy(parte.derechas, 0, union.derechas, union.cantidad, parte.cantidad);
+                union.cantidad += parte.cantidad;
+            }
+            return union;
+        }
+    }
+
+    /**
+     * Tabla hash encadenada de las filas de construcción con clave no nula. Cada cubeta guarda la primera
+     * entrada de su cadena y cada entrada la siguiente, en orden ascendente de fila, de modo que las parejas
+     * de una fila de sondeo salen en el orden de la tabla de construcción. Sólo ocupa dos arreglos de enteros.
+     */
+    private static final class TablaHash {
+        private final long[] claves;
+        private final int[] filas;
+        private final int[] primeras;
+        private final int[] siguientes;
+        private final int mascara;
+
+        /**
+         * Construye la tabla con las filas indicadas, en orden ascendente, o con todas si es {@code null}.
+         */
+        TablaHash(long[] claves, int[] filas) {
+            this.claves = claves;
+            this.filas = filas;
+            int cantidad = filas == null ? claves.length : filas.length;
+            int capacidad = capacidad(cantidad);
+            this.primeras = new int[capacidad];
+            this.siguientes = new int[Math.max(cantidad, 1)];
+            this.mascara = capacidad - 1;
+            // Se insertan de atrás hacia adelante para que cada cadena quede en orden ascendente
+            for (int e = cantidad - 1; e >= 0; e--) {
+                long clave = claves[fila(e)];
+                if (clave == Ordenamiento.CLAVE_NULO) {
+                    continue;
+                }
+                int cubeta = Agrupacion.mezclar(clave) & mascara;
+                siguientes[e] = primeras[cubeta];
+                primeras[cubeta] = e + 1;
+            }
+        }
+
+        static long estimarMemoria(int cantidad) {
+            return 4L * (capacidad(cantidad) + cantidad);
+        }
+
+        private static int capacidad(int cantidad) {
+            return Integer.highestOneBit(Math.max(cantidad, 1) * 2 - 1);
+        }
+
+        private int fila(int entrada) {
+            return filas == null ? entrada : filas[entrada];
+        }
+
+        /**
+         * Agrega los pares (fila de sondeo, fila de construcción) de la fila indicada.
+         */
+        void sondear(long[] clavesSondeo, int fila, Pares pares) {
+            long clave = clavesSondeo[fila];
+            if (clave == Ordenamiento.CLAVE_NULO) {
+                return;
+            }
+            for (int e = primeras[Agrupacion.mezclar(clave) & mascara]; e != 0; e = siguientes[e - 1]) {
+                int filaConstruccion = fila(e - 1);
+                if (claves[filaConstruccion] == clave) {
+                    pares.agregar(fila, filaConstruccion);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,414 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Consulta diferida sobre una tabla: las operaciones se registran como un plan y recién se ejecutan en
+ * {@link #ejecutar()}, que evita las copias completas intermedias que produce encadenar los métodos de
+ * {@link Tabla}. Antes de ejecutar, el plan se optimiza:
+ * <ul>
+ *   <li>Los filtros consecutivos se fusionan en un único vector de selección, que cada filtro refina
+ *       revisando sólo las filas que pasaron los anteriores.</li>
+ *   <li>Los filtros se adelantan a los ordenamientos (el orden es estable, así que el resultado es el mismo)
+ *       y varios ordenamientos se combinan en uno solo con las claves del último primero.</li>
+ *   <li>Las columnas eliminadas nunca se copian, aunque sí se usan en los filtros y ordenamientos anteriores
+ *       a su eliminación.</li>
+ * </ul>
+ * El resultado se materializa una única vez al final. Sólo la reasignación de un valor, que depende de la
+ * posición de la fila en ese punto del plan, obliga a materializar antes las operaciones previas.
+ */
+class Consulta {
+    private final Tabla origen;
+    private final String nombreTabla;
+    private final List<Paso> pasos;
+    private final List<String> nombresVisibles;
+
+    /**
+     * Constructor que crea una consulta vacía sobre una tabla.
+     *
+     * @param origen la tabla consultada; no se modifica.
+     * @param nombreTabla el nombre de la tabla resultante.
+     */
+    Consulta(Tabla origen, String nombreTabla) {
+        this.origen = origen;
+        this.nombreTabla = nombreTabla;
+        this.pasos = new ArrayList<>();
+        this.nombresVisibles = new ArrayList<>();
+        for (Columna<?> columna : origen.getColumnas()) {
+            nombresVisibles.add(columna.getNombre());
+        }
+    }
+
+    /**
+     * Agrega al plan la eliminación de las filas con algún valor NA en las columnas que quedan en ese punto.
+     * A diferencia de {@link Tabla#eliminarFilasConNAs()}, si no hay valores NA el paso no tiene efecto.
+     *
+     * @return esta consulta.
+     */
+    public Consulta eliminarFilasConNAs() {
+        pasos.add(new Paso(TipoPaso.SIN_NAS, null));
+        return this;
+    }
+
+    /**
+     * Agrega al plan la eliminación de las filas con valor NA en una columna.
+     *
+     * @param nombreColumna el nombre de la columna.
+     * @return esta consulta.
+     * @throws IllegalArgumentException si la columna no existe en ese punto del plan.
+     */
+    public Consulta eliminarFilasConNAs(String nombreColumna) {
+        verificarColumna(nombreColumna);
+        pasos.add(new Paso(TipoPaso.SIN_NAS, nombreColumna));
+        return this;
+    }
+
+    /**
+     * Agrega al plan un filtro que conserva las filas cuyo valor en la columna es igual al indicado.
+     *
+     * @param nombreColumna el nombre de la columna.
+     * @param valor el valor buscado.
+     * @return esta consulta.
+     * @throws IllegalArgumentException si la columna no existe en ese punto del plan.
+     */
+    public Consulta filtrarPorColumna(String nombreColumna, Object valor) {
+        verificarColumna(nombreColumna);
+        Paso paso = new Paso(TipoPaso.IGUAL, nombreColumna);
+        paso.valor = valor;
+        pasos.add(paso);
+        return this;
+    }
+
+    /**
+     * Agrega al plan un filtro que conserva las filas cuyo valor en la columna está dentro del rango cerrado.
+     *
+     * @param nombreColumna el nombre de la columna.
+     * @param valorMin el valor mínimo del rango.
+     * @param valorMax el valor máximo del rango.
+     * @return esta consulta.
+     * @throws IllegalArgumentException si la columna no existe en ese punto del plan.
+     */
+    public Consulta filtrarPorRango(String nombreColumna, Comparable<?> valorMin, Comparable<?> valorMax) {
+        verificarColumna(nombreColumna);
+        Paso paso = new Paso(TipoPaso.RANGO, nombreColumna);
+        paso.valorMin = valorMin;
+        paso.valorMax = valorMax;
+        pasos.add(paso);
+        return this;
+    }
+
+    /**
+     * Agrega al plan un ordenamiento, con los mismos criterios que {@link Tabla#Ordenamiento(List, List)}.
+     *
+     * @param nombresColumnas los nombres de las columnas a ordenar, de mayor a menor prioridad.
+     * @param criteriosAscendentes si cada columna se ordena de forma ascendente (true) o descendente (false).
+     * @return esta consulta.
+     * @throws IllegalArgumentException si las listas no coinciden o alguna columna no existe en ese punto del plan.
+     */
+    public Consulta ordenar(List<String> nombresColumnas, List<Boolean> criteriosAscendentes) {
+        if (nombresColumnas.size() != criteriosAscendentes.size()) {
+            throw new IllegalArgumentException("La cantidad de columnas y criterios debe coincidir.");
+        }
+        for (String nombreColumna : nombresColumnas) {
+            verificarColumna(nombreColumna);
+        }
+        Paso paso = new Paso(TipoPaso.ORDEN, null);
+        paso.nombresColumnas = new ArrayList<>(nombresColumnas);
+        paso.criterios = new ArrayList<>(criteriosAscendentes);
+        pasos.add(paso);
+        return this;
+    }
+
+    /**
+     * Agrega al plan la eliminación de una columna. La columna no se copia en el resultado,
+     * pero los pasos anteriores pueden seguir usándola.
+     *
+     * @param nombreColumna el nombre de la columna.
+     * @return esta consulta.
+     * @throws IllegalArgumentException si la columna no existe en ese punto del plan.
+     */
+    public Consulta eliminarColumna(String nombreColumna) {
+        verificarColumna(nombreColumna);
+        nombresVisibles.remove(nombreColumna);
+        pasos.add(new Paso(TipoPaso.ELIMINAR_COLUMNA, nombreColumna));
+        return this;
+    }
+
+    /**
+     * Agrega al plan la reasignación de un valor. El índice se refiere a la posición de la fila después
+     * de los pasos anteriores, por lo que éstos se materializan antes de aplicarla.
+     *
+     * @param nombreColumna el nombre de la columna.
+     * @param indice la posición de la fila en ese punto del plan.
+     * @param nuevoValor el nuevo valor de la celda.
+     * @return esta consulta.
+     * @throws IllegalArgumentException si la columna no existe en ese punto del plan.
+     */
+    public Consulta reasignarValor(String nombreColumna, int indice, Object nuevoValor) {
+        verificarColumna(nombreColumna);
+        Paso paso = new Paso(TipoPaso.REASIGNAR, nombreColumna);
+        paso.indice = indice;
+        paso.valor = nuevoValor;
+        pasos.add(paso);
+        return this;
+    }
+
+    /**
+     * Describe el plan optimizado: qué filtros se fusionan en cada pasada, el orden combinado,
+     * las columnas que se materializan y los pasos que se aplican sobre el resultado.
+     *
+     * @return la descripción del plan, una línea por operación.
+     */
+    public String explicar() {
+        StringBuilder plan = new StringBuilder();
+        List<String> columnas = new ArrayList<>();
+        for (Columna<?> columna : origen.getColumnas()) {
+            columnas.add(columna.getNombre());
+        }
+        List<String> filtros = new ArrayList<>();
+        List<String> orden = new ArrayList<>();
+        int pasada = 0;
+        boolean pendiente = true;
+        for (Paso paso : pasos) {
+            switch (paso.tipo) {
+                case SIN_NAS:
+                    filtros.add("sin NA en " + (paso.nombreColumna == null ? String.join(", ", columnas) : paso.nombreColumna));
+                    break;
+                case IGUAL:
+                    filtros.add(paso.nombreColumna + " = " + paso.valor);
+                    break;
+                case RANGO:
+                    filtros.add(paso.nombreColumna + " en [" + paso.valorMin + ", " + paso.valorMax + "]");
+                    break;
+                case ORDEN:
+                    List<String> claves = new ArrayList<>();
+                    for (int i = 0; i < paso.nombresColumnas.size(); i++) {
+                        claves.add(paso.nombresColumnas.get(i) + (paso.criterios.get(i) ? " asc" : " desc"));
+                    }
+                    orden.addAll(0, claves);
+                    break;
+                case ELIMINAR_COLUMNA:
+                    columnas.remove(paso.nombreColumna);
+                    break;
+                case REASIGNAR:
+                    if (pendiente) {
+                        describirPasada(plan, ++pasada, filtros, orden, columnas);
+                    }
+                    plan.append("Reasignar ").append(paso.nombreColumna).append('[').append(paso.indice)
+                            .append("] = ").append(paso.valor).append('\n');
+                    filtros.clear();
+                    orden.clear();
+                    pendiente = false;
+                    continue;
+            }
+            pendiente = true;
+        }
+        if (pendiente) {
+            describirPasada(plan, ++pasada, filtros, orden, columnas);
+        }
+        return plan.toString();
+    }
+
+    /**
+     * Ejecuta el plan optimizado y materializa el resultado. La tabla de origen no se modifica.
+     *
+     * @return una nueva instancia de Tabla con el resultado de todos los pasos.
+     * @throws IllegalArgumentException si algún filtro o reasignación recibe un valor de tipo incompatible.
+     * @throws ClassCastException si algún rango o columna ordenada no es comparable.
+     * @throws IndexOutOfBoundsException si alguna reasignación se refiere a una fila inexistente.
+     */
+    public Tabla ejecutar() {
+        Medicion medicion = Telemetria.iniciar("consulta", origen);
+        Pasada pasada = new Pasada(origen);
+        Tabla resultado = null;
+        for (Paso paso : pasos) {
+            if (paso.tipo == TipoPaso.REASIGNAR) {
+                // La posición de la fila depende de los pasos anteriores, que se materializan primero
+                if (pasada != null) {
+                    resultado = pasada.materializar(nombreTabla);
+                    pasada = null;
+                }
+                for (Columna<?> columna : resultado.getColumnas()) {
+                    if (columna.getNombre().equals(paso.nombreColumna)) {
+                        columna.modificarValor(paso.indice, paso.valor);
+                    }
+                }
+                continue;
+            }
+            if (pasada == null) {
+                pasada = new Pasada(resultado);
+            }
+            pasada.aplicar(paso);
+        }
+        return medicion.terminar(pasada == null ? resultado : pasada.materializar(nombreTabla));
+    }
+
+    private void verificarColumna(String nombreColumna) {
+        if (!nombresVisibles.contains(nombreColumna)) {
+            throw new IllegalArgumentException("La columna '" + nombreColumna + "' no existe en la tabla.");
+        }
+    }
+
+    private static void describirPasada(StringBuilder plan, int numero, List<String> filtros, List<String> orden, List<String> columnas) {
+        plan.append("Pasada ").append(numero).append('\n');
+        if (!filtros.isEmpty()) {
+            plan.append("  Filtros fusionados: ").append(String.join(" y ", filtros)).append('\n');
+        }
+        if (!orden.isEmpty()) {
+            plan.append("  Orden: ").append(String.join(", ", orden)).append('\n');
+        }
+        plan.append("  Materializar: ").append(String.join(", ", columnas)).append('\n');
+    }
+
+    /**
+     * Estado de una pasada sobre una tabla: las columnas que siguen visibles, el vector de selección
+     * de los filtros ya aplicados y las claves del ordenamiento combinado, que se aplica al materializar.
+     */
+    private static final class Pasada {
+        private final Tabla tabla;
+        private final List<Columna<?>> columnas;
+        private final List<Columna<?>> columnasOrden;
+        private final List<Boolean> criteriosOrden;
+        /** Filas que pasaron los filtros, en orden ascendente, o null si todavía no se filtró ninguna. */
+        private int[] seleccion;
+
+        Pasada(Tabla tabla) {
+            this.tabla = tabla;
+            this.columnas = new ArrayList<>(tabla.getColumnas());
+            this.columnasOrden = new ArrayList<>();
+            this.criteriosOrden = new ArrayList<>();
+        }
+
+        void aplicar(Paso paso) {
+            switch (paso.tipo) {
+                case SIN_NAS:
+                    eliminarNulos(paso.nombreColumna == null ? columnas : List.of(buscar(paso.nombreColumna)));
+                    break;
+                case IGUAL:
+                    filtrarIguales(buscar(paso.nombreColumna), paso.valor);
+                    break;
+                case RANGO:
+                    filtrarRango(buscar(paso.nombreColumna), paso.valorMin, paso.valorMax);
+                    break;
+                case ORDEN:
+                    // Ordenar de forma estable por B después de ordenar por A equivale a ordenar una vez por (B, A)
+                    List<Columna<?>> claves = new ArrayList<>();
+                    for (String nombreColumna : paso.nombresColumnas) {
+                        claves.add(buscar(nombreColumna));
+                    }
+                    columnasOrden.addAll(0, claves);
+                    criteriosOrden.addAll(0, paso.criterios);
+                    break;
+                case ELIMINAR_COLUMNA:
+                    columnas.remove(buscar(paso.nombreColumna));
+                    break;
+                default:
+                    throw new IllegalStateException("Paso no soportado en una pasada: " + paso.tipo);
+            }
+        }
+
+        /**
+         * Ordena las filas seleccionadas y copia sólo las columnas visibles, en una única pasada.
+         */
+        Tabla materializar(String nombre) {
+            int[] filas = seleccion;
+            if (filas == null) {
+                filas = new int[tabla.getFilas()];
+                for (int i = 0; i < filas.length; i++) {
+                    filas[i] = i;
+                }
+            }
+            if (!columnasOrden.isEmpty()) {
+                filas = new Ordenamiento(tabla).ordenarFilas(columnasOrden, criteriosOrden, filas);
+            }
+            return tabla.seleccionarFilas(nombre, filas, columnas);
+        }
+
+        private void eliminarNulos(List<Columna<?>> columnasRevisadas) {
+            BitSet nulos = new BitSet();
+            for (Columna<?> columna : columnasRevisadas) {
+                nulos.or(columna.getNulos());
+            }
+            if (nulos.isEmpty()) {
+                return;
+            }
+            ListaEnteros restantes = new ListaEnteros();
+            if (seleccion == null) {
+                for (int i = nulos.nextClearBit(0); i < tabla.getFilas(); i = nulos.nextClearBit(i + 1)) {
+                    restantes.agregar(i);
+                }
+            } else {
+                for (int fila : seleccion) {
+                    if (!nulos.get(fila)) {
+                        restantes.agregar(fila);
+                    }
+                }
+            }
+            seleccion = restantes.toArray();
+        }
+
+        private void filtrarIguales(Columna<?> columna, Object valor) {
+            if (seleccion == null) {
+                seleccion = tabla.filasIguales(columna, valor);
+                return;
+            }
+            Tabla.verificarValorFiltro(columna, seleccion, valor);
+            refinar(valor == null ? new int[0] : columna.getAlmacen().buscarIguales(valor, seleccion));
+        }
+
+        private void filtrarRango(Columna<?> columna, Comparable<?> valorMin, Comparable<?> valorMax) {
+            if (seleccion == null) {
+                seleccion = tabla.filasEnRango(columna, valorMin, valorMax);
+                return;
+            }
+            Tabla.verificarRango(columna, seleccion, valorMin, valorMax);
+            refinar(columna.getAlmacen().buscarEnRango(valorMin, valorMax, seleccion));
+        }
+
+        /**
+         * Reduce la selección a las posiciones indicadas dentro de ella.
+         */
+        private void refinar(int[] posiciones) {
+            int[] filas = new int[posiciones.length];
+            for (int i = 0; i < posiciones.length; i++) {
+                filas[i] = seleccion[posiciones[i]];
+            }
+            seleccion = filas;
+        }
+
+        /**
+         * Busca la primera columna visible con el nombre indicado; el plan ya verificó que existe.
+         */
+        private Columna<?> buscar(String nombreColumna) {
+            for (Columna<?> columna : columnas) {
+                if (columna.getNombre().equals(nombreColumna)) {
+                    return columna;
+                }
+            }
+            throw new IllegalArgumentException("La columna '" + nombreColumna + "' no existe en la tabla.");
+        }
+    }
+
+    private enum TipoPaso {
+        SIN_NAS, IGUAL, RANGO, ORDEN, ELIMINAR_COLUMNA, REASIGNAR
+    }
+
+    /**
+     * Una operación registrada en el plan; cada tipo usa sólo algunos de los campos.
+     */
+    private static final class Paso {
+        private final TipoPaso tipo;
+        private final String nombreColumna;
+        private Object valor;
+        private Comparable<?> valorMin;
+        private Comparable<?> valorMax;
+        private List<String> nombresColumnas;
+        private List<Boolean> criterios;
+        private int indice;
+
+        Paso(TipoPaso tipo, String nombreColumna) {
+            this.tipo = tipo;
+            this.nombreColumna = nombreColumna;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BinaryOperator;
+
+/**
+ * Modo de ejecución paralela de los recorridos de filas (filtros, búsqueda de nulos, imputación).
+ * Las filas se dividen en partes de {@link #TAMANIO_PARTE} filas que se procesan como tareas de un
+ * {@link ForkJoinPool}, y los resultados parciales se combinan en el orden de las partes, por lo que
+ * el resultado es el mismo que el de un recorrido secuencial. Las columnas con pocas filas, o con el
+ * modo paralelo desactivado, se recorren en el hilo que llama.
+ * <p>
+ * Como las partes empiezan en múltiplos de {@link #TAMANIO_PARTE}, que es múltiplo de 64 y de
+ * {@link MapaZonas#TAMANIO_BLOQUE}, dos tareas nunca comparten una palabra de un {@link java.util.BitSet}
+ * ni un bloque de un mapa de zonas.
+ */
+class EjecucionParalela {
+    /** Cantidad de filas de cada parte; las columnas de hasta este tamaño siempre se recorren secuencialmente. */
+    static final int TAMANIO_PARTE = 1 << 14;
+
+    private static volatile boolean activa = true;
+    private static volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    private EjecucionParalela() {
+    }
+
+    /**
+     * Activa o desactiva el modo paralelo. Desactivado, todos los recorridos se hacen en el hilo que llama.
+     *
+     * @param activa si los recorridos grandes se reparten entre varios hilos.
+     */
+    public static void setActiva(boolean activa) {
+        EjecucionParalela.activa = activa;
+    }
+
+    /**
+     * Indica si el modo paralelo está activo.
+     *
+     * @return true si los recorridos grandes se reparten entre varios hilos.
+     */
+    public static boolean isActiva() {
+        return activa;
+    }
+
+    /**
+     * Define la cantidad de hilos del modo paralelo. Con 0 se usa el pool común de la JVM,
+     * que tiene un hilo menos que la cantidad de procesadores disponibles.
+     *
+     * @param hilos la cantidad de hilos, o 0 para usar el pool común.
+     * @throws IllegalArgumentException si la cantidad de hilos es negativa.
+     */
+    public static synchronized void setParalelismo(int hilos) {
+        if (hilos < 0) {
+            throw new IllegalArgumentException("La cantidad de hilos no puede ser negativa.");
+        }
+        ForkJoinPool anterior = pool;
+        pool = hilos == 0 ? ForkJoinPool.commonPool() : new ForkJoinPool(hilos);
+        if (anterior != ForkJoinPool.commonPool()) {
+            anterior.shutdown();
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de hilos del modo paralelo.
+     *
+     * @return el paralelismo del pool en uso.
+     */
+    public static int getParalelismo() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Indica si conviene repartir un recorrido de la cantidad de filas indicada.
+     *
+     * @param cantidad la cantidad de filas a recorrer.
+     * @return true si el modo paralelo está activo, hay más de un hilo y más de una parte.
+     */
+    static boolean conviene(int cantidad) {
+        return activa && cantidad > TAMANIO_PARTE && pool.getParallelism() > 1;
+    }
+
+    /**
+     * Busca las posiciones que cumplen una condición, recorriendo las partes en paralelo si conviene.
+     *
+     * @param cantidad la cantidad de posiciones a revisar.
+     * @param busqueda agrega a la lista, en orden ascendente, las posiciones de {@code [desde, hasta)} que cumplen la condición.
+     * @return todas las posiciones encontradas, en orden ascendente.
+     */
+    static int[] buscar(int cantidad, Busqueda busqueda) {
+        if (!conviene(cantidad)) {
+            ListaEnteros posiciones = new ListaEnteros();
+            busqueda.buscar(0, cantidad, posiciones);
+            return posiciones.toArray();
+        }
+        ListaEnteros[] parciales = new ListaEnteros[cantidadPartes(cantidad)];
+        ejecutar(cantidad, (parte, desde, hasta) -> {
+            parciales[parte] = new ListaEnteros();
+            busqueda.buscar(desde, hasta, parciales[parte]);
+        });
+
+        int total = 0;
+        for (ListaEnteros parcial : parciales) {
+            total += parcial.tamanio();
+        }
+        int[] posiciones = new int[total];
+        int k = 0;
+        for (ListaEnteros parcial : parciales) {
+            for (int i = 0; i < parcial.tamanio(); i++) {
+                posiciones[k++] = parcial.get(i);
+            }
+        }
+        return posiciones;
+    }
+
+    /**
+     * Reúne los elementos que produce cada parte en una única lista, conservando el orden de las partes.
+     *
+     * @param cantidad la cantidad de posiciones a recorrer.
+     * @param recoleccion agrega a la lista los elementos que corresponden a {@code [desde, hasta)}.
+     * @return la lista con los elementos de todas las partes.
+     */
+    static <T> List<T> recolectar(int cantidad, Recoleccion<T> recoleccion) {
+        List<T> resultado = new ArrayList<>();
+        if (!conviene(cantidad)) {
+            recoleccion.recolectar(0, cantidad, resultado);
+            return resultado;
+        }
+        List<List<T>> parciales = new ArrayList<>();
+        for (int p = 0; p < cantidadPartes(cantidad); p++) {
+            parciales.add(new ArrayList<>());
+        }
+        ejecutar(cantidad, (parte, desde, hasta) -> recoleccion.recolectar(desde, hasta, parciales.get(parte)));
+        for (List<T> parcial : parciales) {
+            resultado.addAll(parcial);
+        }
+        return resultado;
+    }
+
+    /**
+     * Recorre todas las posiciones, en paralelo si conviene. Cada parte debe escribir sólo en sus propias posiciones.
+     *
+     * @param cantidad la cantidad de posiciones a recorrer.
+     * @param recorrido procesa las posiciones de {@code [desde, hasta)}.
+     */
+    static void recorrer(int cantidad, Recorrido recorrido) {
+        if (!conviene(cantidad)) {
+            recorrido.recorrer(0, cantidad);
+            return;
+        }
+        ejecutar(cantidad, (parte, desde, hasta) -> recorrido.recorrer(desde, hasta));
+    }
+
+    /**
+     * Calcula un resultado parcial por parte y los combina de izquierda a derecha. Las partes son
+     * siempre las mismas, se ejecuten en paralelo o no, así que el resultado no depende de la cantidad
+     * de hilos aunque la combinación no sea asociativa (como la suma de números decimales).
+     *
+     * @param cantidad la cantidad de posiciones a recorrer.
+     * @param reduccion calcula el resultado parcial de {@code [desde, hasta)}.
+     * @param combinar combina dos resultados parciales consecutivos.
+     * @return el resultado combinado, o el de una parte vacía si no hay posiciones.
+     */
+    static <T> T reducir(int cantidad, Reduccion<T> reduccion, BinaryOperator<T> combinar) {
+        return reducir(cantidad, TAMANIO_PARTE, reduccion, combinar);
+    }
+
+    /**
+     * Igual que {@link #reducir(int, Reduccion, BinaryOperator)}, pero con partes más grandes, para las
+     * reducciones cuyos resultados parciales son costosos de combinar (como las tablas de grupos).
+     *
+     * @param cantidad la cantidad de posiciones a recorrer.
+     * @param tamanioParte la cantidad de posiciones de cada parte; un múltiplo de {@link #TAMANIO_PARTE}.
+     * @param reduccion calcula el resultado parcial de {@code [desde, hasta)}.
+     * @param combinar combina dos resultados parciales consecutivos.
+     * @return el resultado combinado, o el de una parte vacía si no hay posiciones.
+     */
+    static <T> T reducir(int cantidad, int tamanioParte, Reduccion<T> reduccion, BinaryOperator<T> combinar) {
+        int partes = cantidadPartes(cantidad, tamanioParte);
+        if (partes <= 1) {
+            return reduccion.reducir(0, cantidad);
+        }
+        List<T> parciales = new ArrayList<>(partes);
+        if (activa && pool.getParallelism() > 1) {
+            for (int p = 0; p < partes; p++) {
+                parciales.add(null);
+            }
+            ejecutar(cantidad, tamanioParte, (parte, desde, hasta) -> parciales.set(parte, reduccion.reducir(desde, hasta)));
+        } else {
+            for (int p = 0; p < partes; p++) {
+                parciales.add(reduccion.reducir(p * tamanioParte, (int) Math.min((long) (p + 1) * tamanioParte, cantidad)));
+            }
+        }
+        T resultado = parciales.get(0);
+        for (int p = 1; p < partes; p++) {
+            resultado = combinar.apply(resultado, parciales.get(p));
+        }
+        return resultado;
+    }
+
+    private static int cantidadPartes(int cantidad) {
+        return cantidadPartes(cantidad, TAMANIO_PARTE);
+    }
+
+    private static int cantidadPartes(int cantidad, int tamanioParte) {
+        return (int) (((long) cantidad + tamanioParte - 1) / tamanioParte);
+    }
+
+    private static void ejecutar(int cantidad, Parte parte) {
+        ejecutar(cantidad, TAMANIO_PARTE, parte);
+    }
+
+    private static void ejecutar(int cantidad, int tamanioParte, Parte parte) {
+        pool.invoke(new TareaPartes(0, cantidadPartes(cantidad, tamanioParte), cantidad, tamanioParte, parte));
+    }
+
+    /** Busca las posiciones de {@code [desde, hasta)} que cumplen una condición. */
+    @FunctionalInterface
+    interface Busqueda {
+        void buscar(int desde, int hasta, ListaEnteros posiciones);
+    }
+
+    /** Agrega a una lista los elementos que corresponden a {@code [desde, hasta)}. */
+    @FunctionalInterface
+    interface Recoleccion<T> {
+        void recolectar(int desde, int hasta, List<T> resultado);
+    }
+
+    /** Procesa las posiciones de {@code [desde, hasta)}. */
+    @FunctionalInterface
+    interface Recorrido {
+        void recorrer(int desde, int hasta);
+    }
+
+    /** Calcula el resultado parcial de {@code [desde, hasta)}. */
+    @FunctionalInterface
+    interface Reduccion<T> {
+        T reducir(int desde, int hasta);
+    }
+
+    @FunctionalInterface
+    private interface Parte {
+        void ejecutar(int parte, int desde, int hasta);
+    }
+
+    /**
+     * Divide un intervalo de partes a la mitad hasta llegar a una sola, que se ejecuta directamente.
+     */
+    private static final class TareaPartes extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int primera;
+        private final int ultima;
+        private final int cantidad;
+        private final int tamanioParte;
+        private final Parte parte;
+
+        TareaPartes(int primera, int ultima, int cantidad, int tamanioParte, Parte parte) {
+            this.primera = primera;
+            this.ultima = ultima;
+            this.cantidad = cantidad;
+            this.tamanioParte = tamanioParte;
+            this.parte = parte;
+        }
+
+        @Override
+        protected void compute() {
+            if (ultima - primera == 1) {
+                int desde = primera * tamanioParte;
+                parte.ejecutar(primera, desde, (int) Math.min((long) desde + tamanioParte, cantidad));
+                return;
+            }
+            int medio = (primera + ultima) >>> 1;
+            invokeAll(new TareaPartes(primera, medio, cantidad, tamanioParte, parte),
+                    new TareaPartes(medio, ultima, cantidad, tamanioParte, parte));
+        }
+    }
+}
@@ -0,0 +1,329 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Escritor de archivos CSV en UTF-8 que da formato a las filas en partes, en paralelo, y escribe los bytes
+ * de cada parte en orden a través de un {@link FileChannel}. Los campos que contienen comas, comillas dobles
+ * o saltos de línea se encierran entre comillas según RFC 4180, duplicando las comillas internas; los textos
+ * vacíos y los que se leerían como faltantes (como {@code NA}) también se escriben entre comillas, para
+ * distinguirlos de los nulos, que quedan como campos vacíos.
+ * Los valores se leen directamente del almacenamiento tipado de cada columna (también a través de las vistas
+ * de las tablas filtradas o muestreadas), sin encapsularlos. En modo comprimido cada parte se comprime por
+ * separado como un miembro gzip; el archivo resultante es un gzip válido formado por miembros concatenados.
+ */
+class EscritorCSV {
+    /** Cantidad de filas que se formatean antes de escribirlas, para acotar la memoria usada. */
+    private static final int FILAS_POR_LOTE = EjecucionParalela.TAMANIO_PARTE * 16;
+    private static final byte COMILLA = '"';
+    private static final byte SEPARADOR = ',';
+    private static final byte FIN_LINEA = '\n';
+
+    private final Path ruta;
+    private final boolean comprimir;
+
+    /**
+     * Constructor que prepara la escritura sin compresión en el archivo indicado.
+     *
+     * @param rutaArchivo la ruta del archivo CSV; si existe se reemplaza.
+     */
+    public EscritorCSV(String rutaArchivo) {
+        this(rutaArchivo, false);
+    }
+
+    /**
+     * Constructor que prepara la escritura en el archivo indicado.
+     *
+     * @param rutaArchivo la ruta del archivo CSV; si existe se reemplaza.
+     * @param comprimir si el archivo se escribe comprimido con gzip.
+     */
+    public EscritorCSV(String rutaArchivo, boolean comprimir) {
+        this.ruta = Path.of(rutaArchivo);
+        this.comprimir = comprimir;
+    }
+
+    /**
+     * Escribe la tabla completa: una línea con los nombres de las columnas y una línea por fila.
+     *
+     * @param tabla la tabla a escribir.
+     * @throws IOException si ocurre un error al escribir el archivo.
+     */
+    public void escribir(Tabla tabla) throws IOException {
+        List<Columna<?>> columnas = tabla.getColumnas();
+        Formato[] formatos = new Formato[columnas.size()];
+        for (int c = 0; c < formatos.length; c++) {
+            formatos[c] = crearFormato(columnas.get(c).getAlmacen());
+        }
+        int filas = tabla.getFilas();
+
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Bufer cabecera = new Bufer(256);
+            for (int c = 0; c < columnas.size(); c++) {
+                if (c > 0) {
+                    cabecera.agregar(SEPARADOR);
+                }
+                cabecera.agregarCampo(columnas.get(c).getNombre());
+            }
+            cabecera.agregar(FIN_LINEA);
+            escribir(canal, terminar(cabecera));
+
+            for (int inicio = 0; inicio < filas; inicio += FILAS_POR_LOTE) {
+                int inicioLote = inicio;
+                int cantidad = Math.min(FILAS_POR_LOTE, filas - inicio);
+                List<byte[]> partes;
+                try {
+                    partes = EjecucionParalela.recolectar(cantidad, (desde, hasta, resultado) ->
+                            resultado.add(formatearFilas(formatos, inicioLote + desde, inicioLote + hasta)));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                for (byte[] parte : partes) {
+                    escribir(canal, parte);
+                }
+            }
+        }
+    }
+
+    /**
+     * Da formato a las filas de {@code [desde, hasta)} y devuelve sus bytes, comprimidos si corresponde.
+     */
+    private byte[] formatearFilas(Formato[] formatos, int desde, int hasta) {
+        Bufer bufer = new Bufer(Math.max(64, (hasta - desde) * formatos.length * 8));
+        for (int fila = desde; fila < hasta; fila++) {
+            for (int c = 0; c < formatos.length; c++) {
+                if (c > 0) {
+                    bufer.agregar(SEPARADOR);
+                }
+                formatos[c].escribir(fila, bufer);
+            }
+            bufer.agregar(FIN_LINEA);
+        }
+        try {
+            return terminar(bufer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] terminar(Bufer bufer) throws IOException {
+        if (!comprimir) {
+            return bufer.toArray();
+        }
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream(Math.max(64, bufer.tamanio / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido, 1 << 16) {
+            {
+                // Se prioriza la velocidad: la exportación es parte de procesos por lotes
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        }) {
+            gzip.write(bufer.bytes, 0, bufer.tamanio);
+        }
+        return comprimido.toByteArray();
+    }
+
+    private static void escribir(FileChannel canal, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+
+    /**
+     * Crea el formato de una columna según la clase de su almacenamiento. Las vistas se leen a través de
+     * su vector de selección sobre el almacenamiento base. El texto de cada valor es el de {@code toString()}.
+     */
+    private static Formato crearFormato(AlmacenColumna almacen) {
+        int[] seleccion = null;
+        AlmacenColumna valores = almacen;
+        if (almacen instanceof AlmacenVista) {
+            seleccion = ((AlmacenVista) almacen).getFilas();
+            valores = ((AlmacenVista) almacen).getBase();
+        }
+        Formato formato;
+        if (valores instanceof AlmacenEntero) {
+            AlmacenEntero enteros = (AlmacenEntero) valores;
+            formato = (fila, bufer) -> bufer.agregarEntero(enteros.getEntero(fila));
+        } else if (valores instanceof AlmacenDecimal) {
+            AlmacenDecimal decimales = (AlmacenDecimal) valores;
+            formato = (fila, bufer) -> bufer.agregarDecimal(decimales.getDecimal(fila));
+        } else if (valores instanceof AlmacenFecha) {
+            AlmacenFecha fechas = (AlmacenFecha) valores;
+            formato = (fila, bufer) -> bufer.agregarAscii(LocalDate.ofEpochDay(fechas.getDias(fila)).toString());
+        } else if (valores instanceof AlmacenBooleano) {
+            AlmacenBooleano booleanos = (AlmacenBooleano) valores;
+            formato = (fila, bufer) -> bufer.agregarAscii(booleanos.getBooleano(fila) ? "true" : "false");
+        } else if (valores instanceof AlmacenTexto) {
+            AlmacenTexto textos = (AlmacenTexto) valores;
+            formato = (fila, bufer) -> bufer.agregarCampo(textos.getTexto(fila));
+        } else if (valores instanceof AlmacenDiccionario) {
+            // Cada texto del diccionario se codifica una única vez
+            AlmacenDiccionario codificados = (AlmacenDiccionario) valores;
+            byte[][] campos = new byte[codificados.getTamanioDiccionario()][];
+            for (int codigo = 0; codigo < campos.length; codigo++) {
+                Bufer campo = new Bufer(16);
+                campo.agregarCampo(codificados.getTexto(codigo));
+                campos[codigo] = campo.toArray();
+            }
+            formato = (fila, bufer) -> bufer.agregar(campos[codificados.getCodigo(fila)]);
+        } else {
+            AlmacenColumna generico = valores;
+            formato = (fila, bufer) -> bufer.agregarCampo(generico.getValor(fila).toString());
+        }
+        return omitirNulos(formato, valores, seleccion);
+    }
+
+    /**
+     * Agrega al formato la traducción de posiciones de la vista y la omisión de los nulos, que quedan como campos vacíos.
+     */
+    private static Formato omitirNulos(Formato formato, AlmacenColumna valores, int[] seleccion) {
+        if (seleccion == null) {
+            return (fila, bufer) -> {
+                if (!valores.esNulo(fila)) {
+                    formato.escribir(fila, bufer);
+                }
+            };
+        }
+        return (fila, bufer) -> {
+            int posicion = seleccion[fila];
+            if (posicion >= 0 && !valores.esNulo(posicion)) {
+                formato.escribir(posicion, bufer);
+            }
+        };
+    }
+
+    /** Escribe el campo de una fila no nula. */
+    @FunctionalInterface
+    private interface Formato {
+        void escribir(int fila, Bufer bufer);
+    }
+
+    /**
+     * Arreglo de bytes que crece a medida que se agregan campos.
+     */
+    private static final class Bufer {
+        private byte[] bytes;
+        private int tamanio;
+
+        Bufer(int capacidad) {
+            this.bytes = new byte[capacidad];
+        }
+
+        private void reservar(int cantidad) {
+            if (tamanio + cantidad > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, tamanio + cantidad));
+            }
+        }
+
+        void agregar(byte valor) {
+            reservar(1);
+            bytes[tamanio++] = valor;
+        }
+
+        void agregar(byte[] valores) {
+            reservar(valores.length);
+            System.arraycopy(valores, 0, bytes, tamanio, valores.length);
+            tamanio += valores.length;
+        }
+
+        /**
+         * Agrega un texto que sólo tiene caracteres ASCII y no necesita comillas, como un número o una fecha.
+         */
+        void agregarAscii(String texto) {
+            reservar(texto.length());
+            for (int i = 0; i < texto.length(); i++) {
+                bytes[tamanio++] = (byte) texto.charAt(i);
+            }
+        }
+
+        /**
+         * Agrega los dígitos de un entero sin crear un texto intermedio.
+         */
+        void agregarEntero(int valor) {
+            if (valor == Integer.MIN_VALUE) {
+                agregarAscii(Integer.toString(valor));
+                return;
+            }
+            reservar(11);
+            if (valor < 0) {
+                bytes[tamanio++] = '-';
+                valor = -valor;
+            }
+            int digitos = 1;
+            for (int limite = 10; digitos < 10 && valor >= limite; limite *= 10) {
+                digitos++;
+            }
+            for (int i = tamanio + digitos - 1; i >= tamanio; i--) {
+                bytes[i] = (byte) ('0' + valor % 10);
+                valor /= 10;
+            }
+            tamanio += digitos;
+        }
+
+        /**
+         * Agrega un texto en UTF-8, entre comillas si se leería como faltante o contiene comas, comillas o
+         * saltos de línea.
+         */
+        void agregarCampo(String texto) {
+            boolean ascii = true;
+            boolean comillas = AnalizadorValores.esNulo(texto);
+            for (int i = 0; i < texto.length(); i++) {
+                char caracter = texto.charAt(i);
+                if (caracter >= 0x80) {
+                    ascii = false;
+                } else if (caracter == SEPARADOR || caracter == COMILLA || caracter == FIN_LINEA || caracter == '\r') {
+                    comillas = true;
+                }
+            }
+            if (!comillas) {
+                if (ascii) {
+                    agregarAscii(texto);
+                } else {
+                    agregar(texto.getBytes(StandardCharsets.UTF_8));
+                }
+                return;
+            }
+            byte[] codificado = ascii ? null : texto.getBytes(StandardCharsets.UTF_8);
+            int largo = ascii ? texto.length() : codificado.length;
+            // En el peor caso cada byte es una comilla que se duplica
+            reservar(2 * largo + 2);
+            bytes[tamanio++] = COMILLA;
+            for (int i = 0; i < largo; i++) {
+                byte valor = ascii ? (byte) texto.charAt(i) : codificado[i];
+                if (valor == COMILLA) {
+                    bytes[tamanio++] = COMILLA;
+                }
+                bytes[tamanio++] = valor;
+            }
+            bytes[tamanio++] = COMILLA;
+        }
+
+        /**
+         * Agrega un decimal con el mismo texto que {@link Double#toString(double)}. Los valores enteros
+         * chicos, muy comunes en los datos, se escriben sin pasar por la conversión general.
+         */
+        void agregarDecimal(double valor) {
+            if (valor == (int) valor && Math.abs(valor) < 1e7
+                    && Double.doubleToRawLongBits(valor) != Double.doubleToRawLongBits(-0.0)) {
+                agregarEntero((int) valor);
+                agregarAscii(".0");
+            } else {
+                agregarAscii(Double.toString(valor));
+            }
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(bytes, tamanio);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Esquema de un archivo CSV: el nombre y el tipo fijo de cada columna.
+ * Los tipos se infieren una única vez a partir de una muestra de registros, antes de convertir
+ * el archivo completo, de modo que cada columna se cargue con un único conversor especializado.
+ */
+class EsquemaCSV {
+    private static final double PROPORCION_MAXIMA_CATEGORICA = 0.5;
+
+    private final List<String> nombres;
+    private final TipoColumna[] tipos;
+
+    /**
+     * Constructor que crea un esquema con los nombres y tipos indicados.
+     *
+     * @param nombres los nombres de las columnas.
+     * @param tipos el tipo de cada columna, en el mismo orden.
+     */
+    public EsquemaCSV(List<String> nombres, TipoColumna[] tipos) {
+        this.nombres = new ArrayList<>(nombres);
+        this.tipos = tipos.clone();
+    }
+
+    /**
+     * Obtiene los nombres de las columnas.
+     *
+     * @return la lista de nombres.
+     */
+    public List<String> getNombres() {
+        return nombres;
+    }
+
+    /**
+     * Obtiene el tipo de la columna en la posición indicada.
+     *
+     * @param columna la posición de la columna.
+     * @return el tipo inferido.
+     */
+    public TipoColumna getTipo(int columna) {
+        return tipos[columna];
+    }
+
+    /**
+     * Obtiene la cantidad de columnas del esquema.
+     *
+     * @return la cantidad de columnas.
+     */
+    public int getCantColumnas() {
+        return tipos.length;
+    }
+
+    /**
+     * Acumula las observaciones de una columna durante el muestreo y decide su tipo.
+     * Un tipo es candidato mientras todos los valores no nulos observados sean válidos para él.
+     */
+    static class Inferencia {
+        private boolean hayValores = false;
+        private boolean enteros = true;
+        private boolean decimales = true;
+        private boolean booleanos = true;
+        private boolean fechas = true;
+        private int cantValores = 0;
+        private final Set<String> distintos = new HashSet<>();
+
+        /**
+         * Registra un campo de la muestra.
+         *
+         * @param bytes los bytes del campo.
+         * @param largo la cantidad de bytes válidos.
+         */
+        void observar(byte[] bytes, int largo) {
+            if (AnalizadorValores.esNulo(bytes, largo)) {
+                return;
+            }
+            hayValores = true;
+            cantValores++;
+            distintos.add(new String(bytes, 0, largo, StandardCharsets.UTF_8));
+            enteros = enteros && TipoColumna.ENTERO.esValido(bytes, largo);
+            decimales = decimales && TipoColumna.DECIMAL.esValido(bytes, largo);
+            booleanos = booleanos && TipoColumna.BOOLEANO.esValido(bytes, largo);
+            fechas = fechas && TipoColumna.FECHA.esValido(bytes, largo);
+        }
+
+        /**
+         * Decide el tipo más específico compatible con todos los valores observados.
+         * Una columna que mezcla enteros y decimales se considera decimal, y una columna de texto
+         * donde los valores distintos son a lo sumo la mitad de los observados se considera categórica.
+         *
+         * @return el tipo de la columna.
+         */
+        TipoColumna resultado() {
+            if (!hayValores) {
+                return TipoColumna.TEXTO;
+            } else if (booleanos) {
+                return TipoColumna.BOOLEANO;
+            } else if (enteros) {
+                return TipoColumna.ENTERO;
+            } else if (decimales) {
+                return TipoColumna.DECIMAL;
+            } else if (fechas) {
+                return TipoColumna.FECHA;
+            } else if (distintos.size() <= cantValores * PROPORCION_MAXIMA_CATEGORICA) {
+                return TipoColumna.CATEGORICO;
+            }
+            return TipoColumna.TEXTO;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/**
+ * Estadísticas de los valores de una columna: cantidad de valores y de nulos, mínimo, máximo, suma
+ * (de los valores numéricos) y una estimación de la cantidad de valores distintos. Se calculan una vez
+ * recorriendo la columna y luego la columna las mantiene al día con cada valor que agrega, modifica o
+ * elimina, de modo que consultarlas no vuelve a recorrer los datos.
+ * <p>
+ * Los valores distintos se estiman con un HyperLogLog de 2<sup>12</sup> registros (error típico cercano
+ * al 1,6 %). Como un HyperLogLog no admite quitar valores, al eliminar o reemplazar valores la estimación
+ * no baja, pero nunca supera la cantidad de valores. Si se elimina el mínimo o el máximo, los extremos dejan
+ * de estar vigentes y la columna recalcula las estadísticas la próxima vez que se consultan.
+ */
+class EstadisticasColumna {
+    private static final int BITS_REGISTRO = 12;
+    private static final int CANT_REGISTROS = 1 << BITS_REGISTRO;
+
+    private int cantidad;
+    private int nulos;
+    private double suma;
+    private boolean numerica = true;
+    private Object minimo;
+    private Object maximo;
+    private boolean extremosVigentes = true;
+    private final byte[] registros = new byte[CANT_REGISTROS];
+
+    /**
+     * Calcula las estadísticas recorriendo todos los valores del almacenamiento. En columnas grandes las
+     * partes se recorren en paralelo y sus estadísticas parciales se combinan siempre en el mismo orden.
+     *
+     * @param almacen el almacenamiento con los valores.
+     * @return las estadísticas de los valores.
+     */
+    static EstadisticasColumna calcular(AlmacenColumna almacen) {
+        return EjecucionParalela.reducir(almacen.tamanio(), (desde, hasta) -> {
+            EstadisticasColumna parcial = new EstadisticasColumna();
+            for (int i = desde; i < hasta; i++) {
+                parcial.agregar(almacen.getValor(i));
+            }
+            return parcial;
+        }, EstadisticasColumna::combinar);
+    }
+
+    /**
+     * Incorpora un valor agregado a la columna.
+     *
+     * @param valor el valor; puede ser {@code null}.
+     */
+    void agregar(Object valor) {
+        if (valor == null) {
+            nulos++;
+            return;
+        }
+        cantidad++;
+        acumular(valor, 1);
+        actualizarExtremos(valor);
+        registrar(valor);
+    }
+
+    /**
+     * Descuenta un valor que se eliminó o se reemplazó en la columna.
+     *
+     * @param valor el valor quitado; puede ser {@code null}.
+     */
+    void quitar(Object valor) {
+        if (valor == null) {
+            nulos--;
+            return;
+        }
+        cantidad--;
+        acumular(valor, -1);
+        if (esExtremo(valor)) {
+            extremosVigentes = false;
+        }
+    }
+
+    /**
+     * Incorpora el reemplazo de todos los nulos de la columna por un mismo valor.
+     *
+     * @param valor el valor que reemplazó a los nulos.
+     * @param reemplazados la cantidad de nulos reemplazados.
+     */
+    void rellenarNulos(Object valor, int reemplazados) {
+        if (reemplazados == 0) {
+            return;
+        }
+        nulos -= reemplazados;
+        cantidad += reemplazados;
+        acumular(valor, reemplazados);
+        actualizarExtremos(valor);
+        registrar(valor);
+    }
+
+    /**
+     * Combina las estadísticas de dos grupos de valores consecutivos.
+     *
+     * @param a las estadísticas del primer grupo.
+     * @param b las estadísticas del segundo grupo.
+     * @return las estadísticas de ambos grupos (se reutiliza {@code a}).
+     */
+    static EstadisticasColumna combinar(EstadisticasColumna a, EstadisticasColumna b) {
+        a.cantidad += b.cantidad;
+        a.nulos += b.nulos;
+        a.suma += b.suma;
+        a.numerica &= b.numerica;
+        a.extremosVigentes &= b.extremosVigentes;
+        if (b.minimo != null) {
+            a.actualizarExtremos(b.minimo);
+            a.actualizarExtremos(b.maximo);
+        }
+        for (int r = 0; r < CANT_REGISTROS; r++) {
+            a.registros[r] = (byte) Math.max(a.registros[r], b.registros[r]);
+        }
+        return a;
+    }
+
+    /**
+     * Crea una copia independiente de las estadísticas.
+     *
+     * @return la copia.
+     */
+    EstadisticasColumna copiar() {
+        return combinar(new EstadisticasColumna(), this);
+    }
+
+    /**
+     * Estima la memoria que ocupan las estadísticas, casi toda en los registros del HyperLogLog.
+     *
+     * @return los bytes estimados.
+     */
+    static long estimarMemoria() {
+        return EstimacionMemoria.alinear(EstimacionMemoria.CABECERA_OBJETO + 2 * 4 + 8 + 2 + 3 * EstimacionMemoria.REFERENCIA)
+                + EstimacionMemoria.arreglo(CANT_REGISTROS, 1);
+    }
+
+    /**
+     * Indica si todas las estadísticas siguen siendo exactas, es decir, si no se eliminó un extremo.
+     *
+     * @return {@code true} si no hace falta recalcularlas.
+     */
+    boolean estanVigentes() {
+        return extremosVigentes;
+    }
+
+    private void acumular(Object valor, int veces) {
+        if (valor instanceof Number) {
+            suma += veces * ((Number) valor).doubleValue();
+        } else {
+            numerica = false;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void actualizarExtremos(Object valor) {
+        if (!(valor instanceof Comparable)) {
+            return;
+        }
+        if (minimo == null) {
+            minimo = valor;
+            maximo = valor;
+            return;
+        }
+        try {
+            if (((Comparable) valor).compareTo(minimo) < 0) {
+                minimo = valor;
+            }
+            if (((Comparable) valor).compareTo(maximo) > 0) {
+                maximo = valor;
+            }
+        } catch (ClassCastException e) {
+            // Una columna genérica con valores de tipos distintos no tiene un orden entre ellos
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private boolean esExtremo(Object valor) {
+        try {
+            return minimo != null && (((Comparable) valor).compareTo(minimo) <= 0 || ((Comparable) valor).compareTo(maximo) >= 0);
+        } catch (ClassCastException e) {
+            return true;
+        }
+    }
+
+    private void registrar(Object valor) {
+        long clave;
+        if (valor instanceof Integer) {
+            clave = (Integer) valor;
+        } else if (valor instanceof Double) {
+            clave = Double.doubleToLongBits((Double) valor);
+        } else {
+            clave = valor.hashCode();
+        }
+        int hash = Agrupacion.mezclar(clave);
+        int registro = hash >>> (32 - BITS_REGISTRO);
+        // Posición del primer bit encendido en el resto del hash; el bit centinela acota el rango
+        byte rango = (byte) (Integer.numberOfLeadingZeros((hash << BITS_REGISTRO) | (1 << (BITS_REGISTRO - 1))) + 1);
+        if (rango > registros[registro]) {
+            registros[registro] = rango;
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de valores no nulos.
+     *
+     * @return la cantidad de valores.
+     */
+    int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Obtiene la cantidad de valores nulos.
+     *
+     * @return la cantidad de nulos.
+     */
+    int getNulos() {
+        return nulos;
+    }
+
+    /**
+     * Obtiene el menor valor no nulo, o {@code null} si no hay valores comparables.
+     *
+     * @return el mínimo.
+     */
+    Object getMinimo() {
+        return minimo;
+    }
+
+    /**
+     * Obtiene el mayor valor no nulo, o {@code null} si no hay valores comparables.
+     *
+     * @return el máximo.
+     */
+    Object getMaximo() {
+        return maximo;
+    }
+
+    /**
+     * Obtiene la suma de los valores, o {@code null} si la columna no es numérica o no tiene valores.
+     *
+     * @return la suma.
+     */
+    Double getSuma() {
+        return numerica && cantidad > 0 ? suma : null;
+    }
+
+    /**
+     * Obtiene el promedio de los valores, o {@code null} si la columna no es numérica o no tiene valores.
+     *
+     * @return el promedio.
+     */
+    Double getMedia() {
+        return numerica && cantidad > 0 ? suma / cantidad : null;
+    }
+
+    /**
+     * Estima la cantidad de valores distintos, sin superar la cantidad de valores.
+     *
+     * @return la estimación de valores distintos.
+     */
+    int getDistintos() {
+        double inversos = 0;
+        int vacios = 0;
+        for (byte rango : registros) {
+            inversos += Math.scalb(1.0, -rango);
+            if (rango == 0) {
+                vacios++;
+            }
+        }
+        double alfa = 0.7213 / (1 + 1.079 / CANT_REGISTROS);
+        double estimacion = alfa * CANT_REGISTROS * CANT_REGISTROS / inversos;
+        if (estimacion <= 2.5 * CANT_REGISTROS && vacios > 0) {
+            // Con pocos valores se cuenta la proporción de registros vacíos (linear counting)
+            estimacion = CANT_REGISTROS * Math.log((double) CANT_REGISTROS / vacios);
+        }
+        return (int) Math.min(Math.round(estimacion), cantidad);
+    }
+}
@@ -0,0 +1,237 @@
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.function.IntFunction;
+
+/**
+ * Estimación de la memoria del heap que ocupa una columna, separada por concepto: los arreglos de celdas
+ * (números, códigos o referencias), los objetos con que se representan los valores que no son primitivos
+ * (por ejemplo, un {@code Integer} en una columna genérica), los textos, el mapa de nulos, las estructuras
+ * auxiliares (diccionarios, mapas de zonas, vectores de selección, estadísticas), la capacidad reservada que
+ * todavía no ocupa ninguna fila y los índices de la tabla sobre la columna.
+ * <p>
+ * Los tamaños siguen la disposición de objetos de HotSpot en 64 bits: cabeceras de 12 bytes, referencias de 4
+ * bytes si los punteros están comprimidos (8 si no), y todo alineado a 8 bytes. Los textos y los objetos de las
+ * columnas grandes se estiman a partir de una muestra de sus valores, y un mismo objeto referenciado desde
+ * varias filas se cuenta una vez por fila, así que la estimación tiende a quedar por encima del valor real.
+ */
+class EstimacionMemoria {
+    static final int CABECERA_OBJETO = 12;
+    static final int CABECERA_ARREGLO = 16;
+    static final int REFERENCIA = punterosComprimidos() ? 4 : 8;
+    /** Tamaño de un {@code Integer}, {@code Long} o {@code Double}. */
+    static final long CAJA = alinear(CABECERA_OBJETO + 8);
+    /** Tamaño de un objeto {@code String} sin su arreglo de bytes. */
+    static final long OBJETO_TEXTO = alinear(CABECERA_OBJETO + REFERENCIA + 4 + 1 + 1);
+    /** Tamaño de una entrada de un {@code HashMap}. */
+    static final long ENTRADA_MAPA = alinear(CABECERA_OBJETO + 4 + 3 * REFERENCIA);
+    /** Cantidad máxima de valores que se miden para estimar los textos y los objetos de una columna. */
+    static final int TAMANIO_MUESTRA = 1024;
+
+    private long celdas;
+    private long objetos;
+    private long textos;
+    private long nulos;
+    private long auxiliar;
+    private long reservado;
+    private long indices;
+
+    private static boolean punterosComprimidos() {
+        try {
+            com.sun.management.HotSpotDiagnosticMXBean diagnostico =
+                    ManagementFactory.getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class);
+            return diagnostico == null || Boolean.parseBoolean(diagnostico.getVMOption("UseCompressedOops").getValue());
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    static long alinear(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Tamaño de un arreglo.
+     *
+     * @param elementos la cantidad de elementos.
+     * @param bytesPorElemento los bytes de cada elemento.
+     * @return los bytes del arreglo, con su cabecera.
+     */
+    static long arreglo(long elementos, int bytesPorElemento) {
+        return alinear(CABECERA_ARREGLO + elementos * bytesPorElemento);
+    }
+
+    /**
+     * Tamaño de un mapa de bits, con su arreglo de palabras.
+     *
+     * @param bits el mapa de bits.
+     * @return los bytes del mapa de bits.
+     */
+    static long mapaDeBits(BitSet bits) {
+        return alinear(CABECERA_OBJETO + REFERENCIA + 4 + 1) + arreglo(bits.size() / 64, 8);
+    }
+
+    /**
+     * Tamaño de un texto: el objeto {@code String} y su arreglo de bytes, de un byte por carácter si todos sus
+     * caracteres son Latin-1 y de dos si no.
+     *
+     * @param texto el texto.
+     * @return los bytes del texto.
+     */
+    static long texto(String texto) {
+        int bytesPorCaracter = 1;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > 0xFF) {
+                bytesPorCaracter = 2;
+                break;
+            }
+        }
+        return OBJETO_TEXTO + arreglo(texto.length(), bytesPorCaracter);
+    }
+
+    /**
+     * Tamaño de un valor guardado como objeto. Los {@code Boolean} y los {@code Integer} entre -128 y 127 no
+     * ocupan memoria propia porque la JVM reutiliza siempre las mismas instancias.
+     *
+     * @param valor el valor, que no es un texto.
+     * @return los bytes del objeto.
+     */
+    static long objeto(Object valor) {
+        if (valor instanceof Boolean) {
+            return 0;
+        } else if (valor instanceof Integer && (Integer) valor >= -128 && (Integer) valor <= 127) {
+            return 0;
+        } else if (valor instanceof LocalDate) {
+            return alinear(CABECERA_OBJETO + 4 + 2 + 2);
+        }
+        return CAJA;
+    }
+
+    /**
+     * Estima los bytes de los textos y de los objetos de una columna midiendo una muestra de posiciones
+     * equiespaciadas y extrapolando a todas las posiciones no nulas.
+     *
+     * @param almacen el almacenamiento a medir.
+     * @param valores los valores, indexados por posición; las posiciones nulas se saltean.
+     */
+    void agregarValoresMuestreados(AlmacenColumna almacen, IntFunction<Object> valores) {
+        int tamanio = almacen.tamanio();
+        int noNulos = tamanio - almacen.contarNulos();
+        if (noNulos == 0) {
+            return;
+        }
+        int paso = Math.max(1, tamanio / TAMANIO_MUESTRA);
+        long bytesTextos = 0;
+        long bytesObjetos = 0;
+        int medidos = 0;
+        for (int i = 0; i < tamanio; i += paso) {
+            Object valor = almacen.esNulo(i) ? null : valores.apply(i);
+            if (valor instanceof String) {
+                bytesTextos += texto((String) valor);
+                medidos++;
+            } else if (valor != null) {
+                bytesObjetos += objeto(valor);
+                medidos++;
+            }
+        }
+        if (medidos > 0) {
+            textos += bytesTextos * noNulos / medidos;
+            objetos += bytesObjetos * noNulos / medidos;
+        }
+    }
+
+    void agregarCeldas(long bytes) {
+        celdas += bytes;
+    }
+
+    void agregarObjetos(long bytes) {
+        objetos += bytes;
+    }
+
+    void agregarTextos(long bytes) {
+        textos += bytes;
+    }
+
+    void agregarNulos(long bytes) {
+        nulos += bytes;
+    }
+
+    void agregarAuxiliar(long bytes) {
+        auxiliar += bytes;
+    }
+
+    void agregarReservado(long bytes) {
+        reservado += bytes;
+    }
+
+    void agregarIndices(long bytes) {
+        indices += bytes;
+    }
+
+    /**
+     * Suma a esta estimación todos los conceptos de otra.
+     *
+     * @param otra la otra estimación.
+     */
+    void sumar(EstimacionMemoria otra) {
+        celdas += otra.celdas;
+        objetos += otra.objetos;
+        textos += otra.textos;
+        nulos += otra.nulos;
+        auxiliar += otra.auxiliar;
+        reservado += otra.reservado;
+        indices += otra.indices;
+    }
+
+    /**
+     * Estima los bytes de una copia con otra cantidad de filas, en proporción a los bytes en uso por fila.
+     * La capacidad reservada y los índices no se copian.
+     *
+     * @param filasOrigen la cantidad de filas medidas.
+     * @param filas la cantidad de filas de la copia.
+     * @return los bytes estimados de la copia.
+     */
+    long escalar(int filasOrigen, int filas) {
+        if (filasOrigen == 0) {
+            return 0;
+        }
+        return (long) ((double) (getTotal() - reservado - indices) * filas / filasOrigen);
+    }
+
+    long getCeldas() {
+        return celdas;
+    }
+
+    long getObjetos() {
+        return objetos;
+    }
+
+    long getTextos() {
+        return textos;
+    }
+
+    long getNulos() {
+        return nulos;
+    }
+
+    long getAuxiliar() {
+        return auxiliar;
+    }
+
+    long getReservado() {
+        return reservado;
+    }
+
+    long getIndices() {
+        return indices;
+    }
+
+    /**
+     * Obtiene el total estimado de bytes, sumando todos los conceptos.
+     *
+     * @return el total en bytes.
+     */
+    long getTotal() {
+        return celdas + objetos + textos + nulos + auxiliar + reservado + indices;
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * Estrategias para reemplazar los valores nulos de una columna (imputación).
+ * Para reemplazarlos por un valor fijo se usa {@link Columna#reemplazarNAs(Object)}.
+ */
+enum EstrategiaImputacion {
+    /** El promedio de los valores no nulos; en columnas enteras, redondeado. Sólo para columnas numéricas. */
+    MEDIA,
+    /** La mediana (inferior) de los valores no nulos, estimada con un {@link BocetoCuantiles}. Sólo para columnas numéricas. */
+    MEDIANA,
+    /** El valor más frecuente; ante un empate, el que aparece primero (en booleanos, {@code true}). */
+    MODA,
+    /** El último valor no nulo anterior a cada nulo; los nulos del principio de la columna se mantienen. */
+    ANTERIOR,
+    /** El primer valor no nulo posterior a cada nulo; los nulos del final de la columna se mantienen. */
+    SIGUIENTE
+}
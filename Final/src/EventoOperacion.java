@@ -0,0 +1,40 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de JDK Flight Recorder que registra una operación de {@link Tabla}: su nombre, la tabla, las filas
+ * que recibió y las que produjo, la cantidad de columnas, la duración (la mide el propio evento) y la memoria
+ * asignada por el hilo que la ejecutó. Se graba con, por ejemplo,
+ * {@code java -XX:StartFlightRecording=filename=tabla.jfr ...} y se lee con {@code jfr print --events tabla.Operacion tabla.jfr}.
+ */
+@Name("tabla.Operacion")
+@Label("Operación de Tabla")
+@Category("Tabla")
+@Description("Una operación de Tabla, con sus filas de entrada y de salida")
+@StackTrace(false)
+class EventoOperacion extends Event {
+    @Label("Operación")
+    String operacion;
+
+    @Label("Tabla")
+    String tabla;
+
+    @Label("Filas de entrada")
+    long filasEntrada;
+
+    @Label("Filas de salida")
+    long filasSalida;
+
+    @Label("Columnas")
+    int columnas;
+
+    @Label("Memoria asignada")
+    @Description("Bytes asignados por el hilo que ejecutó la operación; no incluye los de las partes que se ejecutaron en otros hilos")
+    @DataAmount
+    long bytesAsignados;
+}
@@ -0,0 +1,102 @@
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias en nanosegundos con cubetas logarítmicas: cada potencia de 2 se divide en
+ * {@value #SUBCUBETAS} cubetas iguales, de modo que un percentil se informa con un error relativo menor al
+ * 12,5 % usando un arreglo fijo de contadores. Registrar una latencia no toma ningún bloqueo.
+ */
+class HistogramaLatencias {
+    private static final int BITS_SUBCUBETA = 3;
+    static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    private static final int CANT_CUBETAS = (64 - BITS_SUBCUBETA) * SUBCUBETAS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(CANT_CUBETAS);
+    private final LongAdder cantidad = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final LongAccumulator minimo = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Registra una latencia.
+     *
+     * @param nanos la latencia en nanosegundos; los valores negativos se cuentan como 0.
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(nanos, 0);
+        cubetas.incrementAndGet(cubeta(valor));
+        cantidad.increment();
+        suma.add(valor);
+        minimo.accumulate(valor);
+        maximo.accumulate(valor);
+    }
+
+    /**
+     * Obtiene la cantidad de latencias registradas.
+     *
+     * @return la cantidad de latencias.
+     */
+    public long getCantidad() {
+        return cantidad.sum();
+    }
+
+    /**
+     * Estima un percentil: el límite superior de la cubeta que lo contiene, sin superar el máximo registrado.
+     *
+     * @param percentil el percentil, entre 0 y 100.
+     * @return la latencia estimada en nanosegundos, o 0 si no hay latencias.
+     */
+    public long percentil(double percentil) {
+        long total = cantidad.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(percentil / 100 * total));
+        long acumulado = 0;
+        for (int c = 0; c < CANT_CUBETAS; c++) {
+            acumulado += cubetas.get(c);
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(c), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    /**
+     * Exporta el resumen del histograma en formato JSON.
+     *
+     * @return un objeto JSON con la cantidad, el mínimo, el promedio, los percentiles y el máximo.
+     */
+    public String aJson() {
+        long total = cantidad.sum();
+        return String.format(Locale.ROOT,
+                "{\"cantidad\": %d, \"minimoNanos\": %d, \"promedioNanos\": %.1f, \"p50Nanos\": %d, \"p90Nanos\": %d, "
+                        + "\"p99Nanos\": %d, \"p999Nanos\": %d, \"maximoNanos\": %d}",
+                total, total == 0 ? 0 : minimo.get(), total == 0 ? 0.0 : (double) suma.sum() / total,
+                percentil(50), percentil(90), percentil(99), percentil(99.9), maximo.get());
+    }
+
+    /**
+     * Los valores menores que {@link #SUBCUBETAS} tienen su propia cubeta; los demás se ubican por su potencia
+     * de 2 y por los bits que siguen al más significativo.
+     */
+    private static int cubeta(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int subcubeta = (int) (valor >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+        return (exponente - BITS_SUBCUBETA + 1) * SUBCUBETAS + subcubeta;
+    }
+
+    private static long limiteSuperior(int cubeta) {
+        if (cubeta < SUBCUBETAS) {
+            return cubeta;
+        }
+        int exponente = cubeta / SUBCUBETAS + BITS_SUBCUBETA - 1;
+        int subcubeta = cubeta % SUBCUBETAS;
+        return ((long) (SUBCUBETAS + subcubeta + 1) << (exponente - BITS_SUBCUBETA)) - 1;
+    }
+}
@@ -0,0 +1,335 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reemplazo de los valores nulos de varias columnas a la vez según una {@link EstrategiaImputacion}.
+ * <p>
+ * Las columnas cuya estrategia necesita un valor calculado (media, mediana o moda) se recorren todas juntas,
+ * en un único recorrido por partes de las filas: cada parte acumula la suma, el boceto de cuantiles o las
+ * frecuencias de cada columna directamente sobre su almacenamiento tipado, y los resultados parciales se
+ * combinan en el orden de las partes, así que el valor no depende de la cantidad de hilos. Después, los nulos
+ * de cada columna se rellenan en el mismo almacenamiento, recorriendo sólo las posiciones nulas. El valor se
+ * convierte al tipo de la columna (en columnas enteras, la media y la mediana se redondean), así que una
+ * imputación nunca cambia el tipo de una columna.
+ */
+class Imputacion {
+
+    private Imputacion() {
+    }
+
+    /**
+     * Reemplaza los nulos de una columna con la estrategia indicada.
+     *
+     * @param columna la columna a modificar.
+     * @param estrategia la estrategia de imputación.
+     * @throws IllegalArgumentException si la estrategia no se puede aplicar al tipo de la columna.
+     */
+    static void imputar(Columna<?> columna, EstrategiaImputacion estrategia) {
+        Class<?> tipo = columna.getTipoValores();
+        if (tipo != null && !admite(estrategia, tipo)) {
+            throw new IllegalArgumentException("La estrategia " + estrategia + " no se puede aplicar a la columna '"
+                    + columna.getNombre() + "' de tipo " + tipo.getSimpleName() + ".");
+        }
+        imputar(List.of(columna), estrategia);
+    }
+
+    /**
+     * Reemplaza los nulos de varias columnas, con un único recorrido de las filas para calcular los valores.
+     * Las columnas sin nulos, sin tipo o a cuyo tipo no se aplica la estrategia quedan como están.
+     *
+     * @param columnas las columnas a modificar.
+     * @param estrategia la estrategia de imputación, o {@code null} para usar la de cada tipo:
+     *                   la media en columnas {@code Integer} y {@code Float}, y la moda en columnas
+     *                   {@code Boolean}; las columnas de otros tipos quedan como están.
+     */
+    static void imputar(List<? extends Columna<?>> columnas, EstrategiaImputacion estrategia) {
+        List<Columna<?>> calculadas = new ArrayList<>();
+        List<EstrategiaImputacion> estrategias = new ArrayList<>();
+        for (Columna<?> columna : columnas) {
+            Class<?> tipo = columna.getTipoValores();
+            EstrategiaImputacion aplicada = estrategia == null ? porDefecto(tipo) : estrategia;
+            if (tipo == null || aplicada == null || !admite(aplicada, tipo) || columna.contarNulos() == 0) {
+                // No hay nada que reemplazar: la columna sigue compartiendo su almacenamiento
+                continue;
+            }
+            if (aplicada == EstrategiaImputacion.ANTERIOR || aplicada == EstrategiaImputacion.SIGUIENTE) {
+                columna.rellenarNAsConVecinos(aplicada == EstrategiaImputacion.ANTERIOR);
+            } else {
+                calculadas.add(columna);
+                estrategias.add(aplicada);
+            }
+        }
+        if (calculadas.isEmpty()) {
+            return;
+        }
+
+        // Se preparan los almacenamientos antes del recorrido: así se leen los mismos arreglos que luego se rellenan
+        AlmacenColumna[] almacenes = new AlmacenColumna[calculadas.size()];
+        int filas = 0;
+        boolean conFrecuencias = false;
+        for (int c = 0; c < almacenes.length; c++) {
+            almacenes[c] = calculadas.get(c).almacenParaEscritura();
+            filas = Math.max(filas, almacenes[c].tamanio());
+            conFrecuencias |= usaFrecuencias(estrategias.get(c), almacenes[c]);
+        }
+        // Las tablas de frecuencias son costosas de combinar, así que en ese caso se usan partes más grandes
+        int tamanioParte = conFrecuencias ? EjecucionParalela.TAMANIO_PARTE * 8 : EjecucionParalela.TAMANIO_PARTE;
+        Acumulador[] acumuladores = EjecucionParalela.reducir(filas, tamanioParte, (desde, hasta) -> {
+            Acumulador[] parciales = new Acumulador[almacenes.length];
+            for (int c = 0; c < almacenes.length; c++) {
+                parciales[c] = new Acumulador(almacenes[c], estrategias.get(c));
+                parciales[c].recorrer(desde, Math.min(hasta, almacenes[c].tamanio()));
+            }
+            return parciales;
+        }, (a, b) -> {
+            for (int c = 0; c < a.length; c++) {
+                a[c].combinar(b[c]);
+            }
+            return a;
+        });
+
+        for (int c = 0; c < almacenes.length; c++) {
+            Object valor = acumuladores[c].getValor();
+            if (valor != null) {
+                calculadas.get(c).rellenarNAs(valor);
+            }
+        }
+    }
+
+    /**
+     * La estrategia que usa {@link Columna#reemplazarNAs()} para cada tipo, o {@code null} si no imputa ese tipo.
+     */
+    private static EstrategiaImputacion porDefecto(Class<?> tipo) {
+        if (tipo == Integer.class || tipo == Float.class) {
+            return EstrategiaImputacion.MEDIA;
+        } else if (tipo == Boolean.class) {
+            return EstrategiaImputacion.MODA;
+        }
+        return null;
+    }
+
+    private static boolean admite(EstrategiaImputacion estrategia, Class<?> tipo) {
+        if (estrategia == EstrategiaImputacion.MEDIA || estrategia == EstrategiaImputacion.MEDIANA) {
+            return esNumerico(tipo);
+        }
+        return true;
+    }
+
+    private static boolean esNumerico(Class<?> tipo) {
+        return tipo == Integer.class || tipo == Long.class || tipo == Float.class || tipo == Double.class;
+    }
+
+    private static boolean usaFrecuencias(EstrategiaImputacion estrategia, AlmacenColumna almacen) {
+        return estrategia == EstrategiaImputacion.MODA
+                && !(almacen instanceof AlmacenBooleano) && !(almacen instanceof AlmacenDiccionario);
+    }
+
+    /**
+     * Convierte un valor calculado como decimal al tipo numérico de la columna.
+     */
+    private static Object convertir(double valor, Class<?> tipo) {
+        if (tipo == Integer.class) {
+            return (int) Math.round(valor);
+        } else if (tipo == Long.class) {
+            return Math.round(valor);
+        } else if (tipo == Float.class) {
+            return (float) valor;
+        }
+        return valor;
+    }
+
+    /**
+     * Lo que se necesita saber de los valores no nulos de una columna (en una parte de las filas) para calcular
+     * el valor de reemplazo con una estrategia: la suma para la media, un boceto para la mediana, y para la moda
+     * la cantidad de {@code true} en booleanos, y en los demás tipos la frecuencia y la primera fila de cada valor
+     * (de cada código, en texto codificado).
+     */
+    private static class Acumulador {
+        private final AlmacenColumna almacen;
+        private final EstrategiaImputacion estrategia;
+        private long cantidad;
+        private double suma;
+        private long sumaEnteros;
+        private BocetoCuantiles boceto;
+        private long verdaderos;
+        private long[] frecuenciasCodigos;
+        private int[] primerasFilasCodigos;
+        private Map<Object, long[]> frecuencias;
+
+        Acumulador(AlmacenColumna almacen, EstrategiaImputacion estrategia) {
+            this.almacen = almacen;
+            this.estrategia = estrategia;
+            if (estrategia == EstrategiaImputacion.MEDIANA) {
+                boceto = new BocetoCuantiles();
+            } else if (estrategia == EstrategiaImputacion.MODA) {
+                if (almacen instanceof AlmacenDiccionario) {
+                    frecuenciasCodigos = new long[((AlmacenDiccionario) almacen).getTamanioDiccionario()];
+                    primerasFilasCodigos = new int[frecuenciasCodigos.length];
+                } else if (!(almacen instanceof AlmacenBooleano)) {
+                    frecuencias = new HashMap<>();
+                }
+            }
+        }
+
+        void recorrer(int desde, int hasta) {
+            if (estrategia == EstrategiaImputacion.MODA) {
+                contar(desde, hasta);
+            } else if (almacen instanceof AlmacenEntero) {
+                AlmacenEntero enteros = (AlmacenEntero) almacen;
+                for (int i = desde; i < hasta; i++) {
+                    if (!enteros.esNulo(i)) {
+                        acumular(enteros.getEntero(i));
+                    }
+                }
+            } else if (almacen instanceof AlmacenDecimal) {
+                AlmacenDecimal decimales = (AlmacenDecimal) almacen;
+                for (int i = desde; i < hasta; i++) {
+                    if (!decimales.esNulo(i)) {
+                        acumular(decimales.getDecimal(i));
+                    }
+                }
+            } else {
+                for (int i = desde; i < hasta; i++) {
+                    Object valor = almacen.getValor(i);
+                    if (valor != null) {
+                        acumular(((Number) valor).doubleValue());
+                    }
+                }
+            }
+        }
+
+        private void acumular(int valor) {
+            cantidad++;
+            sumaEnteros += valor;
+            if (boceto != null) {
+                boceto.agregar(valor);
+            }
+        }
+
+        private void acumular(double valor) {
+            cantidad++;
+            suma += valor;
+            if (boceto != null) {
+                boceto.agregar(valor);
+            }
+        }
+
+        private void contar(int desde, int hasta) {
+            if (almacen instanceof AlmacenBooleano) {
+                AlmacenBooleano booleanos = (AlmacenBooleano) almacen;
+                for (int i = desde; i < hasta; i++) {
+                    if (!booleanos.esNulo(i)) {
+                        cantidad++;
+                        if (booleanos.getBooleano(i)) {
+                            verdaderos++;
+                        }
+                    }
+                }
+            } else if (frecuenciasCodigos != null) {
+                AlmacenDiccionario diccionario = (AlmacenDiccionario) almacen;
+                for (int i = desde; i < hasta; i++) {
+                    if (!diccionario.esNulo(i)) {
+                        cantidad++;
+                        int codigo = diccionario.getCodigo(i);
+                        if (frecuenciasCodigos[codigo]++ == 0) {
+                            primerasFilasCodigos[codigo] = i;
+                        }
+                    }
+                }
+            } else {
+                for (int i = desde; i < hasta; i++) {
+                    Object valor = almacen.getValor(i);
+                    if (valor != null) {
+                        cantidad++;
+                        long[] frecuencia = frecuencias.get(valor);
+                        if (frecuencia == null) {
+                            frecuencias.put(valor, new long[] {1, i});
+                        } else {
+                            frecuencia[0]++;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Incorpora el acumulador de la parte siguiente de las filas.
+         */
+        void combinar(Acumulador otro) {
+            cantidad += otro.cantidad;
+            suma += otro.suma;
+            sumaEnteros += otro.sumaEnteros;
+            verdaderos += otro.verdaderos;
+            if (boceto != null) {
+                boceto.fusionar(otro.boceto);
+            }
+            if (frecuenciasCodigos != null) {
+                for (int codigo = 0; codigo < frecuenciasCodigos.length; codigo++) {
+                    if (frecuenciasCodigos[codigo] == 0) {
+                        primerasFilasCodigos[codigo] = otro.primerasFilasCodigos[codigo];
+                    }
+                    frecuenciasCodigos[codigo] += otro.frecuenciasCodigos[codigo];
+                }
+            }
+            if (frecuencias != null) {
+                // Las filas del otro acumulador son posteriores, así que la primera fila de cada valor se conserva
+                otro.frecuencias.forEach((valor, frecuencia) -> frecuencias.merge(valor, frecuencia, (propia, ajena) -> {
+                    propia[0] += ajena[0];
+                    return propia;
+                }));
+            }
+        }
+
+        /**
+         * Calcula el valor de reemplazo, del tipo de la columna.
+         *
+         * @return el valor, o {@code null} si la estrategia no da ningún valor (la moda de una columna sin valores).
+         */
+        Object getValor() {
+            Class<?> tipo = almacen.getTipo();
+            switch (estrategia) {
+                case MEDIA:
+                    if (cantidad == 0) {
+                        return convertir(0, tipo);
+                    }
+                    return convertir(almacen instanceof AlmacenEntero ? (double) sumaEnteros / cantidad : suma / cantidad, tipo);
+                case MEDIANA:
+                    return convertir(cantidad == 0 ? 0 : boceto.cuantil(0.5), tipo);
+                default:
+                    return getModa();
+            }
+        }
+
+        private Object getModa() {
+            if (almacen instanceof AlmacenBooleano) {
+                return verdaderos >= cantidad - verdaderos;
+            }
+            if (cantidad == 0) {
+                return null;
+            }
+            if (frecuenciasCodigos != null) {
+                int moda = -1;
+                for (int codigo = 0; codigo < frecuenciasCodigos.length; codigo++) {
+                    long frecuencia = frecuenciasCodigos[codigo];
+                    if (frecuencia > 0 && (moda < 0 || frecuencia > frecuenciasCodigos[moda]
+                            || (frecuencia == frecuenciasCodigos[moda] && primerasFilasCodigos[codigo] < primerasFilasCodigos[moda]))) {
+                        moda = codigo;
+                    }
+                }
+                return ((AlmacenDiccionario) almacen).getTexto(moda);
+            }
+            Object moda = null;
+            long[] mejor = null;
+            for (Map.Entry<Object, long[]> entrada : frecuencias.entrySet()) {
+                long[] frecuencia = entrada.getValue();
+                if (mejor == null || frecuencia[0] > mejor[0] || (frecuencia[0] == mejor[0] && frecuencia[1] < mejor[1])) {
+                    moda = entrada.getKey();
+                    mejor = frecuencia;
+                }
+            }
+            return moda;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Base de los índices secundarios de una columna. El índice recuerda la versión de la columna
+ * con la que fue construido, de modo que se puede detectar cuando la columna fue modificada
+ * y el índice dejó de reflejar sus valores.
+ */
+abstract class IndiceColumna {
+    protected final Columna<?> columna;
+    private int version;
+
+    /**
+     * Constructor que asocia el índice a la versión actual de la columna.
+     *
+     * @param columna la columna indexada.
+     */
+    protected IndiceColumna(Columna<?> columna) {
+        this.columna = columna;
+        this.version = columna.getVersion();
+    }
+
+    /**
+     * Indica si el índice corresponde a la columna indicada y ésta no fue modificada desde que se construyó.
+     *
+     * @param otraColumna la columna actual de la tabla.
+     * @return {@code true} si el índice puede usarse para buscar en la columna.
+     */
+    public boolean estaVigente(Columna<?> otraColumna) {
+        return columna == otraColumna && version == columna.getVersion();
+    }
+
+    /**
+     * Estima la memoria que ocupa el índice. Los textos indexados son los mismos objetos que guarda la
+     * columna, así que sólo se cuentan las demás claves.
+     *
+     * @return los bytes estimados del índice.
+     */
+    abstract long estimarMemoria();
+
+    /**
+     * Marca el índice como actualizado respecto de la versión actual de la columna.
+     * Lo usan los índices que se mantienen sin reconstruirse.
+     */
+    protected void actualizarVersion() {
+        version = columna.getVersion();
+    }
+}
@@ -0,0 +1,90 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Índice hash de una columna: asocia cada valor no nulo con la lista de filas en las que aparece,
+ * para resolver búsquedas por igualdad sin recorrer la columna.
+ */
+class IndiceHash extends IndiceColumna {
+    private static final int[] SIN_FILAS = new int[0];
+
+    private final Map<Object, ListaEnteros> filasPorValor;
+
+    /**
+     * Constructor que construye el índice recorriendo una única vez los valores de la columna.
+     *
+     * @param columna la columna a indexar.
+     */
+    public IndiceHash(Columna<?> columna) {
+        super(columna);
+        this.filasPorValor = new HashMap<>();
+        for (int i = 0; i < columna.getTamanio(); i++) {
+            if (!columna.esNulo(i)) {
+                agregar(columna.getValor(i), i);
+            }
+        }
+    }
+
+    /**
+     * Registra una fila agregada al final de la columna, manteniendo el índice vigente sin reconstruirlo.
+     * Debe llamarse con el índice vigente justo antes de agregar la fila.
+     *
+     * @param valor el valor agregado; si es nulo no se indexa.
+     * @param fila la posición de la fila agregada.
+     */
+    public void agregarFila(Object valor, int fila) {
+        if (valor != null) {
+            agregar(valor, fila);
+        }
+        actualizarVersion();
+    }
+
+    /**
+     * Devuelve las filas cuyo valor es igual al indicado.
+     *
+     * @param valor el valor buscado.
+     * @return las filas coincidentes en orden ascendente; un arreglo vacío si no hay ninguna.
+     */
+    public int[] buscar(Object valor) {
+        ListaEnteros filas = filasPorValor.get(valor);
+        return filas == null ? SIN_FILAS : filas.toArray();
+    }
+
+    /**
+     * Devuelve la primera fila cuyo valor es igual al indicado, sin copiar la lista de filas.
+     *
+     * @param valor el valor buscado.
+     * @return la fila encontrada, o -1 si ningún valor coincide.
+     */
+    public int buscarPrimera(Object valor) {
+        ListaEnteros filas = filasPorValor.get(valor);
+        return filas == null ? -1 : filas.get(0);
+    }
+
+    /**
+     * Obtiene la cantidad de valores distintos indexados.
+     *
+     * @return la cantidad de claves del índice.
+     */
+    public int cantidadValores() {
+        return filasPorValor.size();
+    }
+
+    @Override
+    long estimarMemoria() {
+        int cantidad = filasPorValor.size();
+        long bytes = EstimacionMemoria.arreglo(Integer.highestOneBit(Math.max(1, cantidad * 4 / 3)) * 2L, EstimacionMemoria.REFERENCIA)
+                + cantidad * EstimacionMemoria.ENTRADA_MAPA;
+        for (Map.Entry<Object, ListaEnteros> entrada : filasPorValor.entrySet()) {
+            if (!(entrada.getKey() instanceof String)) {
+                bytes += EstimacionMemoria.objeto(entrada.getKey());
+            }
+            bytes += entrada.getValue().estimarMemoria();
+        }
+        return bytes;
+    }
+
+    private void agregar(Object valor, int fila) {
+        filasPorValor.computeIfAbsent(valor, v -> new ListaEnteros(1)).agregar(fila);
+    }
+}
@@ -0,0 +1,151 @@
+import java.util.Arrays;
+
+/**
+ * Índice ordenado de una columna: guarda los valores no nulos ordenados junto con la fila de cada uno,
+ * para resolver búsquedas por rango con búsqueda binaria en lugar de recorrer la columna.
+ * <p>
+ * En las columnas de números, fechas y booleanos los valores se guardan como las claves normalizadas de
+ * {@link Ordenamiento}, un {@code long} por fila ordenado con el mismo radix sort, sin crear un objeto por fila;
+ * los límites de cada búsqueda se convierten a clave. Las demás columnas guardan sus valores como objetos.
+ */
+class IndiceOrdenado extends IndiceColumna {
+    private final AlmacenColumna almacen;
+    private final long[] clavesPrimitivas;
+    private final Object[] claves;
+    private final int[] filas;
+
+    /**
+     * Constructor que construye el índice ordenando los valores no nulos de la columna.
+     * Los valores iguales conservan el orden de sus filas.
+     *
+     * @param columna la columna a indexar.
+     * @throws IllegalArgumentException si los valores de la columna no son comparables.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public IndiceOrdenado(Columna<?> columna) {
+        super(columna);
+        this.almacen = columna.getAlmacen();
+        Class<?> tipo = almacen.getTipo();
+        if (tipo != null && !Comparable.class.isAssignableFrom(tipo)) {
+            throw new IllegalArgumentException("Los valores de la columna '" + columna.getNombre() + "' no implementan Comparable.");
+        }
+        int cantidad = almacen.tamanio() - almacen.contarNulos();
+
+        if (Ordenamiento.tieneClavesPrimitivas(almacen)) {
+            // Los nulos tienen la clave máxima, así que quedan al final de la permutación y se descartan
+            long[] clavesPorFila = Ordenamiento.calcularClaves(almacen, true);
+            int[] orden = Ordenamiento.ordenarPorClave(clavesPorFila);
+            this.clavesPrimitivas = new long[cantidad];
+            for (int i = 0; i < cantidad; i++) {
+                clavesPrimitivas[i] = clavesPorFila[orden[i]];
+            }
+            this.claves = null;
+            this.filas = Arrays.copyOf(orden, cantidad);
+            return;
+        }
+
+        Object[] valores = new Object[cantidad];
+        Integer[] orden = new Integer[cantidad];
+        int k = 0;
+        for (int i = 0; i < almacen.tamanio(); i++) {
+            if (!almacen.esNulo(i)) {
+                valores[k] = almacen.getValor(i);
+                orden[k] = i;
+                k++;
+            }
+        }
+        Integer[] posiciones = new Integer[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            posiciones[i] = i;
+        }
+        Arrays.sort(posiciones, (a, b) -> ((Comparable) valores[a]).compareTo(valores[b]));
+
+        this.clavesPrimitivas = null;
+        this.claves = new Object[cantidad];
+        this.filas = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            claves[i] = valores[posiciones[i]];
+            filas[i] = orden[posiciones[i]];
+        }
+    }
+
+    /**
+     * Devuelve las filas cuyo valor está dentro del rango cerrado {@code [valorMin, valorMax]}.
+     *
+     * @param valorMin el valor mínimo.
+     * @param valorMax el valor máximo.
+     * @return las filas dentro del rango en orden ascendente.
+     * @throws ClassCastException si los límites no son comparables con los valores de la columna.
+     */
+    @SuppressWarnings("rawtypes")
+    public int[] buscarEnRango(Comparable valorMin, Comparable valorMax) {
+        int desde = clavesPrimitivas != null ? primeraPosicion(Ordenamiento.calcularClave(almacen, valorMin), false)
+                : primeraPosicion(valorMin, false);
+        int hasta = clavesPrimitivas != null ? primeraPosicion(Ordenamiento.calcularClave(almacen, valorMax), true)
+                : primeraPosicion(valorMax, true);
+        if (desde >= hasta) {
+            return new int[0];
+        }
+        int[] resultado = Arrays.copyOfRange(filas, desde, hasta);
+        Arrays.sort(resultado);
+        return resultado;
+    }
+
+    @Override
+    long estimarMemoria() {
+        if (clavesPrimitivas != null) {
+            return EstimacionMemoria.arreglo(clavesPrimitivas.length, 8) + EstimacionMemoria.arreglo(filas.length, 4);
+        }
+        long bytes = EstimacionMemoria.arreglo(claves.length, EstimacionMemoria.REFERENCIA) + EstimacionMemoria.arreglo(filas.length, 4);
+        if (claves.length == 0 || claves[0] instanceof String) {
+            return bytes;
+        }
+        int paso = Math.max(1, claves.length / EstimacionMemoria.TAMANIO_MUESTRA);
+        long bytesClaves = 0;
+        int medidas = 0;
+        for (int i = 0; i < claves.length; i += paso) {
+            bytesClaves += EstimacionMemoria.objeto(claves[i]);
+            medidas++;
+        }
+        return bytes + bytesClaves * claves.length / medidas;
+    }
+
+    /**
+     * Busca la primera posición cuya clave normalizada es mayor o igual a la del límite, o estrictamente mayor
+     * si {@code incluirIguales} es verdadero.
+     */
+    private int primeraPosicion(long limite, boolean incluirIguales) {
+        int bajo = 0;
+        int alto = clavesPrimitivas.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            int comparacion = Long.compareUnsigned(clavesPrimitivas[medio], limite);
+            if (comparacion < 0 || (incluirIguales && comparacion == 0)) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    /**
+     * Busca la primera posición cuya clave es mayor o igual al límite, o estrictamente mayor si
+     * {@code incluirIguales} es verdadero.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private int primeraPosicion(Comparable limite, boolean incluirIguales) {
+        int bajo = 0;
+        int alto = claves.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            int comparacion = ((Comparable) claves[medio]).compareTo(limite);
+            if (comparacion < 0 || (incluirIguales && comparacion == 0)) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+}
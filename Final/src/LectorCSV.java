@@ -0,0 +1,667 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Lector de archivos CSV que divide el archivo en rangos de bytes alineados con los fines de línea
+ * y los procesa en paralelo, escribiendo cada campo directamente en el almacenamiento de las columnas.
+ * Soporta campos entre comillas según RFC 4180 (comas, comillas dobles escapadas y saltos de línea
+ * dentro de un campo). El tipo de cada columna se infiere antes de la carga, y los campos se convierten
+ * con conversores especializados que no lanzan excepciones. Los campos vacíos y {@code NA} son nulos,
+ * salvo en las columnas de texto cuando están entre comillas: {@code ""} es el texto vacío y {@code "NA"}
+ * el texto NA, como los escribe {@link EscritorCSV}.
+ */
+class LectorCSV {
+    private static final long TAMANIO_MINIMO_FRAGMENTO = 4L * 1024 * 1024;
+    /**
+     * Tamaño máximo de un fragmento antes de alinearlo con un fin de registro. {@link FileChannel#map} no acepta
+     * más de {@code Integer.MAX_VALUE} bytes, y el margen hasta ese límite deja lugar para el registro que
+     * queda cortado al final del fragmento.
+     */
+    private static final long TAMANIO_MAXIMO_FRAGMENTO = 1L << 30;
+    private static final byte COMILLA = '"';
+    private static final byte SEPARADOR = ',';
+    private static final byte FIN_LINEA = '\n';
+    private static final byte RETORNO = '\r';
+
+    private static final int TAMANIO_MUESTRA = 1000;
+    private static final int TAMANIO_MINIMO_MUESTRA_FRAGMENTO = 50;
+
+    private final Path ruta;
+    private final int cantFragmentos;
+    private final long tamanioMaximoFragmento;
+    private EsquemaCSV esquema;
+    private ReporteCarga reporte;
+    private long bytesPorRegistro;
+
+    /**
+     * Constructor que prepara la lectura del archivo indicado, usando tantos fragmentos
+     * como núcleos disponibles (sin bajar de un tamaño mínimo por fragmento ni superar el máximo).
+     *
+     * @param rutaArchivo la ruta del archivo CSV.
+     */
+    public LectorCSV(String rutaArchivo) {
+        this(rutaArchivo, 0);
+    }
+
+    /**
+     * Constructor que prepara la lectura del archivo indicado con una cantidad fija de fragmentos.
+     *
+     * @param rutaArchivo la ruta del archivo CSV.
+     * @param cantFragmentos la cantidad de fragmentos a procesar en paralelo; 0 para calcularla automáticamente.
+     */
+    LectorCSV(String rutaArchivo, int cantFragmentos) {
+        this(rutaArchivo, cantFragmentos, TAMANIO_MAXIMO_FRAGMENTO);
+    }
+
+    /**
+     * Constructor que prepara la lectura del archivo indicado con una cantidad de fragmentos y un tamaño máximo
+     * por fragmento. Si los fragmentos pedidos superarían ese tamaño, se usan más.
+     *
+     * @param rutaArchivo la ruta del archivo CSV.
+     * @param cantFragmentos la cantidad de fragmentos a procesar en paralelo; 0 para calcularla automáticamente.
+     * @param tamanioMaximoFragmento el tamaño máximo en bytes de cada fragmento antes de alinearlo con un fin de registro.
+     * @throws IllegalArgumentException si el tamaño máximo no es positivo o supera el que acepta {@link FileChannel#map}.
+     */
+    LectorCSV(String rutaArchivo, int cantFragmentos, long tamanioMaximoFragmento) {
+        if (tamanioMaximoFragmento <= 0 || tamanioMaximoFragmento > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("El tamaño máximo de un fragmento debe estar entre 1 y " + Integer.MAX_VALUE + " bytes.");
+        }
+        this.ruta = Path.of(rutaArchivo);
+        this.cantFragmentos = cantFragmentos;
+        this.tamanioMaximoFragmento = tamanioMaximoFragmento;
+    }
+
+    /**
+     * Lee el archivo completo y devuelve sus columnas. La primera línea contiene los nombres de las columnas.
+     * Antes de convertir los datos se infiere el tipo de cada columna a partir de una muestra de registros
+     * tomada del comienzo de cada fragmento.
+     *
+     * @return las columnas leídas, en el orden del archivo.
+     * @throws IOException si ocurre un error al leer el archivo.
+     */
+    public List<Columna<Object>> leer() throws IOException {
+        reporte = new ReporteCarga();
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            if (tamanio == 0) {
+                return new ArrayList<>();
+            }
+
+            // Leer la cabecera para obtener los nombres de las columnas
+            List<String> nombres = new ArrayList<>();
+            long inicioDatos = leerCabecera(canal, nombres);
+
+            long[] limites = calcularLimites(canal, inicioDatos, tamanio);
+            esquema = inferirEsquema(canal, limites, nombres);
+
+            // Los fragmentos y las columnas unidas conviven mientras se unen: se necesita hasta el doble de la tabla
+            long filasEstimadas = (tamanio - inicioDatos) / bytesPorRegistro;
+            PresupuestoMemoria.verificar("cargar el archivo " + ruta.getFileName() + " (unas " + filasEstimadas + " filas)",
+                    2 * estimarMemoria(canal, limites, filasEstimadas));
+
+            // Procesar cada fragmento en paralelo, cada uno con sus propias columnas
+            List<CargaFragmento> fragmentos;
+            try {
+                fragmentos = IntStream.range(0, limites.length - 1)
+                        .parallel()
+                        .mapToObj(i -> leerFragmento(canal, limites[i], limites[i + 1]))
+                        .collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            // Unir los fragmentos en orden, liberando cada uno después de anexarlo
+            List<Columna<Object>> columnas = fragmentos.get(0).crearColumnas(nombres);
+            reporte.anexar(fragmentos.get(0).reporte, 0);
+            long filas = fragmentos.get(0).filas;
+            for (int f = 1; f < fragmentos.size(); f++) {
+                CargaFragmento fragmento = fragmentos.get(f);
+                List<Columna<Object>> columnasFragmento = fragmento.crearColumnas(nombres);
+                for (int c = 0; c < columnas.size(); c++) {
+                    columnas.get(c).anexar(columnasFragmento.get(c));
+                }
+                reporte.anexar(fragmento.reporte, filas);
+                filas += fragmento.filas;
+                fragmentos.set(f, null);
+            }
+            return columnas;
+        }
+    }
+
+    /**
+     * Lee una muestra aleatoria de registros del archivo sin cargarlo completo (muestreo de reservorio).
+     * Cada fragmento se recorre en paralelo conservando sólo los registros de menor prioridad, cuya
+     * prioridad depende de la semilla y de la posición del registro en el archivo; los registros
+     * descartados no se convierten. Luego se combinan las reservas de los fragmentos y los registros
+     * elegidos se cargan, en el orden del archivo, con el esquema inferido del archivo completo.
+     * Los números de fila del reporte se refieren a las filas de la muestra.
+     *
+     * @param cantidad la cantidad de registros de la muestra; si el archivo tiene menos se leen todos.
+     * @param semilla la semilla del muestreo; la misma semilla elige los mismos registros.
+     * @return las columnas de la muestra, en el orden del archivo.
+     * @throws IOException si ocurre un error al leer el archivo.
+     */
+    public List<Columna<Object>> muestrear(int cantidad, long semilla) throws IOException {
+        reporte = new ReporteCarga();
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            if (tamanio == 0) {
+                return new ArrayList<>();
+            }
+            List<String> nombres = new ArrayList<>();
+            long inicioDatos = leerCabecera(canal, nombres);
+            long[] limites = calcularLimites(canal, inicioDatos, tamanio);
+            esquema = inferirEsquema(canal, limites, nombres);
+
+            // Cada fragmento conserva en su reserva una copia de los campos de hasta la cantidad pedida de registros
+            long filasMuestra = Math.min(cantidad, (tamanio - inicioDatos) / bytesPorRegistro);
+            long bytesReservas = (limites.length - 1) * filasMuestra
+                    * (bytesPorRegistro + nombres.size() * (EstimacionMemoria.CABECERA_ARREGLO + EstimacionMemoria.REFERENCIA));
+            PresupuestoMemoria.verificar("muestrear el archivo " + ruta.getFileName() + " (" + filasMuestra + " filas)",
+                    bytesReservas + estimarMemoria(canal, limites, filasMuestra));
+
+            // Recorrer cada fragmento en paralelo con su propia reserva y combinarlas en orden
+            Muestreo.Reserva reserva = new Muestreo.Reserva(cantidad);
+            try {
+                IntStream.range(0, limites.length - 1)
+                        .parallel()
+                        .mapToObj(i -> muestrearFragmento(canal, limites[i], limites[i + 1], cantidad, semilla))
+                        .forEachOrdered(parcial -> parcial.volcarEn(reserva));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            // Cargar los registros elegidos en el orden del archivo
+            Integer[] orden = new Integer[reserva.getTamanio()];
+            for (int i = 0; i < orden.length; i++) {
+                orden[i] = i;
+            }
+            Arrays.sort(orden, (a, b) -> Long.compare(reserva.getPosicion(a), reserva.getPosicion(b)));
+            CargaFragmento carga = new CargaFragmento(esquema, orden.length);
+            byte[] vacio = new byte[0];
+            for (int i : orden) {
+                carga.campoActual = 0;
+                for (byte[] campo : (byte[][]) reserva.getDato(i)) {
+                    if (campo == null) {
+                        carga.aceptar(vacio, 0, false);
+                    } else {
+                        carga.aceptar(campo, campo.length, true);
+                    }
+                }
+                carga.terminarRegistro();
+            }
+            reporte.anexar(carga.reporte, 0);
+            return carga.crearColumnas(nombres);
+        }
+    }
+
+    /**
+     * Recorre los registros de un fragmento conservando en una reserva acotada los de menor prioridad,
+     * junto con una copia de sus campos. Los registros que no entran en la reserva sólo se recorren.
+     */
+    private Muestreo.Reserva muestrearFragmento(FileChannel canal, long desde, long hasta, int cantidad, long semilla) {
+        Muestreo.Reserva reserva = new Muestreo.Reserva(cantidad);
+        if (hasta <= desde) {
+            return reserva;
+        }
+        try {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, desde, hasta - desde);
+            AnalizadorFragmento analizador = new AnalizadorFragmento(buffer);
+            List<byte[]> campos = new ArrayList<>();
+            // Los campos nulos en cualquier tipo de columna se guardan como null; los demás, con sus bytes
+            ConsumidorCampo copiar = (bytes, largo, entreComillas) -> campos.add(
+                    !entreComillas && AnalizadorValores.esNulo(bytes, largo) ? null : Arrays.copyOf(bytes, largo));
+            ConsumidorCampo descartar = (bytes, largo, entreComillas) -> { };
+            while (analizador.hayDatos()) {
+                long posicion = desde + analizador.getPosicion();
+                long prioridad = Muestreo.prioridad(semilla, posicion);
+                if (!reserva.admite(prioridad, posicion)) {
+                    analizador.leerRegistro(descartar);
+                    continue;
+                }
+                campos.clear();
+                boolean vacio = analizador.leerRegistro(copiar);
+                if (!vacio) {
+                    reserva.agregar(prioridad, posicion, campos.toArray(new byte[0][]));
+                }
+            }
+            return reserva;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Obtiene el esquema inferido en la última lectura.
+     *
+     * @return el esquema, o {@code null} si todavía no se leyó el archivo.
+     */
+    public EsquemaCSV getEsquema() {
+        return esquema;
+    }
+
+    /**
+     * Obtiene el reporte de valores rechazados en la última lectura.
+     *
+     * @return el reporte de carga, o {@code null} si todavía no se leyó el archivo.
+     */
+    public ReporteCarga getReporte() {
+        return reporte;
+    }
+
+    /**
+     * Infiere el tipo de cada columna observando los primeros registros de cada fragmento,
+     * para que la muestra cubra todo el archivo y no sólo su comienzo.
+     */
+    private EsquemaCSV inferirEsquema(FileChannel canal, long[] limites, List<String> nombres) throws IOException {
+        EsquemaCSV.Inferencia[] inferencias = new EsquemaCSV.Inferencia[nombres.size()];
+        for (int c = 0; c < inferencias.length; c++) {
+            inferencias[c] = new EsquemaCSV.Inferencia();
+        }
+        int cantFragmentosLeidos = limites.length - 1;
+        long registrosMuestreados = 0;
+        long bytesMuestreados = 0;
+        int registrosPorFragmento = Math.max(TAMANIO_MINIMO_MUESTRA_FRAGMENTO, TAMANIO_MUESTRA / cantFragmentosLeidos);
+        for (int f = 0; f < cantFragmentosLeidos; f++) {
+            if (limites[f + 1] <= limites[f]) {
+                continue;
+            }
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, limites[f], limites[f + 1] - limites[f]);
+            AnalizadorFragmento analizador = new AnalizadorFragmento(buffer);
+            int[] campo = new int[1];
+            int r = 0;
+            for (; r < registrosPorFragmento && analizador.hayDatos(); r++) {
+                campo[0] = 0;
+                analizador.leerRegistro((bytes, largo, entreComillas) -> {
+                    if (campo[0] < inferencias.length) {
+                        inferencias[campo[0]].observar(bytes, largo);
+                    }
+                    campo[0]++;
+                });
+            }
+            registrosMuestreados += r;
+            bytesMuestreados += analizador.getPosicion();
+        }
+        TipoColumna[] tipos = new TipoColumna[inferencias.length];
+        for (int c = 0; c < tipos.length; c++) {
+            tipos[c] = inferencias[c].resultado();
+        }
+        bytesPorRegistro = registrosMuestreados == 0 ? 64 : Math.max(1, bytesMuestreados / registrosMuestreados);
+        return new EsquemaCSV(nombres, tipos);
+    }
+
+    /**
+     * Estima la memoria de las columnas con la cantidad de filas indicada: carga los primeros registros del archivo
+     * en almacenamientos como los de la carga real y extrapola sus bytes por fila.
+     */
+    private long estimarMemoria(FileChannel canal, long[] limites, long filas) throws IOException {
+        if (limites[1] <= limites[0] || filas == 0) {
+            return 0;
+        }
+        CargaFragmento muestra = new CargaFragmento(esquema, TAMANIO_MUESTRA);
+        AnalizadorFragmento analizador = new AnalizadorFragmento(canal.map(FileChannel.MapMode.READ_ONLY, limites[0], limites[1] - limites[0]));
+        while (muestra.filas < TAMANIO_MUESTRA && analizador.hayDatos()) {
+            muestra.campoActual = 0;
+            if (!analizador.leerRegistro(muestra)) {
+                muestra.terminarRegistro();
+            }
+        }
+        long bytes = 0;
+        for (AlmacenColumna almacen : muestra.almacenes) {
+            bytes += almacen.estimarCopia((int) Math.min(Integer.MAX_VALUE, filas));
+        }
+        return bytes;
+    }
+
+    /**
+     * Lee la línea de cabecera y agrega los nombres de las columnas a la lista.
+     *
+     * @return la posición del primer byte de datos después de la cabecera.
+     */
+    private long leerCabecera(FileChannel canal, List<String> nombres) throws IOException {
+        long tamanio = canal.size();
+        long inicio = tieneMarcaDeOrden(canal) ? 3 : 0;
+        long fin = buscarFinDeRegistro(canal, inicio, tamanio, false);
+        MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, inicio, fin - inicio);
+        new AnalizadorFragmento(buffer).leerRegistro((bytes, largo, entreComillas) -> nombres.add(new String(bytes, 0, largo, StandardCharsets.UTF_8)));
+        return fin;
+    }
+
+    /**
+     * Indica si el archivo comienza con la marca de orden de bytes de UTF-8.
+     */
+    private boolean tieneMarcaDeOrden(FileChannel canal) throws IOException {
+        if (canal.size() < 3) {
+            return false;
+        }
+        MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, 3);
+        return (buffer.get(0) & 0xFF) == 0xEF && (buffer.get(1) & 0xFF) == 0xBB && (buffer.get(2) & 0xFF) == 0xBF;
+    }
+
+    /**
+     * Divide el rango de datos en fragmentos cuyos límites coinciden con fines de registro.
+     * Para no cortar un campo entre comillas que contiene saltos de línea, primero se cuentan
+     * en paralelo las comillas de cada tramo; la paridad acumulada indica si cada corte cae
+     * dentro de un campo entre comillas. Ningún fragmento supera el tamaño máximo más el largo del
+     * registro que queda cortado en su final, para que se pueda mapear en memoria.
+     *
+     * @return las posiciones de inicio de cada fragmento, seguidas de la posición final.
+     * @throws IOException si ocurre un error al leer el archivo, o si un registro es tan largo que su
+     *                     fragmento no se puede mapear en memoria.
+     */
+    private long[] calcularLimites(FileChannel canal, long inicioDatos, long tamanio) throws IOException {
+        long datos = tamanio - inicioDatos;
+        long minimoPorTamanio = (datos + tamanioMaximoFragmento - 1) / tamanioMaximoFragmento;
+        if (minimoPorTamanio > Integer.MAX_VALUE - 1) {
+            throw new IOException("El archivo " + ruta + " es demasiado grande para dividirlo en fragmentos.");
+        }
+        int cantidad = cantFragmentos > 0
+                ? cantFragmentos
+                : (int) Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), datos / TAMANIO_MINIMO_FRAGMENTO));
+        cantidad = (int) Math.max(cantidad, minimoPorTamanio);
+        if (cantidad <= 1 || datos <= cantidad) {
+            return new long[] {inicioDatos, tamanio};
+        }
+
+        long[] cortes = new long[cantidad + 1];
+        for (int i = 0; i <= cantidad; i++) {
+            cortes[i] = inicioDatos + datos * i / cantidad;
+        }
+
+        long[] comillas;
+        try {
+            comillas = IntStream.range(0, cantidad)
+                    .parallel()
+                    .mapToLong(i -> contarComillas(canal, cortes[i], cortes[i + 1]))
+                    .toArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        long[] limites = new long[cantidad + 1];
+        limites[0] = inicioDatos;
+        limites[cantidad] = tamanio;
+        long acumuladas = 0;
+        for (int i = 1; i < cantidad; i++) {
+            acumuladas += comillas[i - 1];
+            boolean dentroDeComillas = acumuladas % 2 == 1;
+            limites[i] = Math.max(limites[i - 1], buscarFinDeRegistro(canal, cortes[i], tamanio, dentroDeComillas));
+        }
+        for (int i = 0; i < cantidad; i++) {
+            if (limites[i + 1] - limites[i] > Integer.MAX_VALUE) {
+                throw new IOException("El archivo " + ruta + " tiene un registro demasiado largo cerca de la posición "
+                        + cortes[i + 1] + ".");
+            }
+        }
+        return limites;
+    }
+
+    /**
+     * Cuenta las comillas dobles entre las posiciones indicadas.
+     */
+    private long contarComillas(FileChannel canal, long desde, long hasta) {
+        try {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, desde, hasta - desde);
+            long cantidad = 0;
+            while (buffer.hasRemaining()) {
+                if (buffer.get() == COMILLA) {
+                    cantidad++;
+                }
+            }
+            return cantidad;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Busca la posición siguiente al primer fin de línea que no esté dentro de un campo entre comillas.
+     *
+     * @param desde la posición desde la que se busca.
+     * @param tamanio el tamaño del archivo.
+     * @param dentroDeComillas si la posición inicial está dentro de un campo entre comillas.
+     * @return la posición de inicio del siguiente registro, o el tamaño del archivo si no hay más.
+     */
+    private long buscarFinDeRegistro(FileChannel canal, long desde, long tamanio, boolean dentroDeComillas) throws IOException {
+        long posicion = desde;
+        while (posicion < tamanio) {
+            long largo = Math.min(64 * 1024, tamanio - posicion);
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, posicion, largo);
+            for (int i = 0; i < largo; i++) {
+                byte b = buffer.get(i);
+                if (b == COMILLA) {
+                    dentroDeComillas = !dentroDeComillas;
+                } else if (b == FIN_LINEA && !dentroDeComillas) {
+                    return posicion + i + 1;
+                }
+            }
+            posicion += largo;
+        }
+        return tamanio;
+    }
+
+    /**
+     * Lee los registros de un fragmento y los escribe en almacenamientos nuevos, según el esquema.
+     */
+    private CargaFragmento leerFragmento(FileChannel canal, long desde, long hasta) {
+        // Reservar la capacidad estimada con el largo promedio de los registros de la muestra
+        long filasEstimadas = (hasta - desde) / bytesPorRegistro + (hasta - desde) / bytesPorRegistro / 10 + 16;
+        CargaFragmento carga = new CargaFragmento(esquema, (int) Math.min(Integer.MAX_VALUE - 8, filasEstimadas));
+        if (hasta <= desde) {
+            return carga;
+        }
+        try {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, desde, hasta - desde);
+            AnalizadorFragmento analizador = new AnalizadorFragmento(buffer);
+            while (analizador.hayDatos()) {
+                carga.campoActual = 0;
+                boolean vacio = analizador.leerRegistro(carga);
+                if (!vacio) {
+                    // Las líneas en blanco no generan filas
+                    carga.terminarRegistro();
+                }
+            }
+            return carga;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Consumidor de los campos de un registro. Los bytes sólo son válidos durante la llamada, y
+     * {@code entreComillas} indica si el campo empezaba con una comilla.
+     */
+    interface ConsumidorCampo {
+        void aceptar(byte[] bytes, int largo, boolean entreComillas);
+    }
+
+    /**
+     * Estado de la carga de un fragmento: un almacenamiento por columna, escrito campo a campo
+     * con el conversor del tipo inferido. Los valores que no se pueden convertir se cargan como
+     * nulos y se registran en el reporte; la única excepción es un decimal en una columna entera,
+     * que convierte el almacenamiento a decimal sin perder valores.
+     */
+    private static class CargaFragmento implements ConsumidorCampo {
+        private final EsquemaCSV esquema;
+        private final TipoColumna[] tipos;
+        private final AlmacenColumna[] almacenes;
+        private final ReporteCarga reporte;
+        private int campoActual;
+        private long filas;
+
+        CargaFragmento(EsquemaCSV esquema, int capacidad) {
+            this.esquema = esquema;
+            this.tipos = new TipoColumna[esquema.getCantColumnas()];
+            this.almacenes = new AlmacenColumna[tipos.length];
+            for (int c = 0; c < tipos.length; c++) {
+                tipos[c] = esquema.getTipo(c);
+                almacenes[c] = tipos[c].crearAlmacen(capacidad);
+            }
+            this.reporte = new ReporteCarga();
+        }
+
+        @Override
+        public void aceptar(byte[] bytes, int largo, boolean entreComillas) {
+            int c = campoActual++;
+            if (c >= almacenes.length) {
+                return; // Los campos sobrantes se ignoran
+            }
+            // Entre comillas, un campo vacío o NA de una columna de texto es ese texto y no un nulo
+            boolean texto = tipos[c] == TipoColumna.TEXTO || tipos[c] == TipoColumna.CATEGORICO;
+            if (AnalizadorValores.esNulo(bytes, largo) && !(entreComillas && texto)) {
+                almacenes[c].agregarNulo();
+            } else if (!tipos[c].cargar(bytes, largo, almacenes[c])) {
+                if (tipos[c] == TipoColumna.ENTERO && TipoColumna.DECIMAL.esValido(bytes, largo)) {
+                    almacenes[c] = almacenes[c].generalizarPara(0.0);
+                    tipos[c] = TipoColumna.DECIMAL;
+                    tipos[c].cargar(bytes, largo, almacenes[c]);
+                } else {
+                    almacenes[c].agregarNulo();
+                    reporte.registrar(filas, esquema.getNombres().get(c), tipos[c], new String(bytes, 0, largo, StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        /**
+         * Completa con nulos las columnas que faltaron en el registro actual.
+         */
+        void terminarRegistro() {
+            for (int c = campoActual; c < almacenes.length; c++) {
+                almacenes[c].agregarNulo();
+            }
+            filas++;
+            if ((filas & 0xFFF) == 0) {
+                revisarDiccionarios();
+            }
+        }
+
+        /**
+         * Decodifica las columnas categóricas cuya cardinalidad resultó alta pese a la muestra.
+         */
+        private void revisarDiccionarios() {
+            for (int c = 0; c < almacenes.length; c++) {
+                if (tipos[c] == TipoColumna.CATEGORICO && ((AlmacenDiccionario) almacenes[c]).esAltaCardinalidad()) {
+                    almacenes[c] = ((AlmacenDiccionario) almacenes[c]).decodificar();
+                    tipos[c] = TipoColumna.TEXTO;
+                }
+            }
+        }
+
+        List<Columna<Object>> crearColumnas(List<String> nombres) {
+            List<Columna<Object>> columnas = new ArrayList<>();
+            for (int c = 0; c < almacenes.length; c++) {
+                columnas.add(new Columna<>(nombres.get(c), almacenes[c]));
+            }
+            return columnas;
+        }
+    }
+
+    /**
+     * Analizador de registros CSV sobre un rango de bytes, reutilizando un único búfer de campo.
+     */
+    static class AnalizadorFragmento {
+        private final MappedByteBuffer buffer;
+        private final int limite;
+        private int posicion;
+        private byte[] campo;
+
+        AnalizadorFragmento(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+            this.limite = buffer.limit();
+            this.posicion = 0;
+            this.campo = new byte[64];
+        }
+
+        boolean hayDatos() {
+            return posicion < limite;
+        }
+
+        int getPosicion() {
+            return posicion;
+        }
+
+        /**
+         * Lee un registro completo, entregando cada campo al consumidor.
+         *
+         * @return {@code true} si el registro era una línea en blanco.
+         */
+        boolean leerRegistro(ConsumidorCampo consumidor) {
+            int inicioRegistro = posicion;
+            while (true) {
+                int largo = 0;
+                boolean finRegistro = false;
+                boolean entreComillas = posicion < limite && buffer.get(posicion) == COMILLA;
+                if (entreComillas) {
+                    // Campo entre comillas: se lee hasta la comilla de cierre
+                    posicion++;
+                    while (posicion < limite) {
+                        byte b = buffer.get(posicion++);
+                        if (b == COMILLA) {
+                            if (posicion < limite && buffer.get(posicion) == COMILLA) {
+                                largo = agregarByte(largo, COMILLA);
+                                posicion++;
+                            } else {
+                                break;
+                            }
+                        } else {
+                            largo = agregarByte(largo, b);
+                        }
+                    }
+                }
+                // Resto del campo (o campo sin comillas) hasta el separador o el fin de línea
+                while (posicion < limite) {
+                    byte b = buffer.get(posicion++);
+                    if (b == SEPARADOR) {
+                        break;
+                    } else if (b == FIN_LINEA) {
+                        finRegistro = true;
+                        break;
+                    } else if (b != COMILLA) {
+                        largo = agregarByte(largo, b);
+                    }
+                }
+                if (posicion >= limite) {
+                    finRegistro = true;
+                }
+                if (finRegistro && largo > 0 && campo[largo - 1] == RETORNO) {
+                    largo--;
+                }
+                if (finRegistro && largo == 0 && posicion - inicioRegistro <= 2 && esLineaEnBlanco(inicioRegistro)) {
+                    return true;
+                }
+                consumidor.aceptar(campo, largo, entreComillas);
+                if (finRegistro) {
+                    return false;
+                }
+            }
+        }
+
+        private boolean esLineaEnBlanco(int inicioRegistro) {
+            for (int i = inicioRegistro; i < posicion; i++) {
+                byte b = buffer.get(i);
+                if (b != FIN_LINEA && b != RETORNO) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int agregarByte(int largo, byte b) {
+            if (largo == campo.length) {
+                campo = Arrays.copyOf(campo, campo.length * 2);
+            }
+            campo[largo] = b;
+            return largo + 1;
+        }
+    }
+}
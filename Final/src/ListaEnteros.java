@@ -0,0 +1,76 @@
+import java.util.Arrays;
+
+/**
+ * Lista creciente de enteros primitivos, usada para acumular índices de filas sin encapsularlos.
+ */
+class ListaEnteros {
+    private int[] valores;
+    private int tamanio;
+
+    /**
+     * Constructor que crea una lista vacía.
+     */
+    public ListaEnteros() {
+        this(16);
+    }
+
+    /**
+     * Constructor que crea una lista vacía con la capacidad inicial indicada.
+     *
+     * @param capacidad la cantidad de enteros que puede guardar antes de crecer; al menos 1.
+     */
+    public ListaEnteros(int capacidad) {
+        this.valores = new int[Math.max(capacidad, 1)];
+        this.tamanio = 0;
+    }
+
+    /**
+     * Agrega un entero al final de la lista.
+     *
+     * @param valor el valor a agregar.
+     */
+    public void agregar(int valor) {
+        if (tamanio == valores.length) {
+            valores = Arrays.copyOf(valores, valores.length * 2);
+        }
+        valores[tamanio++] = valor;
+    }
+
+    /**
+     * Obtiene el entero en la posición indicada.
+     *
+     * @param indice la posición del valor.
+     * @return el valor almacenado.
+     */
+    public int get(int indice) {
+        return valores[indice];
+    }
+
+    /**
+     * Obtiene la cantidad de enteros en la lista.
+     *
+     * @return el tamaño de la lista.
+     */
+    public int tamanio() {
+        return tamanio;
+    }
+
+    /**
+     * Estima la memoria que ocupa la lista.
+     *
+     * @return los bytes de la lista y de su arreglo.
+     */
+    long estimarMemoria() {
+        return EstimacionMemoria.alinear(EstimacionMemoria.CABECERA_OBJETO + EstimacionMemoria.REFERENCIA + 4)
+                + EstimacionMemoria.arreglo(valores.length, 4);
+    }
+
+    /**
+     * Devuelve un arreglo con los enteros de la lista.
+     *
+     * @return un nuevo arreglo del tamaño exacto de la lista.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(valores, tamanio);
+    }
+}
@@ -1,3 +1,4 @@
+import java.util.BitSet;
 import java.util.List;
 
 public interface Manipulacion {
@@ -13,4 +14,6 @@ public interface Manipulacion {
 
     public abstract Tabla eliminarFila(int indiceFila);
 
+    public abstract Tabla eliminarFilas(BitSet filas);
+
 }
@@ -0,0 +1,76 @@
+import java.util.Arrays;
+
+/**
+ * Mapa de zonas de una columna numérica: guarda el mínimo y el máximo de cada bloque de filas,
+ * para que una búsqueda por rango pueda saltear los bloques que no pueden contener valores del rango.
+ * Los valores se comparan con el orden de {@link Double#compare(double, double)}, que también
+ * representa exactamente a los enteros.
+ */
+class MapaZonas {
+    static final int TAMANIO_BLOQUE = 1024;
+
+    private final double[] minimos;
+    private final double[] maximos;
+    private final int filasCubiertas;
+
+    /**
+     * Constructor que crea un mapa sin valores para la cantidad de filas indicada.
+     * Un bloque sin valores no nulos nunca contiene valores de un rango.
+     *
+     * @param filas la cantidad de filas que cubre el mapa.
+     */
+    public MapaZonas(int filas) {
+        int bloques = (filas + TAMANIO_BLOQUE - 1) / TAMANIO_BLOQUE;
+        this.minimos = new double[bloques];
+        this.maximos = new double[bloques];
+        this.filasCubiertas = filas;
+        Arrays.fill(minimos, Double.NaN);
+        Arrays.fill(maximos, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Estima la memoria que ocupa el mapa.
+     *
+     * @return los bytes del mapa y de sus arreglos.
+     */
+    long estimarMemoria() {
+        return EstimacionMemoria.alinear(EstimacionMemoria.CABECERA_OBJETO + 2 * EstimacionMemoria.REFERENCIA + 4)
+                + 2 * EstimacionMemoria.arreglo(minimos.length, 8);
+    }
+
+    /**
+     * Registra un valor no nulo del bloque indicado.
+     *
+     * @param bloque el número de bloque.
+     * @param valor el valor de la fila.
+     */
+    public void registrar(int bloque, double valor) {
+        if (Double.compare(valor, minimos[bloque]) < 0) {
+            minimos[bloque] = valor;
+        }
+        if (Double.compare(valor, maximos[bloque]) > 0) {
+            maximos[bloque] = valor;
+        }
+    }
+
+    /**
+     * Indica si el bloque puede contener algún valor dentro del rango cerrado {@code [minimo, maximo]}.
+     *
+     * @param bloque el número de bloque.
+     * @param minimo el límite inferior.
+     * @param maximo el límite superior.
+     * @return {@code false} si se puede asegurar que ningún valor del bloque está en el rango.
+     */
+    public boolean puedeContener(int bloque, double minimo, double maximo) {
+        return Double.compare(maximos[bloque], minimo) >= 0 && Double.compare(minimos[bloque], maximo) <= 0;
+    }
+
+    /**
+     * Obtiene la cantidad de filas que había en la columna cuando se construyó el mapa.
+     *
+     * @return la cantidad de filas cubiertas.
+     */
+    public int getFilasCubiertas() {
+        return filasCubiertas;
+    }
+}
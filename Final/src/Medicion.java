@@ -0,0 +1,93 @@
+/**
+ * La medición de una ejecución de una operación de {@link Tabla}, creada por {@link Telemetria#iniciar(String, Tabla)}.
+ * Al terminarla se emite el {@link EventoOperacion} y se informan las métricas. Las operaciones que terminan con una
+ * excepción no se terminan, así que no se registran.
+ */
+class Medicion {
+    /** Medición que no registra nada, para cuando la telemetría está desactivada. */
+    static final Medicion NINGUNA = new Medicion();
+
+    private final String operacion;
+    private final String tabla;
+    private final long filasEntrada;
+    private final int columnasEntrada;
+    private final long inicio;
+    private final long memoriaInicial;
+    private final EventoOperacion evento;
+
+    private Medicion() {
+        this.operacion = null;
+        this.tabla = null;
+        this.filasEntrada = 0;
+        this.columnasEntrada = 0;
+        this.inicio = 0;
+        this.memoriaInicial = 0;
+        this.evento = null;
+    }
+
+    Medicion(String operacion, String tabla, long filasEntrada, int columnasEntrada) {
+        this.operacion = operacion;
+        this.tabla = tabla;
+        this.filasEntrada = filasEntrada;
+        this.columnasEntrada = columnasEntrada;
+        EventoOperacion nuevo = new EventoOperacion();
+        if (nuevo.isEnabled()) {
+            nuevo.begin();
+            this.evento = nuevo;
+        } else {
+            this.evento = null;
+        }
+        this.memoriaInicial = Telemetria.memoriaAsignada();
+        this.inicio = System.nanoTime();
+    }
+
+    /**
+     * Termina la medición de una operación que produjo una tabla.
+     *
+     * @param resultado la tabla producida; puede ser {@code null}.
+     * @return la misma tabla, para poder devolverla directamente.
+     */
+    Tabla terminar(Tabla resultado) {
+        if (this != NINGUNA) {
+            terminar(resultado == null ? 0 : resultado.getFilas(), resultado == null ? columnasEntrada : resultado.getCantColumnas());
+        }
+        return resultado;
+    }
+
+    /**
+     * Termina la medición de una operación que no produjo una tabla, con las mismas filas y columnas de entrada.
+     */
+    void terminar() {
+        if (this != NINGUNA) {
+            terminar(filasEntrada, columnasEntrada);
+        }
+    }
+
+    /**
+     * Termina la medición indicando las filas y columnas que produjo la operación.
+     *
+     * @param filasSalida la cantidad de filas producidas.
+     * @param columnas la cantidad de columnas producidas.
+     */
+    void terminar(long filasSalida, int columnas) {
+        if (this == NINGUNA) {
+            return;
+        }
+        long nanos = System.nanoTime() - inicio;
+        long memoria = Telemetria.memoriaAsignada();
+        long bytesAsignados = memoria < 0 ? -1 : memoria - memoriaInicial;
+        if (evento != null) {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.operacion = operacion;
+                evento.tabla = tabla;
+                evento.filasEntrada = filasEntrada;
+                evento.filasSalida = filasSalida;
+                evento.columnas = columnas;
+                evento.bytesAsignados = bytesAsignados;
+                evento.commit();
+            }
+        }
+        Telemetria.registrar(operacion, nanos, filasEntrada, filasSalida, bytesAsignados);
+    }
+}
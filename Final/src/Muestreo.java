@@ -0,0 +1,295 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Proporciona muestreo aleatorio sin reemplazo de filas por el método de las menores prioridades
+ * (bottom-k): cada fila recibe una prioridad aleatoria y la muestra está formada por las filas con
+ * las menores prioridades. Como la prioridad de cada fila depende sólo de la semilla y de la posición
+ * de la fila, las particiones se pueden recorrer en paralelo y en cualquier orden con resultados
+ * reproducibles, y la misma técnica sirve como muestreo de reservorio sobre un archivo que no se carga.
+ */
+class Muestreo {
+    /** Cantidad de filas a partir de la cual el muestreo se reparte entre varios hilos. */
+    static final int UMBRAL_PARALELO = 1 << 16;
+
+    /** Incremento del generador {@link SplittableRandom} entre dos valores consecutivos. */
+    private static final long INCREMENTO = 0x9E3779B97F4A7C15L;
+
+    private Muestreo() {
+    }
+
+    /**
+     * Obtiene la prioridad de la fila en la posición indicada. Es el valor número {@code posicion}
+     * (contando desde 0) que devolvería {@code new SplittableRandom(semilla).nextLong()}, calculado
+     * sin generar los anteriores.
+     *
+     * @param semilla la semilla del muestreo.
+     * @param posicion la posición de la fila (o del registro en el archivo).
+     * @return la prioridad de la fila.
+     */
+    static long prioridad(long semilla, long posicion) {
+        return new SplittableRandom(semilla + posicion * INCREMENTO).nextLong();
+    }
+
+    /**
+     * Genera una semilla nueva para los muestreos no reproducibles.
+     *
+     * @return una semilla aleatoria.
+     */
+    static long semillaAleatoria() {
+        return new SplittableRandom().nextLong();
+    }
+
+    /**
+     * Calcula la cantidad de filas de la muestra para un porcentaje, redondeando hacia arriba.
+     *
+     * @param totalFilas la cantidad de filas de la población.
+     * @param porcentaje el porcentaje de filas a incluir (entre 0 y 100).
+     * @return el tamaño de la muestra.
+     */
+    static int tamanioMuestra(int totalFilas, double porcentaje) {
+        return (int) Math.min(totalFilas, Math.ceil(totalFilas * (porcentaje / 100.0)));
+    }
+
+    /**
+     * Elige al azar {@code cantidad} filas distintas entre {@code totalFilas}.
+     *
+     * @param totalFilas la cantidad de filas de la población.
+     * @param cantidad el tamaño de la muestra.
+     * @param semilla la semilla del muestreo.
+     * @return las filas elegidas en orden ascendente.
+     */
+    static int[] muestraSimple(int totalFilas, int cantidad, long semilla) {
+        return muestrear(totalFilas, null, new int[] {cantidad}, semilla);
+    }
+
+    /**
+     * Elige al azar, dentro de cada estrato definido por los valores de una columna, el porcentaje
+     * indicado de sus filas (redondeado hacia arriba). Los valores nulos forman su propio estrato.
+     *
+     * @param columna la columna que define los estratos.
+     * @param porcentaje el porcentaje de filas de cada estrato a incluir (entre 0 y 100).
+     * @param semilla la semilla del muestreo.
+     * @return las filas elegidas en orden ascendente.
+     */
+    static int[] muestraEstratificada(Columna<?> columna, double porcentaje, long semilla) {
+        int totalFilas = columna.getTamanio();
+        int[] estratos = new int[totalFilas];
+        Map<Object, Integer> estratoPorValor = new HashMap<>();
+        List<Integer> tamanios = new ArrayList<>();
+        tamanios.add(0); // El estrato 0 es el de los valores nulos
+        for (int i = 0; i < totalFilas; i++) {
+            Object valor = columna.getValor(i);
+            int estrato = 0;
+            if (valor != null) {
+                Integer existente = estratoPorValor.get(valor);
+                if (existente == null) {
+                    existente = tamanios.size();
+                    estratoPorValor.put(valor, existente);
+                    tamanios.add(0);
+                }
+                estrato = existente;
+            }
+            estratos[i] = estrato;
+            tamanios.set(estrato, tamanios.get(estrato) + 1);
+        }
+
+        int[] cantidades = new int[tamanios.size()];
+        for (int e = 0; e < cantidades.length; e++) {
+            cantidades[e] = tamanioMuestra(tamanios.get(e), porcentaje);
+        }
+        return muestrear(totalFilas, estratos, cantidades, semilla);
+    }
+
+    /**
+     * Elige en cada estrato las filas de menor prioridad. Si la población es grande, cada partición se recorre
+     * en paralelo con sus propias reservas acotadas y luego se combinan; como las prioridades no dependen
+     * de la partición, el resultado es el mismo que el de un recorrido secuencial.
+     *
+     * @param totalFilas la cantidad de filas de la población.
+     * @param estratos el estrato de cada fila, o {@code null} si hay un único estrato.
+     * @param cantidades la cantidad de filas a elegir en cada estrato.
+     * @param semilla la semilla del muestreo.
+     * @return las filas elegidas en orden ascendente.
+     */
+    private static int[] muestrear(int totalFilas, int[] estratos, int[] cantidades, long semilla) {
+        int partes = Math.min(Runtime.getRuntime().availableProcessors(), totalFilas / UMBRAL_PARALELO);
+        Reserva[] reservas;
+        if (partes < 2) {
+            reservas = recorrer(0, totalFilas, estratos, cantidades, semilla);
+        } else {
+            int[] limites = new int[partes + 1];
+            for (int p = 0; p <= partes; p++) {
+                limites[p] = (int) ((long) totalFilas * p / partes);
+            }
+            Reserva[] combinadas = crearReservas(cantidades);
+            IntStream.range(0, partes).parallel()
+                    .mapToObj(p -> recorrer(limites[p], limites[p + 1], estratos, cantidades, semilla))
+                    .forEachOrdered(parciales -> {
+                        for (int e = 0; e < parciales.length; e++) {
+                            parciales[e].volcarEn(combinadas[e]);
+                        }
+                    });
+            reservas = combinadas;
+        }
+
+        int total = 0;
+        for (Reserva reserva : reservas) {
+            total += reserva.tamanio;
+        }
+        int[] filas = new int[total];
+        int k = 0;
+        for (Reserva reserva : reservas) {
+            for (int i = 0; i < reserva.tamanio; i++) {
+                filas[k++] = (int) reserva.posiciones[i];
+            }
+        }
+        Arrays.sort(filas);
+        return filas;
+    }
+
+    private static Reserva[] recorrer(int desde, int hasta, int[] estratos, int[] cantidades, long semilla) {
+        Reserva[] reservas = crearReservas(cantidades);
+        for (int fila = desde; fila < hasta; fila++) {
+            Reserva reserva = reservas[estratos == null ? 0 : estratos[fila]];
+            long prioridad = prioridad(semilla, fila);
+            if (reserva.admite(prioridad, fila)) {
+                reserva.agregar(prioridad, fila, null);
+            }
+        }
+        return reservas;
+    }
+
+    private static Reserva[] crearReservas(int[] cantidades) {
+        Reserva[] reservas = new Reserva[cantidades.length];
+        for (int e = 0; e < reservas.length; e++) {
+            reservas[e] = new Reserva(cantidades[e]);
+        }
+        return reservas;
+    }
+
+    /**
+     * Reserva acotada que conserva los elementos de menor prioridad vistos hasta el momento, en un montículo
+     * de máximos. A igual prioridad se conserva el de menor posición. Cada elemento puede llevar datos asociados.
+     */
+    static final class Reserva {
+        private final long[] prioridades;
+        private final long[] posiciones;
+        private final Object[] datos;
+        private int tamanio;
+
+        /**
+         * Constructor que crea una reserva vacía.
+         *
+         * @param capacidad la cantidad máxima de elementos a conservar.
+         */
+        Reserva(int capacidad) {
+            this.prioridades = new long[capacidad];
+            this.posiciones = new long[capacidad];
+            this.datos = new Object[capacidad];
+        }
+
+        /**
+         * Indica si un elemento con la prioridad y la posición indicadas entraría en la reserva, para
+         * no preparar sus datos cuando va a ser descartado.
+         */
+        boolean admite(long prioridad, long posicion) {
+            return tamanio < prioridades.length || (tamanio > 0 && precede(prioridad, posicion, 0));
+        }
+
+        /**
+         * Agrega un elemento admitido, descartando el de mayor prioridad si la reserva está llena.
+         */
+        void agregar(long prioridad, long posicion, Object dato) {
+            int i;
+            if (tamanio < prioridades.length) {
+                i = tamanio++;
+                asignar(i, prioridad, posicion, dato);
+                subir(i);
+            } else {
+                asignar(0, prioridad, posicion, dato);
+                bajar(0);
+            }
+        }
+
+        /**
+         * Ofrece todos los elementos de esta reserva a otra.
+         */
+        void volcarEn(Reserva otra) {
+            for (int i = 0; i < tamanio; i++) {
+                if (otra.admite(prioridades[i], posiciones[i])) {
+                    otra.agregar(prioridades[i], posiciones[i], datos[i]);
+                }
+            }
+        }
+
+        int getTamanio() {
+            return tamanio;
+        }
+
+        long getPosicion(int i) {
+            return posiciones[i];
+        }
+
+        Object getDato(int i) {
+            return datos[i];
+        }
+
+        private boolean precede(long prioridad, long posicion, int i) {
+            return prioridad < prioridades[i] || (prioridad == prioridades[i] && posicion < posiciones[i]);
+        }
+
+        private void asignar(int i, long prioridad, long posicion, Object dato) {
+            prioridades[i] = prioridad;
+            posiciones[i] = posicion;
+            datos[i] = dato;
+        }
+
+        private void subir(int i) {
+            while (i > 0) {
+                int padre = (i - 1) / 2;
+                if (!precede(prioridades[padre], posiciones[padre], i)) {
+                    return;
+                }
+                intercambiar(padre, i);
+                i = padre;
+            }
+        }
+
+        private void bajar(int i) {
+            while (true) {
+                int mayor = i;
+                int izquierdo = 2 * i + 1;
+                int derecho = izquierdo + 1;
+                if (izquierdo < tamanio && precede(prioridades[mayor], posiciones[mayor], izquierdo)) {
+                    mayor = izquierdo;
+                }
+                if (derecho < tamanio && precede(prioridades[mayor], posiciones[mayor], derecho)) {
+                    mayor = derecho;
+                }
+                if (mayor == i) {
+                    return;
+                }
+                intercambiar(i, mayor);
+                i = mayor;
+            }
+        }
+
+        private void intercambiar(int i, int j) {
+            long prioridad = prioridades[i];
+            prioridades[i] = prioridades[j];
+            prioridades[j] = prioridad;
+            long posicion = posiciones[i];
+            posiciones[i] = posiciones[j];
+            posiciones[j] = posicion;
+            Object dato = datos[i];
+            datos[i] = datos[j];
+            datos[j] = dato;
+        }
+    }
+}
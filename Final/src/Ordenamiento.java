@@ -1,12 +1,32 @@
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 /**
  * Proporciona funcionalidad para ordenar las filas de una tabla en base a los valores
  * de una o más columnas y los criterios de orden (ascendente o descendente) especificados.
+ * <p>
+ * Cada columna se convierte primero en una clave normalizada de 64 bits por fila, tal que comparar
+ * las claves como enteros sin signo equivale a comparar los valores (incluidos los nulos y el sentido
+ * del orden). Luego se ordena una permutación {@code int[]} de las filas con radix sort LSD estable,
+ * de la última columna a la primera, por lo que las filas con valores iguales conservan su orden original.
+ * Las tablas grandes se dividen en partes que se ordenan en paralelo y luego se intercalan.
  */
 class Ordenamiento {
+    /** Cantidad de filas a partir de la cual el ordenamiento se reparte entre varios hilos. */
+    static final int UMBRAL_PARALELO = 1 << 17;
+
+    /** Clave de los valores nulos en orden ascendente: mayor que cualquier otra, para ubicarlos al final. */
+    static final long CLAVE_NULO = -1L;
+
+    private static final int CAPACIDAD_DISTINTOS = 16;
+
     private final Tabla tabla;
 
     /**
@@ -30,69 +50,625 @@ class Ordenamiento {
      *                                  o si alguna columna especificada no se encuentra en la tabla.
      */
     public List<Integer> obtenerOrdenIndices(List<String> nombresColumnas, List<Boolean> criteriosAscendentes) {
+        int[] orden = obtenerOrden(nombresColumnas, criteriosAscendentes);
+        List<Integer> indicesFilas = new ArrayList<>(orden.length);
+        for (int fila : orden) {
+            indicesFilas.add(fila);
+        }
+        return indicesFilas;
+    }
+
+    /**
+     * Obtiene la permutación de filas que ordena la tabla según los criterios indicados.
+     * En orden ascendente los valores nulos quedan al final y en orden descendente al principio;
+     * las filas con valores iguales en todas las columnas conservan su orden original.
+     *
+     * @param nombresColumnas      Los nombres de las columnas a ordenar, de mayor a menor prioridad.
+     * @param criteriosAscendentes Una lista de valores booleanos que indica si cada columna
+     *                             se ordena de forma ascendente (true) o descendente (false).
+     * @return Un arreglo con los índices de las filas en el nuevo orden.
+     * @throws IllegalArgumentException Si la cantidad de nombres de columnas y criterios no coincide
+     *                                  o si alguna columna especificada no se encuentra en la tabla.
+     * @throws ClassCastException Si los valores de alguna columna no son comparables entre sí.
+     */
+    public int[] obtenerOrden(List<String> nombresColumnas, List<Boolean> criteriosAscendentes) {
+        int[] filas = new int[tabla.getFilas()];
+        for (int i = 0; i < filas.length; i++) {
+            filas[i] = i;
+        }
+        return ordenarFilas(resolverColumnas(nombresColumnas, criteriosAscendentes), criteriosAscendentes, filas);
+    }
+
+    /**
+     * Ordena un subconjunto de las filas de la tabla según los criterios indicados, sin materializarlo antes.
+     * Las filas con valores iguales en todas las columnas conservan el orden en que aparecen en {@code filas}.
+     *
+     * @param columnas             Las columnas de la tabla a ordenar, de mayor a menor prioridad.
+     * @param criteriosAscendentes Una lista de valores booleanos que indica si cada columna
+     *                             se ordena de forma ascendente (true) o descendente (false).
+     * @param filas                Las filas a ordenar; el arreglo se reordena en el lugar.
+     * @return Un arreglo con las filas en el nuevo orden (puede ser el mismo arreglo recibido).
+     * @throws ClassCastException Si los valores de alguna columna no son comparables entre sí.
+     */
+    int[] ordenarFilas(List<Columna<?>> columnas, List<Boolean> criteriosAscendentes, int[] filas) {
+        return ordenar(filas, calcularClaves(columnas, criteriosAscendentes));
+    }
+
+    /**
+     * Ordena de forma estable las posiciones {@code 0} a {@code claves.length - 1} según una clave normalizada,
+     * como las de {@link #calcularClaves(AlmacenColumna, boolean)}.
+     *
+     * @param claves las claves indexadas por posición.
+     * @return las posiciones en orden ascendente de clave.
+     */
+    static int[] ordenarPorClave(long[] claves) {
+        int[] orden = new int[claves.length];
+        for (int i = 0; i < orden.length; i++) {
+            orden[i] = i;
+        }
+        return ordenar(orden, new long[][] {claves});
+    }
+
+    /**
+     * Ordena una permutación de filas con radix sort, en paralelo por partes si es grande.
+     */
+    private static int[] ordenar(int[] orden, long[][] claves) {
+        int cantidad = orden.length;
+        if (cantidad < 2 || claves.length == 0) {
+            return orden;
+        }
+
+        int partes = Math.min(Runtime.getRuntime().availableProcessors(), cantidad / (UMBRAL_PARALELO / 2));
+        if (cantidad < UMBRAL_PARALELO || partes < 2) {
+            ordenarParte(orden, 0, cantidad, claves);
+            return orden;
+        }
+        return ordenarEnParalelo(orden, partes, claves);
+    }
+
+    /**
+     * Obtiene las primeras {@code k} filas del orden definido por los criterios indicados, sin ordenar la tabla completa.
+     * Cada parte de la tabla se recorre con un montículo acotado a {@code k} filas (en paralelo si la tabla es grande)
+     * y luego se combinan los candidatos. El resultado coincide con los primeros {@code k} índices de
+     * {@link #obtenerOrden(List, List)}, incluido el desempate por el orden original de las filas.
+     * <p>
+     * Sólo se calculan claves normalizadas para las columnas en que son baratas (números, fechas, booleanos y
+     * textos codificados con diccionario); las demás se comparan por sus valores, porque calcular sus claves
+     * exige ordenar todos sus valores distintos. Una vez lleno el montículo, cada fila se compara sólo con la
+     * mayor de las que conserva.
+     *
+     * @param nombresColumnas      Los nombres de las columnas a ordenar, de mayor a menor prioridad.
+     * @param criteriosAscendentes Una lista de valores booleanos que indica si cada columna
+     *                             se ordena de forma ascendente (true) o descendente (false).
+     * @param k                    La cantidad de filas a obtener.
+     * @return Un arreglo con los índices de las primeras filas en orden; tiene menos de {@code k} elementos si la tabla es más chica.
+     * @throws IllegalArgumentException Si la cantidad de nombres de columnas y criterios no coincide,
+     *                                  si alguna columna especificada no se encuentra en la tabla o si {@code k} es negativo.
+     */
+    public int[] obtenerPrimeros(List<String> nombresColumnas, List<Boolean> criteriosAscendentes, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("La cantidad de filas no puede ser negativa.");
+        }
+        List<Columna<?>> columnas = resolverColumnas(nombresColumnas, criteriosAscendentes);
+        int cantidad = tabla.getFilas();
+        int limite = Math.min(k, cantidad);
+        if (limite == 0) {
+            return new int[0];
+        }
+        ComparadorFilas claves = new ComparadorFilas(columnas, criteriosAscendentes);
+
+        int partes = Math.min(Runtime.getRuntime().availableProcessors(), cantidad / (UMBRAL_PARALELO / 2));
+        if (cantidad < UMBRAL_PARALELO || partes < 2) {
+            return new MonticuloAcotado(limite, claves).recorrer(0, cantidad).extraerOrdenado();
+        }
+        int[] limites = new int[partes + 1];
+        for (int p = 0; p <= partes; p++) {
+            limites[p] = (int) ((long) cantidad * p / partes);
+        }
+        // Un montículo por parte, recorridas en paralelo; luego se combinan en un único montículo
+        MonticuloAcotado combinado = new MonticuloAcotado(limite, claves);
+        IntStream.range(0, partes).parallel()
+                .mapToObj(p -> new MonticuloAcotado(limite, claves).recorrer(limites[p], limites[p + 1]))
+                .forEachOrdered(parcial -> parcial.volcarEn(combinado));
+        return combinado.extraerOrdenado();
+    }
+
+    /**
+     * Compara filas columna por columna: por sus claves normalizadas en las columnas en que calcularlas es
+     * barato y por sus valores con {@code compareTo} en las demás, con los nulos al final en orden ascendente
+     * y al principio en descendente, igual que las claves.
+     */
+    private static final class ComparadorFilas {
+        private final long[][] claves;
+        private final AlmacenColumna[] valores;
+        private final boolean[] ascendentes;
+
+        ComparadorFilas(List<Columna<?>> columnas, List<Boolean> criteriosAscendentes) {
+            claves = new long[columnas.size()][];
+            valores = new AlmacenColumna[columnas.size()];
+            ascendentes = new boolean[columnas.size()];
+            for (int c = 0; c < claves.length; c++) {
+                AlmacenColumna almacen = columnas.get(c).getAlmacen();
+                AlmacenColumna base = almacen instanceof AlmacenVista ? ((AlmacenVista) almacen).getBase() : almacen;
+                ascendentes[c] = criteriosAscendentes.get(c);
+                if (tieneClavesPrimitivas(almacen) || base instanceof AlmacenDiccionario) {
+                    claves[c] = calcularClaves(almacen, ascendentes[c]);
+                } else {
+                    valores[c] = almacen;
+                }
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        int comparar(int fila1, int fila2) {
+            for (int c = 0; c < claves.length; c++) {
+                int resultado;
+                if (claves[c] != null) {
+                    resultado = Long.compareUnsigned(claves[c][fila1], claves[c][fila2]);
+                } else {
+                    Object valor1 = valores[c].getValor(fila1);
+                    Object valor2 = valores[c].getValor(fila2);
+                    if (valor1 == null || valor2 == null) {
+                        resultado = valor1 == valor2 ? 0 : valor1 == null ? 1 : -1;
+                    } else {
+                        resultado = ((Comparable) valor1).compareTo(valor2);
+                    }
+                    if (!ascendentes[c]) {
+                        resultado = -resultado;
+                    }
+                }
+                if (resultado != 0) {
+                    return resultado;
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Montículo de máximos acotado a una cantidad fija de filas, que conserva las menores según el comparador
+     * y, a igualdad, según el índice de fila.
+     */
+    private static final class MonticuloAcotado {
+        private final int[] filas;
+        private final ComparadorFilas claves;
+        private int tamanio;
+
+        MonticuloAcotado(int capacidad, ComparadorFilas claves) {
+            this.filas = new int[capacidad];
+            this.claves = claves;
+        }
+
+        /**
+         * Ofrece al montículo todas las filas del tramo {@code [desde, hasta)}.
+         */
+        MonticuloAcotado recorrer(int desde, int hasta) {
+            for (int fila = desde; fila < hasta; fila++) {
+                ofrecer(fila);
+            }
+            return this;
+        }
+
+        /**
+         * Ofrece las filas de este montículo a otro.
+         */
+        void volcarEn(MonticuloAcotado otro) {
+            for (int i = 0; i < tamanio; i++) {
+                otro.ofrecer(filas[i]);
+            }
+        }
+
+        void ofrecer(int fila) {
+            if (tamanio < filas.length) {
+                filas[tamanio] = fila;
+                subir(tamanio++);
+            } else if (precede(fila, filas[0])) {
+                filas[0] = fila;
+                bajar(0);
+            }
+        }
+
+        /**
+         * Vacía el montículo y devuelve sus filas de la primera a la última.
+         */
+        int[] extraerOrdenado() {
+            int[] resultado = new int[tamanio];
+            for (int i = resultado.length - 1; i >= 0; i--) {
+                resultado[i] = filas[0];
+                filas[0] = filas[--tamanio];
+                bajar(0);
+            }
+            return resultado;
+        }
+
+        private boolean precede(int fila1, int fila2) {
+            int resultado = claves.comparar(fila1, fila2);
+            return resultado < 0 || (resultado == 0 && fila1 < fila2);
+        }
+
+        private void subir(int posicion) {
+            while (posicion > 0) {
+                int padre = (posicion - 1) / 2;
+                if (!precede(filas[padre], filas[posicion])) {
+                    return;
+                }
+                intercambiar(padre, posicion);
+                posicion = padre;
+            }
+        }
+
+        private void bajar(int posicion) {
+            while (true) {
+                int mayor = posicion;
+                int izquierdo = 2 * posicion + 1;
+                int derecho = izquierdo + 1;
+                if (izquierdo < tamanio && precede(filas[mayor], filas[izquierdo])) {
+                    mayor = izquierdo;
+                }
+                if (derecho < tamanio && precede(filas[mayor], filas[derecho])) {
+                    mayor = derecho;
+                }
+                if (mayor == posicion) {
+                    return;
+                }
+                intercambiar(posicion, mayor);
+                posicion = mayor;
+            }
+        }
+
+        private void intercambiar(int i, int j) {
+            int auxiliar = filas[i];
+            filas[i] = filas[j];
+            filas[j] = auxiliar;
+        }
+    }
+
+    /**
+     * Resuelve las columnas una sola vez, verificando que haya un criterio por columna.
+     */
+    private List<Columna<?>> resolverColumnas(List<String> nombresColumnas, List<Boolean> criteriosAscendentes) {
         if (nombresColumnas.size() != criteriosAscendentes.size()) {
             throw new IllegalArgumentException("La cantidad de columnas y criterios debe coincidir.");
         }
+        List<Columna<?>> columnas = new ArrayList<>(nombresColumnas.size());
+        for (String nombreColumna : nombresColumnas) {
+            Columna<?> columna = obtenerColumna(nombreColumna);
+            if (columna == null) {
+                throw new IllegalArgumentException("Columna no encontrada: " + nombreColumna);
+            }
+            columnas.add(columna);
+        }
+        return columnas;
+    }
 
-        // Crear una lista de comparadores en base a los criterios proporcionados
-        List<Comparator<Integer>> comparadores = new ArrayList<>();
-        for (int i = 0; i < nombresColumnas.size(); i++) {
-            String nombreColumna = nombresColumnas.get(i);
-            boolean ascendente = criteriosAscendentes.get(i);
+    /**
+     * Calcula las claves normalizadas de cada columna.
+     */
+    private static long[][] calcularClaves(List<Columna<?>> columnas, List<Boolean> criteriosAscendentes) {
+        long[][] claves = new long[columnas.size()][];
+        for (int c = 0; c < claves.length; c++) {
+            claves[c] = calcularClaves(columnas.get(c).getAlmacen(), criteriosAscendentes.get(c));
+        }
+        return claves;
+    }
 
-            Comparator<Integer> comparador = (filaIdx1, filaIdx2) -> {
-                Celda<Object> celda1 = obtenerCelda(nombreColumna, filaIdx1);
-                Celda<Object> celda2 = obtenerCelda(nombreColumna, filaIdx2);
+    /**
+     * Ordena las partes de la permutación en paralelo y luego las intercala de a pares, también en paralelo.
+     */
+    private static int[] ordenarEnParalelo(int[] orden, int partes, long[][] claves) {
+        int cantidad = orden.length;
+        int[] limites = new int[partes + 1];
+        for (int p = 0; p <= partes; p++) {
+            limites[p] = (int) ((long) cantidad * p / partes);
+        }
+        IntStream.range(0, partes).parallel().forEach(p -> ordenarParte(orden, limites[p], limites[p + 1], claves));
 
-                if (celda1 == null || celda2 == null) {
-                    throw new IllegalArgumentException("Columna no encontrada: " + nombreColumna);
-                }
+        int[] origen = orden;
+        int[] destino = new int[cantidad];
+        for (int ancho = 1; ancho < partes; ancho *= 2) {
+            final int paso = ancho;
+            final int[] desde = origen;
+            final int[] hacia = destino;
+            IntStream.range(0, (partes + 2 * paso - 1) / (2 * paso)).parallel().forEach(k -> {
+                int izquierda = limites[2 * k * paso];
+                int medio = limites[Math.min(2 * k * paso + paso, partes)];
+                int fin = limites[Math.min(2 * k * paso + 2 * paso, partes)];
+                intercalar(desde, hacia, izquierda, medio, fin, claves);
+            });
+            origen = hacia;
+            destino = desde;
+        }
+        return origen;
+    }
 
-                Comparable valor1 = (Comparable) celda1.getValor();
-                Comparable valor2 = (Comparable) celda2.getValor();
+    /**
+     * Ordena el tramo {@code [desde, hasta)} de la permutación con radix sort LSD estable,
+     * aplicando las columnas de menor a mayor prioridad.
+     */
+    private static void ordenarParte(int[] orden, int desde, int hasta, long[][] claves) {
+        int cantidad = hasta - desde;
+        int[] filas = Arrays.copyOfRange(orden, desde, hasta);
+        int[] filasAux = new int[cantidad];
+        long[] valores = new long[cantidad];
+        long[] valoresAux = new long[cantidad];
+        int[][] conteos = new int[8][257];
 
-                // Manejo de nulls: primero los nulls van al final
-                if (valor1 == null && valor2 == null) return 0;
-                if (valor1 == null) return ascendente ? 1 : -1;  // null al final en orden ascendente
-                if (valor2 == null) return ascendente ? -1 : 1;  // null al final en orden descendente
+        for (int c = claves.length - 1; c >= 0; c--) {
+            long[] clave = claves[c];
+            for (int[] conteo : conteos) {
+                Arrays.fill(conteo, 0);
+            }
+            for (int i = 0; i < cantidad; i++) {
+                long valor = clave[filas[i]];
+                valores[i] = valor;
+                for (int b = 0; b < 8; b++) {
+                    conteos[b][(int) ((valor >>> (8 * b)) & 0xFF) + 1]++;
+                }
+            }
+            for (int b = 0; b < 8; b++) {
+                int[] conteo = conteos[b];
+                // Si todas las claves tienen el mismo byte en esta posición la pasada no cambia el orden
+                if (conteo[(int) ((valores[0] >>> (8 * b)) & 0xFF) + 1] == cantidad) {
+                    continue;
+                }
+                for (int d = 0; d < 256; d++) {
+                    conteo[d + 1] += conteo[d];
+                }
+                for (int i = 0; i < cantidad; i++) {
+                    int destino = conteo[(int) ((valores[i] >>> (8 * b)) & 0xFF)]++;
+                    valoresAux[destino] = valores[i];
+                    filasAux[destino] = filas[i];
+                }
+                long[] valoresTmp = valores;
+                valores = valoresAux;
+                valoresAux = valoresTmp;
+                int[] filasTmp = filas;
+                filas = filasAux;
+                filasAux = filasTmp;
+            }
+        }
+        System.arraycopy(filas, 0, orden, desde, cantidad);
+    }
 
-                // Comparación normal si ambos valores no son null
-                return ascendente ? valor1.compareTo(valor2) : valor2.compareTo(valor1);
-            };
+    /**
+     * Intercala de forma estable los tramos ordenados {@code [izquierda, medio)} y {@code [medio, fin)}
+     * del origen en el destino.
+     */
+    private static void intercalar(int[] origen, int[] destino, int izquierda, int medio, int fin, long[][] claves) {
+        int i = izquierda;
+        int j = medio;
+        int k = izquierda;
+        while (i < medio && j < fin) {
+            if (comparar(origen[j], origen[i], claves) < 0) {
+                destino[k++] = origen[j++];
+            } else {
+                destino[k++] = origen[i++];
+            }
+        }
+        System.arraycopy(origen, i, destino, k, medio - i);
+        System.arraycopy(origen, j, destino, k + medio - i, fin - j);
+    }
 
-            comparadores.add(comparador);
+    /**
+     * Compara dos filas por sus claves normalizadas, columna por columna.
+     */
+    private static int comparar(int fila1, int fila2, long[][] claves) {
+        for (long[] clave : claves) {
+            int resultado = Long.compareUnsigned(clave[fila1], clave[fila2]);
+            if (resultado != 0) {
+                return resultado;
+            }
         }
+        return 0;
+    }
 
-        // Obtener los índices de las filas y ordenarlos usando los comparadores
-        List<Integer> indicesFilas = new ArrayList<>();
-        for (int i = 0; i < tabla.getFilas(); i++) {
-            indicesFilas.add(i);
+    /**
+     * Calcula la clave normalizada de cada fila de una columna. Comparar dos claves como enteros sin signo
+     * equivale a comparar los valores con {@code compareTo}; los nulos reciben la clave máxima.
+     * En orden descendente se invierten todos los bits, con lo que el orden se invierte y los nulos
+     * pasan a ser los primeros.
+     *
+     * @param almacen el almacenamiento de la columna.
+     * @param ascendente si la columna se ordena de forma ascendente.
+     * @return las claves indexadas por fila.
+     */
+    static long[] calcularClaves(AlmacenColumna almacen, boolean ascendente) {
+        int cantidad = almacen.tamanio();
+        AlmacenColumna base = almacen;
+        int[] seleccion = null;
+        if (almacen instanceof AlmacenVista) {
+            base = ((AlmacenVista) almacen).getBase();
+            seleccion = ((AlmacenVista) almacen).getFilas();
         }
+        BitSet nulos = base.getNulos();
+        long[] claves = new long[cantidad];
 
-        indicesFilas.sort((filaIdx1, filaIdx2) -> {
-            for (Comparator<Integer> comparador : comparadores) {
-                int resultado = comparador.compare(filaIdx1, filaIdx2);
-                if (resultado != 0) return resultado;
+        if (base instanceof AlmacenEntero) {
+            AlmacenEntero enteros = (AlmacenEntero) base;
+            for (int i = 0; i < cantidad; i++) {
+                int fila = seleccion == null ? i : seleccion[i];
+                claves[i] = nulos.get(fila) ? CLAVE_NULO : (long) enteros.getEntero(fila) ^ Long.MIN_VALUE;
             }
-            return 0;
-        });
+        } else if (base instanceof AlmacenDecimal) {
+            AlmacenDecimal decimales = (AlmacenDecimal) base;
+            for (int i = 0; i < cantidad; i++) {
+                int fila = seleccion == null ? i : seleccion[i];
+                claves[i] = nulos.get(fila) ? CLAVE_NULO : claveDecimal(decimales.getDecimal(fila));
+            }
+        } else if (base instanceof AlmacenFecha) {
+            AlmacenFecha fechas = (AlmacenFecha) base;
+            for (int i = 0; i < cantidad; i++) {
+                int fila = seleccion == null ? i : seleccion[i];
+                claves[i] = nulos.get(fila) ? CLAVE_NULO : (long) fechas.getDias(fila) ^ Long.MIN_VALUE;
+            }
+        } else if (base instanceof AlmacenBooleano) {
+            AlmacenBooleano booleanos = (AlmacenBooleano) base;
+            for (int i = 0; i < cantidad; i++) {
+                int fila = seleccion == null ? i : seleccion[i];
+                claves[i] = nulos.get(fila) ? CLAVE_NULO : (booleanos.getBooleano(fila) ? 1 : 0);
+            }
+        } else if (base instanceof AlmacenDiccionario) {
+            // Columnas codificadas: la clave es el rango de cada código en el diccionario ordenado
+            AlmacenDiccionario diccionario = (AlmacenDiccionario) base;
+            int[] rangos = diccionario.getRangos();
+            for (int i = 0; i < cantidad; i++) {
+                int fila = seleccion == null ? i : seleccion[i];
+                claves[i] = nulos.get(fila) ? CLAVE_NULO : rangos[diccionario.getCodigo(fila)];
+            }
+        } else if (base instanceof AlmacenTexto) {
+            calcularRangosTexto(almacen, claves);
+        } else {
+            calcularRangos(almacen, claves);
+        }
 
-        return indicesFilas; // Retorna el nuevo orden de índices de las filas
+        if (!ascendente) {
+            for (int i = 0; i < cantidad; i++) {
+                claves[i] = ~claves[i];
+            }
+        }
+        return claves;
     }
 
     /**
-     * Obtiene la celda ubicada en una columna específica y en el índice de fila indicado.
+     * Indica si las claves de un almacenamiento se obtienen directamente de sus valores primitivos, sin comparar
+     * objetos: números, fechas y booleanos, también a través de una vista.
      *
-     * @param nombreColumna El nombre de la columna de la celda.
-     * @param filaIdx       El índice de la fila de la celda.
-     * @return La celda en la columna y fila especificadas, o null si no se encuentra la columna.
+     * @param almacen el almacenamiento de la columna.
+     * @return {@code true} si las claves salen de un arreglo primitivo.
+     */
+    static boolean tieneClavesPrimitivas(AlmacenColumna almacen) {
+        AlmacenColumna base = almacen instanceof AlmacenVista ? ((AlmacenVista) almacen).getBase() : almacen;
+        return base instanceof AlmacenEntero || base instanceof AlmacenDecimal
+                || base instanceof AlmacenFecha || base instanceof AlmacenBooleano;
+    }
+
+    /**
+     * Calcula la clave ascendente de un valor suelto, igual que {@link #calcularClaves(AlmacenColumna, boolean)}
+     * para una columna con claves primitivas, de modo que se pueda buscar entre sus claves.
+     *
+     * @param almacen el almacenamiento de la columna, con claves primitivas.
+     * @param valor el valor, no nulo.
+     * @return la clave del valor.
+     * @throws ClassCastException si el valor no es del tipo de los valores de la columna.
+     */
+    static long calcularClave(AlmacenColumna almacen, Object valor) {
+        AlmacenColumna base = almacen instanceof AlmacenVista ? ((AlmacenVista) almacen).getBase() : almacen;
+        if (base instanceof AlmacenEntero) {
+            return (long) (Integer) valor ^ Long.MIN_VALUE;
+        } else if (base instanceof AlmacenDecimal) {
+            return claveDecimal((Double) valor);
+        } else if (base instanceof AlmacenFecha) {
+            return ((LocalDate) valor).toEpochDay() ^ Long.MIN_VALUE;
+        } else if (base instanceof AlmacenBooleano) {
+            return (Boolean) valor ? 1 : 0;
+        }
+        throw new IllegalArgumentException("La columna no tiene claves primitivas.");
+    }
+
+    /**
+     * Convierte un decimal en una clave cuyo orden sin signo coincide con {@link Double#compare(double, double)}.
+     */
+    static long claveDecimal(double valor) {
+        long bits = Double.doubleToLongBits(valor);
+        return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Calcula como clave de cada fila de una columna de texto la posición de su valor entre los textos distintos
+     * de la columna ordenados. Los textos distintos se ordenan directamente como {@code String[]}, sin ordenar
+     * índices con un comparador que los busque.
+     */
+    private static void calcularRangosTexto(AlmacenColumna almacen, long[] claves) {
+        Map<String, Integer> codigoPorValor = new HashMap<>();
+        String[] distintos = new String[CAPACIDAD_DISTINTOS];
+        int cantDistintos = 0;
+        int[] codigos = new int[claves.length];
+        for (int i = 0; i < claves.length; i++) {
+            String valor = (String) almacen.getValor(i);
+            if (valor == null) {
+                codigos[i] = -1;
+                continue;
+            }
+            Integer codigo = codigoPorValor.putIfAbsent(valor, cantDistintos);
+            if (codigo == null) {
+                codigo = cantDistintos;
+                if (cantDistintos == distintos.length) {
+                    distintos = Arrays.copyOf(distintos, distintos.length * 2);
+                }
+                distintos[cantDistintos++] = valor;
+            }
+            codigos[i] = codigo;
+        }
+
+        String[] ordenados = Arrays.copyOf(distintos, cantDistintos);
+        if (ordenados.length >= UMBRAL_PARALELO) {
+            Arrays.parallelSort(ordenados);
+        } else {
+            Arrays.sort(ordenados);
+        }
+        long[] rangos = new long[cantDistintos];
+        for (int i = 0; i < ordenados.length; i++) {
+            rangos[codigoPorValor.get(ordenados[i])] = i;
+        }
+
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = codigos[i] < 0 ? CLAVE_NULO : rangos[codigos[i]];
+        }
+    }
+
+    /**
+     * Calcula como clave de cada fila el rango de su valor entre los valores distintos de la columna,
+     * ordenados con {@code compareTo}. Los valores que {@code compareTo} considera iguales comparten rango.
      */
-    private Celda<Object> obtenerCelda(String nombreColumna, int filaIdx) {
-        for (Columna<?> columna : tabla.getColumnas()) {
-            if (columna.getNombre().equals(nombreColumna)) {
-                return (Celda<Object>) columna.getCeldas().get(filaIdx);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void calcularRangos(AlmacenColumna almacen, long[] claves) {
+        Map<Object, Integer> codigoPorValor = new HashMap<>();
+        List<Object> distintos = new ArrayList<>();
+        int[] codigos = new int[claves.length];
+        for (int i = 0; i < claves.length; i++) {
+            Object valor = almacen.getValor(i);
+            if (valor == null) {
+                codigos[i] = -1;
+                continue;
+            }
+            Integer codigo = codigoPorValor.get(valor);
+            if (codigo == null) {
+                codigo = distintos.size();
+                codigoPorValor.put(valor, codigo);
+                distintos.add(valor);
             }
+            codigos[i] = codigo;
         }
-        return null;
+
+        Integer[] orden = new Integer[distintos.size()];
+        for (int i = 0; i < orden.length; i++) {
+            orden[i] = i;
+        }
+        Comparator<Integer> comparador = (a, b) -> ((Comparable) distintos.get(a)).compareTo(distintos.get(b));
+        if (orden.length >= UMBRAL_PARALELO) {
+            Arrays.parallelSort(orden, comparador);
+        } else {
+            Arrays.sort(orden, comparador);
+        }
+        long[] rangos = new long[orden.length];
+        for (int i = 1; i < orden.length; i++) {
+            boolean igualAlAnterior = comparador.compare(orden[i - 1], orden[i]) == 0;
+            rangos[orden[i]] = igualAlAnterior ? rangos[orden[i - 1]] : i;
+        }
+
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = codigos[i] < 0 ? CLAVE_NULO : rangos[codigos[i]];
+        }
+    }
+
+    /**
+     * Obtiene la columna con el nombre indicado. Se resuelve una sola vez por criterio de orden,
+     * de modo que las claves se calculan accediendo a los valores directamente por posición.
+     *
+     * @param nombreColumna El nombre de la columna.
+     * @return La columna con ese nombre, o null si no se encuentra.
+     */
+    private Columna<?> obtenerColumna(String nombreColumna) {
+        return tabla.getColumna(nombreColumna);
     }
 }
@@ -0,0 +1,135 @@
+import java.util.Locale;
+
+/**
+ * Presupuesto de memoria del proceso para las tablas. Las operaciones que reservan memoria en proporción a la
+ * cantidad de filas (cargar un CSV, seleccionar, ordenar o eliminar filas, materializar una vista, combinar y
+ * copiar una columna antes de modificarla) estiman primero cuánto van a reservar con {@link EstimacionMemoria}
+ * y lo verifican con {@link #verificar(String, long)}. Si no entra en lo que queda del presupuesto, la operación
+ * falla enseguida con un mensaje que indica cuánto necesitaba y cuánto había disponible, en lugar de avanzar
+ * hasta agotar el heap con un {@link OutOfMemoryError}.
+ * <p>
+ * La memoria en uso incluye los objetos que ya no se usan y todavía no se recolectaron, así que la verificación
+ * es conservadora: puede rechazar una operación que entraría después de la próxima recolección. La biblioteca
+ * no fuerza recolecciones por su cuenta; con {@link #setRecolectarAntesDeRechazar(boolean)} se puede pedir una
+ * antes de rechazar. Por defecto el presupuesto es el heap máximo de la JVM; en un contenedor conviene fijarlo
+ * por debajo del límite de memoria del contenedor.
+ */
+class PresupuestoMemoria {
+    private static volatile long limite = Runtime.getRuntime().maxMemory();
+    private static volatile boolean recolectarAntesDeRechazar = false;
+
+    private PresupuestoMemoria() {
+    }
+
+    /**
+     * Cambia el presupuesto de memoria del proceso. Un presupuesto mayor que el heap máximo de la JVM no tiene
+     * efecto más allá de ese máximo.
+     *
+     * @param bytes la cantidad máxima de bytes del heap que pueden estar en uso.
+     * @throws IllegalArgumentException si la cantidad no es positiva.
+     */
+    public static void setLimite(long bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("El presupuesto de memoria debe ser positivo.");
+        }
+        limite = bytes;
+    }
+
+    /**
+     * Obtiene el presupuesto de memoria del proceso.
+     *
+     * @return el presupuesto en bytes.
+     */
+    public static long getLimite() {
+        return limite;
+    }
+
+    /**
+     * Define si, antes de rechazar una operación, se pide una recolección de basura con {@link System#gc()} y se
+     * vuelve a medir. Está desactivado por defecto, porque una recolección completa detiene toda la aplicación.
+     *
+     * @param recolectar {@code true} para recolectar antes de rechazar una operación.
+     */
+    public static void setRecolectarAntesDeRechazar(boolean recolectar) {
+        recolectarAntesDeRechazar = recolectar;
+    }
+
+    /**
+     * Indica si se pide una recolección de basura antes de rechazar una operación.
+     *
+     * @return {@code true} si se recolecta antes de rechazar.
+     */
+    public static boolean isRecolectarAntesDeRechazar() {
+        return recolectarAntesDeRechazar;
+    }
+
+    /**
+     * Obtiene los bytes del heap en uso, incluidos los objetos que todavía no se recolectaron.
+     *
+     * @return los bytes en uso.
+     */
+    public static long getMemoriaEnUso() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Obtiene los bytes que todavía se pueden reservar sin superar el presupuesto ni el heap máximo.
+     *
+     * @return los bytes disponibles; puede ser negativo si el uso ya supera el presupuesto.
+     */
+    public static long getDisponible() {
+        return Math.min(limite, Runtime.getRuntime().maxMemory()) - getMemoriaEnUso();
+    }
+
+    /**
+     * Verifica que una operación pueda reservar la memoria indicada dentro del presupuesto. La memoria
+     * disponible se mide tal como la informa la JVM, incluida la basura que todavía no se recolectó.
+     *
+     * @param operacion la descripción de lo que se va a reservar, para el mensaje de error.
+     * @param bytesNecesarios la estimación de los bytes a reservar.
+     * @throws IllegalStateException si la memoria necesaria no entra en el presupuesto, con el detalle de
+     *         cuánto se necesitaba, cuánto había disponible y cómo reducirlo.
+     */
+    static void verificar(String operacion, long bytesNecesarios) {
+        long disponible = getDisponible();
+        if (bytesNecesarios <= disponible) {
+            return;
+        }
+        if (recolectarAntesDeRechazar) {
+            System.gc();
+            disponible = getDisponible();
+            if (bytesNecesarios <= disponible) {
+                return;
+            }
+        }
+        Telemetria.contar("memoria.rechazos", 1);
+        throw new IllegalStateException(String.format(Locale.ROOT,
+                "Memoria insuficiente para %s: se necesitan unos %s y quedan %s disponibles "
+                        + "(presupuesto de %s, en uso %s, heap máximo %s). Aumente el presupuesto con "
+                        + "PresupuestoMemoria.setLimite o el heap con -Xmx, trabaje sobre una muestra o guarde la tabla "
+                        + "con guardarEnBinario y ábrala con abrirBinario para leer las columnas desde el disco.",
+                operacion, formatear(bytesNecesarios), formatear(Math.max(0, disponible)), formatear(limite),
+                formatear(getMemoriaEnUso()), formatear(Runtime.getRuntime().maxMemory())));
+    }
+
+    /**
+     * Escribe una cantidad de bytes con la unidad más adecuada.
+     *
+     * @param bytes la cantidad de bytes.
+     * @return la cantidad con su unidad, por ejemplo {@code "1.5 GB"}.
+     */
+    static String formatear(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        String[] unidades = {"KB", "MB", "GB", "TB"};
+        double valor = bytes;
+        int unidad = -1;
+        while (valor >= 1024 && unidad < unidades.length - 1) {
+            valor /= 1024;
+            unidad++;
+        }
+        return String.format(Locale.ROOT, "%.1f %s", valor, unidades[unidad]);
+    }
+}
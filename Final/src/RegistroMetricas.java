@@ -0,0 +1,35 @@
+/**
+ * Registro de métricas de las operaciones: contadores y latencias. {@link Telemetria} le informa cada operación
+ * medida; la implementación por defecto es {@link RegistroMetricasMemoria}, y se puede reemplazar con
+ * {@link Telemetria#setRegistro(RegistroMetricas)}, por ejemplo para reenviar las métricas a otro sistema.
+ * Las implementaciones deben admitir llamadas desde varios hilos a la vez.
+ */
+interface RegistroMetricas {
+    /**
+     * Suma una cantidad a un contador.
+     *
+     * @param contador el nombre del contador.
+     * @param cantidad la cantidad a sumar.
+     */
+    void incrementar(String contador, long cantidad);
+
+    /**
+     * Registra la duración de una ejecución de una operación.
+     *
+     * @param operacion el nombre de la operación.
+     * @param nanos la duración en nanosegundos.
+     */
+    void registrarLatencia(String operacion, long nanos);
+
+    /**
+     * Descarta todas las métricas registradas.
+     */
+    void reiniciar();
+
+    /**
+     * Exporta las métricas registradas en formato JSON.
+     *
+     * @return el JSON con los contadores y las latencias.
+     */
+    String aJson();
+}
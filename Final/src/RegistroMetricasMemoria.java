@@ -0,0 +1,74 @@
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de métricas que las guarda en memoria: un contador por nombre y un {@link HistogramaLatencias}
+ * por operación. Es el registro que usa {@link Telemetria} salvo que se configure otro.
+ */
+class RegistroMetricasMemoria implements RegistroMetricas {
+    private final Map<String, LongAdder> contadores = new ConcurrentHashMap<>();
+    private final Map<String, HistogramaLatencias> latencias = new ConcurrentHashMap<>();
+
+    @Override
+    public void incrementar(String contador, long cantidad) {
+        contadores.computeIfAbsent(contador, nombre -> new LongAdder()).add(cantidad);
+    }
+
+    @Override
+    public void registrarLatencia(String operacion, long nanos) {
+        latencias.computeIfAbsent(operacion, nombre -> new HistogramaLatencias()).registrar(nanos);
+    }
+
+    /**
+     * Obtiene el valor actual de un contador.
+     *
+     * @param contador el nombre del contador.
+     * @return el valor, o 0 si nunca se incrementó.
+     */
+    public long getContador(String contador) {
+        LongAdder valor = contadores.get(contador);
+        return valor == null ? 0 : valor.sum();
+    }
+
+    /**
+     * Obtiene el histograma de latencias de una operación.
+     *
+     * @param operacion el nombre de la operación.
+     * @return el histograma, o {@code null} si la operación no se registró.
+     */
+    public HistogramaLatencias getLatencias(String operacion) {
+        return latencias.get(operacion);
+    }
+
+    @Override
+    public void reiniciar() {
+        contadores.clear();
+        latencias.clear();
+    }
+
+    /**
+     * Exporta los contadores y las latencias, ordenados por nombre.
+     */
+    @Override
+    public String aJson() {
+        StringBuilder json = new StringBuilder("{\n  \"contadores\": {");
+        String separador = "\n";
+        for (Map.Entry<String, LongAdder> contador : new TreeMap<>(contadores).entrySet()) {
+            json.append(separador).append("    \"").append(escapar(contador.getKey())).append("\": ").append(contador.getValue().sum());
+            separador = ",\n";
+        }
+        json.append("\n  },\n  \"latencias\": {");
+        separador = "\n";
+        for (Map.Entry<String, HistogramaLatencias> operacion : new TreeMap<>(latencias).entrySet()) {
+            json.append(separador).append("    \"").append(escapar(operacion.getKey())).append("\": ").append(operacion.getValue().aJson());
+            separador = ",\n";
+        }
+        return json.append("\n  }\n}\n").toString();
+    }
+
+    private static String escapar(String texto) {
+        return texto.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,109 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Registro de los valores que no pudieron convertirse al tipo de su columna durante la carga
+ * de un archivo. Esos valores se cargan como nulos. Para no consumir memoria con datos muy sucios,
+ * sólo se guarda el detalle de los primeros rechazos; el total siempre se cuenta.
+ */
+class ReporteCarga {
+    static final int MAXIMO_DETALLES = 1000;
+
+    private final List<Rechazo> rechazos;
+    private long cantidadRechazos;
+
+    /**
+     * Constructor que crea un reporte vacío.
+     */
+    public ReporteCarga() {
+        this.rechazos = new ArrayList<>();
+        this.cantidadRechazos = 0;
+    }
+
+    /**
+     * Registra un valor rechazado.
+     *
+     * @param fila el índice de la fila (sin contar la cabecera) donde está el valor.
+     * @param columna el nombre de la columna.
+     * @param tipoEsperado el tipo inferido para la columna.
+     * @param texto el texto original del campo.
+     */
+    public void registrar(long fila, String columna, TipoColumna tipoEsperado, String texto) {
+        if (rechazos.size() < MAXIMO_DETALLES) {
+            rechazos.add(new Rechazo(fila, columna, tipoEsperado, texto));
+        }
+        cantidadRechazos++;
+    }
+
+    /**
+     * Agrega los rechazos de otro reporte, desplazando sus índices de fila.
+     *
+     * @param otro el reporte a anexar.
+     * @param desplazamientoFilas la cantidad de filas que preceden a las del otro reporte.
+     */
+    public void anexar(ReporteCarga otro, long desplazamientoFilas) {
+        for (Rechazo rechazo : otro.rechazos) {
+            if (rechazos.size() < MAXIMO_DETALLES) {
+                rechazos.add(new Rechazo(rechazo.fila + desplazamientoFilas, rechazo.columna, rechazo.tipoEsperado, rechazo.texto));
+            }
+        }
+        cantidadRechazos += otro.cantidadRechazos;
+    }
+
+    /**
+     * Obtiene la cantidad total de valores rechazados.
+     *
+     * @return la cantidad de rechazos.
+     */
+    public long getCantidadRechazos() {
+        return cantidadRechazos;
+    }
+
+    /**
+     * Obtiene el detalle de los primeros valores rechazados.
+     *
+     * @return la lista de rechazos, como máximo {@value #MAXIMO_DETALLES}.
+     */
+    public List<Rechazo> getRechazos() {
+        return Collections.unmodifiableList(rechazos);
+    }
+
+    /**
+     * Un valor que no pudo convertirse al tipo de su columna.
+     */
+    static class Rechazo {
+        private final long fila;
+        private final String columna;
+        private final TipoColumna tipoEsperado;
+        private final String texto;
+
+        Rechazo(long fila, String columna, TipoColumna tipoEsperado, String texto) {
+            this.fila = fila;
+            this.columna = columna;
+            this.tipoEsperado = tipoEsperado;
+            this.texto = texto;
+        }
+
+        public long getFila() {
+            return fila;
+        }
+
+        public String getColumna() {
+            return columna;
+        }
+
+        public TipoColumna getTipoEsperado() {
+            return tipoEsperado;
+        }
+
+        public String getTexto() {
+            return texto;
+        }
+
+        @Override
+        public String toString() {
+            return "Fila " + fila + ", columna '" + columna + "': '" + texto + "' no es " + tipoEsperado;
+        }
+    }
+}
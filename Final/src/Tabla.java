@@ -1,8 +1,15 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
 
 import javax.print.attribute.standard.MediaSize.NA;
 import javax.swing.*;
@@ -13,6 +20,10 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
     private List<Columna<?>> columnas;
     private int cantColumnas;
     private int cantFilas;
+    private volatile Map<String, Columna<?>> columnasPorNombre = new HashMap<>();
+    private volatile int columnasIndexadas = -1;
+    private final Map<String, IndiceHash> indices = new HashMap<>();
+    private final Map<String, IndiceOrdenado> indicesOrdenados = new HashMap<>();
 
     /**
      * Constructor de la clase Tabla que inicializa una tabla a partir de un archivo CSV.
@@ -23,13 +34,36 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
      *                     Este archivo se leerá para poblar las columnas y filas de la tabla.
      */
     public Tabla(String nombreTabla, String rutaArchivo) {
+        Medicion medicion = Telemetria.iniciar("cargarCSV", null);
         this.nombreTabla = nombreTabla;
         this.columnas = new ArrayList<>();
         ArchivoCSV archivoCSV = new ArchivoCSV(rutaArchivo);
         cargarDatosTabla(archivoCSV);
         this.cantColumnas = columnas.size();
         setCantFilas();
-        
+        medicion.terminar(this);
+    }
+    /**
+     * Constructor de la clase Tabla que inicializa una tabla con una muestra aleatoria de los registros de un
+     * archivo CSV, sin cargar el archivo completo. Útil para analizar exportaciones que no entran en memoria.
+     *
+     * @param nombreTabla El nombre asignado a la tabla.
+     * @param rutaArchivo Ruta del archivo CSV desde el cual se tomará la muestra.
+     * @param tamanioMuestra La cantidad de registros de la muestra; si el archivo tiene menos se cargan todos.
+     * @param semilla La semilla del muestreo; la misma semilla elige los mismos registros.
+     * @throws IllegalArgumentException Si el tamaño de la muestra es negativo.
+     */
+    public Tabla(String nombreTabla, String rutaArchivo, int tamanioMuestra, long semilla) {
+        if (tamanioMuestra < 0) {
+            throw new IllegalArgumentException("El tamaño de la muestra no puede ser negativo.");
+        }
+        Medicion medicion = Telemetria.iniciar("cargarMuestraCSV", null);
+        this.nombreTabla = nombreTabla;
+        this.columnas = new ArrayList<>();
+        cargarDatosTabla(new ArchivoCSV(rutaArchivo, tamanioMuestra, semilla));
+        this.cantColumnas = columnas.size();
+        setCantFilas();
+        medicion.terminar(this);
     }
     /**
      * Constructor de la clase Tabla que inicializa una tabla con columnas vacías,
@@ -66,18 +100,20 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
 
         // Crear columnas usando los nombres en la primera fila
         for (int i = 0; i < datos[0].length; i++) {
-            List<Celda<Object>> celdas = new ArrayList<>();
+            Columna<Object> columna = new Columna<>(datos[0][i].toString());
             for (int j = 1; j < datos.length; j++) { // Empezamos en la segunda fila para obtener datos
-                celdas.add(new Celda<>(datos[j][i],datos[0][i].toString(),celdas.size()));
+                columna.cargarValor(datos[j][i]);
             }
-            columnas.add(new Columna<>(datos[0][i].toString(), celdas));
+            columnas.add(columna);
         }
         this.cantColumnas = columnas.size();
         setCantFilas();
     }
     /**
-     * Constructor de copia profunda que crea una nueva tabla a partir de otra tabla existente.
-     * Se copian los datos y las columnas de la tabla original a la nueva tabla.
+     * Constructor de copia que crea una nueva tabla a partir de otra tabla existente.
+     * Las columnas de ambas tablas comparten sus almacenamientos y cada columna se copia recién cuando
+     * se modifica en alguna de las dos, por lo que copiar la tabla cuesta lo mismo que la cantidad de
+     * columnas y las versiones de una tabla sólo duplican las columnas que cambian.
      *
      * @param otraTabla La tabla original que se va a copiar.
      */
@@ -89,6 +125,7 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
         }
         this.cantColumnas = columnas.size();
         setCantFilas();
+        otraTabla.heredarIndices(this);
     }
     /**
      * Constructor que crea una tabla a partir de una lista de nombres de columnas y una lista de datos lineales.
@@ -117,8 +154,7 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
         // Distribuir los datos en las columnas
         for (int i = 0; i < datosLineales.size(); i++) {
             int colIndex = i % numColumnas;
-            Columna<Object> columna = (Columna<Object>) columnas.get(colIndex);
-            columna.addCelda(new Celda<>(datosLineales.get(i),columna.getNombre(),i));
+            columnas.get(colIndex).agregarValor(datosLineales.get(i));
         }
         this.cantColumnas = columnas.size();
         setCantFilas();
@@ -131,56 +167,99 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
      * @param tabla1 La primera tabla a concatenar.
      * @param tabla2 La segunda tabla a concatenar.
      * @throws IllegalArgumentException Si las tablas no tienen el mismo número de columnas o columnas incompatibles.
+     * @see #Tabla(String, Tabla...)
      */
     public Tabla(String nombre,Tabla tabla1, Tabla tabla2) {
-        // Verificar que las tablas tengan las mismas columnas (cantidad y nombres)
-        if (!sonColumnasCompatibles(tabla1, tabla2)) {
-            throw new IllegalArgumentException("Las tablas no tienen las mismas columnas o tipos de datos.");
+        this(nombre, new Tabla[] {tabla1, tabla2});
+    }
+    /**
+     * Constructor que crea una tabla concatenando, en orden, las filas de varias tablas con las mismas columnas.
+     * Las columnas de la nueva tabla enlazan los almacenamientos de las tablas originales sin copiar sus valores,
+     * por lo que concatenar N tablas cuesta lo mismo que la cantidad de tablas y no que la cantidad de filas.
+     * Cada columna se compacta en un único almacenamiento recién cuando se modifica o cuando una operación
+     * (ordenar, agrupar, combinar, indexar) necesita sus arreglos; las tablas originales no se ven afectadas.
+     *
+     * @param nombre El nombre asignado a la tabla concatenada.
+     * @param tablas Las tablas a concatenar, al menos una.
+     * @throws IllegalArgumentException Si no hay tablas, o si no tienen las mismas columnas (en cantidad, orden y nombre)
+     *         con el mismo tipo de dato. Las columnas que sólo tienen nulos son compatibles con cualquier tipo.
+     */
+    public Tabla(String nombre, Tabla... tablas) {
+        this(nombre, tablas, Telemetria.iniciar("concatenar", nombre, contarFilas(tablas), tablas.length == 0 ? 0 : tablas[0].cantColumnas));
+    }
+    private Tabla(String nombre, Tabla[] tablas, Medicion medicion) {
+        this(nombre, contarFilas(tablas), enlazarColumnas(tablas));
+        medicion.terminar(this);
+    }
+    /**
+     * Concatena, en orden, las filas de una lista de tablas con las mismas columnas, sin copiar sus valores.
+     *
+     * @param nombre El nombre asignado a la tabla concatenada.
+     * @param tablas Las tablas a concatenar, al menos una.
+     * @return Una nueva tabla con las filas de todas las tablas.
+     * @throws IllegalArgumentException Si no hay tablas o no tienen columnas compatibles.
+     * @see #Tabla(String, Tabla...)
+     */
+    public static Tabla concatenar(String nombre, List<Tabla> tablas) {
+        return new Tabla(nombre, tablas.toArray(new Tabla[0]));
+    }
+    /**
+     * Enlaza las columnas de las tablas a concatenar, verificando antes que sean compatibles.
+     */
+    private static List<Columna<?>> enlazarColumnas(Tabla[] tablas) {
+        if (tablas.length == 0) {
+            throw new IllegalArgumentException("Se necesita al menos una tabla para concatenar.");
         }
-    
-        // Inicializar el nombre de la tabla concatenada
-        this.nombreTabla = nombre;
-        this.columnas = new ArrayList<>();
-        // Copiar las columnas de la primera tabla (sin datos)
-        for (Columna<?> columna : tabla1.columnas) {
-            this.columnas.add(new Columna<>(columna.getNombre()));
+        for (int t = 1; t < tablas.length; t++) {
+            if (!sonColumnasCompatibles(tablas[0], tablas[t])) {
+                throw new IllegalArgumentException("Las tablas no tienen las mismas columnas o tipos de datos.");
+            }
+        }
+        List<Columna<?>> columnasEnlazadas = new ArrayList<>();
+        for (int c = 0; c < tablas[0].columnas.size(); c++) {
+            List<Columna<?>> partes = new ArrayList<>(tablas.length);
+            for (Tabla tabla : tablas) {
+                partes.add(tabla.columnas.get(c));
+            }
+            columnasEnlazadas.add(Columna.enlazar(tablas[0].columnas.get(c).getNombre(), partes));
         }
-        //Actualizar cantidad de colunas
+        return columnasEnlazadas;
+    }
+    private static int contarFilas(Tabla[] tablas) {
+        int filas = 0;
+        for (Tabla tabla : tablas) {
+            filas = Math.addExact(filas, tabla.cantFilas);
+        }
+        return filas;
+    }
+    /**
+     * Constructor interno que crea una tabla a partir de columnas ya construidas.
+     *
+     * @param nombreTabla El nombre de la tabla.
+     * @param cantFilas La cantidad de filas de las columnas.
+     * @param columnas Las columnas de la tabla, todas con la misma cantidad de filas.
+     */
+    Tabla(String nombreTabla, int cantFilas, List<Columna<?>> columnas) {
+        this.nombreTabla = nombreTabla;
+        this.columnas = columnas;
         this.cantColumnas = columnas.size();
-        // Copiar filas de la primera tabla
-        copiarFilas(tabla1);
-        // Copiar filas de la segunda tabla
-        copiarFilas(tabla2);
-        //Actulizar cantidad de filas
-        setCantFilas();
+        this.cantFilas = cantFilas;
     }
     /**
      * Carga los datos de la tabla a partir de un archivo CSV.
-     * Los datos del archivo CSV se almacenan en un mapa, donde las claves son los nombres de las columnas
-     * y los valores son las listas de objetos correspondientes a los valores de cada columna.
-     * Para cada columna en el archivo CSV, se crea una nueva columna en la tabla.
+     * El archivo CSV ya entrega las columnas construidas, por lo que se agregan a la tabla sin copiar sus datos.
      *
      * @param archivoCSV El objeto que contiene los datos del archivo CSV a cargar en la tabla.
      */
     public void cargarDatosTabla(ArchivoCSV archivoCSV) {
-        Map<String, List<Object>> datos = archivoCSV.getMap();
-
-        for (Map.Entry<String, List<Object>> entry : datos.entrySet()) {
-            List<Celda<Object>> celdas = new ArrayList<>();
-            for (Object valor : entry.getValue()) {
-                celdas.add(new Celda<>(valor,entry.getKey(),celdas.size()));
-            }
-            Columna<Object> nuevaColumna = new Columna<>(entry.getKey(), celdas);
-            columnas.add(nuevaColumna);
-        }
-
+        columnas.addAll(archivoCSV.getColumnas());
     }
     /**
      * Establece la cantidad de filas en la tabla, basándose en la cantidad de celdas de la primera columna.
      * Este método asume que todas las columnas tienen la misma cantidad de filas.
      */
     public void setCantFilas (){
-        this.cantFilas = columnas.get(0).getCeldas().size(); 
+        this.cantFilas = columnas.isEmpty() ? 0 : columnas.get(0).getTamanio();
     }
     /**
      * Agrega una nueva columna a la tabla, verificando que la longitud de la nueva columna coincida
@@ -191,7 +270,7 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
      */
     @Override
     public void agregarColumna(Columna columna) {
-        if (columna.getCeldas().size() != cantFilas) {
+        if (columna.getTamanio() != cantFilas) {
             throw new IllegalArgumentException("La longitud de la nueva columna debe coincidir con el número de filas de la tabla.");
         }
         columnas.add(columna);
@@ -213,15 +292,11 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
             throw new IllegalArgumentException("La longitud de la nueva columna debe coincidir con el número de filas de la tabla.");
         }
 
-        // Crear una lista de celdas a partir del arreglo
-        List<Celda<Object>> celdas = new ArrayList<>();
-        for (int i = 0; i < nuevaColumnaArray.length; i++) {
-            Object valorCelda = nuevaColumnaArray[i];
-            celdas.add(new Celda<>(valorCelda, nombre, i));  // Crear cada celda con el valor, nombre de columna e índice
+        // Crear la nueva columna a partir del arreglo y añadirla a la tabla
+        Columna<Object> columna = new Columna<>(nombre);
+        for (Object valorCelda : nuevaColumnaArray) {
+            columna.cargarValor(valorCelda);
         }
-
-        // Crear la nueva columna y añadirla a la tabla
-        Columna<Object> columna = new Columna<>(nombre, celdas);
         columnas.add(columna);
 
         // Actualizar el conteo de columnas
@@ -240,10 +315,14 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
             throw new IllegalArgumentException("La cantidad de valores no coincide con el número de columnas.");
         }
     
-        // Agregar los valores a las columnas correspondientes
+        // Agregar los valores a las columnas correspondientes, manteniendo los índices vigentes
         for (int i = 0; i < valores.size(); i++) {
-            Columna<Object> columna = (Columna<Object>) columnas.get(i);
-            columna.addCelda(new Celda<>(valores.get(i), columna.getNombre(), columna.getCeldas().size()));
+            Columna<?> columna = columnas.get(i);
+            IndiceHash indice = indiceVigente(columna);
+            columna.agregarValor(valores.get(i));
+            if (indice != null) {
+                indice.agregarFila(valores.get(i), cantFilas);
+            }
         }
     
         // Actualizar el número de filas
@@ -258,6 +337,7 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
      *         Si la columna no se encuentra, la tabla original se devuelve sin cambios.
      */
     public Tabla eliminarColumna(String nombreColumna) {
+        Medicion medicion = Telemetria.iniciar("eliminarColumna", this);
         Tabla nuevaTabla = new Tabla(this);
         Columna<?> columnaAEliminar = null;
     
@@ -272,12 +352,11 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
         // Si se encuentra la columna, eliminarla de la lista de columnas
         if (columnaAEliminar != null) {
             nuevaTabla.columnas.remove(columnaAEliminar);
-            cantColumnas = nuevaTabla.columnas.size(); // Actualizar la cantidad de columnas
+            nuevaTabla.cantColumnas = nuevaTabla.columnas.size(); // Actualizar la cantidad de columnas
         } else {
-            System.out.println("La columna '" + nombreColumna + "' no existe en la tabla.");
+            Telemetria.informar("La columna '" + nombreColumna + "' no existe en la tabla.");
         }
-        nuevaTabla.actualizarIndices();
-        return nuevaTabla;
+        return medicion.terminar(nuevaTabla);
     }
     /**
      * Elimina una fila específica de la tabla según su índice.
@@ -286,42 +365,100 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
      * @throws IndexOutOfBoundsException Si el índice está fuera del rango de filas.
      */
     public Tabla eliminarFila(int indiceFila) {
-        Tabla nuevaTabla = new Tabla (this);
         // Verificar si el índice de la fila es válido
-        if (indiceFila < 0 || indiceFila >= nuevaTabla.cantFilas) {
+        if (indiceFila < 0 || indiceFila >= cantFilas) {
             throw new IndexOutOfBoundsException("Índice de fila fuera de rango.");
         }
-    
-        // Eliminar la celda correspondiente en cada columna
-        for (Columna<?> columna : nuevaTabla.columnas) {
-            columna.eliminarFila(indiceFila);
+        Medicion medicion = Telemetria.iniciar("eliminarFila", this);
+        BitSet filas = new BitSet(cantFilas);
+        filas.set(indiceFila);
+        return medicion.terminar(quitarFilas(filas));
+    }
+    /**
+     * Elimina en una nueva tabla todas las filas cuyos índices están marcados en el mapa de bits.
+     * Cada columna se compacta en una única pasada lineal, copiando en bloque los tramos de filas
+     * que se conservan. Si la tabla es una vista, sólo se achica su vector de selección.
+     *
+     * @param filas El mapa de bits con los índices de las filas a eliminar.
+     * @return Una nueva instancia de Tabla sin las filas indicadas.
+     * @throws IndexOutOfBoundsException Si algún índice está fuera del rango de filas.
+     */
+    @Override
+    public Tabla eliminarFilas(BitSet filas) {
+        if (filas.length() > cantFilas) {
+            throw new IndexOutOfBoundsException("Índice de fila fuera de rango.");
+        }
+        Medicion medicion = Telemetria.iniciar("eliminarFilas", this);
+        return medicion.terminar(quitarFilas(filas));
+    }
+    /**
+     * Elimina las filas marcadas en el mapa de bits sin medir la operación, para las operaciones que la usan
+     * como parte de su trabajo y se miden por su cuenta.
+     */
+    private Tabla quitarFilas(BitSet filas) {
+        int filasRestantes = cantFilas - filas.cardinality();
+        long bytes = 0;
+        for (Columna<?> columna : columnas) {
+            if (!columna.esVista()) {
+                bytes += columna.estimarCopia(filasRestantes);
+            }
+        }
+        PresupuestoMemoria.verificar("eliminar filas de la tabla '" + nombreTabla + "' (quedan " + filasRestantes + " filas)", bytes);
+        int[] restantes = null;
+        Map<int[], int[]> seleccionesCompuestas = new IdentityHashMap<>();
+        List<Columna<?>> columnasRestantes = new ArrayList<>();
+        for (Columna<?> columna : columnas) {
+            if (columna.esVista()) {
+                if (restantes == null) {
+                    restantes = filasNoMarcadas(filas);
+                }
+                columnasRestantes.add(vistaDeColumna(columna, restantes, seleccionesCompuestas));
+            } else {
+                columnasRestantes.add(columna.eliminarFilas(filas));
+            }
         }
-        nuevaTabla.actualizarIndices();
-        nuevaTabla.cantFilas--; // Actualizar la cantidad de filas
+        Tabla nuevaTabla = new Tabla(nombreTabla, filasRestantes, columnasRestantes);
+        heredarIndices(nuevaTabla);
         return nuevaTabla;
     }
-
     /**
-     * Actualiza los índices de cada columna después de la eliminación de una fila o columna.
-     * <p>
-     * Este método se llama cuando una fila o columna es eliminada de la tabla. Para cada columna,
-     * se ajustan los índices de las celdas para reflejar la eliminación del índice especificado.
-     * </p>
+     * Elimina en una nueva tabla todas las filas cuyos índices están en el conjunto.
+     *
+     * @param indices El conjunto de índices de las filas a eliminar.
+     * @return Una nueva instancia de Tabla sin las filas indicadas.
+     * @throws IndexOutOfBoundsException Si algún índice está fuera del rango de filas.
      */
-    public void actualizarIndices() {
-        for (Columna columna : columnas) {
-            columna.actualizarIndices();  
+    public Tabla eliminarFilas(Set<Integer> indices) {
+        BitSet filas = new BitSet(cantFilas);
+        for (int indice : indices) {
+            if (indice < 0 || indice >= cantFilas) {
+                throw new IndexOutOfBoundsException("Índice de fila fuera de rango.");
+            }
+            filas.set(indice);
         }
+        Medicion medicion = Telemetria.iniciar("eliminarFilas", this);
+        return medicion.terminar(quitarFilas(filas));
     }
-    
+    /**
+     * Obtiene, en orden, los índices de las filas que no están marcadas en el mapa de bits.
+     */
+    private int[] filasNoMarcadas(BitSet filas) {
+        int[] restantes = new int[cantFilas - filas.cardinality()];
+        int cantidad = 0;
+        for (int i = filas.nextClearBit(0); i < cantFilas; i = filas.nextClearBit(i + 1)) {
+            restantes[cantidad++] = i;
+        }
+        return restantes;
+    }
+
     /**
      * Muestra en consola el tipo de dato de cada columna en la tabla.
-     * Recorre todas las columnas de la tabla y llama al método {@link Columna#getTipoDeDato()} 
-     * para cada una de ellas, mostrando el tipo de dato de cada columna en la consola.
+     * Recorre todas las columnas de la tabla y obtiene el tipo de dato de cada una con
+     * {@link Columna#getTipoDeDato()}, mostrándolo con {@link Telemetria#informar(String)}.
      */
     public void getTipoDato(){
         for (Columna<?> columna : columnas) {
-            columna.getTipoDeDato();           
+            informarTipoDato(columna);
         }
     }
 
@@ -335,11 +472,20 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
     public void getTipoDato (String nombreColumna) {
         for (Columna<?> columna : columnas) {
             if (columna.getNombre().equals(nombreColumna)) {
-                columna.getTipoDeDato();
-                break;
+                informarTipoDato(columna);
+                return;
             }
         }
-        System.out.println("La columna '" + nombreColumna + "' no existe en la tabla.");
+        Telemetria.informar("La columna '" + nombreColumna + "' no existe en la tabla.");
+    }
+
+    private static void informarTipoDato(Columna<?> columna) {
+        Class<?> tipo = columna.getTipoDeDato();
+        if (tipo != null) {
+            Telemetria.informar(columna.getNombre() + " es: " + tipo.getSimpleName());
+        } else {
+            Telemetria.informar("La columna " + columna.getNombre() + " está vacía o contiene solo valores nulos.");
+        }
     }
     
     /**
@@ -353,13 +499,14 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
      */
     @Override
     public Tabla reasignarValor(String nombre,int indice, Object nuevoValor){
+        Medicion medicion = Telemetria.iniciar("reasignarValor", this);
         Tabla nuevaTabla = new Tabla(this);
         for (Columna columna : nuevaTabla.columnas){
             if (columna.getNombre().equals(nombre)){
                 columna.modificarValor(indice, nuevoValor);
             }
         }
-        return nuevaTabla;
+        return medicion.terminar(nuevaTabla);
     }
     /**
      * Muestra todas las celdas que contienen valores nulos (NA).
@@ -368,11 +515,11 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
      */
     @Override
     public void mostrarNAs() {
-        List<Celda<Object>> hayNAs = leerNAs();
-        if (hayNAs.isEmpty()) {
+        if (contarNAs() == 0) {
             JOptionPane.showMessageDialog(null, "No hay valores NA en la tabla " + nombreTabla + ".");
             return;
         }
+        List<Celda<Object>> hayNAs = leerNAs();
 
         String[] nombresColumnas = {"Columna", "Fila", "Valor"};
         String[][] datos = new String[hayNAs.size()][3];
@@ -389,36 +536,36 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
     }
     /**
      * Elimina todas las filas que contienen valores NA en una nueva tabla.
+     * Las filas a eliminar se obtienen uniendo los mapas de bits de nulos de todas las columnas,
+     * y se eliminan en una única pasada con {@link #eliminarFilas(BitSet)}.
      * Si no existen valores NA en la tabla, muestra un mensaje y devuelve null.
      * 
      * @return Una nueva instancia de Tabla sin las filas con valores NA. Si no hay valores NA, devuelve null.
      */
     @Override
     public Tabla eliminarFilasConNAs() {
-        Tabla nuevaTabla = new Tabla(this);
-        List<Celda<Object>> celdasNAs = leerNAs();
-        if (celdasNAs.isEmpty()) {
-            System.out.println("No hay valores NA en la tabla.");
-            return null;
+        Medicion medicion = Telemetria.iniciar("eliminarFilasConNAs", this);
+        BitSet filasConNAs = new BitSet(cantFilas);
+        for (Columna<?> columna : columnas) {
+            if (columna.contarNulos() > 0) {
+                filasConNAs.or(columna.getNulos());
+            }
         }
-
-        // Obtener índices únicos en orden descendente para eliminar correctamente
-        List<Integer> indices = celdasNAs.stream()
-            .map(Celda::getIndice)
-            .distinct()
-            .sorted((a, b) -> b - a)  // Ordenar en orden descendente
-            .toList();
-
-        // Eliminar filas en orden descendente
-        for (Integer indice : indices) {
-            nuevaTabla = nuevaTabla.eliminarFila(indice);
+        if (filasConNAs.isEmpty()) {
+            Telemetria.informar("No hay valores NA en la tabla.");
+            medicion.terminar();
+            return null;
         }
 
-        System.out.println("Se eliminaron " + indices.size() + " filas con valores NA.");
-        return nuevaTabla;
+        Tabla nuevaTabla = quitarFilas(filasConNAs);
+        Telemetria.contar("eliminarFilasConNAs.filasEliminadas", filasConNAs.cardinality());
+        Telemetria.informar("Se eliminaron " + filasConNAs.cardinality() + " filas con valores NA.");
+        return medicion.terminar(nuevaTabla);
     }
     /**
      * Elimina las filas que contienen valores NA en una columna específica.
+     * Las filas a eliminar son las marcadas en el mapa de bits de nulos de la columna,
+     * y se eliminan en una única pasada con {@link #eliminarFilas(BitSet)}.
      * Si no existen valores NA en la columna, muestra un mensaje y devuelve null.
      * 
      * @param nombreColumna El nombre de la columna en la que se buscarán valores NA.
@@ -427,75 +574,50 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
      */
     @Override
     public Tabla eliminarFilasConNAs(String nombreColumna) {
-        Tabla nuevaTabla = new Tabla(this);
-        int cantEliminadas = 0;
-    
-        // Filtrar solo las celdas NA de la columna indicada
-        List<Celda<Object>> celdasNAs = leerNAs()
-            .stream()
-            .filter(celda -> celda.getNombreColumna().equals(nombreColumna))
-            .toList();
+        Medicion medicion = Telemetria.iniciar("eliminarFilasConNAs", this);
+        Columna<?> columnaNAs = getColumna(nombreColumna);
+        BitSet filasConNAs = columnaNAs == null || columnaNAs.contarNulos() == 0 ? new BitSet() : columnaNAs.getNulos();
     
-        if (celdasNAs.isEmpty()) {
-            System.out.println("No hay valores NA en la columna " + nombreColumna);
+        if (filasConNAs.isEmpty()) {
+            Telemetria.informar("No hay valores NA en la columna " + nombreColumna);
+            medicion.terminar();
             return null;
         }
     
-        // Obtener índices de las filas que tienen NA en la columna específica, en orden descendente
-        List<Integer> indices = celdasNAs.stream()
-            .map(Celda::getIndice)
-            .distinct()
-            .sorted((a, b) -> b - a)  // Orden descendente
-            .toList();
-    
-        // Eliminar filas en el nuevo objeto de tabla en orden descendente
-        for (Integer indice : indices) {
-            nuevaTabla = nuevaTabla.eliminarFila(indice);
-            cantEliminadas++;
-        }
-    
-        System.out.println("Se eliminaron " + cantEliminadas + " filas con valores NA de la columna " + nombreColumna);
-        return nuevaTabla;
+        Tabla nuevaTabla = quitarFilas(filasConNAs);
+        Telemetria.contar("eliminarFilasConNAs.filasEliminadas", filasConNAs.cardinality());
+        Telemetria.informar("Se eliminaron " + filasConNAs.cardinality() + " filas con valores NA de la columna " + nombreColumna);
+        return medicion.terminar(nuevaTabla);
     }
     /**
      * Verifica si las columnas de dos tablas son compatibles.
-     * Las columnas se consideran compatibles si tienen el mismo nombre y tipo de dato.
+     * Las columnas se consideran compatibles si tienen el mismo nombre y tipo de dato. El tipo se toma del
+     * almacenamiento de cada columna, sin recorrer ni imprimir sus valores; una columna que sólo tiene nulos
+     * es compatible con cualquier tipo.
      *
      * @param tabla1 La primera tabla a comparar.
      * @param tabla2 La segunda tabla a comparar.
      * @return true si las columnas son compatibles, false si no lo son.
      */
-    private boolean sonColumnasCompatibles(Tabla tabla1, Tabla tabla2) {
-        if (tabla1.cantColumnas != tabla2.cantColumnas) {
+    private static boolean sonColumnasCompatibles(Tabla tabla1, Tabla tabla2) {
+        if (tabla1.columnas.size() != tabla2.columnas.size()) {
             return false;
         }
 
-        for (int i = 0; i < tabla1.cantColumnas; i++) {
+        for (int i = 0; i < tabla1.columnas.size(); i++) {
             Columna<?> columna1 = tabla1.columnas.get(i);
             Columna<?> columna2 = tabla2.columnas.get(i);
 
             // Verificar nombre y tipo de las columnas
-            if (!columna1.getNombre().equals(columna2.getNombre()) || !columna1.getTipoDeDato().equals(columna2.getTipoDeDato())) {
+            Class<?> tipo1 = columna1.getTipoValores();
+            Class<?> tipo2 = columna2.getTipoValores();
+            if (!columna1.getNombre().equals(columna2.getNombre()) || (tipo1 != null && tipo2 != null && tipo1 != tipo2)) {
                 return false;
             }
         }
 
         return true;
     }
-    /**
-     * Copia las filas de una tabla y las agrega a la tabla actual.
-     *
-     * @param tabla La tabla desde la cual se copian las filas.
-     */
-    private void copiarFilas(Tabla tabla){
-        for (int i = 0; i < tabla.cantFilas; i++) {
-            List<Object> fila = new ArrayList<>();
-            for (Columna<?> columna : tabla.columnas) {
-                fila.add(columna.getCeldas().get(i).getValor());
-            }
-            this.agregarFila(fila);
-        }
-    }
     
     /**
      * Filtra las filas de la tabla de acuerdo a un valor específico en una columna y devuelve una nueva tabla con las filas filtradas.
@@ -509,48 +631,212 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
     @Override
     public Tabla filtrarPorColumna(String nombreColumna, Object valor) throws IllegalArgumentException {
         // Verificar que la columna exista
-        Columna<?> columnaFiltro = null;
-        for (Columna<?> columna : columnas) {
-            if (columna.getNombre().equals(nombreColumna)) {
-                columnaFiltro = columna;
-                break;
-            }
-        }
+        Columna<?> columnaFiltro = getColumna(nombreColumna);
         if (columnaFiltro == null) {
             throw new IllegalArgumentException("La columna '" + nombreColumna + "' no existe en la tabla.");
         }
     
-        // Verificar que el tipo del valor sea compatible con la columna
-        if (!columnaFiltro.getCeldas().isEmpty()) {
-            Object primerValor = columnaFiltro.getCeldas().get(0).getValor();
-            if (primerValor != null && !primerValor.getClass().isInstance(valor)) {
-                throw new IllegalArgumentException("El valor proporcionado es de tipo incompatible con la columna '" + nombreColumna + "'.");
+        // Devolver una vista con las filas encontradas, sin copiar los valores
+        Medicion medicion = Telemetria.iniciar("filtrarPorColumna", this);
+        return medicion.terminar(vistaDeFilas("Tabla Filtrada", filasIguales(columnaFiltro, valor)));
+    }
+    /**
+     * Busca las filas de una columna de esta tabla cuyo valor no es nulo y es igual al indicado,
+     * usando el índice hash de la columna si existe, o recorriendo directamente el almacenamiento.
+     *
+     * @param columnaFiltro La columna en la que buscar.
+     * @param valor El valor buscado.
+     * @return Las filas coincidentes en orden ascendente.
+     * @throws IllegalArgumentException Si el tipo del valor no es compatible con la columna.
+     */
+    int[] filasIguales(Columna<?> columnaFiltro, Object valor) throws IllegalArgumentException {
+        verificarValorFiltro(columnaFiltro, null, valor);
+        IndiceHash indice = obtenerIndice(indices, columnaFiltro, IndiceHash::new);
+        if (valor == null) {
+            return new int[0];
+        } else if (indice != null) {
+            return indice.buscar(valor);
+        }
+        return columnaFiltro.getAlmacen().buscarIguales(valor);
+    }
+    /**
+     * Verifica que el tipo del valor de un filtro por igualdad sea compatible con la columna,
+     * comparándolo con el primer valor no nulo de las filas a filtrar.
+     *
+     * @param columnaFiltro La columna a filtrar.
+     * @param seleccion Las filas a filtrar, o null si se filtran todas.
+     * @param valor El valor buscado.
+     * @throws IllegalArgumentException Si el tipo del valor no es compatible con la columna.
+     */
+    static void verificarValorFiltro(Columna<?> columnaFiltro, int[] seleccion, Object valor) throws IllegalArgumentException {
+        Object primerValor = primerValorNoNulo(columnaFiltro, seleccion);
+        if (primerValor != null && !primerValor.getClass().isInstance(valor)) {
+            throw new IllegalArgumentException("El valor proporcionado es de tipo incompatible con la columna '" + columnaFiltro.getNombre() + "'.");
+        }
+    }
+    /**
+     * Obtiene el primer valor no nulo de una columna entre las filas indicadas, para verificar tipos.
+     *
+     * @param columna La columna a revisar.
+     * @param seleccion Las filas a revisar, o null si se revisan todas.
+     * @return El primer valor no nulo, o null si todas las filas son nulas.
+     */
+    private static Object primerValorNoNulo(Columna<?> columna, int[] seleccion) {
+        int cantidad = seleccion == null ? columna.getTamanio() : seleccion.length;
+        for (int k = 0; k < cantidad; k++) {
+            int fila = seleccion == null ? k : seleccion[k];
+            if (!columna.esNulo(fila)) {
+                return columna.getValor(fila);
             }
         }
+        return null;
+    }
     
-        // Crear una nueva tabla para almacenar los resultados filtrados
-        Tabla tablaFiltrada = new Tabla("Tabla Filtrada", obtenerNombresColumnas());
-    
-        // Iterar sobre cada fila
-        for (int i = 0; i < cantFilas; i++) {
-            Object valorFila = null;
-    
-            // Obtener el valor de la celda en la fila actual de la columna especificada
-            valorFila = columnaFiltro.getCeldas().get(i).getValor();
-    
-            // Si el valor de la celda no es nulo y coincide con el valor dado, agregar la fila a la nueva tabla
-            if (valorFila != null && valorFila.equals(valor)) {
-                List<Object> valoresFila = new ArrayList<>();
-                for (Columna<?> columna : columnas) {
-                    valoresFila.add(columna.getCeldas().get(i).getValor());
-                }
-                tablaFiltrada.agregarFila(valoresFila);
+    /**
+     * Crea un índice hash sobre una columna, que asocia cada valor con las filas en las que aparece.
+     * Una vez creado, {@link #filtrarPorColumna(String, Object)} y {@link #buscarFila(String, Object)} lo usan
+     * automáticamente en lugar de recorrer la columna. Agregar filas mantiene el índice; cualquier otra
+     * modificación de la columna lo invalida y se reconstruye en la siguiente búsqueda. Las tablas que se
+     * obtienen al copiar, reasignar valores o eliminar filas conservan los índices de esta tabla.
+     *
+     * @param nombreColumna El nombre de la columna a indexar.
+     * @throws IllegalArgumentException Si la columna no existe.
+     */
+    public synchronized void crearIndice(String nombreColumna) {
+        Columna<?> columnaIndice = buscarColumna(nombreColumna);
+        Medicion medicion = Telemetria.iniciar("crearIndice", this);
+        indices.put(nombreColumna, new IndiceHash(columnaIndice));
+        medicion.terminar();
+    }
+    /**
+     * Crea un índice ordenado sobre una columna, que guarda sus valores ordenados junto con la fila de cada uno.
+     * Una vez creado, {@link #filtrarPorRango(String, Comparable, Comparable)} lo usa automáticamente para
+     * encontrar el rango con búsqueda binaria en lugar de recorrer la columna. Cualquier modificación de la
+     * columna lo invalida y se reconstruye en la siguiente búsqueda.
+     *
+     * @param nombreColumna El nombre de la columna a indexar.
+     * @throws IllegalArgumentException Si la columna no existe o sus valores no son comparables.
+     */
+    public synchronized void crearIndiceOrdenado(String nombreColumna) {
+        Columna<?> columnaIndice = buscarColumna(nombreColumna);
+        Medicion medicion = Telemetria.iniciar("crearIndiceOrdenado", this);
+        indicesOrdenados.put(nombreColumna, new IndiceOrdenado(columnaIndice));
+        medicion.terminar();
+    }
+    /**
+     * Elimina los índices de una columna, si existen.
+     *
+     * @param nombreColumna El nombre de la columna indexada.
+     */
+    public synchronized void eliminarIndice(String nombreColumna) {
+        indices.remove(nombreColumna);
+        indicesOrdenados.remove(nombreColumna);
+    }
+    /**
+     * Devuelve la primera fila cuyo valor en la columna indicada es igual al valor dado.
+     * Si la columna tiene un índice la búsqueda no recorre la tabla.
+     *
+     * @param nombreColumna El nombre de la columna en la que se busca.
+     * @param valor El valor buscado.
+     * @return Una lista de celdas que conforman la fila encontrada, o null si ninguna fila coincide.
+     * @throws IllegalArgumentException Si la columna no existe.
+     */
+    public List<Celda<Object>> buscarFila(String nombreColumna, Object valor) {
+        Columna<?> columnaBusqueda = buscarColumna(nombreColumna);
+        if (valor == null) {
+            return null;
+        }
+        Medicion medicion = Telemetria.iniciar("buscarFila", this);
+        IndiceHash indice = obtenerIndice(indices, columnaBusqueda, IndiceHash::new);
+        int fila;
+        if (indice != null) {
+            fila = indice.buscarPrimera(valor);
+        } else {
+            int[] filas = columnaBusqueda.getAlmacen().buscarIguales(valor);
+            fila = filas.length == 0 ? -1 : filas[0];
+        }
+        medicion.terminar(fila < 0 ? 0 : 1, cantColumnas);
+        return fila < 0 ? null : devolverFila(fila);
+    }
+    /**
+     * Busca una columna por su nombre.
+     *
+     * @param nombreColumna El nombre de la columna.
+     * @return La columna encontrada.
+     * @throws IllegalArgumentException Si la columna no existe.
+     */
+    private Columna<?> buscarColumna(String nombreColumna) {
+        Columna<?> columna = getColumna(nombreColumna);
+        if (columna == null) {
+            throw new IllegalArgumentException("La columna '" + nombreColumna + "' no existe en la tabla.");
+        }
+        return columna;
+    }
+    /**
+     * Obtiene una columna por su nombre en tiempo constante, a través de un mapa de nombres a columnas.
+     * El mapa se reconstruye cuando cambia la cantidad de columnas de la tabla, lo que alcanza porque la lista
+     * de columnas solo la modifica la tabla y nunca reemplaza una columna por otra. Si hay columnas con el
+     * mismo nombre, se devuelve la primera, igual que al recorrer la lista de columnas.
+     *
+     * @param nombreColumna El nombre de la columna.
+     * @return La columna con ese nombre, o null si no existe.
+     */
+    Columna<?> getColumna(String nombreColumna) {
+        Map<String, Columna<?>> mapa = columnasPorNombre;
+        if (columnasIndexadas != columnas.size()) {
+            mapa = new HashMap<>();
+            for (Columna<?> columna : columnas) {
+                mapa.putIfAbsent(columna.getNombre(), columna);
             }
+            columnasPorNombre = mapa;
+            columnasIndexadas = columnas.size();
         }
-    
-        return tablaFiltrada;
+        return mapa.get(nombreColumna);
     }
-    
+    /**
+     * Obtiene un índice de una columna, reconstruyéndolo si la columna cambió desde que se construyó.
+     *
+     * @param mapa Los índices de la tabla del tipo buscado.
+     * @param columna La columna de la tabla.
+     * @param constructor La forma de construir el índice sobre la columna.
+     * @return El índice vigente de la columna, o null si la columna no está indexada.
+     */
+    private synchronized <I extends IndiceColumna> I obtenerIndice(Map<String, I> mapa, Columna<?> columna, Function<Columna<?>, I> constructor) {
+        if (!mapa.containsKey(columna.getNombre())) {
+            return null;
+        }
+        I indice = mapa.get(columna.getNombre());
+        if (indice == null || !indice.estaVigente(columna)) {
+            indice = constructor.apply(columna);
+            mapa.put(columna.getNombre(), indice);
+        }
+        return indice;
+    }
+    /**
+     * Obtiene el índice de una columna sólo si ya refleja sus valores actuales, sin reconstruirlo.
+     *
+     * @param columna La columna de la tabla.
+     * @return El índice vigente, o null si no existe o está desactualizado.
+     */
+    private synchronized IndiceHash indiceVigente(Columna<?> columna) {
+        IndiceHash indice = indices.get(columna.getNombre());
+        return indice != null && indice.estaVigente(columna) ? indice : null;
+    }
+    /**
+     * Registra en otra tabla los mismos índices que tiene esta. Los índices se construyen
+     * sobre las columnas de la otra tabla recién cuando se usan por primera vez.
+     *
+     * @param nuevaTabla La tabla que conserva los índices.
+     */
+    private synchronized void heredarIndices(Tabla nuevaTabla) {
+        for (String nombreColumna : indices.keySet()) {
+            nuevaTabla.indices.put(nombreColumna, null);
+        }
+        for (String nombreColumna : indicesOrdenados.keySet()) {
+            nuevaTabla.indicesOrdenados.put(nombreColumna, null);
+        }
+    }
+
     /**
      * Filtra las filas de la tabla basándose en un rango específico de valores para una columna dada.
      * Devuelve una nueva tabla que contiene solo las filas cuyo valor en la columna indicada está dentro
@@ -564,23 +850,50 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
     @Override
     public Tabla filtrarPorRango(String nombreColumna, Comparable<?> valorMin, Comparable<?> valorMax) throws IllegalArgumentException, ClassCastException {
         // Verificar que la columna existe
-        Columna<?> columnaFiltrar = null;
-        for (Columna<?> columna : columnas) {
-            if (columna.getNombre().equals(nombreColumna)) {
-                columnaFiltrar = columna;
-                break;
-            }
-        }
+        Columna<?> columnaFiltrar = getColumna(nombreColumna);
     
         if (columnaFiltrar == null) {
             throw new IllegalArgumentException("La columna '" + nombreColumna + "' no existe en la tabla.");
         }
     
-        // Verificar que valorMin y valorMax son del mismo tipo que la columna especificada
-        if (!columnaFiltrar.getCeldas().isEmpty()) {
-            Object valorEjemplo = columnaFiltrar.getCeldas().get(0).getValor();
+        // Devolver una vista con las filas encontradas, sin copiar los valores
+        Medicion medicion = Telemetria.iniciar("filtrarPorRango", this);
+        return medicion.terminar(vistaDeFilas("Tabla Filtrada por Rango", filasEnRango(columnaFiltrar, valorMin, valorMax)));
+    }
+    /**
+     * Busca las filas de una columna de esta tabla cuyo valor no es nulo y está dentro del rango cerrado,
+     * con búsqueda binaria si la columna tiene un índice ordenado, o sobre el almacenamiento, que saltea
+     * los bloques fuera del rango.
+     *
+     * @param columnaFiltrar La columna en la que buscar.
+     * @param valorMin El valor mínimo del rango.
+     * @param valorMax El valor máximo del rango.
+     * @return Las filas dentro del rango en orden ascendente.
+     * @throws ClassCastException Si los valores de la columna o los límites no son comparables entre sí.
+     */
+    int[] filasEnRango(Columna<?> columnaFiltrar, Comparable<?> valorMin, Comparable<?> valorMax) throws ClassCastException {
+        verificarRango(columnaFiltrar, null, valorMin, valorMax);
+        IndiceOrdenado indice = obtenerIndice(indicesOrdenados, columnaFiltrar, IndiceOrdenado::new);
+        if (indice != null && valorMin != null && valorMax != null) {
+            return indice.buscarEnRango(valorMin, valorMax);
+        }
+        return columnaFiltrar.getAlmacen().buscarEnRango(valorMin, valorMax);
+    }
+    /**
+     * Verifica que los valores de la columna sean comparables y que los límites del rango sean de su mismo tipo,
+     * tomando como ejemplo el primer valor no nulo de las filas a filtrar.
+     *
+     * @param columnaFiltrar La columna a filtrar.
+     * @param seleccion Las filas a filtrar, o null si se filtran todas.
+     * @param valorMin El valor mínimo del rango.
+     * @param valorMax El valor máximo del rango.
+     * @throws ClassCastException Si los valores de la columna no son comparables o los límites son de otro tipo.
+     */
+    static void verificarRango(Columna<?> columnaFiltrar, int[] seleccion, Comparable<?> valorMin, Comparable<?> valorMax) throws ClassCastException {
+        Object valorEjemplo = primerValorNoNulo(columnaFiltrar, seleccion);
+        if (valorEjemplo != null) {
             if (!(valorEjemplo instanceof Comparable<?>)) {
-                throw new ClassCastException("Los valores de la columna '" + nombreColumna + "' no implementan Comparable.");
+                throw new ClassCastException("Los valores de la columna '" + columnaFiltrar.getNombre() + "' no implementan Comparable.");
             }
     
             if (valorMin != null && valorMax != null) {
@@ -589,31 +902,6 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
                 }
             }
         }
-    
-        // Crear una nueva tabla para almacenar los resultados filtrados
-        Tabla tablaFiltrada = new Tabla("Tabla Filtrada por Rango", obtenerNombresColumnas());
-    
-        // Iterar sobre cada fila
-        for (int i = 0; i < cantFilas; i++) {
-            Comparable<Object> valorFila = null;
-    
-            // Obtener el valor de la celda en la fila actual
-            Object valorCelda = columnaFiltrar.getCeldas().get(i).getValor();
-            if (valorCelda instanceof Comparable) {
-                valorFila = (Comparable<Object>) valorCelda;
-            }
-    
-            // Si el valor de la celda no es nulo y está dentro del rango, agregar la fila a la nueva tabla
-            if (valorFila != null && valorFila.compareTo(valorMin) >= 0 && valorFila.compareTo(valorMax) <= 0) {
-                List<Object> valoresFila = new ArrayList<>();
-                for (Columna<?> columna : columnas) {
-                    valoresFila.add(columna.getCeldas().get(i).getValor());
-                }
-                tablaFiltrada.agregarFila(valoresFila);
-            }
-        }
-    
-        return tablaFiltrada;
     }
     
     
@@ -629,23 +917,228 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
         }
         return nombres;
     }
+    /**
+     * Crea una nueva tabla con las filas indicadas, en ese orden, copiando los valores
+     * directamente entre los almacenamientos de cada columna.
+     *
+     * @param nombre El nombre de la nueva tabla.
+     * @param filas Los índices de las filas a incluir.
+     * @return Una nueva instancia de Tabla con las filas seleccionadas.
+     */
+    private Tabla seleccionarFilas(String nombre, int[] filas) {
+        return seleccionarFilas(nombre, filas, columnas);
+    }
+    /**
+     * Crea una nueva tabla con las filas indicadas, en ese orden, copiando sólo las columnas indicadas.
+     *
+     * @param nombre El nombre de la nueva tabla.
+     * @param filas Los índices de las filas a incluir.
+     * @param columnasIncluidas Las columnas de esta tabla a copiar, en el orden en que quedarán.
+     * @return Una nueva instancia de Tabla con las filas y columnas seleccionadas.
+     */
+    Tabla seleccionarFilas(String nombre, int[] filas, List<Columna<?>> columnasIncluidas) {
+        PresupuestoMemoria.verificar("crear la tabla '" + nombre + "' con " + filas.length + " filas", estimarCopia(columnasIncluidas, filas.length));
+        List<Columna<?>> columnasSeleccionadas = new ArrayList<>();
+        for (Columna<?> columna : columnasIncluidas) {
+            columnasSeleccionadas.add(columna.seleccionar(filas));
+        }
+        return new Tabla(nombre, filas.length, columnasSeleccionadas);
+    }
+    /**
+     * Estima los bytes que ocuparían las copias de las columnas indicadas con la cantidad de filas dada.
+     *
+     * @param columnasCopiadas Las columnas a copiar.
+     * @param filas La cantidad de filas de las copias.
+     * @return Los bytes estimados.
+     */
+    static long estimarCopia(List<Columna<?>> columnasCopiadas, int filas) {
+        long bytes = 0;
+        for (Columna<?> columna : columnasCopiadas) {
+            bytes += columna.estimarCopia(filas);
+        }
+        return bytes;
+    }
+    /**
+     * Crea una nueva tabla formada por vistas de sólo lectura sobre las filas indicadas de esta tabla,
+     * sin copiar los valores. Las columnas de la nueva tabla comparten un único vector de selección
+     * y se materializan recién cuando se modifican. Si esta tabla ya es una vista, las selecciones
+     * se componen para que la nueva vista apunte directamente a los datos originales.
+     *
+     * @param nombre El nombre de la nueva tabla.
+     * @param filas Los índices de las filas visibles, en ese orden.
+     * @return Una nueva instancia de Tabla con las filas seleccionadas.
+     */
+    private Tabla vistaDeFilas(String nombre, int[] filas) {
+        Map<int[], int[]> seleccionesCompuestas = new IdentityHashMap<>();
+        List<Columna<?>> columnasVista = new ArrayList<>();
+        for (Columna<?> columna : columnas) {
+            columnasVista.add(vistaDeColumna(columna, filas, seleccionesCompuestas));
+        }
+        return new Tabla(nombre, filas.length, columnasVista);
+    }
+    /**
+     * Crea una columna de sólo lectura con las filas indicadas de otra columna. Si la columna ya es
+     * una vista, la selección se compone una única vez por cada vector de selección distinto,
+     * para que todas las columnas que lo compartían sigan compartiendo el resultado.
+     *
+     * @param columna La columna original.
+     * @param filas Los índices de las filas visibles, en ese orden.
+     * @param seleccionesCompuestas Las selecciones ya compuestas, indexadas por el vector de selección original.
+     * @return La nueva columna.
+     */
+    private Columna<?> vistaDeColumna(Columna<?> columna, int[] filas, Map<int[], int[]> seleccionesCompuestas) {
+        AlmacenColumna almacen = columna.getAlmacenParaVista();
+        if (almacen instanceof AlmacenVista) {
+            AlmacenVista anterior = (AlmacenVista) almacen;
+            int[] seleccion = seleccionesCompuestas.computeIfAbsent(anterior.getFilas(), f -> anterior.componer(filas));
+            return new Columna<>(columna.getNombre(), anterior.getBase().vista(seleccion));
+        }
+        return new Columna<>(columna.getNombre(), almacen.vista(filas));
+    }
+    /**
+     * Cuenta los valores nulos (NA) de toda la tabla sin crear celdas. Usa las estadísticas de cada columna
+     * si ya se calcularon, o cuenta los bits de su mapa de nulos.
+     *
+     * @return La cantidad de valores NA de la tabla.
+     */
+    public int contarNAs() {
+        int total = 0;
+        for (Columna<?> columna : columnas) {
+            total += columna.contarNulos();
+        }
+        return total;
+    }
+    /**
+     * Genera una tabla con un resumen de cada columna: tipo, cantidad de valores, nulos, valores distintos
+     * (estimados), mínimo, máximo, suma y promedio (estos dos sólo en columnas numéricas). Las estadísticas
+     * se calculan recorriendo cada columna la primera vez y luego se mantienen al día con cada modificación,
+     * por lo que volver a describir la tabla sólo cuesta lo mismo que la cantidad de columnas.
+     *
+     * @return Una nueva tabla con una fila por cada columna de esta tabla.
+     */
+    public Tabla describe() {
+        Medicion medicion = Telemetria.iniciar("describe", this);
+        Object[][] datos = new Object[columnas.size() + 1][];
+        datos[0] = new Object[] {"Columna", "Tipo", "Cantidad", "Nulos", "Distintos", "Minimo", "Maximo", "Suma", "Media"};
+        for (int c = 0; c < columnas.size(); c++) {
+            Columna<?> columna = columnas.get(c);
+            EstadisticasColumna estadisticas = columna.getEstadisticas();
+            Class<?> tipo = columna.getTipoValores();
+            datos[c + 1] = new Object[] {
+                    columna.getNombre(),
+                    tipo == null ? null : tipo.getSimpleName(),
+                    estadisticas.getCantidad(),
+                    estadisticas.getNulos(),
+                    estadisticas.getDistintos(),
+                    estadisticas.getMinimo() == null ? null : estadisticas.getMinimo().toString(),
+                    estadisticas.getMaximo() == null ? null : estadisticas.getMaximo().toString(),
+                    estadisticas.getSuma(),
+                    estadisticas.getMedia()
+            };
+        }
+        return medicion.terminar(new Tabla(nombreTabla + "_descripcion", datos));
+    }
+    /**
+     * Estima cuánta memoria del heap ocupa la tabla, con una fila por columna y una última fila con el total.
+     * Los bytes de cada columna se separan en celdas (los arreglos de números, códigos o referencias), objetos
+     * (los valores no primitivos guardados como objetos, por ejemplo en columnas genéricas), textos, nulos (el mapa
+     * de bits), auxiliares (diccionarios, mapas de zonas, vectores de selección y estadísticas), reservados (la
+     * capacidad de los arreglos que todavía no ocupa ninguna fila) e índices. Ver {@link EstimacionMemoria}.
+     * <p>
+     * Una columna que comparte su almacenamiento con otra tabla (por copia en escritura, por ser una vista o por
+     * una concatenación) cuenta el almacenamiento completo, porque lo mantiene en memoria; por eso la memoria de
+     * varias tablas relacionadas no se obtiene sumando sus estimaciones. Las columnas abiertas de un archivo
+     * binario sólo cuentan lo que ya se cargó, porque el archivo está mapeado fuera del heap.
+     *
+     * @return Una nueva tabla con la estimación en bytes de cada columna.
+     * @see #estimarBytes()
+     */
+    public Tabla estimarMemoria() {
+        Medicion medicion = Telemetria.iniciar("estimarMemoria", this);
+        Object[][] datos = new Object[columnas.size() + 2][];
+        datos[0] = new Object[] {"Columna", "Almacenamiento", "Filas", "Celdas", "Objetos", "Textos", "Nulos", "Auxiliar", "Reservado", "Indices", "Total"};
+        EstimacionMemoria total = new EstimacionMemoria();
+        for (int c = 0; c < columnas.size(); c++) {
+            Columna<?> columna = columnas.get(c);
+            EstimacionMemoria estimacion = estimarMemoria(columna);
+            total.sumar(estimacion);
+            datos[c + 1] = filaMemoria(columna.getNombre(), columna.getNombreAlmacen(), columna.getTamanio(), estimacion);
+        }
+        datos[columnas.size() + 1] = filaMemoria("Total", null, cantFilas, total);
+        return medicion.terminar(new Tabla(nombreTabla + "_memoria", datos));
+    }
+    /**
+     * Estima el total de bytes del heap que ocupa la tabla, igual que la última fila de {@link #estimarMemoria()}.
+     *
+     * @return La estimación en bytes.
+     */
+    public long estimarBytes() {
+        long bytes = 0;
+        for (Columna<?> columna : columnas) {
+            bytes += estimarMemoria(columna).getTotal();
+        }
+        return bytes;
+    }
+    private EstimacionMemoria estimarMemoria(Columna<?> columna) {
+        EstimacionMemoria estimacion = new EstimacionMemoria();
+        columna.estimarMemoria(estimacion);
+        estimacion.agregarIndices(estimarIndices(columna.getNombre()));
+        return estimacion;
+    }
+    private synchronized long estimarIndices(String nombreColumna) {
+        long bytes = 0;
+        IndiceHash indice = indices.get(nombreColumna);
+        if (indice != null) {
+            bytes += indice.estimarMemoria();
+        }
+        IndiceOrdenado indiceOrdenado = indicesOrdenados.get(nombreColumna);
+        if (indiceOrdenado != null) {
+            bytes += indiceOrdenado.estimarMemoria();
+        }
+        return bytes;
+    }
+    private static Object[] filaMemoria(String nombre, String almacenamiento, int filas, EstimacionMemoria estimacion) {
+        return new Object[] {
+                nombre,
+                almacenamiento,
+                filas,
+                estimacion.getCeldas(),
+                estimacion.getObjetos(),
+                estimacion.getTextos(),
+                estimacion.getNulos(),
+                estimacion.getAuxiliar(),
+                estimacion.getReservado(),
+                estimacion.getIndices(),
+                estimacion.getTotal()
+        };
+    }
     /**
      * Lee todas las celdas que contienen valores nulos (NA) en la tabla.
+     * Las posiciones nulas se obtienen del mapa de bits de cada columna, por lo que sólo se
+     * crean celdas para los valores nulos. En columnas grandes, las partes del mapa de bits se
+     * recorren en paralelo con {@link EjecucionParalela} y las celdas se reúnen en orden de fila.
      *
      * @return Una lista de celdas con valores nulos (NA).
      */
     @Override 
     public List<Celda<Object>> leerNAs() {
-        List<Celda<Object>> celdasNA = new ArrayList<>();
+        Medicion medicion = Telemetria.iniciar("leerNAs", this);
+        List<Celda<Object>> celdasNA = new ArrayList<>(contarNAs());
 
         for (Columna<?> columna : columnas) {
-            for (Celda<?> celda : columna.getCeldas()) {
-                if (celda.getValor() == null) {
-                    celdasNA.add((Celda<Object>) celda);
-                }
+            if (columna.contarNulos() == 0) {
+                continue;
             }
+            BitSet nulos = columna.getNulos();
+            String nombreColumna = columna.getNombre();
+            celdasNA.addAll(EjecucionParalela.recolectar(columna.getTamanio(), (desde, hasta, celdas) -> {
+                for (int i = nulos.nextSetBit(desde); i >= 0 && i < hasta; i = nulos.nextSetBit(i + 1)) {
+                    celdas.add(new Celda<>(null, nombreColumna, i));
+                }
+            }));
         }
 
+        medicion.terminar(celdasNA.size(), cantColumnas);
         return celdasNA;
     }
     /**
@@ -657,8 +1150,9 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
         List<Integer> anchos = new ArrayList<>();
         for (Columna<?> columna : columnas) {
             int maxAncho = columna.getNombre().length();
-            for (Celda<?> celda : columna.getCeldas()) {
-                maxAncho = Math.max(maxAncho, celda.toString().length());
+            for (int i = 0; i < columna.getTamanio(); i++) {
+                Object valor = columna.getValor(i);
+                maxAncho = Math.max(maxAncho, valor == null ? 4 : valor.toString().length());
             }
             anchos.add(maxAncho);
         }
@@ -673,11 +1167,7 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
     public List<Celda<Object>> devolverFila(int indice){
         List<Celda<Object>> fila = new ArrayList<>();
         for (Columna<?> columna : columnas) {
-            for (Celda<?> celda : columna.getCeldas()) {
-                if (celda.getIndice() == indice) {
-                    fila.add((Celda<Object>) celda);
-                }
-            }
+            fila.add(new Celda<>(columna.getValor(indice), columna.getNombre(), indice));
         }
         return fila;
     }
@@ -716,7 +1206,7 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
 
         for (int i = 0; i < x; i++) {
             for (int j = 0; j < cantColumnas; j++) {
-                Object valor = columnas.get(j).getCeldas().get(i).getValor();
+                Object valor = columnas.get(j).getValor(i);
                 datos[i][j] = valor == null ? "NA" : valor.toString();
             }
         }
@@ -745,7 +1235,7 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
 
         for (int i = 0; i < x; i++) {
             for (int j = 0; j < cantColumnas; j++) {
-                Object valor = columnas.get(j).getCeldas().get(startRow + i).getValor();
+                Object valor = columnas.get(j).getValor(startRow + i);
                 datos[i][j] = valor == null ? "NA" : valor.toString();
             }
         }
@@ -764,7 +1254,7 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
         
         for (int i = startRow; i < endRow; i++) {
             for (int j = 0; j < columnas.size(); j++) {
-                System.out.printf("%-" + anchos.get(j) + "s | ", columnas.get(j).getCeldas().get(i).getValor());
+                System.out.printf("%-" + anchos.get(j) + "s | ", columnas.get(j).getValor(i));
             }
             System.out.println();
         }
@@ -779,7 +1269,7 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
         String[][] datos = new String[1][cantColumnas];
 
         for (int j = 0; j < cantColumnas; j++) {
-            Object valor = columnas.get(j).getCeldas().get(indice).getValor();
+            Object valor = columnas.get(j).getValor(indice);
             datos[0][j] = valor == null ? "NA" : valor.toString();
         }
 
@@ -795,7 +1285,7 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
 
         for (int i = 0; i < cantFilas; i++) {
             for (int j = 0; j < columnas.size(); j++) {
-                Object valor = columnas.get(j).getCeldas().get(i).getValor();
+                Object valor = columnas.get(j).getValor(i);
                 datos[i][j] = valor == null ? "NA" : valor.toString();
             }
         }
@@ -811,13 +1301,23 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
     public int getFilas(){
         return cantFilas;
     }
+    /**
+     * Devuelve el nombre de la tabla.
+     *
+     * @return El nombre de la tabla.
+     */
+    public String getNombreTabla() {
+        return nombreTabla;
+    }
     /**
      * Devuelve la lista de columnas en la tabla.
+     * La lista no se puede modificar: las columnas solo se agregan o quitan a través de la tabla, que así
+     * mantiene al día su mapa de nombres a columnas.
      *
-     * @return Una lista con las columnas de la tabla.
+     * @return Una vista de solo lectura de las columnas de la tabla.
      */
     public List<Columna<?>> getColumnas() {
-        return columnas;
+        return Collections.unmodifiableList(columnas);
     }
     /**
      * Devuelve el número de columnas en la tabla.
@@ -846,26 +1346,18 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
         }
         
         // Buscar la columna por nombre
-        for (Columna<?> columna : columnas) {
-            if (columna.getNombre().equals(nombreColumna)) {
-                // Verificar que el índice esté dentro del rango de celdas
-                if (indice < 0 || indice >= columna.getCeldas().size()) {
-                    throw new IndexOutOfBoundsException("El índice está fuera del rango de celdas.");
-                }
-                
-                // Buscar la celda con el índice específico
-                for (Celda<?> celda : columna.getCeldas()) {
-                    if (celda.getIndice() == indice) {
-                        return celda.getValor();
-                    }
-                }
-                // Si no encuentra la celda con el índice específico
-                return null;
-            }
+        Columna<?> columna = getColumna(nombreColumna);
+        if (columna == null) {
+            throw new IllegalArgumentException("La columna con nombre '" + nombreColumna + "' no existe.");
         }
-        
-        // Si no encuentra la columna con el nombre especificado
-        throw new IllegalArgumentException("La columna con nombre '" + nombreColumna + "' no existe.");
+
+        // Verificar que el índice esté dentro del rango de celdas
+        if (indice < 0 || indice >= columna.getTamanio()) {
+            throw new IndexOutOfBoundsException("El índice está fuera del rango de celdas.");
+        }
+
+        // Acceder a la celda por su posición
+        return columna.getValor(indice);
     }    
     
     /**
@@ -878,17 +1370,31 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
     }
     /**
      * Crea una nueva instancia de la tabla con los valores "NA" reemplazados en todas las columnas.
-     * Este método llama al método reemplazarNAs de cada columna de la tabla actual, generando una nueva tabla con estos cambios.
+     * Cada columna usa el mismo criterio que el método reemplazarNAs de Columna, pero los valores de reemplazo
+     * de todas las columnas se calculan en un único recorrido de las filas, generando una nueva tabla con estos cambios.
      *
      * @return una nueva instancia de Tabla con los valores "NA" reemplazados en todas las columnas.
      */
     @Override
     public Tabla reemplazarNAs() {
+        Medicion medicion = Telemetria.iniciar("reemplazarNAs", this);
         Tabla tablaNueva = new Tabla(this);
-        for (Columna<?> columna : tablaNueva.columnas) {
-            columna.reemplazarNAs();
-        }
-        return tablaNueva;
+        Imputacion.imputar(tablaNueva.columnas, null);
+        return medicion.terminar(tablaNueva);
+    }
+    /**
+     * Crea una nueva instancia de la tabla con los valores "NA" reemplazados según la estrategia indicada
+     * en todas las columnas a las que se aplica (la media y la mediana, sólo en las columnas numéricas).
+     * Los valores de reemplazo de todas las columnas se calculan en un único recorrido de las filas.
+     *
+     * @param estrategia la estrategia de imputación.
+     * @return una nueva instancia de Tabla con los valores "NA" reemplazados.
+     */
+    public Tabla reemplazarNAs(EstrategiaImputacion estrategia) {
+        Medicion medicion = Telemetria.iniciar("reemplazarNAs", this);
+        Tabla tablaNueva = new Tabla(this);
+        Imputacion.imputar(tablaNueva.columnas, estrategia);
+        return medicion.terminar(tablaNueva);
     }
     /**
      * Crea una nueva instancia de la tabla con los valores "NA" reemplazados en una columna específica.
@@ -900,6 +1406,7 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
      */
     @Override
     public Tabla reemplazarNAs(String nombreColumna) {
+        Medicion medicion = Telemetria.iniciar("reemplazarNAs", this);
         Tabla tablaNueva = new Tabla(this);
         for (Columna<?> columna : tablaNueva.columnas) {
 
@@ -907,7 +1414,43 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
                 columna.reemplazarNAs();
             }
         }
-        return tablaNueva;
+        return medicion.terminar(tablaNueva);
+    }
+    /**
+     * Crea una nueva instancia de la tabla con los valores "NA" de una columna reemplazados según la estrategia indicada.
+     *
+     * @param nombreColumna el nombre de la columna en la que se reemplazarán los valores "NA".
+     * @param estrategia la estrategia de imputación.
+     * @return una nueva instancia de Tabla con los valores "NA" reemplazados en la columna especificada.
+     * @throws IllegalArgumentException si la estrategia no se puede aplicar al tipo de la columna.
+     */
+    public Tabla reemplazarNAs(String nombreColumna, EstrategiaImputacion estrategia) {
+        Medicion medicion = Telemetria.iniciar("reemplazarNAs", this);
+        Tabla tablaNueva = new Tabla(this);
+        for (Columna<?> columna : tablaNueva.columnas) {
+            if (nombreColumna.equals(columna.getNombre())) {
+                columna.reemplazarNAs(estrategia);
+            }
+        }
+        return medicion.terminar(tablaNueva);
+    }
+    /**
+     * Crea una nueva instancia de la tabla con los valores "NA" de una columna reemplazados por un valor fijo.
+     *
+     * @param nombreColumna el nombre de la columna en la que se reemplazarán los valores "NA".
+     * @param valor el valor de reemplazo, del tipo de la columna.
+     * @return una nueva instancia de Tabla con los valores "NA" reemplazados en la columna especificada.
+     * @throws IllegalArgumentException si el tipo del valor no coincide con el tipo de la columna.
+     */
+    public Tabla reemplazarNAs(String nombreColumna, Object valor) {
+        Medicion medicion = Telemetria.iniciar("reemplazarNAs", this);
+        Tabla tablaNueva = new Tabla(this);
+        for (Columna<?> columna : tablaNueva.columnas) {
+            if (nombreColumna.equals(columna.getNombre())) {
+                columna.reemplazarNAs(valor);
+            }
+        }
+        return medicion.terminar(tablaNueva);
     }
 
     /**
@@ -918,53 +1461,120 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
      * @throws IllegalArgumentException Si el porcentaje no está entre 0 y 100.
      */
     public Tabla muestreoAleatorio(double porcentaje) {
+        return muestreoAleatorio(porcentaje, Muestreo.semillaAleatoria());
+    }
+    /**
+     * Genera una muestra aleatoria reproducible de la tabla basada en un porcentaje dado.
+     * Cada fila recibe una prioridad aleatoria que depende sólo de la semilla y de su posición, y se eligen
+     * las de menor prioridad; en tablas grandes las particiones se recorren en paralelo.
+     * Las filas de la muestra conservan el orden que tenían en la tabla.
+     *
+     * @param porcentaje Porcentaje de filas a incluir en la muestra (entre 0 y 100).
+     * @param semilla La semilla del muestreo; la misma semilla elige las mismas filas.
+     * @return Una nueva instancia de Tabla con las filas seleccionadas aleatoriamente.
+     * @throws IllegalArgumentException Si el porcentaje no está entre 0 y 100.
+     */
+    public Tabla muestreoAleatorio(double porcentaje, long semilla) {
         if (porcentaje <= 0 || porcentaje > 100) {
             throw new IllegalArgumentException("El porcentaje debe estar entre 0 y 100.");
         }
-
-        int totalFilas = cantFilas;
-        int filasAMostrar = (int) Math.ceil(totalFilas * (porcentaje / 100.0));//redondeo el num de filas a mostrar
-
-        // Creo una lista con índices de todas las filas
-        List<Integer> indices = new ArrayList<>();
-        for (int i = 0; i < totalFilas; i++) {
-            indices.add(i);
-        }
-
-        // Mezclo la lista y se seleccionan los primeros filasAMostrar índices
-        Collections.shuffle(indices, new Random());
-        List<Integer> indicesMuestra = indices.subList(0, filasAMostrar);
-
-
-
-        // Crear una nueva tabla con las filas seleccionadas
-        List<String> nombresColumnas = new ArrayList<>();
-        for (Columna<?> columna : columnas) {
-            nombresColumnas.add(columna.getNombre());
-        }
-        Tabla tablaMuestra = new Tabla(this.nombreTabla + "_muestra", nombresColumnas);
-        
-        
-        for (int indice : indicesMuestra) {
-            List<Celda<Object>> fila = devolverFila(indice);
-            List <Object> lista = new ArrayList<>();
-            for (Celda celda : fila){
-                lista.add(celda.getValor());
-            }
-            tablaMuestra.agregarFila(lista);
+        Medicion medicion = Telemetria.iniciar("muestreoAleatorio", this);
+        int filasAMostrar = Muestreo.tamanioMuestra(cantFilas, porcentaje);
+        int[] filas = Muestreo.muestraSimple(cantFilas, filasAMostrar, semilla);
+        return medicion.terminar(seleccionarFilas(this.nombreTabla + "_muestra", filas));
+    }
+    /**
+     * Genera una muestra aleatoria estratificada: dentro de cada grupo de filas con el mismo valor en la columna
+     * indicada se elige el porcentaje dado de sus filas, de modo que la muestra conserva la proporción de cada grupo.
+     * Las filas con valor nulo en la columna forman su propio grupo.
+     *
+     * @param nombreColumna El nombre de la columna que define los grupos, por ejemplo "Genero".
+     * @param porcentaje Porcentaje de filas de cada grupo a incluir en la muestra (entre 0 y 100).
+     * @return Una nueva instancia de Tabla con las filas seleccionadas aleatoriamente.
+     * @throws IllegalArgumentException Si la columna no existe o el porcentaje no está entre 0 y 100.
+     */
+    public Tabla muestreoEstratificado(String nombreColumna, double porcentaje) {
+        return muestreoEstratificado(nombreColumna, porcentaje, Muestreo.semillaAleatoria());
+    }
+    /**
+     * Genera una muestra aleatoria estratificada y reproducible por los valores de una columna.
+     *
+     * @param nombreColumna El nombre de la columna que define los grupos.
+     * @param porcentaje Porcentaje de filas de cada grupo a incluir en la muestra (entre 0 y 100).
+     * @param semilla La semilla del muestreo; la misma semilla elige las mismas filas.
+     * @return Una nueva instancia de Tabla con las filas seleccionadas aleatoriamente.
+     * @throws IllegalArgumentException Si la columna no existe o el porcentaje no está entre 0 y 100.
+     * @see #muestreoEstratificado(String, double)
+     */
+    public Tabla muestreoEstratificado(String nombreColumna, double porcentaje, long semilla) {
+        if (porcentaje <= 0 || porcentaje > 100) {
+            throw new IllegalArgumentException("El porcentaje debe estar entre 0 y 100.");
         }
-
-        return tablaMuestra;
+        Columna<?> columnaEstratos = buscarColumna(nombreColumna);
+        Medicion medicion = Telemetria.iniciar("muestreoEstratificado", this);
+        int[] filas = Muestreo.muestraEstratificada(columnaEstratos, porcentaje, semilla);
+        return medicion.terminar(seleccionarFilas(this.nombreTabla + "_muestra", filas));
     }
     /**
      * Exporta la tabla actual a un archivo CSV en la ubicación especificada.
      * Este método crea una nueva instancia de ArchivoCSV, que se encarga de escribir
-     * el contenido de la tabla en un archivo en formato CSV.
+     * el contenido de la tabla en un archivo en formato CSV, en UTF-8.
      *
      * @param rutaDestino la ruta de destino donde se guardará el archivo CSV.
      */
     public void extrarTablaEnCSV(String rutaDestino){
+        Medicion medicion = Telemetria.iniciar("guardarCSV", this);
         new ArchivoCSV(this,rutaDestino);
+        medicion.terminar();
+    }
+    /**
+     * Exporta la tabla actual a un archivo CSV en la ubicación especificada, opcionalmente comprimido con gzip.
+     * Las filas se formatean en partes paralelas y cada parte comprimida es un miembro gzip independiente.
+     *
+     * @param rutaDestino la ruta de destino donde se guardará el archivo CSV.
+     * @param comprimir si el archivo se escribe comprimido con gzip.
+     */
+    public void extrarTablaEnCSV(String rutaDestino, boolean comprimir){
+        Medicion medicion = Telemetria.iniciar("guardarCSV", this);
+        new ArchivoCSV(this,rutaDestino,comprimir);
+        medicion.terminar();
+    }
+    /**
+     * Guarda la tabla en un archivo con el formato binario columnar de {@link ArchivoBinario}, que guarda
+     * cada columna con su tipo y su mapa de nulos y puede volver a abrirse sin convertir texto.
+     *
+     * @param rutaDestino la ruta del archivo; si existe se reemplaza.
+     * @throws IllegalArgumentException Si alguna columna guarda valores de un tipo sin representación binaria.
+     * @throws UncheckedIOException Si ocurre un error al escribir el archivo.
+     * @see #abrirBinario(String, String)
+     */
+    public void guardarEnBinario(String rutaDestino) {
+        Medicion medicion = Telemetria.iniciar("guardarEnBinario", this);
+        try {
+            ArchivoBinario.guardar(this, Path.of(rutaDestino));
+            medicion.terminar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    /**
+     * Abre una tabla guardada con {@link #guardarEnBinario(String)}. El archivo se mapea en memoria: abrirlo
+     * sólo lee su cabecera y su índice, y cada columna se lee del disco recién cuando se accede a ella.
+     * Las columnas se cargan en memoria la primera vez que se modifican o que una operación las recorre completas.
+     *
+     * @param nombreTabla El nombre asignado a la tabla.
+     * @param rutaArchivo La ruta del archivo binario.
+     * @return Una nueva tabla respaldada por el archivo.
+     * @throws IllegalArgumentException Si el archivo no tiene el formato binario esperado.
+     * @throws UncheckedIOException Si ocurre un error al leer el archivo.
+     */
+    public static Tabla abrirBinario(String nombreTabla, String rutaArchivo) {
+        Medicion medicion = Telemetria.iniciar("abrirBinario", null);
+        try {
+            return medicion.terminar(ArchivoBinario.abrir(nombreTabla, Path.of(rutaArchivo)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
     /**
      * Muestra la tabla en una ventana emergente con un título y una representación de {@code JTable}.
@@ -996,30 +1606,93 @@ class Tabla implements Manipulacion, Limpieza, Filtro{
      * @return una nueva instancia de {@code Tabla} con los datos ordenados.
      */
     public Tabla Ordenamiento(List<String> nombreColumna, List<Boolean> criteriosAscendentes) { 
-        // Crear una copia de la tabla actual
-        Tabla tablanueva = new Tabla(this);
-        Ordenamiento ordenar = new Ordenamiento(tablanueva);
+        Medicion medicion = Telemetria.iniciar("ordenar", this);
+        Ordenamiento ordenar = new Ordenamiento(this);
 
         // Obtener el nuevo orden de índices de las filas
-        List<Integer> ordenIndices = ordenar.obtenerOrdenIndices(nombreColumna, criteriosAscendentes);
-
-        // Reorganizar las celdas de cada columna según el orden de índices
-        for (Columna<?> columna : tablanueva.getColumnas()) {
-            List<Celda<?>> celdasOriginales = new ArrayList<>(columna.getCeldas());
-            List<Celda<?>> celdasOrdenadas = new ArrayList<>();
+        int[] filas = ordenar.obtenerOrden(nombreColumna, criteriosAscendentes);
 
-            for (int indice : ordenIndices) {
-                celdasOrdenadas.add(celdasOriginales.get(indice));
-            }
-
-            // Actualizar las celdas de la columna con el nuevo orden
-            List<?> celdasColumna = columna.getCeldas();
-            for (int i = 0; i < celdasOrdenadas.size(); i++) {
-                ((List<Celda<?>>) celdasColumna).set(i, celdasOrdenadas.get(i));
-            }
+        // Reorganizar los valores de cada columna según el orden de índices en una nueva tabla
+        return medicion.terminar(seleccionarFilas(nombreTabla, filas));
+    }
+    /**
+     * Agrupa las filas de esta tabla por los valores de las columnas indicadas. Las funciones de agregación
+     * se eligen sobre la agrupación devuelta y se calculan con {@link Agrupacion#ejecutar()}, por ejemplo
+     * {@code tabla.agrupar("Genero").promedio("Promedio").conteo().ejecutar()}. Sin columnas, toda la tabla
+     * forma un único grupo.
+     *
+     * @param nombresColumnas los nombres de las columnas de agrupación.
+     * @return una nueva agrupación sin funciones de agregación.
+     * @throws IllegalArgumentException si alguna columna no existe.
+     */
+    public Agrupacion agrupar(String... nombresColumnas) {
+        List<Columna<?>> columnasClave = new ArrayList<>();
+        for (String nombreColumna : nombresColumnas) {
+            columnasClave.add(buscarColumna(nombreColumna));
         }
-        tablanueva.actualizarIndices();
-        return tablanueva;
+        return new Agrupacion(this, nombreTabla, columnasClave);
+    }
+    /**
+     * Combina esta tabla con otra por el valor de una columna clave de cada una (join). Si ambas tablas
+     * ya están ordenadas por la clave se combinan por mezcla; si no, con una tabla hash construida sobre
+     * la más chica, repartida en particiones si no entra en {@link Combinacion#getPresupuestoMemoria()}.
+     * Las filas del resultado siguen el orden de esta tabla y, para cada una, sus parejas siguen el orden
+     * de la otra. Los valores nulos de la clave no tienen pareja.
+     *
+     * @param otraTabla la tabla a combinar con esta.
+     * @param columnaPropia el nombre de la columna clave de esta tabla.
+     * @param columnaOtra el nombre de la columna clave de la otra tabla.
+     * @param tipo el tipo de combinación: interna, izquierda o anti.
+     * @return una nueva tabla con las columnas de esta tabla seguidas, salvo en la combinación anti, por las
+     *         de la otra tabla sin su columna clave. Los nombres repetidos reciben como sufijo el nombre de la otra tabla.
+     * @throws IllegalArgumentException si alguna de las columnas no existe.
+     */
+    public Tabla combinar(Tabla otraTabla, String columnaPropia, String columnaOtra, TipoCombinacion tipo) {
+        Columna<?> clavePropia = buscarColumna(columnaPropia);
+        Columna<?> claveOtra = otraTabla.buscarColumna(columnaOtra);
+        Medicion medicion = Telemetria.iniciar("combinar", nombreTabla, (long) cantFilas + otraTabla.cantFilas, cantColumnas + otraTabla.cantColumnas);
+        return medicion.terminar(new Combinacion(this, clavePropia, otraTabla, claveOtra, otraTabla.nombreTabla, tipo).ejecutar(nombreTabla));
+    }
+    /**
+     * Combina esta tabla con otra por una columna clave que tiene el mismo nombre en ambas.
+     *
+     * @param otraTabla la tabla a combinar con esta.
+     * @param nombreColumna el nombre de la columna clave.
+     * @param tipo el tipo de combinación: interna, izquierda o anti.
+     * @return una nueva tabla con el resultado de la combinación.
+     * @throws IllegalArgumentException si la columna no existe en alguna de las tablas.
+     * @see #combinar(Tabla, String, String, TipoCombinacion)
+     */
+    public Tabla combinar(Tabla otraTabla, String nombreColumna, TipoCombinacion tipo) {
+        return combinar(otraTabla, nombreColumna, nombreColumna, tipo);
+    }
+    /**
+     * Inicia una consulta diferida sobre esta tabla. Las operaciones encadenadas sobre la consulta se
+     * registran como un plan y se ejecutan juntas con {@link Consulta#ejecutar()}, que fusiona los filtros,
+     * no copia las columnas eliminadas y materializa el resultado una sola vez, en lugar de copiar la
+     * tabla completa en cada paso.
+     *
+     * @return una nueva consulta vacía sobre esta tabla.
+     */
+    public Consulta consulta() {
+        return new Consulta(this, nombreTabla);
+    }
+    /**
+     * Devuelve una nueva tabla con sólo las primeras {@code k} filas del orden indicado, sin ordenar ni copiar
+     * la tabla completa. Usa los mismos criterios que {@link #Ordenamiento(List, List)}: en orden ascendente los
+     * valores nulos van al final, en orden descendente al principio, y las filas empatadas conservan su orden original.
+     *
+     * @param nombreColumna una lista con los nombres de las columnas por las que se ordenará.
+     * @param criteriosAscendentes una lista de booleanos que indica si cada columna se ordena de manera ascendente (true) o descendente (false).
+     * @param k la cantidad de filas a conservar; si la tabla tiene menos filas se devuelven todas.
+     * @return una nueva instancia de {@code Tabla} con las primeras {@code k} filas ordenadas.
+     * @throws IllegalArgumentException si las listas no coinciden, alguna columna no existe o {@code k} es negativo.
+     */
+    public Tabla primerosOrdenados(List<String> nombreColumna, List<Boolean> criteriosAscendentes, int k) {
+        Medicion medicion = Telemetria.iniciar("primerosOrdenados", this);
+        Ordenamiento ordenar = new Ordenamiento(this);
+        int[] filas = ordenar.obtenerPrimeros(nombreColumna, criteriosAscendentes, k);
+        return medicion.terminar(seleccionarFilas(nombreTabla, filas));
     }
    
 }
\ No newline at end of file
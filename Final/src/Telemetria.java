@@ -0,0 +1,181 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Telemetría de las operaciones de {@link Tabla}. Cada operación pública que recorre o produce datos se mide
+ * con una {@link Medicion}: al terminar se emite un {@link EventoOperacion} de JDK Flight Recorder (si hay una
+ * grabación activa) y se informan al {@link RegistroMetricas} configurado la latencia de la operación y los
+ * contadores de llamadas, filas de entrada y de salida y memoria asignada.
+ * <p>
+ * Con la telemetría desactivada, medir una operación no hace nada más que leer un campo. Los mensajes
+ * informativos que antes se imprimían siempre (por ejemplo, cuántas filas con NA se eliminaron) pasan por
+ * {@link #informar(String)} y también se pueden desactivar, por ejemplo al procesar datos en un servidor.
+ */
+class Telemetria {
+    private static volatile boolean activa = true;
+    private static volatile boolean mensajes = true;
+    private static volatile RegistroMetricas registro = new RegistroMetricasMemoria();
+
+    private static final com.sun.management.ThreadMXBean HILOS = hilosConMemoria();
+
+    private Telemetria() {
+    }
+
+    private static com.sun.management.ThreadMXBean hilosConMemoria() {
+        java.lang.management.ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        if (hilos instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) hilos).isThreadAllocatedMemorySupported()) {
+            return (com.sun.management.ThreadMXBean) hilos;
+        }
+        return null;
+    }
+
+    /**
+     * Activa o desactiva la medición de las operaciones (eventos de JFR y métricas).
+     *
+     * @param activa si las operaciones se miden.
+     */
+    public static void setActiva(boolean activa) {
+        Telemetria.activa = activa;
+    }
+
+    /**
+     * Indica si las operaciones se miden.
+     *
+     * @return true si la medición está activa.
+     */
+    public static boolean isActiva() {
+        return activa;
+    }
+
+    /**
+     * Activa o desactiva los mensajes informativos por consola de las operaciones.
+     *
+     * @param mensajes si las operaciones imprimen sus mensajes informativos.
+     */
+    public static void setMensajes(boolean mensajes) {
+        Telemetria.mensajes = mensajes;
+    }
+
+    /**
+     * Indica si las operaciones imprimen sus mensajes informativos.
+     *
+     * @return true si los mensajes están activos.
+     */
+    public static boolean isMensajes() {
+        return mensajes;
+    }
+
+    /**
+     * Reemplaza el registro que recibe las métricas.
+     *
+     * @param registro el nuevo registro.
+     * @throws IllegalArgumentException si el registro es nulo.
+     */
+    public static void setRegistro(RegistroMetricas registro) {
+        if (registro == null) {
+            throw new IllegalArgumentException("El registro de métricas no puede ser nulo.");
+        }
+        Telemetria.registro = registro;
+    }
+
+    /**
+     * Obtiene el registro que recibe las métricas.
+     *
+     * @return el registro en uso.
+     */
+    public static RegistroMetricas getRegistro() {
+        return registro;
+    }
+
+    /**
+     * Guarda las métricas registradas hasta el momento en un archivo JSON.
+     *
+     * @param rutaDestino la ruta del archivo a escribir.
+     * @throws UncheckedIOException si no se puede escribir el archivo.
+     */
+    public static void guardarMetricas(String rutaDestino) {
+        try {
+            Files.write(Paths.get(rutaDestino), registro.aJson().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Imprime un mensaje informativo de una operación, si los mensajes están activos.
+     *
+     * @param mensaje el mensaje.
+     */
+    static void informar(String mensaje) {
+        if (mensajes) {
+            System.out.println(mensaje);
+        }
+    }
+
+    /**
+     * Suma una cantidad a un contador del registro, si la telemetría está activa.
+     *
+     * @param contador el nombre del contador.
+     * @param cantidad la cantidad a sumar.
+     */
+    static void contar(String contador, long cantidad) {
+        if (activa) {
+            registro.incrementar(contador, cantidad);
+        }
+    }
+
+    /**
+     * Empieza a medir una operación sobre una tabla.
+     *
+     * @param operacion el nombre de la operación.
+     * @param entrada la tabla sobre la que se ejecuta, o {@code null} si la operación crea una tabla nueva.
+     * @return la medición, que debe terminarse cuando la operación termina.
+     */
+    static Medicion iniciar(String operacion, Tabla entrada) {
+        if (!activa) {
+            return Medicion.NINGUNA;
+        }
+        return entrada == null
+                ? new Medicion(operacion, null, 0, 0)
+                : new Medicion(operacion, entrada.getNombreTabla(), entrada.getFilas(), entrada.getCantColumnas());
+    }
+
+    /**
+     * Empieza a medir una operación sobre varias filas que no forman una única tabla (por ejemplo, una concatenación).
+     *
+     * @param operacion el nombre de la operación.
+     * @param tabla el nombre de la tabla resultante.
+     * @param filasEntrada la cantidad de filas que recibe la operación.
+     * @param columnas la cantidad de columnas.
+     * @return la medición, que debe terminarse cuando la operación termina.
+     */
+    static Medicion iniciar(String operacion, String tabla, long filasEntrada, int columnas) {
+        return activa ? new Medicion(operacion, tabla, filasEntrada, columnas) : Medicion.NINGUNA;
+    }
+
+    /**
+     * Memoria asignada hasta ahora por el hilo actual, o -1 si la JVM no la informa.
+     */
+    static long memoriaAsignada() {
+        return HILOS == null ? -1 : HILOS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Informa al registro una operación terminada.
+     */
+    static void registrar(String operacion, long nanos, long filasEntrada, long filasSalida, long bytesAsignados) {
+        RegistroMetricas actual = registro;
+        actual.registrarLatencia(operacion, nanos);
+        actual.incrementar(operacion + ".llamadas", 1);
+        actual.incrementar(operacion + ".filasEntrada", filasEntrada);
+        actual.incrementar(operacion + ".filasSalida", filasSalida);
+        if (bytesAsignados >= 0) {
+            actual.incrementar(operacion + ".bytesAsignados", bytesAsignados);
+        }
+    }
+}
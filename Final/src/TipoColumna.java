@@ -0,0 +1,143 @@
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tipos de columna que puede detectar la inferencia de esquema de un archivo CSV.
+ * Cada tipo sabe crear su almacenamiento y cargar en él un campo sin lanzar excepciones.
+ */
+enum TipoColumna {
+    ENTERO {
+        @Override
+        boolean esValido(byte[] bytes, int largo) {
+            return AnalizadorValores.parsearEntero(bytes, largo) != AnalizadorValores.INVALIDO;
+        }
+
+        @Override
+        AlmacenColumna crearAlmacen(int capacidad) {
+            return new AlmacenEntero(capacidad);
+        }
+
+        @Override
+        boolean cargar(byte[] bytes, int largo, AlmacenColumna destino) {
+            long valor = AnalizadorValores.parsearEntero(bytes, largo);
+            if (valor == AnalizadorValores.INVALIDO) {
+                return false;
+            }
+            ((AlmacenEntero) destino).agregarEntero((int) valor);
+            return true;
+        }
+    },
+    DECIMAL {
+        @Override
+        boolean esValido(byte[] bytes, int largo) {
+            return !Double.isNaN(AnalizadorValores.parsearDecimal(bytes, largo));
+        }
+
+        @Override
+        AlmacenColumna crearAlmacen(int capacidad) {
+            return new AlmacenDecimal(capacidad);
+        }
+
+        @Override
+        boolean cargar(byte[] bytes, int largo, AlmacenColumna destino) {
+            double valor = AnalizadorValores.parsearDecimal(bytes, largo);
+            if (Double.isNaN(valor)) {
+                return false;
+            }
+            ((AlmacenDecimal) destino).agregarDecimal(valor);
+            return true;
+        }
+    },
+    BOOLEANO {
+        @Override
+        boolean esValido(byte[] bytes, int largo) {
+            return AnalizadorValores.parsearBooleano(bytes, largo) >= 0;
+        }
+
+        @Override
+        AlmacenColumna crearAlmacen(int capacidad) {
+            return new AlmacenBooleano();
+        }
+
+        @Override
+        boolean cargar(byte[] bytes, int largo, AlmacenColumna destino) {
+            int valor = AnalizadorValores.parsearBooleano(bytes, largo);
+            if (valor < 0) {
+                return false;
+            }
+            ((AlmacenBooleano) destino).agregarBooleano(valor == 1);
+            return true;
+        }
+    },
+    FECHA {
+        @Override
+        boolean esValido(byte[] bytes, int largo) {
+            return AnalizadorValores.parsearFecha(bytes, largo) != AnalizadorValores.INVALIDO;
+        }
+
+        @Override
+        AlmacenColumna crearAlmacen(int capacidad) {
+            return new AlmacenFecha(capacidad);
+        }
+
+        @Override
+        boolean cargar(byte[] bytes, int largo, AlmacenColumna destino) {
+            long dias = AnalizadorValores.parsearFecha(bytes, largo);
+            if (dias == AnalizadorValores.INVALIDO) {
+                return false;
+            }
+            ((AlmacenFecha) destino).agregarDias((int) dias);
+            return true;
+        }
+    },
+    CATEGORICO {
+        @Override
+        boolean esValido(byte[] bytes, int largo) {
+            return true;
+        }
+
+        @Override
+        AlmacenColumna crearAlmacen(int capacidad) {
+            return new AlmacenDiccionario(capacidad);
+        }
+
+        @Override
+        boolean cargar(byte[] bytes, int largo, AlmacenColumna destino) {
+            destino.agregar(new String(bytes, 0, largo, StandardCharsets.UTF_8));
+            return true;
+        }
+    },
+    TEXTO {
+        @Override
+        boolean esValido(byte[] bytes, int largo) {
+            return true;
+        }
+
+        @Override
+        AlmacenColumna crearAlmacen(int capacidad) {
+            return new AlmacenTexto(capacidad);
+        }
+
+        @Override
+        boolean cargar(byte[] bytes, int largo, AlmacenColumna destino) {
+            destino.agregar(new String(bytes, 0, largo, StandardCharsets.UTF_8));
+            return true;
+        }
+    };
+
+    /**
+     * Indica si el campo no nulo puede convertirse a este tipo.
+     */
+    abstract boolean esValido(byte[] bytes, int largo);
+
+    /**
+     * Crea un almacenamiento vacío para los valores de este tipo.
+     */
+    abstract AlmacenColumna crearAlmacen(int capacidad);
+
+    /**
+     * Convierte el campo no nulo y lo agrega al almacenamiento.
+     *
+     * @return {@code false} si el campo no es válido para este tipo; en ese caso no se agrega nada.
+     */
+    abstract boolean cargar(byte[] bytes, int largo, AlmacenColumna destino);
+}
@@ -0,0 +1,11 @@
+/**
+ * Tipos de combinación (join) entre dos tablas por una columna clave.
+ */
+enum TipoCombinacion {
+    /** Sólo las filas de la tabla izquierda que tienen pareja, una vez por cada pareja. */
+    INTERNA,
+    /** Todas las filas de la tabla izquierda; las que no tienen pareja llevan nulos en las columnas de la derecha. */
+    IZQUIERDA,
+    /** Sólo las filas de la tabla izquierda que no tienen pareja, con las columnas de la izquierda. */
+    ANTI
+}
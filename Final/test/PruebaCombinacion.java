@@ -0,0 +1,55 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.Test;
+
+class PruebaCombinacion {
+    private static Tabla tabla(String nombre, int filas, IntFunction<Object> clave) {
+        Object[][] datos = new Object[filas + 1][];
+        datos[0] = new Object[] {"clave", "fila"};
+        for (int i = 1; i <= filas; i++) {
+            datos[i] = new Object[] {clave.apply(i - 1), i - 1};
+        }
+        return new Tabla(nombre, datos);
+    }
+
+    private static List<Object> columna(Tabla tabla, String nombre) {
+        List<Object> valores = new ArrayList<>();
+        for (int i = 0; i < tabla.getFilas(); i++) {
+            valores.add(tabla.getValor(i, nombre));
+        }
+        return valores;
+    }
+
+    @Test
+    void antiConPocasClavesNoFormaLosPares() {
+        // Con pares serían 150.000 × 150.000 / 2 parejas; sólo buscando si la clave existe es inmediato
+        int filas = 300_000;
+        Tabla izquierda = tabla("izquierda", filas, i -> i % 3 == 2 ? null : i % 3);
+        Tabla derecha = tabla("derecha", filas, i -> i % 2 == 0 ? 0 : null);
+
+        Tabla anti = izquierda.combinar(derecha, "clave", TipoCombinacion.ANTI);
+        assertEquals(List.of("clave", "fila"), anti.getColumnas().stream().map(Columna::getNombre).toList());
+        assertEquals(2 * filas / 3, anti.getFilas());
+        for (int i = 0; i < anti.getFilas(); i++) {
+            assertEquals(3 * (i / 2) + 1 + i % 2, anti.getValor(i, "fila"));
+        }
+    }
+
+    @Test
+    void antiConservaElOrdenYLosNulos() {
+        Tabla izquierda = tabla("izquierda", 8, i -> i == 5 ? null : "k" + (i % 4));
+        Tabla derecha = tabla("derecha", 6, i -> i == 0 ? null : "k" + (i % 2 == 0 ? 3 : 1));
+
+        Tabla anti = izquierda.combinar(derecha, "clave", TipoCombinacion.ANTI);
+        assertEquals(List.of(0, 2, 4, 5, 6), columna(anti, "fila"));
+        assertEquals(List.of("k0", "k2", "k0", "k2"), columna(anti, "clave").stream().filter(v -> v != null).toList());
+
+        Tabla ordenadas = tabla("ordenadas", 10, i -> i / 3);
+        Tabla pares = tabla("pares", 5, i -> 2 * i);
+        assertEquals(List.of(3, 4, 5, 9), columna(ordenadas.combinar(pares, "clave", TipoCombinacion.ANTI), "fila"));
+    }
+}
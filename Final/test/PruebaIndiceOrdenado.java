@@ -0,0 +1,73 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.Test;
+
+class PruebaIndiceOrdenado {
+    private static Columna<?> columna(int filas, IntFunction<Object> valor) {
+        Object[][] datos = new Object[filas + 1][];
+        datos[0] = new Object[] {"c"};
+        for (int i = 1; i <= filas; i++) {
+            datos[i] = new Object[] {valor.apply(i - 1)};
+        }
+        return new Tabla("t", datos).getColumna("c");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int[] recorrer(Columna<?> columna, Comparable minimo, Comparable maximo) {
+        return java.util.stream.IntStream.range(0, columna.getTamanio())
+                .filter(i -> !columna.esNulo(i))
+                .filter(i -> minimo.compareTo(columna.getValor(i)) <= 0 && maximo.compareTo(columna.getValor(i)) >= 0)
+                .toArray();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static void assertRangos(Columna<?> columna, Comparable[][] rangos) {
+        IndiceOrdenado indice = new IndiceOrdenado(columna);
+        for (Comparable[] rango : rangos) {
+            assertArrayEquals(recorrer(columna, rango[0], rango[1]), indice.buscarEnRango(rango[0], rango[1]));
+        }
+    }
+
+    @Test
+    void enterosConNulosYRepetidos() {
+        Random azar = new Random(1);
+        Columna<?> columna = columna(5000, i -> i % 11 == 0 ? null : azar.nextInt(2000) - 1000);
+        assertRangos(columna, new Comparable[][] {{-1000, 1000}, {-5, 5}, {0, 0}, {7, 3}, {Integer.MIN_VALUE, -999}, {999, Integer.MAX_VALUE}});
+        assertThrows(ClassCastException.class, () -> new IndiceOrdenado(columna).buscarEnRango(1.0, 2.0));
+    }
+
+    @Test
+    void decimalesConNegativosYCeros() {
+        Random azar = new Random(2);
+        Columna<?> columna = columna(5000, i -> i % 13 == 0 ? null : i % 17 == 0 ? -0.0 : (azar.nextDouble() - 0.5) * 100);
+        assertRangos(columna, new Comparable[][] {{-50.0, 50.0}, {-0.0, 0.0}, {0.0, 0.0}, {-1.5, 2.25}, {Double.NEGATIVE_INFINITY, -10.0}});
+    }
+
+    @Test
+    void fechasYBooleanos() {
+        LocalDate base = LocalDate.of(2000, 1, 1);
+        Columna<?> fechas = columna(3000, i -> i % 7 == 0 ? null : base.plusDays((i * 37L) % 900 - 450));
+        assertRangos(fechas, new Comparable[][] {{base.minusDays(10), base.plusDays(10)}, {base, base}, {LocalDate.MIN, base}});
+
+        Columna<?> booleanos = columna(1000, i -> i % 5 == 0 ? null : i % 3 == 0);
+        assertRangos(booleanos, new Comparable[][] {{false, false}, {false, true}, {true, true}});
+    }
+
+    @Test
+    void textos() {
+        Columna<?> textos = columna(3000, i -> i % 9 == 0 ? null : "v" + (i * 31 % 500));
+        assertRangos(textos, new Comparable[][] {{"v1", "v3"}, {"v100", "v100"}, {"a", "z"}});
+    }
+
+    @Test
+    void vistaFiltrada() {
+        Tabla tabla = new Tabla("t", new Object[][] {{"c"}, {5}, {1}, {null}, {3}, {4}, {2}});
+        Columna<?> vista = tabla.filtrarPorRango("c", 2, 5).getColumna("c");
+        assertRangos(vista, new Comparable[][] {{3, 4}, {1, 2}, {6, 9}});
+    }
+}
@@ -0,0 +1,117 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PruebaLectorCSV {
+    @TempDir
+    Path carpeta;
+
+    /**
+     * Un archivo con campos entre comillas que contienen comas, comillas escapadas y saltos de línea, de modo que
+     * con fragmentos muy chicos los cortes caen dentro de esos campos y en medio de los registros.
+     */
+    private Path escribirArchivo(int filas) throws IOException {
+        StringBuilder texto = new StringBuilder("id,nombre,nota,ok\n");
+        for (int i = 0; i < filas; i++) {
+            String nombre = switch (i % 4) {
+                case 0 -> "\"Pérez, Ana " + i + "\"";
+                case 1 -> "\"dice \"\"hola\"\"\nen dos líneas\"";
+                case 2 -> "simple" + i;
+                default -> "";
+            };
+            String nota = i % 5 == 0 ? "" : (i % 10) + ".5";
+            texto.append(i).append(',').append(nombre).append(',').append(nota).append(',').append(i % 2 == 0).append('\n');
+        }
+        Path ruta = carpeta.resolve("datos.csv");
+        Files.writeString(ruta, texto.toString(), StandardCharsets.UTF_8);
+        return ruta;
+    }
+
+    private static void assertMismasColumnas(List<Columna<Object>> esperadas, List<Columna<Object>> obtenidas) {
+        assertEquals(esperadas.size(), obtenidas.size());
+        for (int c = 0; c < esperadas.size(); c++) {
+            Columna<Object> esperada = esperadas.get(c);
+            Columna<Object> obtenida = obtenidas.get(c);
+            assertEquals(esperada.getNombre(), obtenida.getNombre());
+            assertEquals(esperada.getTamanio(), obtenida.getTamanio(), esperada.getNombre());
+            for (int i = 0; i < esperada.getTamanio(); i++) {
+                assertEquals(esperada.getValor(i), obtenida.getValor(i), esperada.getNombre() + " fila " + i);
+            }
+        }
+    }
+
+    @Test
+    void fragmentosChicosLeenLoMismoQueUnSoloFragmento() throws IOException {
+        String ruta = escribirArchivo(500).toString();
+        List<Columna<Object>> esperadas = new LectorCSV(ruta, 1).leer();
+        assertEquals(500, esperadas.get(0).getTamanio());
+        assertEquals("dice \"hola\"\nen dos líneas", esperadas.get(1).getValor(1));
+
+        for (long maximo : new long[] {7, 13, 64, 1000}) {
+            assertMismasColumnas(esperadas, new LectorCSV(ruta, 1, maximo).leer());
+            assertMismasColumnas(esperadas, new LectorCSV(ruta, 0, maximo).leer());
+        }
+    }
+
+    @Test
+    void muestraConFragmentosChicosTomaRegistrosCompletos() throws IOException {
+        String ruta = escribirArchivo(200).toString();
+        List<Columna<Object>> completas = new LectorCSV(ruta, 1).leer();
+        List<Columna<Object>> muestra = new LectorCSV(ruta, 1, 13).muestrear(50, 7);
+        assertEquals(50, muestra.get(0).getTamanio());
+        for (int i = 0; i < 50; i++) {
+            int fila = (Integer) muestra.get(0).getValor(i);
+            for (int c = 1; c < completas.size(); c++) {
+                assertEquals(completas.get(c).getValor(fila), muestra.get(c).getValor(i));
+            }
+        }
+    }
+
+    @Test
+    void rechazaTamanioMaximoInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> new LectorCSV("x.csv", 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new LectorCSV("x.csv", 0, 1L << 31));
+    }
+
+    @Test
+    void textosVaciosYNAConservanSuValorAlReleerlos() throws IOException {
+        String[] textos = {"", "NA", "na", null, "x", "\"NA\"", "y"};
+        Object[][] datos = new Object[201][];
+        datos[0] = new Object[] {"id", "texto", "nota"};
+        for (int i = 1; i <= 200; i++) {
+            datos[i] = new Object[] {i - 1, textos[(i - 1) % textos.length], i % 4 == 0 ? null : i * 0.5};
+        }
+        String ruta = carpeta.resolve("textos.csv").toString();
+        new EscritorCSV(ruta).escribir(new Tabla("t", datos));
+
+        List<Columna<Object>> leidas = new LectorCSV(ruta, 1).leer();
+        for (int i = 0; i < 200; i++) {
+            assertEquals(textos[i % textos.length], leidas.get(1).getValor(i), "fila " + i);
+            assertEquals((i + 1) % 4 == 0 ? null : (i + 1) * 0.5, leidas.get(2).getValor(i), "fila " + i);
+        }
+        List<Columna<Object>> muestra = new LectorCSV(ruta, 1, 64).muestrear(30, 3);
+        for (int i = 0; i < 30; i++) {
+            int fila = (Integer) muestra.get(0).getValor(i);
+            assertEquals(textos[fila % textos.length], muestra.get(1).getValor(i));
+        }
+
+        // Sin comillas, los campos vacíos y NA siguen siendo nulos
+        Path crudo = carpeta.resolve("crudo.csv");
+        Files.writeString(crudo, "a,b\nx,1\n,2\nNA,\"\"\n\"NA\",NA\n", StandardCharsets.UTF_8);
+        List<Columna<Object>> crudas = new LectorCSV(crudo.toString(), 1).leer();
+        assertEquals(Arrays.asList("x", null, null, "NA"), IntStream.range(0, 4)
+                .mapToObj(crudas.get(0)::getValor).toList());
+        assertEquals(Arrays.asList(1, 2, null, null), IntStream.range(0, 4)
+                .mapToObj(crudas.get(1)::getValor).toList());
+    }
+}
@@ -0,0 +1,63 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class PruebaOrdenamiento {
+    private static Tabla tablaDeTextos(int filas, long semilla) {
+        Random azar = new Random(semilla);
+        Object[][] datos = new Object[filas + 1][];
+        datos[0] = new Object[] {"texto", "id"};
+        for (int i = 1; i <= filas; i++) {
+            String texto = azar.nextInt(10) == 0 ? null : "v" + azar.nextInt(filas / 3) + (azar.nextBoolean() ? "ñ" : "");
+            datos[i] = new Object[] {texto, i};
+        }
+        return new Tabla("t", datos);
+    }
+
+    /** El orden esperado: estable, con los nulos al final en orden ascendente y al principio en descendente. */
+    private static int[] ordenEsperado(Tabla tabla, boolean ascendente) {
+        Comparator<String> valores = ascendente ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        Comparator<String> conNulos = ascendente ? Comparator.nullsLast(valores) : Comparator.nullsFirst(valores);
+        return IntStream.range(0, tabla.getFilas()).boxed()
+                .sorted(Comparator.comparing(i -> (String) tabla.getValor(i, "texto"), conNulos))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    void ordenaTextosComoCompareTo() {
+        for (int filas : new int[] {50, 20_000}) {
+            Tabla tabla = tablaDeTextos(filas, filas);
+            for (boolean ascendente : new boolean[] {true, false}) {
+                int[] orden = new Ordenamiento(tabla).obtenerOrden(List.of("texto"), List.of(ascendente));
+                assertArrayEquals(ordenEsperado(tabla, ascendente), orden);
+            }
+        }
+    }
+
+    @Test
+    void ordenaTextosDeUnaVista() {
+        Tabla vista = tablaDeTextos(3000, 5).filtrarPorRango("id", 100, 2500);
+        int[] orden = new Ordenamiento(vista).obtenerOrden(List.of("texto"), List.of(true));
+        assertArrayEquals(ordenEsperado(vista, true), orden);
+    }
+
+    @Test
+    void primerosCoincidenConElOrdenCompleto() {
+        Tabla tabla = tablaDeTextos(5000, 9);
+        Ordenamiento ordenamiento = new Ordenamiento(tabla);
+        for (boolean ascendente : new boolean[] {true, false}) {
+            List<String> columnas = List.of("texto", "id");
+            List<Boolean> criterios = List.of(ascendente, !ascendente);
+            int[] completo = ordenamiento.obtenerOrden(columnas, criterios);
+            for (int k : new int[] {1, 10, 600, 5000}) {
+                assertArrayEquals(Arrays.copyOf(completo, k), ordenamiento.obtenerPrimeros(columnas, criterios, k));
+            }
+        }
+    }
+}
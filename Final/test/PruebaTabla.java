@@ -0,0 +1,162 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PruebaTabla {
+    @TempDir
+    Path carpeta;
+
+    private static Tabla tablaConNulos(String nombre, int filas) {
+        Object[][] datos = new Object[filas + 1][];
+        datos[0] = new Object[] {"id", "nota"};
+        for (int i = 1; i <= filas; i++) {
+            datos[i] = new Object[] {i, i % 3 == 0 ? null : i * 0.5};
+        }
+        return new Tabla(nombre, datos);
+    }
+
+    private static List<String> almacenes(Tabla tabla) {
+        return tabla.getColumnas().stream().map(Columna::getNombreAlmacen).toList();
+    }
+
+    @Test
+    void eliminarNAsNoCompactaLasColumnasConcatenadas() {
+        Tabla concatenada = new Tabla("c", tablaConNulos("a", 30), tablaConNulos("b", 30));
+        assertEquals(List.of("Trozos", "Trozos"), almacenes(concatenada));
+
+        Tabla sinNAs = concatenada.eliminarFilasConNAs();
+        assertEquals(40, sinNAs.getFilas());
+        assertEquals(2, sinNAs.getValor(1, "id"));
+        assertEquals(List.of("Trozos", "Trozos"), almacenes(concatenada));
+
+        assertEquals(40, concatenada.eliminarFilasConNAs("nota").getFilas());
+        assertEquals(20, concatenada.leerNAs().size());
+        assertEquals(List.of("Trozos", "Trozos"), almacenes(concatenada));
+    }
+
+    @Test
+    void eliminarNAsNoCargaLasColumnasMapeadas() {
+        String ruta = carpeta.resolve("tabla.bin").toString();
+        tablaConNulos("a", 30).guardarEnBinario(ruta);
+        Tabla abierta = Tabla.abrirBinario("a", ruta);
+        assertEquals(List.of("Mapeado", "Mapeado"), almacenes(abierta));
+
+        Tabla sinNAs = abierta.eliminarFilasConNAs();
+        assertEquals(20, sinNAs.getFilas());
+        assertNull(abierta.eliminarFilasConNAs("id"));
+        assertEquals(10, abierta.leerNAs().size());
+        assertEquals(List.of("Mapeado", "Mapeado"), almacenes(abierta));
+    }
+
+    @Test
+    void cadenaDeReasignacionesCopiaUnaVezPorPaso() {
+        RegistroMetricasMemoria registro = (RegistroMetricasMemoria) Telemetria.getRegistro();
+        Tabla original = tablaConNulos("a", 100);
+        long antes = registro.getContador("columna.copiasEnEscritura");
+
+        Tabla paso1 = original.reasignarValor("nota", 0, 10.0);
+        Tabla paso2 = paso1.reasignarValor("nota", 1, 20.0);
+        assertEquals(2, registro.getContador("columna.copiasEnEscritura") - antes);
+
+        // Cada paso liberó el almacenamiento que copió, así que la tabla anterior vuelve a ser su única usuaria
+        original.getColumna("nota").modificarValor(3, 40.0);
+        paso1.getColumna("nota").modificarValor(2, 30.0);
+        assertEquals(2, registro.getContador("columna.copiasEnEscritura") - antes);
+
+        assertEquals(0.5, original.getValor(0, "nota"));
+        assertEquals(40.0, original.getValor(3, "nota"));
+        assertEquals(10.0, paso1.getValor(0, "nota"));
+        assertEquals(30.0, paso1.getValor(2, "nota"));
+        assertEquals(2.0, paso1.getValor(3, "nota"));
+        assertEquals(10.0, paso2.getValor(0, "nota"));
+        assertEquals(20.0, paso2.getValor(1, "nota"));
+        assertNull(paso2.getValor(2, "nota"));
+
+        // La columna que ningún paso modificó sigue compartida y se copia al modificarla
+        paso2.getColumna("id").modificarValor(0, -1);
+        assertEquals(3, registro.getContador("columna.copiasEnEscritura") - antes);
+        assertEquals(1, original.getValor(0, "id"));
+    }
+
+    private static String salidaDe(Runnable accion) {
+        PrintStream anterior = System.out;
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(salida, true, StandardCharsets.UTF_8));
+        try {
+            accion.run();
+        } finally {
+            System.setOut(anterior);
+        }
+        return salida.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void getTipoDatoInformaSoloConLosMensajesActivos() {
+        Tabla tabla = tablaConNulos("a", 5);
+        assertEquals(Integer.class, tabla.getColumna("id").getTipoDeDato());
+        assertEquals("", salidaDe(() -> tabla.getColumna("nota").getTipoDeDato()));
+
+        assertTrue(salidaDe(tabla::getTipoDato).contains("id es: Integer"));
+        Telemetria.setMensajes(false);
+        try {
+            assertEquals("", salidaDe(tabla::getTipoDato));
+            assertEquals("", salidaDe(() -> tabla.getTipoDato("nota")));
+        } finally {
+            Telemetria.setMensajes(true);
+        }
+    }
+
+    @Test
+    void getColumnaNoQuedaDesactualizadaConLaListaDeColumnas() {
+        Tabla tabla = tablaConNulos("a", 5);
+        Columna<?> id = tabla.getColumna("id");
+        List<Columna<?>> columnas = tabla.getColumnas();
+        Columna<?> otra = new Columna<>("otra");
+        assertThrows(UnsupportedOperationException.class, () -> columnas.set(0, otra));
+        assertThrows(UnsupportedOperationException.class, () -> columnas.remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> columnas.add(otra));
+        assertSame(id, tabla.getColumna("id"));
+        assertNull(tabla.getColumna("otra"));
+
+        Tabla sinId = tabla.eliminarColumna("id");
+        assertNull(sinId.getColumna("id"));
+        assertSame(sinId.getColumnas().get(0), sinId.getColumna("nota"));
+    }
+
+    @Test
+    void guardarSobreUnArchivoAbiertoNoRompeLaTablaMapeada() throws IOException {
+        int filas = 200_000;
+        Object[][] datos = new Object[filas + 1][];
+        datos[0] = new Object[] {"id", "S"};
+        for (int i = 1; i <= filas; i++) {
+            datos[i] = new Object[] {i - 1, "texto " + (i - 1)};
+        }
+        String ruta = carpeta.resolve("tabla.bin").toString();
+        new Tabla("t", datos).guardarEnBinario(ruta);
+
+        Tabla abierta = Tabla.abrirBinario("t", ruta);
+        abierta.filtrarPorRango("id", 0, 9).guardarEnBinario(ruta);
+        assertEquals("texto 199999", abierta.getValor(filas - 1, "S"));
+        assertEquals(filas, abierta.getFilas());
+
+        // Guardar la misma tabla mapeada sobre su propio archivo también lee los datos completos
+        abierta.guardarEnBinario(ruta);
+        assertEquals("texto 123456", Tabla.abrirBinario("t", ruta).getValor(123_456, "S"));
+        try (var archivos = Files.list(carpeta)) {
+            assertEquals(List.of("tabla.bin"), archivos.map(archivo -> archivo.getFileName().toString()).toList());
+        }
+    }
+}